@@ -2,11 +2,8 @@ package com.rodrigo.conversor;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.http.HttpResponse;
 
 public class APITest {
     public static void main(String[] args) {
@@ -15,31 +12,19 @@ public class APITest {
         String apiURL = "https://open.er-api.com/v6/latest/USD";
 
         try {
-            // Realizar la solicitud HTTP
-            URL url = new URL(apiURL);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
+            // Realizar la solicitud HTTP con el cliente compartido de la aplicación
+            ProveedorClienteHTTP proveedor = ProveedorClienteHTTP.predeterminado();
+            HttpResponse<String> response = proveedor.obtenerCliente()
+                    .send(proveedor.nuevaSolicitud(apiURL).build(), HttpResponse.BodyHandlers.ofString());
 
             // Verificar código de respuesta
-            int responseCode = connection.getResponseCode();
-            System.out.println("📡 Código de respuesta: " + responseCode);
+            int responseCode = response.statusCode();
+            System.out.println("📡 Código de respuesta: " + responseCode + " (" + response.version() + ")");
 
             if (responseCode == 200) {
-                // Leer la respuesta
-                BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(connection.getInputStream())
-                );
-
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                reader.close();
-
                 // Procesar JSON con Gson
                 Gson gson = new Gson();
-                JsonObject jsonResponse = gson.fromJson(response.toString(), JsonObject.class);
+                JsonObject jsonResponse = gson.fromJson(response.body(), JsonObject.class);
 
                 // Mostrar información básica
                 System.out.println("✅ Resultado: " + jsonResponse.get("result").getAsString());
@@ -73,6 +58,9 @@ public class APITest {
 
         } catch (IOException e) {
             System.out.println("❌ Error de conexión: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("❌ Solicitud interrumpida");
         } catch (Exception e) {
             System.out.println("❌ Error general: " + e.getMessage());
         }
@@ -0,0 +1,206 @@
+package com.rodrigo.conversor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Servicio que mantiene las tasas al día mientras la aplicación está abierta
+ * Programa la descarga justo después de time_next_update_unix (más un desfase aleatorio para
+ * no coincidir con otros clientes), reintenta con espera exponencial si la API falla o todavía no
+ * publicó datos nuevos, y publica cada respuesta nueva en los motores registrados, que la reemplazan
+ * de forma atómica.
+ */
+public class ActualizadorTasas implements AutoCloseable {
+
+    public static final Duration DESFASE_MAXIMO_PREDETERMINADO = Duration.ofSeconds(30);
+    public static final Duration ESPERA_INICIAL_PREDETERMINADA = Duration.ofSeconds(5);
+    public static final Duration ESPERA_MAXIMA_PREDETERMINADA = Duration.ofMinutes(10);
+
+    private final CacheTasas cache;
+    private final String monedaBase;
+    private final long desfaseMaximoMillis;
+    private final long esperaInicialMillis;
+    private final long esperaMaximaMillis;
+    private final Clock reloj;
+    private final ScheduledExecutorService planificador;
+
+    private final List<MotorConversion> motores = new CopyOnWriteArrayList<>();
+    private final List<Consumer<RespuestaAPI>> oyentes = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong actualizaciones = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private volatile RespuestaAPI ultimaRespuesta;
+    private volatile long proximaEjecucionMillis;
+    // Sólo los usa el hilo del planificador (y iniciar, antes de la primera ejecución)
+    private int fallosConsecutivos;
+    private int consultasSinNovedades;
+    private ScheduledFuture<?> programada;
+
+    public ActualizadorTasas(CacheTasas cache, String monedaBase) {
+        this(cache, monedaBase, DESFASE_MAXIMO_PREDETERMINADO, ESPERA_INICIAL_PREDETERMINADA,
+                ESPERA_MAXIMA_PREDETERMINADA, Clock.systemUTC());
+    }
+
+    /**
+     * @param cache Cache por la que se descargan las tasas (comparte descargas con el resto de la aplicación)
+     * @param monedaBase Moneda base a mantener actualizada
+     * @param desfaseMaximo Desfase aleatorio máximo que se suma a cada programación
+     * @param esperaInicial Espera tras el primer fallo o consulta sin novedades; se duplica en cada repetición
+     * @param esperaMaxima Tope de la espera entre reintentos
+     * @param reloj Reloj con el que se calcula cuánto falta para la próxima actualización
+     */
+    public ActualizadorTasas(CacheTasas cache, String monedaBase, Duration desfaseMaximo,
+                             Duration esperaInicial, Duration esperaMaxima, Clock reloj) {
+        this.cache = cache;
+        this.monedaBase = monedaBase;
+        this.desfaseMaximoMillis = desfaseMaximo.toMillis();
+        this.esperaInicialMillis = esperaInicial.toMillis();
+        this.esperaMaximaMillis = esperaMaxima.toMillis();
+        this.reloj = reloj;
+        this.planificador = Executors.newSingleThreadScheduledExecutor(tarea ->
+                Thread.ofPlatform().daemon().name("actualizador-tasas-" + monedaBase).unstarted(tarea));
+    }
+
+    /**
+     * Registra un motor que recibirá cada juego de tasas nuevo mediante actualizarTasas
+     */
+    public void registrar(MotorConversion motor) {
+        motores.add(motor);
+    }
+
+    /**
+     * Agrega un oyente que se invoca después de publicar tasas nuevas (ej: guardar una instantánea)
+     */
+    public void agregarOyente(Consumer<RespuestaAPI> oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Comienza el ciclo de actualización
+     * @param actual Respuesta con la que ya se construyeron los motores, o null para descargar enseguida
+     */
+    public void iniciar(RespuestaAPI actual) {
+        ultimaRespuesta = actual;
+        programar(actual == null ? 0 : hastaProximaActualizacion(actual));
+    }
+
+    /**
+     * Fuerza una descarga inmediata, sin esperar la próxima actualización programada
+     * Antes de {@link #iniciar(RespuestaAPI)} también descarga, y desde ahí sigue el ciclo normal.
+     */
+    public void actualizarAhora() {
+        cache.invalidar(monedaBase);
+        planificador.execute(() -> {
+            if (programada != null) {
+                programada.cancel(false);
+            }
+            ejecutar();
+        });
+    }
+
+    public long obtenerActualizaciones() { return actualizaciones.get(); }
+
+    public long obtenerFallos() { return fallos.get(); }
+
+    public RespuestaAPI obtenerUltimaRespuesta() { return ultimaRespuesta; }
+
+    /**
+     * Momento (epoch en milisegundos) de la próxima descarga programada
+     */
+    public long obtenerProximaEjecucionMillis() { return proximaEjecucionMillis; }
+
+    @Override
+    public void close() {
+        planificador.shutdownNow();
+    }
+
+    private void ejecutar() {
+        RespuestaAPI respuesta;
+        try {
+            respuesta = cache.obtener(monedaBase);
+        } catch (RuntimeException e) {
+            reintentarTrasFallo();
+            return;
+        }
+        if (respuesta.esRespaldo()) {
+            // El proveedor falló y se respondió con las tasas anteriores: no hay nada nuevo que publicar
+            reintentarTrasFallo();
+            return;
+        }
+        fallosConsecutivos = 0;
+        boolean sinNovedades = mismosDatos(respuesta, ultimaRespuesta);
+
+        if (respuesta != ultimaRespuesta) {
+            ultimaRespuesta = respuesta;
+            for (MotorConversion motor : motores) {
+                motor.actualizarTasas(respuesta.getTasasConversion());
+            }
+            actualizaciones.incrementAndGet();
+            for (Consumer<RespuestaAPI> oyente : oyentes) {
+                try {
+                    oyente.accept(respuesta);
+                } catch (RuntimeException e) {
+                    // Un oyente que falla no debe cortar el ciclo de actualización
+                }
+            }
+        }
+        long hastaProxima = hastaProximaActualizacion(respuesta);
+        if (hastaProxima == 0 && sinNovedades) {
+            // Ya pasó time_next_update_unix pero la API sigue sin publicar: se espera cada vez más, como ante un fallo
+            programar(esperaExponencial(++consultasSinNovedades));
+            return;
+        }
+        consultasSinNovedades = 0;
+        programar(Math.max(hastaProxima, esperaInicialMillis));
+    }
+
+    private void reintentarTrasFallo() {
+        fallos.incrementAndGet();
+        programar(esperaExponencial(++fallosConsecutivos));
+    }
+
+    private long esperaExponencial(int intentos) {
+        long espera = esperaInicialMillis << Math.min(intentos - 1, 20);
+        return Math.min(espera, esperaMaximaMillis);
+    }
+
+    /**
+     * true si la respuesta no trae nada nuevo: la misma instancia (ej: cache o un 304) o el mismo time_last_update_unix
+     */
+    private static boolean mismosDatos(RespuestaAPI respuesta, RespuestaAPI anterior) {
+        if (anterior == null) {
+            return false;
+        }
+        return respuesta == anterior || (respuesta.getUltimaActualizacionUnix() > 0
+                && respuesta.getUltimaActualizacionUnix() == anterior.getUltimaActualizacionUnix());
+    }
+
+    private long hastaProximaActualizacion(RespuestaAPI respuesta) {
+        long proxima = respuesta.getProximaActualizacionUnix() * 1000;
+        if (proxima <= 0) {
+            return CacheTasas.VIGENCIA_PREDETERMINADA.toMillis();
+        }
+        return Math.max(0, proxima - reloj.millis());
+    }
+
+    private void programar(long demoraMillis) {
+        long desfase = desfaseMaximoMillis > 0 ? ThreadLocalRandom.current().nextLong(desfaseMaximoMillis + 1) : 0;
+        long demora = demoraMillis + desfase;
+        proximaEjecucionMillis = reloj.millis() + demora;
+        try {
+            programada = planificador.schedule(this::ejecutar, demora, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // El actualizador ya fue cerrado
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.rodrigo.conversor;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Frente de microlotes para muchos hilos que piden conversiones sueltas
+ * Las solicitudes se encolan sin bloqueos en un buffer circular preasignado (al estilo Disruptor:
+ * varios productores reclaman secuencias con CAS y un único consumidor las lee en orden) y el consumidor
+ * las convierte en lotes con {@link TablaTasas#convertirLote}, validando monedas y leyendo la tabla vigente
+ * una sola vez por lote. Cada solicitud recibe su CompletableFuture, que se completa en el hilo consumidor:
+ * el trabajo pesado que dependa del resultado conviene encadenarlo con las variantes *Async.
+ */
+public final class AgrupadorConversiones implements Closeable {
+
+    public static final int CAPACIDAD_PREDETERMINADA = 1 << 14;
+
+    // Bit del cursor que marca el cierre: a partir de ahí ningún productor puede reclamar
+    private static final long CERRADO = 1L << 62;
+
+    private static final int ACTIVO = 0;
+    private static final int ESPERANDO_VACIO = 1;
+    private static final int ESPERANDO_TIEMPO = 2;
+
+    // Tamaños de lote por potencia de dos: 1, 2-3, 4-7, ... hasta 2^16 o más
+    private static final int CUBETAS_TAMANIO = 18;
+
+    /**
+     * Cuándo se vacía un lote: al juntar tamanioMaximo solicitudes o cuando la más vieja lleva
+     * esperaMaxima en la cola, lo que ocurra primero
+     * @param tamanioMaximo Solicitudes por lote como máximo
+     * @param esperaMaxima Tiempo que se retiene un lote incompleto esperando más solicitudes
+     */
+    public record PoliticaVaciado(int tamanioMaximo, Duration esperaMaxima) {
+
+        public PoliticaVaciado {
+            if (tamanioMaximo < 1) {
+                throw new IllegalArgumentException("El tamaño máximo de lote debe ser mayor que cero: " + tamanioMaximo);
+            }
+            if (esperaMaxima.isNegative()) {
+                throw new IllegalArgumentException("La espera máxima no puede ser negativa: " + esperaMaxima);
+            }
+        }
+
+        /**
+         * Sin retención: cada lote lleva lo que ya esté encolado, hasta tamanioMaximo
+         * Bajo carga los lotes crecen solos y con poca carga no se agrega latencia.
+         */
+        public static PoliticaVaciado inmediata(int tamanioMaximo) {
+            return new PoliticaVaciado(tamanioMaximo, Duration.ZERO);
+        }
+    }
+
+    private final ConversorMonedas conversor;
+    private final PoliticaVaciado politica;
+    private final long esperaNanos;
+    private final int capacidad;
+    private final int mascara;
+
+    // Ranuras del buffer circular, en arreglos paralelos para no crear objetos por solicitud
+    private final double[] cantidades;
+    private final int[] origenes;
+    private final int[] destinos;
+    private final long[] encolados;
+    private final CompletableFuture<Double>[] futuros;
+    // Secuencia publicada en cada ranura; el consumidor lee la ranura cuando coincide con la que espera
+    private final AtomicLongArray publicados;
+
+    private final AtomicLong cursor = new AtomicLong();
+    private volatile long consumido;
+    private volatile int estado = ACTIVO;
+    private final Thread consumidor;
+
+    // Lote en curso, compactado sin las solicitudes rechazadas
+    private final double[] loteCantidades;
+    private final int[] loteOrigenes;
+    private final int[] loteDestinos;
+    private final double[] loteSalida;
+    private final CompletableFuture<Double>[] loteFuturos;
+
+    private final HistogramaLatencia esperaEnCola = new HistogramaLatencia();
+    private final AtomicLongArray tamaniosLote = new AtomicLongArray(CUBETAS_TAMANIO);
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder solicitudes = new LongAdder();
+    private final LongAdder vaciadosPorTamanio = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+
+    public AgrupadorConversiones(ConversorMonedas conversor) {
+        this(conversor, CAPACIDAD_PREDETERMINADA, PoliticaVaciado.inmediata(1024));
+    }
+
+    /**
+     * @param conversor Conversor del que cada lote toma la instantánea de tasas vigente
+     * @param capacidad Ranuras del buffer circular (potencia de dos, al menos el tamaño máximo de lote);
+     *                  con el buffer lleno los productores esperan
+     * @param politica Cuándo vaciar un lote
+     */
+    @SuppressWarnings("unchecked")
+    public AgrupadorConversiones(ConversorMonedas conversor, int capacidad, PoliticaVaciado politica) {
+        if (Integer.bitCount(capacidad) != 1 || capacidad < politica.tamanioMaximo()) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de dos no menor que el lote ("
+                    + politica.tamanioMaximo() + "): " + capacidad);
+        }
+        this.conversor = conversor;
+        this.politica = politica;
+        this.esperaNanos = politica.esperaMaxima().toNanos();
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+        this.cantidades = new double[capacidad];
+        this.origenes = new int[capacidad];
+        this.destinos = new int[capacidad];
+        this.encolados = new long[capacidad];
+        this.futuros = (CompletableFuture<Double>[]) new CompletableFuture<?>[capacidad];
+        this.publicados = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            publicados.set(i, -1);
+        }
+        int tamanio = politica.tamanioMaximo();
+        this.loteCantidades = new double[tamanio];
+        this.loteOrigenes = new int[tamanio];
+        this.loteDestinos = new int[tamanio];
+        this.loteSalida = new double[tamanio];
+        this.loteFuturos = (CompletableFuture<Double>[]) new CompletableFuture<?>[tamanio];
+        this.consumidor = Thread.ofPlatform().daemon().name("agrupador-conversiones").start(this::bucle);
+    }
+
+    /**
+     * Encola una conversión por código de moneda
+     * @return CompletableFuture con el resultado, o fallido con IllegalArgumentException si alguna
+     *         moneda no está disponible en la tabla vigente al procesar el lote
+     */
+    public CompletableFuture<Double> convertir(double cantidad, String monedaOrigen, String monedaDestino) {
+        int idOrigen = IndiceMonedas.buscarId(monedaOrigen);
+        int idDestino = IndiceMonedas.buscarId(monedaDestino);
+        if (idOrigen < 0 || idDestino < 0) {
+            rechazadas.increment();
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Moneda no disponible: "
+                    + (idOrigen < 0 ? monedaOrigen : monedaDestino)));
+        }
+        return convertir(cantidad, idOrigen, idDestino);
+    }
+
+    /**
+     * Encola una conversión con ids de {@link IndiceMonedas}
+     * @return CompletableFuture con el resultado; fallido con IllegalStateException si el agrupador está cerrado
+     */
+    public CompletableFuture<Double> convertir(double cantidad, int idOrigen, int idDestino) {
+        CompletableFuture<Double> futuro = new CompletableFuture<>();
+        long secuencia = reclamar();
+        if (secuencia < 0) {
+            futuro.completeExceptionally(new IllegalStateException("El agrupador de conversiones está cerrado"));
+            return futuro;
+        }
+        int ranura = (int) secuencia & mascara;
+        cantidades[ranura] = cantidad;
+        origenes[ranura] = idOrigen;
+        destinos[ranura] = idDestino;
+        encolados[ranura] = System.nanoTime();
+        futuros[ranura] = futuro;
+        // Escritura volátil: publica la ranura y ordena la lectura de estado que sigue (ver dormir)
+        publicados.set(ranura, secuencia);
+        int esperando = estado;
+        if (esperando == ESPERANDO_VACIO
+                || (esperando == ESPERANDO_TIEMPO && secuencia + 1 - consumido >= politica.tamanioMaximo())) {
+            LockSupport.unpark(consumidor);
+        }
+        return futuro;
+    }
+
+    public PoliticaVaciado obtenerPolitica() {
+        return politica;
+    }
+
+    public long obtenerLotes() {
+        return lotes.sum();
+    }
+
+    public long obtenerSolicitudes() {
+        return solicitudes.sum();
+    }
+
+    public long obtenerRechazadas() {
+        return rechazadas.sum();
+    }
+
+    /**
+     * Solicitudes por lote en promedio, o 0 si todavía no se vació ninguno
+     */
+    public double obtenerTamanioPromedioLote() {
+        long n = lotes.sum();
+        return n == 0 ? 0 : (double) solicitudes.sum() / n;
+    }
+
+    /**
+     * Tiempo que pasan las solicitudes en la cola hasta que su lote empieza a procesarse
+     */
+    public HistogramaLatencia obtenerEsperaEnCola() {
+        return esperaEnCola;
+    }
+
+    /**
+     * Muestra lotes, distribución de tamaños y espera en cola
+     */
+    public void mostrarEstadisticas() {
+        System.out.println("=== AGRUPADOR DE CONVERSIONES ===");
+        System.out.println("⚙️ Política: lotes de hasta " + politica.tamanioMaximo() + ", espera máxima "
+                + politica.esperaMaxima().toNanos() / 1_000 + " µs");
+        System.out.printf("📦 Lotes: %d (%d llenos), %d solicitudes, %.1f por lote%n", lotes.sum(),
+                vaciadosPorTamanio.sum(), solicitudes.sum(), obtenerTamanioPromedioLote());
+        StringBuilder distribucion = new StringBuilder("📊 Tamaños:");
+        for (int i = 0; i < CUBETAS_TAMANIO; i++) {
+            long cantidad = tamaniosLote.get(i);
+            if (cantidad > 0) {
+                distribucion.append(' ').append(1 << i).append(i == 0 ? "" : "-" + ((2 << i) - 1))
+                        .append('=').append(cantidad);
+            }
+        }
+        System.out.println(distribucion);
+        System.out.println("⏳ Espera en cola: " + esperaEnCola.resumen());
+        System.out.println("🚫 Rechazadas: " + rechazadas.sum());
+        System.out.println("=================================");
+    }
+
+    /**
+     * Deja de aceptar solicitudes y espera a que se procesen las ya encoladas
+     */
+    @Override
+    public void close() {
+        cursor.updateAndGet(actual -> actual | CERRADO);
+        LockSupport.unpark(consumidor);
+        try {
+            consumidor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reclama la próxima secuencia, esperando si el buffer está lleno
+     * @return secuencia reclamada, o -1 si el agrupador está cerrado
+     */
+    private long reclamar() {
+        int intentos = 0;
+        while (true) {
+            long actual = cursor.get();
+            if ((actual & CERRADO) != 0) {
+                return -1;
+            }
+            if (actual - consumido >= capacidad) {
+                // Buffer lleno: la ranura todavía no fue leída por el consumidor
+                if (++intentos < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            } else if (cursor.compareAndSet(actual, actual + 1)) {
+                return actual;
+            }
+        }
+    }
+
+    private void bucle() {
+        int tamanioMaximo = politica.tamanioMaximo();
+        long siguiente = 0;
+        while (true) {
+            int disponibles = contarPublicados(siguiente);
+            boolean cerrado = (cursor.get() & CERRADO) != 0;
+            if (disponibles < tamanioMaximo && !cerrado) {
+                if (disponibles == 0) {
+                    dormir(ESPERANDO_VACIO, siguiente, 0);
+                    continue;
+                }
+                long restante = encolados[(int) siguiente & mascara] + esperaNanos - System.nanoTime();
+                if (restante > 0) {
+                    dormir(ESPERANDO_TIEMPO, siguiente, restante);
+                    continue;
+                }
+            }
+            if (disponibles == 0) {
+                // Cerrado: se termina cuando se publicó todo lo reclamado antes del cierre
+                if (siguiente == (cursor.get() & ~CERRADO)) {
+                    return;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            vaciar(siguiente, disponibles);
+            siguiente += disponibles;
+        }
+    }
+
+    /**
+     * Anuncia la espera, vuelve a mirar el buffer y recién entonces se estaciona
+     * Un productor publica y después lee el estado; el consumidor escribe el estado y después lee lo publicado.
+     * Con las dos operaciones volátiles, al menos uno de los dos ve al otro y no se pierde el aviso.
+     */
+    private void dormir(int motivo, long siguiente, long nanos) {
+        estado = motivo;
+        int disponibles = contarPublicados(siguiente);
+        boolean listo = motivo == ESPERANDO_VACIO ? disponibles > 0 : disponibles >= politica.tamanioMaximo();
+        if (!listo && (cursor.get() & CERRADO) == 0) {
+            if (nanos > 0) {
+                LockSupport.parkNanos(this, nanos);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        estado = ACTIVO;
+    }
+
+    /**
+     * Cuenta las ranuras publicadas de forma contigua desde la secuencia indicada, hasta un lote completo
+     */
+    private int contarPublicados(long desde) {
+        int tamanioMaximo = politica.tamanioMaximo();
+        int cantidad = 0;
+        while (cantidad < tamanioMaximo && publicados.get((int) (desde + cantidad) & mascara) == desde + cantidad) {
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Convierte un lote: valida contra una sola instantánea, libera las ranuras y completa los futuros
+     */
+    private void vaciar(long desde, int cantidad) {
+        TablaTasas tabla = conversor.obtenerTabla();
+        long ahora = System.nanoTime();
+        int validas = 0;
+        for (int k = 0; k < cantidad; k++) {
+            int ranura = (int) (desde + k) & mascara;
+            CompletableFuture<Double> futuro = futuros[ranura];
+            futuros[ranura] = null;
+            esperaEnCola.registrar(ahora - encolados[ranura]);
+            int origen = origenes[ranura];
+            int destino = destinos[ranura];
+            if (!tabla.disponible(origen) || !tabla.disponible(destino)) {
+                rechazadas.increment();
+                futuro.completeExceptionally(new IllegalArgumentException("Moneda no disponible: "
+                        + describirMoneda(tabla.disponible(origen) ? destino : origen)));
+                continue;
+            }
+            loteCantidades[validas] = cantidades[ranura];
+            loteOrigenes[validas] = origen;
+            loteDestinos[validas] = destino;
+            loteFuturos[validas] = futuro;
+            validas++;
+        }
+        // Las ranuras ya se copiaron: los productores pueden reutilizarlas mientras se convierte
+        consumido = desde + cantidad;
+
+        try {
+            tabla.convertirLote(loteCantidades, loteOrigenes, loteDestinos, 0, validas, loteSalida);
+            for (int j = 0; j < validas; j++) {
+                loteFuturos[j].complete(loteSalida[j]);
+            }
+        } catch (RuntimeException e) {
+            // No debería ocurrir con las monedas ya validadas, pero el consumidor no puede morir
+            for (int j = 0; j < validas; j++) {
+                loteFuturos[j].completeExceptionally(e);
+            }
+        }
+        for (int j = 0; j < validas; j++) {
+            loteFuturos[j] = null;
+        }
+
+        lotes.increment();
+        solicitudes.add(cantidad);
+        if (cantidad == politica.tamanioMaximo()) {
+            vaciadosPorTamanio.increment();
+        }
+        tamaniosLote.incrementAndGet(Math.min(CUBETAS_TAMANIO - 1, 31 - Integer.numberOfLeadingZeros(cantidad)));
+    }
+
+    private static String describirMoneda(int id) {
+        return id >= 0 && id < IndiceMonedas.cantidad() ? IndiceMonedas.obtenerCodigo(id) : "id " + id;
+    }
+}
@@ -0,0 +1,695 @@
+package com.rodrigo.conversor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Serie histórica de tasas en un archivo de solo agregado, para convertir en fechas pasadas
+ * Cada agregado escribe un bloque; dentro del bloque los valores van por columna (una moneda tras otra)
+ * comprimidos al estilo Gorilla: los instantes como delta de deltas y cada tasa como XOR contra el valor
+ * anterior de su columna, así una tasa que no cambió ocupa un solo bit. Al abrir, el archivo se mapea en
+ * memoria y se decodifica a una columna double[] por id de {@link IndiceMonedas} más un índice de instantes
+ * ordenado: una conversión es una búsqueda binaria y dos lecturas de arreglo.
+ *
+ * Formato (big-endian):
+ *   int magia "CMHS", short versión, short base empaquetada,
+ *   bloques: int longitud, int CRC32 del contenido, contenido.
+ * Contenido de un bloque (bits): int filas, filas × instante en delta de deltas,
+ *   bit 1 si las monedas son las del bloque anterior o bit 0 + 16 bits cantidad + cantidad × 15 bits de código,
+ *   y por cada moneda sus filas en XOR. Un bloque final truncado o con CRC inválido se descarta al abrir,
+ *   siempre que después no quede ningún bloque válido; un bloque intermedio dañado (en su CRC o en su
+ *   longitud) hace fallar la apertura sin tocar el archivo.
+ */
+public final class AlmacenHistorico implements Closeable {
+
+    private static final int MAGIA = 0x434D4853;
+    private static final short VERSION = 1;
+    private static final int TAMANIO_CABECERA = 4 + 2 + 2;
+    private static final int TAMANIO_CABECERA_BLOQUE = 4 + 4;
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final FileChannel canal;
+    private final String monedaBase;
+    private long tamanio;
+    private long bytesDescartados;
+
+    // Referencias de la compresión: las comparten la escritura y la lectura de bloques
+    private long ultimoInstante;
+    private long ultimoDelta;
+    private long[] ultimosBits = new long[0];
+    private int[] ultimoConjunto = new int[0];
+
+    // Columnas publicadas; un agregado escribe después de la última fila y publica una vista nueva
+    private volatile Vista vista = new Vista(new long[0], new double[0][], 0);
+
+    private record Vista(long[] instantes, double[][] columnas, int cantidad) {
+    }
+
+    private AlmacenHistorico(FileChannel canal, String monedaBase) {
+        this.canal = canal;
+        this.monedaBase = monedaBase;
+    }
+
+    /**
+     * Ruta por defecto del histórico de una moneda base: ~/.conversor-monedas/historico-USD.bin
+     */
+    public static Path rutaPredeterminada(String monedaBase) {
+        return Path.of(System.getProperty("user.home"), ".conversor-monedas", "historico-" + monedaBase + ".bin");
+    }
+
+    /**
+     * Abre el histórico de una moneda base, creándolo si no existe
+     * @param ruta Archivo del histórico
+     * @param monedaBase Moneda base de todas las instantáneas (ej: "USD")
+     * @return AlmacenHistorico con todas las instantáneas válidas ya cargadas
+     * @throws IOException si el archivo no es un histórico o no se puede leer
+     */
+    public static AlmacenHistorico abrir(Path ruta, String monedaBase) throws IOException {
+        int base = IndiceMonedas.empaquetar(monedaBase);
+        if (base < 0) {
+            throw new IllegalArgumentException("Código de moneda inválido: " + monedaBase);
+        }
+        Files.createDirectories(ruta.toAbsolutePath().getParent());
+        FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        AlmacenHistorico almacen = new AlmacenHistorico(canal, monedaBase);
+        try {
+            if (canal.size() == 0) {
+                ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA)
+                        .putInt(MAGIA).putShort(VERSION).putShort((short) base).flip();
+                escribirCompleto(canal, cabecera, 0);
+                canal.force(true);
+                almacen.tamanio = TAMANIO_CABECERA;
+            } else {
+                almacen.cargar(ruta, base);
+            }
+            return almacen;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega una instantánea de la API
+     * @param respuesta Respuesta exitosa con la misma moneda base que el histórico
+     * @return true si se agregó, false si su instante no es posterior al último guardado
+     */
+    public boolean agregar(RespuestaAPI respuesta) throws IOException {
+        return agregarTodas(List.of(respuesta)) == 1;
+    }
+
+    /**
+     * Agrega varias instantáneas en un único bloque, con sus columnas contiguas (ej: importación masiva)
+     * Se ignoran las que no son posteriores a la última guardada.
+     * @param respuestas Respuestas exitosas en orden cronológico
+     * @return int cantidad de instantáneas agregadas
+     */
+    public synchronized int agregarTodas(List<RespuestaAPI> respuestas) throws IOException {
+        List<RespuestaAPI> nuevas = new ArrayList<>();
+        long anterior = vista.cantidad() == 0 ? Long.MIN_VALUE : ultimoInstante;
+        for (RespuestaAPI respuesta : respuestas) {
+            validar(respuesta);
+            if (respuesta.getUltimaActualizacionUnix() > anterior) {
+                nuevas.add(respuesta);
+                anterior = respuesta.getUltimaActualizacionUnix();
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return 0;
+        }
+
+        // Columnas del bloque: todas las monedas de sus filas, ordenadas por código empaquetado
+        TreeMap<Integer, double[]> porCodigo = new TreeMap<>();
+        int filas = nuevas.size();
+        long[] instantes = new long[filas];
+        for (int fila = 0; fila < filas; fila++) {
+            RespuestaAPI respuesta = nuevas.get(fila);
+            instantes[fila] = respuesta.getUltimaActualizacionUnix();
+            for (Map.Entry<String, Double> entrada : respuesta.getTasasConversion().entrySet()) {
+                int codigo = IndiceMonedas.empaquetar(entrada.getKey());
+                if (codigo < 0) {
+                    throw new IllegalArgumentException("Código de moneda inválido: " + entrada.getKey());
+                }
+                porCodigo.computeIfAbsent(codigo, clave -> {
+                    double[] columna = new double[filas];
+                    Arrays.fill(columna, Double.NaN);
+                    return columna;
+                })[fila] = entrada.getValue();
+            }
+        }
+        int[] codigos = new int[porCodigo.size()];
+        double[][] valores = new double[porCodigo.size()][];
+        int columna = 0;
+        for (Map.Entry<Integer, double[]> entrada : porCodigo.entrySet()) {
+            codigos[columna] = entrada.getKey();
+            valores[columna++] = entrada.getValue();
+        }
+
+        byte[] contenido = codificar(instantes, codigos, valores);
+        CRC32 crc = new CRC32();
+        crc.update(contenido);
+        ByteBuffer bloque = ByteBuffer.allocate(TAMANIO_CABECERA_BLOQUE + contenido.length)
+                .putInt(contenido.length).putInt((int) crc.getValue()).put(contenido).flip();
+        escribirCompleto(canal, bloque, tamanio);
+        canal.force(false);
+        tamanio += bloque.limit();
+
+        incorporar(instantes, codigos, valores);
+        return filas;
+    }
+
+    /**
+     * Convierte con las tasas vigentes en un instante: las de la última instantánea no posterior a él
+     * @param cantidad Cantidad a convertir
+     * @param monedaOrigen Moneda de origen (ej: "USD")
+     * @param monedaDestino Moneda de destino (ej: "ARS")
+     * @param instante Momento de la conversión
+     * @return double cantidad convertida
+     */
+    public double convertir(double cantidad, String monedaOrigen, String monedaDestino, Instant instante) {
+        return convertir(cantidad, resolverMoneda(monedaOrigen), resolverMoneda(monedaDestino),
+                instante.getEpochSecond());
+    }
+
+    /**
+     * Convierte usando ids de {@link IndiceMonedas} y segundos unix, sin buscar cadenas
+     */
+    public double convertir(double cantidad, int idOrigen, int idDestino, long segundosUnix) {
+        Vista actual = vista;
+        int fila = buscarFila(actual, segundosUnix);
+        return cantidad * (tasa(actual, idDestino, fila) / tasa(actual, idOrigen, fila));
+    }
+
+    /**
+     * Arma la tabla de tasas vigente en un instante, por ejemplo para un ConversorMonedas de esa fecha
+     */
+    public TablaTasas obtenerTabla(Instant instante) {
+        Vista actual = vista;
+        int fila = buscarFila(actual, instante.getEpochSecond());
+        int[] ids = new int[actual.columnas().length];
+        double[] valores = new double[ids.length];
+        int cantidad = 0;
+        for (int id = 0; id < actual.columnas().length; id++) {
+            double[] columna = actual.columnas()[id];
+            if (columna != null && !Double.isNaN(columna[fila])) {
+                ids[cantidad] = id;
+                valores[cantidad++] = columna[fila];
+            }
+        }
+        return TablaTasas.desdeArreglos(Arrays.copyOf(ids, cantidad), Arrays.copyOf(valores, cantidad));
+    }
+
+    public String obtenerMonedaBase() {
+        return monedaBase;
+    }
+
+    public int cantidadInstantaneas() {
+        return vista.cantidad();
+    }
+
+    /**
+     * @return Instant de la instantánea más antigua, o null si el histórico está vacío
+     */
+    public Instant obtenerPrimerInstante() {
+        Vista actual = vista;
+        return actual.cantidad() == 0 ? null : Instant.ofEpochSecond(actual.instantes()[0]);
+    }
+
+    /**
+     * @return Instant de la instantánea más reciente, o null si el histórico está vacío
+     */
+    public Instant obtenerUltimoInstante() {
+        Vista actual = vista;
+        return actual.cantidad() == 0 ? null : Instant.ofEpochSecond(actual.instantes()[actual.cantidad() - 1]);
+    }
+
+    public synchronized long tamanioEnDisco() {
+        return tamanio;
+    }
+
+    /**
+     * Bytes de un bloque final incompleto que se descartaron al abrir
+     */
+    public long obtenerBytesDescartados() {
+        return bytesDescartados;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+
+    private void cargar(Path ruta, int base) throws IOException {
+        long tamanioArchivo = canal.size();
+        if (tamanioArchivo < TAMANIO_CABECERA || tamanioArchivo > Integer.MAX_VALUE) {
+            throw new IOException("Histórico con tamaño inválido: " + ruta);
+        }
+        ByteBuffer cabecera = leer(0, TAMANIO_CABECERA);
+        if (cabecera.getInt() != MAGIA) {
+            throw new IOException("No es un histórico de tasas: " + ruta);
+        }
+        short version = cabecera.getShort();
+        if (version != VERSION) {
+            throw new IOException("Versión de histórico no soportada: " + version);
+        }
+        int baseGuardada = cabecera.getShort();
+        if (baseGuardada != base) {
+            throw new IllegalArgumentException("El histórico " + ruta + " es de base "
+                    + IndiceMonedas.desempaquetar(baseGuardada) + ", no " + monedaBase);
+        }
+
+        int fin = buscarFinValido(ruta, (int) tamanioArchivo);
+        // Sin cola que descartar se mapea el archivo; si hay que truncarlo se lee a memoria, porque un mapeo
+        // no se puede liberar a voluntad y con uno vigente truncar falla en Windows
+        ByteBuffer buffer = fin == tamanioArchivo ? canal.map(FileChannel.MapMode.READ_ONLY, 0, fin) : leer(0, fin);
+        int posicion = TAMANIO_CABECERA;
+        CRC32 crc = new CRC32();
+        while (posicion < fin) {
+            int longitud = buffer.getInt(posicion);
+            int inicio = posicion + TAMANIO_CABECERA_BLOQUE;
+            ByteBuffer contenido = buffer.slice(inicio, longitud);
+            crc.reset();
+            crc.update(contenido.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(posicion + 4)) {
+                // Hay bloques después: no es una escritura interrumpida y cortar ahí borraría el resto
+                throw new IOException("CRC inválido en un bloque intermedio del histórico " + ruta
+                        + " (byte " + posicion + ")");
+            }
+            try {
+                decodificar(contenido);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Bloque inválido en el histórico " + ruta + " (byte " + posicion + ")", e);
+            }
+            posicion = inicio + longitud;
+        }
+
+        // Una escritura interrumpida deja un bloque a medias al final: se corta ahí y se sigue agregando
+        tamanio = fin;
+        bytesDescartados = tamanioArchivo - fin;
+        if (bytesDescartados > 0) {
+            canal.truncate(fin);
+        }
+    }
+
+    /**
+     * Recorre las cabeceras de bloque con lecturas comunes y devuelve dónde termina la parte sana del archivo
+     * Sólo se acepta descartar una cola que pueda ser el último agregado a medio escribir: si después del
+     * bloque descartado queda algún bloque bien formado y con CRC válido, el daño es de un bloque intermedio
+     * (la longitud no lleva CRC) y se falla sin tocar el archivo.
+     */
+    private int buscarFinValido(Path ruta, int tamanioArchivo) throws IOException {
+        int posicion = TAMANIO_CABECERA;
+        int ultimo = -1;
+        while (posicion + TAMANIO_CABECERA_BLOQUE <= tamanioArchivo) {
+            int longitud = leer(posicion, 4).getInt();
+            if (longitud <= 0) {
+                if (!soloCeros(leer(posicion, tamanioArchivo - posicion))) {
+                    throw new IOException("Longitud de bloque inválida en el histórico " + ruta + " (byte " + posicion + ")");
+                }
+                return posicion;
+            }
+            if (posicion + TAMANIO_CABECERA_BLOQUE + (long) longitud > tamanioArchivo) {
+                // Más largo que lo que queda: el último bloque a medio escribir o una longitud dañada
+                descartarCola(ruta, posicion, tamanioArchivo);
+                return posicion;
+            }
+            ultimo = posicion;
+            posicion += TAMANIO_CABECERA_BLOQUE + longitud;
+        }
+        if (posicion < tamanioArchivo) {
+            // Ni siquiera la cabecera del bloque llegó a escribirse
+            return posicion;
+        }
+        if (ultimo >= 0) {
+            ByteBuffer bloque = leer(ultimo, tamanioArchivo - ultimo);
+            if (!crcValido(bloque, 0, bloque.getInt(0))) {
+                descartarCola(ruta, ultimo, tamanioArchivo);
+                return ultimo;
+            }
+        }
+        return posicion;
+    }
+
+    private void descartarCola(Path ruta, int desde, int tamanioArchivo) throws IOException {
+        ByteBuffer cola = leer(desde, tamanioArchivo - desde);
+        for (int i = 1; i + TAMANIO_CABECERA_BLOQUE <= cola.limit(); i++) {
+            int longitud = cola.getInt(i);
+            if (longitud > 0 && i + TAMANIO_CABECERA_BLOQUE + (long) longitud <= cola.limit()
+                    && crcValido(cola, i, longitud)) {
+                throw new IOException("Bloque dañado antes de otros bloques válidos en el histórico " + ruta
+                        + " (byte " + desde + ")");
+            }
+        }
+    }
+
+    private static boolean crcValido(ByteBuffer buffer, int posicion, int longitud) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(posicion + TAMANIO_CABECERA_BLOQUE, longitud));
+        return (int) crc.getValue() == buffer.getInt(posicion + 4);
+    }
+
+    private ByteBuffer leer(long posicion, int longitud) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(longitud);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Fin de archivo inesperado en el histórico");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static boolean soloCeros(ByteBuffer buffer) {
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] codificar(long[] instantes, int[] codigos, double[][] valores) {
+        EscritorBits bits = new EscritorBits();
+        bits.escribir(instantes.length, 32);
+
+        long anterior = ultimoInstante;
+        long delta = ultimoDelta;
+        for (long instante : instantes) {
+            long nuevoDelta = instante - anterior;
+            escribirDeltaDeDeltas(bits, nuevoDelta - delta);
+            delta = nuevoDelta;
+            anterior = instante;
+        }
+
+        if (Arrays.equals(codigos, ultimoConjunto)) {
+            bits.escribir(1, 1);
+        } else {
+            bits.escribir(0, 1);
+            bits.escribir(codigos.length, 16);
+            for (int codigo : codigos) {
+                bits.escribir(codigo, 15);
+            }
+        }
+
+        for (int columna = 0; columna < codigos.length; columna++) {
+            int id = IndiceMonedas.obtenerId(IndiceMonedas.desempaquetar(codigos[columna]));
+            long referencia = id < ultimosBits.length ? ultimosBits[id] : 0;
+            // Ventana de ceros de Gorilla; -1 indica que todavía no hay ventana en este bloque
+            int cerosIzquierda = -1;
+            int cerosDerecha = 0;
+            for (double valor : valores[columna]) {
+                long actual = Double.doubleToRawLongBits(valor);
+                long xor = actual ^ referencia;
+                referencia = actual;
+                if (xor == 0) {
+                    bits.escribir(0, 1);
+                    continue;
+                }
+                int izquierda = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int derecha = Long.numberOfTrailingZeros(xor);
+                int significativos = 64 - izquierda - derecha;
+                // La ventana anterior se reutiliza sólo si no sale más cara que declarar una nueva
+                if (cerosIzquierda >= 0 && izquierda >= cerosIzquierda && derecha >= cerosDerecha
+                        && 64 - cerosIzquierda - cerosDerecha <= significativos + 11) {
+                    bits.escribir(0b10, 2);
+                    bits.escribir(xor >>> cerosDerecha, 64 - cerosIzquierda - cerosDerecha);
+                } else {
+                    bits.escribir(0b11, 2);
+                    bits.escribir(izquierda, 5);
+                    bits.escribir(significativos - 1, 6);
+                    bits.escribir(xor >>> derecha, significativos);
+                    cerosIzquierda = izquierda;
+                    cerosDerecha = derecha;
+                }
+            }
+        }
+        return bits.terminar();
+    }
+
+    private void decodificar(ByteBuffer contenido) {
+        LectorBits bits = new LectorBits(contenido);
+        int filas = (int) bits.leer(32);
+        if (filas <= 0) {
+            throw new IllegalArgumentException("Bloque sin filas");
+        }
+
+        long[] instantes = new long[filas];
+        long anterior = ultimoInstante;
+        long delta = ultimoDelta;
+        for (int fila = 0; fila < filas; fila++) {
+            delta += leerDeltaDeDeltas(bits);
+            anterior += delta;
+            instantes[fila] = anterior;
+        }
+
+        int[] codigos = ultimoConjunto;
+        if (bits.leer(1) == 0) {
+            codigos = new int[(int) bits.leer(16)];
+            for (int i = 0; i < codigos.length; i++) {
+                codigos[i] = (int) bits.leer(15);
+            }
+        }
+
+        double[][] valores = new double[codigos.length][filas];
+        for (int columna = 0; columna < codigos.length; columna++) {
+            int id = IndiceMonedas.obtenerId(IndiceMonedas.desempaquetar(codigos[columna]));
+            long referencia = id < ultimosBits.length ? ultimosBits[id] : 0;
+            int cerosIzquierda = 0;
+            int cerosDerecha = 0;
+            for (int fila = 0; fila < filas; fila++) {
+                if (bits.leer(1) == 1) {
+                    if (bits.leer(1) == 1) {
+                        cerosIzquierda = (int) bits.leer(5);
+                        int significativos = (int) bits.leer(6) + 1;
+                        cerosDerecha = 64 - cerosIzquierda - significativos;
+                    }
+                    referencia ^= bits.leer(64 - cerosIzquierda - cerosDerecha) << cerosDerecha;
+                }
+                valores[columna][fila] = Double.longBitsToDouble(referencia);
+            }
+        }
+        incorporar(instantes, codigos, valores);
+    }
+
+    /**
+     * Suma un bloque ya escrito (o leído) a las columnas y avanza las referencias de la compresión
+     */
+    private void incorporar(long[] instantes, int[] codigos, double[][] valores) {
+        Vista actual = vista;
+        int filas = instantes.length;
+        int cantidad = actual.cantidad() + filas;
+
+        int[] ids = new int[codigos.length];
+        int maximoId = actual.columnas().length - 1;
+        for (int columna = 0; columna < codigos.length; columna++) {
+            ids[columna] = IndiceMonedas.obtenerId(IndiceMonedas.desempaquetar(codigos[columna]));
+            maximoId = Math.max(maximoId, ids[columna]);
+        }
+
+        // Se escribe detrás de la última fila publicada; si no hay lugar se copia a arreglos más grandes
+        long[] nuevosInstantes = actual.instantes();
+        double[][] columnas = Arrays.copyOf(actual.columnas(), maximoId + 1);
+        int capacidad = nuevosInstantes.length;
+        if (cantidad > capacidad) {
+            capacidad = Math.max(cantidad, Math.max(CAPACIDAD_INICIAL, capacidad * 2));
+            nuevosInstantes = Arrays.copyOf(nuevosInstantes, capacidad);
+            for (int id = 0; id < columnas.length; id++) {
+                if (columnas[id] != null) {
+                    columnas[id] = copiarConNaN(columnas[id], capacidad);
+                }
+            }
+        }
+        System.arraycopy(instantes, 0, nuevosInstantes, actual.cantidad(), filas);
+        for (int columna = 0; columna < ids.length; columna++) {
+            int id = ids[columna];
+            if (columnas[id] == null) {
+                columnas[id] = copiarConNaN(new double[0], capacidad);
+            }
+            System.arraycopy(valores[columna], 0, columnas[id], actual.cantidad(), filas);
+        }
+
+        if (ultimosBits.length <= maximoId) {
+            ultimosBits = Arrays.copyOf(ultimosBits, maximoId + 1);
+        }
+        for (int columna = 0; columna < ids.length; columna++) {
+            ultimosBits[ids[columna]] = Double.doubleToRawLongBits(valores[columna][filas - 1]);
+        }
+        long penultimo = filas > 1 ? instantes[filas - 2] : ultimoInstante;
+        ultimoDelta = instantes[filas - 1] - penultimo;
+        ultimoInstante = instantes[filas - 1];
+        ultimoConjunto = codigos;
+
+        vista = new Vista(nuevosInstantes, columnas, cantidad);
+    }
+
+    private void validar(RespuestaAPI respuesta) {
+        if (!"success".equals(respuesta.getResult())) {
+            throw new IllegalArgumentException("Sólo se guardan respuestas exitosas: " + respuesta.getResult());
+        }
+        if (!monedaBase.equals(respuesta.getCodigoBase())) {
+            throw new IllegalArgumentException("El histórico es de base " + monedaBase + ", no "
+                    + respuesta.getCodigoBase());
+        }
+        if (respuesta.getUltimaActualizacionUnix() <= 0) {
+            throw new IllegalArgumentException("Respuesta sin instante de actualización");
+        }
+    }
+
+    private static int buscarFila(Vista vista, long segundosUnix) {
+        int posicion = Arrays.binarySearch(vista.instantes(), 0, vista.cantidad(), segundosUnix);
+        int fila = posicion >= 0 ? posicion : -posicion - 2;
+        if (fila < 0) {
+            throw new IllegalArgumentException("Sin tasas históricas al " + Instant.ofEpochSecond(segundosUnix));
+        }
+        return fila;
+    }
+
+    private static double tasa(Vista vista, int id, int fila) {
+        double[][] columnas = vista.columnas();
+        double valor = id >= 0 && id < columnas.length && columnas[id] != null ? columnas[id][fila] : Double.NaN;
+        if (Double.isNaN(valor)) {
+            throw new IllegalArgumentException("Moneda no disponible: id " + id + " al "
+                    + Instant.ofEpochSecond(vista.instantes()[fila]));
+        }
+        return valor;
+    }
+
+    private static int resolverMoneda(String codigoMoneda) {
+        int id = IndiceMonedas.buscarId(codigoMoneda);
+        if (id < 0) {
+            throw new IllegalArgumentException("Moneda no disponible: " + codigoMoneda);
+        }
+        return id;
+    }
+
+    private static double[] copiarConNaN(double[] columna, int capacidad) {
+        double[] copia = Arrays.copyOf(columna, capacidad);
+        Arrays.fill(copia, columna.length, capacidad, Double.NaN);
+        return copia;
+    }
+
+    private static void escribirCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicion += canal.write(buffer, posicion);
+        }
+    }
+
+    /**
+     * Delta de deltas con los cubos de Gorilla: 0 ocupa un bit y los desvíos chicos menos de dos bytes
+     */
+    private static void escribirDeltaDeDeltas(EscritorBits bits, long dd) {
+        if (dd == 0) {
+            bits.escribir(0, 1);
+        } else if (dd >= -63 && dd <= 64) {
+            bits.escribir(0b10, 2);
+            bits.escribir(dd + 63, 7);
+        } else if (dd >= -255 && dd <= 256) {
+            bits.escribir(0b110, 3);
+            bits.escribir(dd + 255, 9);
+        } else if (dd >= -2047 && dd <= 2048) {
+            bits.escribir(0b1110, 4);
+            bits.escribir(dd + 2047, 12);
+        } else {
+            bits.escribir(0b1111, 4);
+            bits.escribir(dd, 64);
+        }
+    }
+
+    private static long leerDeltaDeDeltas(LectorBits bits) {
+        if (bits.leer(1) == 0) {
+            return 0;
+        }
+        if (bits.leer(1) == 0) {
+            return bits.leer(7) - 63;
+        }
+        if (bits.leer(1) == 0) {
+            return bits.leer(9) - 255;
+        }
+        if (bits.leer(1) == 0) {
+            return bits.leer(12) - 2047;
+        }
+        return bits.leer(64);
+    }
+
+    /**
+     * Acumula bits de izquierda a derecha en un arreglo de bytes que crece a demanda
+     */
+    private static final class EscritorBits {
+        private byte[] bytes = new byte[256];
+        private int tamanio;
+        private int actual;
+        private int ocupados;
+
+        void escribir(long valor, int cantidad) {
+            while (cantidad > 0) {
+                int tomar = Math.min(8 - ocupados, cantidad);
+                int trozo = (int) (valor >>> (cantidad - tomar)) & ((1 << tomar) - 1);
+                actual = (actual << tomar) | trozo;
+                ocupados += tomar;
+                cantidad -= tomar;
+                if (ocupados == 8) {
+                    agregarByte(actual);
+                    actual = 0;
+                    ocupados = 0;
+                }
+            }
+        }
+
+        byte[] terminar() {
+            if (ocupados > 0) {
+                agregarByte(actual << (8 - ocupados));
+                actual = 0;
+                ocupados = 0;
+            }
+            return Arrays.copyOf(bytes, tamanio);
+        }
+
+        private void agregarByte(int valor) {
+            if (tamanio == bytes.length) {
+                bytes = Arrays.copyOf(bytes, tamanio * 2);
+            }
+            bytes[tamanio++] = (byte) valor;
+        }
+    }
+
+    /**
+     * Lee bits en el mismo orden en que los escribió {@link EscritorBits}
+     */
+    private static final class LectorBits {
+        private final ByteBuffer buffer;
+        private int actual;
+        private int restantes;
+
+        LectorBits(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        long leer(int cantidad) {
+            long resultado = 0;
+            while (cantidad > 0) {
+                if (restantes == 0) {
+                    actual = buffer.get() & 0xFF;
+                    restantes = 8;
+                }
+                int tomar = Math.min(restantes, cantidad);
+                resultado = (resultado << tomar) | ((actual >>> (restantes - tomar)) & ((1 << tomar) - 1));
+                restantes -= tomar;
+                cantidad -= tomar;
+            }
+            return resultado;
+        }
+    }
+}
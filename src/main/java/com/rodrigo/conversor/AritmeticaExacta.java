@@ -0,0 +1,113 @@
+package com.rodrigo.conversor;
+
+import java.math.RoundingMode;
+
+/**
+ * Aritmética entera de 128 bits para el conversor de punto fijo
+ * Calcula a * b / d con un único redondeo, sin BigDecimal ni objetos intermedios.
+ */
+final class AritmeticaExacta {
+
+    private static final long BASE = 1L << 32;
+    private static final long MASCARA_32 = 0xFFFFFFFFL;
+
+    private AritmeticaExacta() {
+    }
+
+    /**
+     * Calcula cantidad * multiplicador / divisor redondeado con el modo indicado
+     * @param cantidad Valor con signo
+     * @param multiplicador Valor positivo
+     * @param divisor Valor positivo
+     * @return long cociente redondeado
+     * @throws ArithmeticException si el resultado no entra en un long o el modo es UNNECESSARY y hay resto
+     */
+    static long multiplicarYDividir(long cantidad, long multiplicador, long divisor, RoundingMode modo) {
+        boolean negativo = cantidad < 0;
+        long absoluto = negativo ? -cantidad : cantidad;
+
+        long alto = Math.unsignedMultiplyHigh(absoluto, multiplicador);
+        long bajo = absoluto * multiplicador;
+        if (Long.compareUnsigned(alto, divisor) >= 0) {
+            throw new ArithmeticException("Desbordamiento en conversión exacta: " + cantidad);
+        }
+        long cociente = dividir(alto, bajo, divisor);
+        long resto = bajo - cociente * divisor;
+        if (cociente < 0) {
+            throw new ArithmeticException("Desbordamiento en conversión exacta: " + cantidad);
+        }
+
+        if (resto != 0 && debeIncrementar(cociente, resto, divisor, negativo, modo)) {
+            if (cociente == Long.MAX_VALUE) {
+                throw new ArithmeticException("Desbordamiento en conversión exacta: " + cantidad);
+            }
+            cociente++;
+        }
+        return negativo ? -cociente : cociente;
+    }
+
+    private static boolean debeIncrementar(long cociente, long resto, long divisor,
+                                           boolean negativo, RoundingMode modo) {
+        // resto < divisor < 2^63, así que resto frente a divisor - resto no desborda
+        int mitad = Long.compare(resto, divisor - resto);
+        switch (modo) {
+            case UP:
+                return true;
+            case DOWN:
+                return false;
+            case CEILING:
+                return !negativo;
+            case FLOOR:
+                return negativo;
+            case HALF_UP:
+                return mitad >= 0;
+            case HALF_DOWN:
+                return mitad > 0;
+            case HALF_EVEN:
+                return mitad > 0 || (mitad == 0 && (cociente & 1) != 0);
+            case UNNECESSARY:
+            default:
+                throw new ArithmeticException("Se requiere redondeo y el modo es " + modo);
+        }
+    }
+
+    /**
+     * División sin signo de 128 por 64 bits (alto:bajo / divisor) con alto < divisor
+     * Algoritmo divlu de Hacker's Delight: normaliza y calcula el cociente en dos mitades de 32 bits.
+     */
+    static long dividir(long alto, long bajo, long divisor) {
+        int corrimiento = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << corrimiento;
+        long vAlto = v >>> 32;
+        long vBajo = v & MASCARA_32;
+
+        long u32 = corrimiento == 0 ? alto : (alto << corrimiento) | (bajo >>> (64 - corrimiento));
+        long u10 = bajo << corrimiento;
+        long u1 = u10 >>> 32;
+        long u0 = u10 & MASCARA_32;
+
+        long q1 = Long.divideUnsigned(u32, vAlto);
+        long resto = u32 - q1 * vAlto;
+        while (Long.compareUnsigned(q1, BASE) >= 0
+                || Long.compareUnsigned(q1 * vBajo, (resto << 32) + u1) > 0) {
+            q1--;
+            resto += vAlto;
+            if (Long.compareUnsigned(resto, BASE) >= 0) {
+                break;
+            }
+        }
+
+        long u21 = (u32 << 32) + u1 - q1 * v;
+        long q0 = Long.divideUnsigned(u21, vAlto);
+        resto = u21 - q0 * vAlto;
+        while (Long.compareUnsigned(q0, BASE) >= 0
+                || Long.compareUnsigned(q0 * vBajo, (resto << 32) + u0) > 0) {
+            q0--;
+            resto += vAlto;
+            if (Long.compareUnsigned(resto, BASE) >= 0) {
+                break;
+            }
+        }
+        return (q1 << 32) + q0;
+    }
+}
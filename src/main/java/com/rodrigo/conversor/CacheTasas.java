@@ -0,0 +1,198 @@
+package com.rodrigo.conversor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache en memoria de respuestas de la API, por moneda base
+ * Cada entrada vale hasta time_next_update_unix de la propia respuesta, o hasta donde la extendió un 304.
+ * Si varios hilos piden
+ * la misma base mientras se está descargando, esperan la misma carga en lugar de repetirla.
+ */
+public class CacheTasas {
+
+    /** Vigencia usada cuando la respuesta no informa la próxima actualización */
+    public static final Duration VIGENCIA_PREDETERMINADA = Duration.ofHours(1);
+
+    private final Function<String, RespuestaAPI> cargador;
+    private final Clock reloj;
+    private final ConcurrentHashMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder esperasCompartidas = new LongAdder();
+    private final LongAdder cargasFallidas = new LongAdder();
+    private final LongAdder nanosCarga = new LongAdder();
+
+    /**
+     * @param cargador Función que descarga las tasas de una moneda base
+     */
+    public CacheTasas(Function<String, RespuestaAPI> cargador) {
+        this(cargador, Clock.systemUTC());
+    }
+
+    /**
+     * @param cargador Función que descarga las tasas de una moneda base
+     * @param reloj Reloj con el que se comparan los vencimientos (inyectable para pruebas)
+     */
+    public CacheTasas(Function<String, RespuestaAPI> cargador, Clock reloj) {
+        this.cargador = cargador;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Cache que descarga con SolicitudHTTP y rechaza las respuestas no exitosas
+     */
+    public static CacheTasas paraSolicitud(SolicitudHTTP solicitud) {
+        return new CacheTasas(monedaBase ->
+                solicitud.obtenerTasasAnalizadas(monedaBase).obtener().aRespuestaAPI());
+    }
+
+    /**
+     * Cache que descarga a través de la capa de resiliencia (plazo, duplicados y respaldo)
+     */
+    public static CacheTasas paraSolicitud(SolicitudResiliente solicitud) {
+        return new CacheTasas(monedaBase -> solicitud.obtenerTasas(monedaBase).aRespuestaAPI());
+    }
+
+    /**
+     * Cache que descarga de cualquier proveedor de tasas (ej: una FuenteTasasMultiple)
+     */
+    public static CacheTasas paraProveedor(ProveedorTasas proveedor) {
+        return new CacheTasas(monedaBase -> proveedor.obtenerTasas(monedaBase).aRespuestaAPI());
+    }
+
+    /**
+     * Obtiene las tasas de una moneda base, descargándolas sólo si no hay una respuesta vigente
+     * @param monedaBase La moneda base (ej: "USD")
+     * @return RespuestaAPI vigente
+     */
+    public RespuestaAPI obtener(String monedaBase) {
+        while (true) {
+            Entrada actual = entradas.get(monedaBase);
+            if (actual != null && !actual.vencida(reloj.millis())) {
+                if (actual.futuro.isDone()) {
+                    aciertos.increment();
+                    MetricasConversor.contarAciertoCache();
+                } else {
+                    esperasCompartidas.increment();
+                }
+                return esperar(actual);
+            }
+
+            Entrada nueva = new Entrada();
+            boolean instalada = actual == null
+                    ? entradas.putIfAbsent(monedaBase, nueva) == null
+                    : entradas.replace(monedaBase, actual, nueva);
+            if (instalada) {
+                fallos.increment();
+                MetricasConversor.contarFalloCache();
+                cargar(monedaBase, nueva);
+                return esperar(nueva);
+            }
+            // Otro hilo instaló una entrada antes: se vuelve a leer
+        }
+    }
+
+    /**
+     * Inserta una respuesta ya obtenida por otra vía (ej: una instantánea en disco)
+     */
+    public void precargar(RespuestaAPI respuesta) {
+        Entrada entrada = new Entrada();
+        entrada.completar(respuesta, reloj.millis());
+        entradas.put(respuesta.getCodigoBase(), entrada);
+    }
+
+    /**
+     * Descarta la entrada de una moneda base; la próxima consulta vuelve a descargar
+     */
+    public void invalidar(String monedaBase) {
+        entradas.remove(monedaBase);
+    }
+
+    public long obtenerAciertos() { return aciertos.sum(); }
+
+    public long obtenerFallos() { return fallos.sum(); }
+
+    public long obtenerEsperasCompartidas() { return esperasCompartidas.sum(); }
+
+    public long obtenerCargasFallidas() { return cargasFallidas.sum(); }
+
+    /**
+     * Tiempo total dedicado a descargas, exitosas o no
+     */
+    public Duration obtenerTiempoCarga() { return Duration.ofNanos(nanosCarga.sum()); }
+
+    /**
+     * Muestra los contadores de la cache
+     */
+    public void mostrarEstadisticas() {
+        long cargas = fallos.sum();
+        System.out.println("=== ESTADÍSTICAS DE CACHE DE TASAS ===");
+        System.out.println("✅ Aciertos: " + aciertos.sum());
+        System.out.println("📡 Descargas: " + cargas + " (fallidas: " + cargasFallidas.sum() + ")");
+        System.out.println("🤝 Esperas compartidas: " + esperasCompartidas.sum());
+        System.out.printf("⏱️ Tiempo de carga: %.1f ms (promedio %.1f ms)%n",
+                nanosCarga.sum() / 1e6, cargas == 0 ? 0.0 : nanosCarga.sum() / 1e6 / cargas);
+        System.out.println("======================================");
+    }
+
+    private void cargar(String monedaBase, Entrada entrada) {
+        long inicio = System.nanoTime();
+        try {
+            entrada.completar(cargador.apply(monedaBase), reloj.millis());
+        } catch (Throwable e) {
+            // Se retira la entrada para que la próxima consulta reintente, y se completa también ante un
+            // Error (ej: OutOfMemoryError) para no dejar colgados a los hilos que esperan esta carga
+            cargasFallidas.increment();
+            entradas.remove(monedaBase, entrada);
+            entrada.futuro.completeExceptionally(e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        } finally {
+            nanosCarga.add(System.nanoTime() - inicio);
+        }
+    }
+
+    private static RespuestaAPI esperar(Entrada entrada) {
+        try {
+            return entrada.futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Espera de tasas interrumpida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new CompletionException(causa);
+        }
+    }
+
+    /**
+     * Carga en curso o terminada de una moneda base
+     */
+    private static final class Entrada {
+        final CompletableFuture<RespuestaAPI> futuro = new CompletableFuture<>();
+        // Long.MAX_VALUE mientras se descarga: una carga en curso nunca está vencida
+        volatile long venceEnMillis = Long.MAX_VALUE;
+
+        void completar(RespuestaAPI respuesta, long ahoraMillis) {
+            // Un 304 puede extender la vigencia de tasas cuya próxima actualización ya pasó
+            long proxima = Math.max(respuesta.getProximaActualizacionUnix() * 1000, respuesta.obtenerVigenteHastaMillis());
+            venceEnMillis = proxima > 0 ? proxima : ahoraMillis + VIGENCIA_PREDETERMINADA.toMillis();
+            futuro.complete(respuesta);
+        }
+
+        boolean vencida(long ahoraMillis) {
+            return ahoraMillis >= venceEnMillis;
+        }
+    }
+}
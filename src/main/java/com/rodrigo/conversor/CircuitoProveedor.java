@@ -0,0 +1,157 @@
+package com.rodrigo.conversor;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Cortacircuitos por tasa de fallos para las llamadas al proveedor de tasas
+ * CERRADO: las llamadas pasan y se registra su resultado en una ventana de las últimas N.
+ * Cuando la fracción de fallos de la ventana supera el umbral, pasa a ABIERTO y rechaza llamadas
+ * durante la duración de apertura; después deja pasar una única llamada de prueba (SEMIABIERTO)
+ * que lo vuelve a cerrar si funciona o lo abre otra vez si falla.
+ */
+public class CircuitoProveedor {
+
+    public enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    public static final int VENTANA_PREDETERMINADA = 20;
+    public static final int MINIMO_LLAMADAS_PREDETERMINADO = 5;
+    public static final double UMBRAL_FALLOS_PREDETERMINADO = 0.5;
+    public static final Duration APERTURA_PREDETERMINADA = Duration.ofSeconds(30);
+
+    private final boolean[] ventana;
+    private final int minimoLlamadas;
+    private final double umbralFallos;
+    private final long aperturaMillis;
+    private final Clock reloj;
+
+    private Estado estado = Estado.CERRADO;
+    private int posicion;
+    private int registradas;
+    private int fallosEnVentana;
+    private long abiertoHastaMillis;
+    private boolean pruebaEnCurso;
+    private long aperturas;
+    private long rechazadas;
+
+    public CircuitoProveedor() {
+        this(VENTANA_PREDETERMINADA, MINIMO_LLAMADAS_PREDETERMINADO, UMBRAL_FALLOS_PREDETERMINADO,
+                APERTURA_PREDETERMINADA, Clock.systemUTC());
+    }
+
+    /**
+     * @param tamanioVentana Cantidad de llamadas recientes sobre las que se calcula la tasa de fallos
+     * @param minimoLlamadas Llamadas registradas necesarias antes de poder abrir el circuito
+     * @param umbralFallos Fracción de fallos (0 a 1) a partir de la cual se abre
+     * @param apertura Tiempo que permanece abierto antes de la llamada de prueba
+     * @param reloj Reloj para medir la apertura (inyectable para pruebas)
+     */
+    public CircuitoProveedor(int tamanioVentana, int minimoLlamadas, double umbralFallos,
+                             Duration apertura, Clock reloj) {
+        if (tamanioVentana < 1 || minimoLlamadas < 1 || minimoLlamadas > tamanioVentana) {
+            throw new IllegalArgumentException("Ventana o mínimo de llamadas inválidos");
+        }
+        if (umbralFallos <= 0 || umbralFallos > 1) {
+            throw new IllegalArgumentException("El umbral de fallos debe estar en (0, 1]: " + umbralFallos);
+        }
+        this.ventana = new boolean[tamanioVentana];
+        this.minimoLlamadas = minimoLlamadas;
+        this.umbralFallos = umbralFallos;
+        this.aperturaMillis = apertura.toMillis();
+        this.reloj = reloj;
+    }
+
+    /**
+     * Indica si una llamada puede ir al proveedor; si devuelve true, el llamador debe informar
+     * el resultado con {@link #registrarExito()} o {@link #registrarFallo()}
+     */
+    public synchronized boolean permiteLlamada() {
+        switch (estado) {
+            case CERRADO:
+                return true;
+            case ABIERTO:
+                if (reloj.millis() < abiertoHastaMillis) {
+                    rechazadas++;
+                    return false;
+                }
+                estado = Estado.SEMIABIERTO;
+                pruebaEnCurso = true;
+                return true;
+            default:
+                if (pruebaEnCurso) {
+                    rechazadas++;
+                    return false;
+                }
+                pruebaEnCurso = true;
+                return true;
+        }
+    }
+
+    public synchronized void registrarExito() {
+        if (estado == Estado.SEMIABIERTO) {
+            cerrar();
+        } else if (estado == Estado.CERRADO) {
+            agregar(false);
+        }
+    }
+
+    public synchronized void registrarFallo() {
+        if (estado == Estado.SEMIABIERTO) {
+            abrir();
+        } else if (estado == Estado.CERRADO) {
+            agregar(true);
+            if (registradas >= minimoLlamadas && fallosEnVentana >= umbralFallos * registradas) {
+                abrir();
+            }
+        }
+    }
+
+    public synchronized Estado obtenerEstado() {
+        return estado;
+    }
+
+    /**
+     * Fracción de fallos en la ventana actual (0 si no hay llamadas registradas)
+     */
+    public synchronized double obtenerTasaFallos() {
+        return registradas == 0 ? 0 : (double) fallosEnVentana / registradas;
+    }
+
+    public synchronized long obtenerAperturas() {
+        return aperturas;
+    }
+
+    public synchronized long obtenerRechazadas() {
+        return rechazadas;
+    }
+
+    private void agregar(boolean fallo) {
+        if (registradas == ventana.length) {
+            if (ventana[posicion]) {
+                fallosEnVentana--;
+            }
+        } else {
+            registradas++;
+        }
+        ventana[posicion] = fallo;
+        if (fallo) {
+            fallosEnVentana++;
+        }
+        posicion = (posicion + 1) % ventana.length;
+    }
+
+    private void abrir() {
+        estado = Estado.ABIERTO;
+        abiertoHastaMillis = reloj.millis() + aperturaMillis;
+        pruebaEnCurso = false;
+        aperturas++;
+    }
+
+    private void cerrar() {
+        estado = Estado.CERRADO;
+        pruebaEnCurso = false;
+        posicion = 0;
+        registradas = 0;
+        fallosEnVentana = 0;
+    }
+}
@@ -0,0 +1,168 @@
+package com.rodrigo.conversor;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Cliente del {@link ProtocoloBinario} para procesos que convierten a alta frecuencia
+ * Las llamadas sueltas hacen un viaje de ida y vuelta cada una; los lotes envían las tramas en tandas
+ * de hasta {@link #TRAMAS_POR_TANDA} y leen las respuestas de toda la tanda juntas, así el costo de red
+ * se reparte entre miles de conversiones. Una instancia usa una sola conexión y no es segura entre hilos.
+ */
+public final class ClienteBinario implements Closeable {
+
+    public static final int TRAMAS_POR_TANDA = 4096;
+
+    private final SocketChannel canal;
+    private final ByteBuffer envio = ByteBuffer.allocateDirect(TRAMAS_POR_TANDA * ProtocoloBinario.TAMANIO_SOLICITUD);
+    private final ByteBuffer recepcion = ByteBuffer.allocateDirect(TRAMAS_POR_TANDA * ProtocoloBinario.TAMANIO_RESPUESTA);
+
+    /**
+     * Conecta con un ServidorBinario
+     * @param direccion Host y puerto del servidor
+     */
+    public ClienteBinario(InetSocketAddress direccion) throws IOException {
+        this.canal = SocketChannel.open();
+        try {
+            canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            canal.connect(direccion);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Convierte una cantidad con un viaje de ida y vuelta
+     * @throws IllegalArgumentException si el servidor no tiene alguna de las monedas
+     */
+    public double convertir(double cantidad, String monedaOrigen, String monedaDestino) throws IOException {
+        long resultado = enviarUna(monedaOrigen, monedaDestino, ProtocoloBinario.FORMATO_DOUBLE,
+                Double.doubleToRawLongBits(cantidad));
+        return Double.longBitsToDouble(resultado);
+    }
+
+    /**
+     * Convierte una cantidad en unidades menores (ej: centavos) a unidades menores de la moneda destino
+     */
+    public long convertirMenores(long cantidadMenor, String monedaOrigen, String monedaDestino) throws IOException {
+        return enviarUna(monedaOrigen, monedaDestino, ProtocoloBinario.FORMATO_MENORES, cantidadMenor);
+    }
+
+    /**
+     * Convierte un lote con su par de monedas por posición
+     * @param origenes Monedas de origen empaquetadas con {@link ProtocoloBinario#empaquetar(String)}
+     * @param destinos Monedas de destino empaquetadas
+     * @param cantidades Cantidades a convertir
+     * @param salida Arreglo de al menos cantidades.length posiciones para los resultados
+     * @throws IllegalArgumentException si alguna posición no se pudo convertir (el resto queda calculado)
+     */
+    public void convertirLote(int[] origenes, int[] destinos, double[] cantidades, double[] salida) throws IOException {
+        validarLote(origenes, destinos, cantidades.length, salida.length);
+        int fallida = -1;
+        byte estadoFallido = ProtocoloBinario.ESTADO_OK;
+        for (int desde = 0; desde < cantidades.length; desde += TRAMAS_POR_TANDA) {
+            int hasta = Math.min(cantidades.length, desde + TRAMAS_POR_TANDA);
+            envio.clear();
+            for (int i = desde; i < hasta; i++) {
+                ProtocoloBinario.escribirSolicitud(envio, origenes[i], destinos[i], ProtocoloBinario.FORMATO_DOUBLE,
+                        Double.doubleToRawLongBits(cantidades[i]));
+            }
+            intercambiar(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                byte estado = recepcion.get();
+                recepcion.position(recepcion.position() + 7);
+                salida[i] = Double.longBitsToDouble(recepcion.getLong());
+                if (estado != ProtocoloBinario.ESTADO_OK && fallida < 0) {
+                    fallida = i;
+                    estadoFallido = estado;
+                }
+            }
+        }
+        if (fallida >= 0) {
+            throw new IllegalArgumentException(ProtocoloBinario.describirEstado(estadoFallido)
+                    + " en la posición " + fallida);
+        }
+    }
+
+    /**
+     * Convierte un lote de cantidades en unidades menores; mismas reglas que {@link #convertirLote}
+     */
+    public void convertirLoteMenores(int[] origenes, int[] destinos, long[] cantidades, long[] salida)
+            throws IOException {
+        validarLote(origenes, destinos, cantidades.length, salida.length);
+        int fallida = -1;
+        byte estadoFallido = ProtocoloBinario.ESTADO_OK;
+        for (int desde = 0; desde < cantidades.length; desde += TRAMAS_POR_TANDA) {
+            int hasta = Math.min(cantidades.length, desde + TRAMAS_POR_TANDA);
+            envio.clear();
+            for (int i = desde; i < hasta; i++) {
+                ProtocoloBinario.escribirSolicitud(envio, origenes[i], destinos[i], ProtocoloBinario.FORMATO_MENORES,
+                        cantidades[i]);
+            }
+            intercambiar(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                byte estado = recepcion.get();
+                recepcion.position(recepcion.position() + 7);
+                salida[i] = recepcion.getLong();
+                if (estado != ProtocoloBinario.ESTADO_OK && fallida < 0) {
+                    fallida = i;
+                    estadoFallido = estado;
+                }
+            }
+        }
+        if (fallida >= 0) {
+            throw new IllegalArgumentException(ProtocoloBinario.describirEstado(estadoFallido)
+                    + " en la posición " + fallida);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private long enviarUna(String monedaOrigen, String monedaDestino, byte formato, long cantidad) throws IOException {
+        envio.clear();
+        ProtocoloBinario.escribirSolicitud(envio, ProtocoloBinario.empaquetar(monedaOrigen),
+                ProtocoloBinario.empaquetar(monedaDestino), formato, cantidad);
+        intercambiar(1);
+        byte estado = recepcion.get();
+        recepcion.position(recepcion.position() + 7);
+        long resultado = recepcion.getLong();
+        if (estado != ProtocoloBinario.ESTADO_OK) {
+            throw new IllegalArgumentException(ProtocoloBinario.describirEstado(estado) + ": "
+                    + monedaOrigen + " → " + monedaDestino);
+        }
+        return resultado;
+    }
+
+    /**
+     * Envía las tramas cargadas en el buffer de envío y deja en recepción sus respuestas, listas para leer
+     */
+    private void intercambiar(int tramas) throws IOException {
+        envio.flip();
+        while (envio.hasRemaining()) {
+            canal.write(envio);
+        }
+        recepcion.clear().limit(tramas * ProtocoloBinario.TAMANIO_RESPUESTA);
+        while (recepcion.hasRemaining()) {
+            if (canal.read(recepcion) < 0) {
+                throw new EOFException("El servidor cerró la conexión");
+            }
+        }
+        recepcion.flip();
+    }
+
+    private static void validarLote(int[] origenes, int[] destinos, int cantidad, int longitudSalida) {
+        if (origenes.length < cantidad || destinos.length < cantidad || longitudSalida < cantidad) {
+            throw new IllegalArgumentException("Arreglos de distinto tamaño: " + origenes.length + ", "
+                    + destinos.length + ", " + cantidad + " y " + longitudSalida);
+        }
+    }
+}
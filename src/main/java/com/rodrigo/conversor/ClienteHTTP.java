@@ -1,11 +1,12 @@
 package com.rodrigo.conversor;
 
 import java.io.IOException;
-import java.net.URI;
+import java.io.UncheckedIOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Cliente HTTP para realizar solicitudes a la API de tasas de cambio
@@ -13,38 +14,97 @@ import java.time.Duration;
 public class ClienteHTTP {
 
     private static final String BASE_URL = "https://open.er-api.com/v6/latest/";
+    private final String urlBase;
     private final HttpClient client;
+    private final ExecutorService ejecutor;
+    private final ProveedorClienteHTTP proveedor;
 
     public ClienteHTTP() {
-        this.client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this(ProveedorClienteHTTP.predeterminado());
     }
 
-    public String obtenerTasasCambio(String monedaBase) throws IOException, InterruptedException {
-        if (monedaBase == null || monedaBase.trim().isEmpty()) {
-            throw new IllegalArgumentException("La moneda base no puede ser nula o vacía");
-        }
+    /**
+     * @param modo Hilos de plataforma (comportamiento original) o un hilo virtual por tarea
+     */
+    public ClienteHTTP(ModoEjecucion modo) {
+        this(ProveedorClienteHTTP.compartido(modo));
+    }
+
+    /**
+     * @param proveedor Proveedor del HttpClient (y de sus conexiones) a usar
+     */
+    public ClienteHTTP(ProveedorClienteHTTP proveedor) {
+        this(BASE_URL, proveedor);
+    }
 
-        String url = BASE_URL + monedaBase.toUpperCase();
+    /**
+     * @param urlBase URL a la que se agrega el código de la moneda base (otro proveedor compatible o un servidor de pruebas)
+     * @param proveedor Proveedor del HttpClient (y de sus conexiones) a usar
+     */
+    public ClienteHTTP(String urlBase, ProveedorClienteHTTP proveedor) {
+        this.urlBase = urlBase;
+        this.proveedor = proveedor;
+        this.client = proveedor.obtenerCliente();
+        this.ejecutor = proveedor.obtenerEjecutor();
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(30))
-                .header("Accept", "application/json")
-                .GET()
-                .build();
+    /**
+     * Obtiene las tasas en el ejecutor del modo configurado, sin bloquear al llamador
+     * @param monedaBase La moneda base (ej: "USD")
+     * @return CompletableFuture con el cuerpo ya analizado
+     */
+    public CompletableFuture<CuerpoTasas> obtenerTasasAnalizadasEnSegundoPlano(String monedaBase) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return obtenerTasasAnalizadas(monedaBase);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Solicitud interrumpida");
+            }
+        }, ejecutor);
+    }
 
-        HttpResponse<String> response = client.send(request,
+    public String obtenerTasasCambio(String monedaBase) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(construirSolicitud(monedaBase),
                 HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 200) {
             return response.body();
         } else {
-            throw new RuntimeException("Error HTTP: " + response.statusCode());
+            throw ErrorProveedorTasas.porCodigo(response.statusCode());
         }
     }
 
+    /**
+     * Obtiene las tasas analizándolas a medida que llegan los bytes, sin armar el String del cuerpo
+     * @param monedaBase La moneda base (ej: "USD")
+     * @return CuerpoTasas ya analizado, con el tiempo desde el primer byte hasta quedar listo
+     */
+    public CuerpoTasas obtenerTasasAnalizadas(String monedaBase) throws IOException, InterruptedException {
+        HttpResponse<CuerpoTasas> response = client.send(construirSolicitud(monedaBase), CuerpoTasas.manejador());
+
+        CuerpoTasas cuerpo = response.body();
+        if (response.statusCode() == 200) {
+            cuerpo.obtener();
+            return cuerpo;
+        } else {
+            cuerpo.descartar();
+            throw ErrorProveedorTasas.porCodigo(response.statusCode());
+        }
+    }
+
+    private HttpRequest construirSolicitud(String monedaBase) {
+        if (monedaBase == null || monedaBase.trim().isEmpty()) {
+            throw new IllegalArgumentException("La moneda base no puede ser nula o vacía");
+        }
+
+        String url = urlBase + monedaBase.toUpperCase();
+
+        return proveedor.nuevaSolicitud(url).build();
+    }
+
     public boolean verificarConectividad() {
         try {
             String respuesta = obtenerTasasCambio("USD");
@@ -0,0 +1,90 @@
+package com.rodrigo.conversor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador rayado para caminos donde hasta el CAS de un LongAdder pesa más que el trabajo medido
+ * Cada raya pertenece a un hilo, que la incrementa con escrituras opacas: sin instrucciones atómicas
+ * ni barreras, y sin perder cuentas porque nadie más escribe en ella. Un hilo cuya raya ya tiene otro
+ * dueño vivo cuenta en un LongAdder. La raya de un hilo terminado (ej: el hilo virtual de una solicitud)
+ * la toma el siguiente hilo que caiga en ella y sigue sumando sobre el mismo valor.
+ */
+final class ContadorRayado {
+
+    private static final int RAYAS = 256;
+    // 16 longs (128 bytes) entre rayas para que dos hilos no compartan línea de cache
+    private static final int SEPARACION = 16;
+    private static final VarHandle VALOR = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle DUENIO = MethodHandles.arrayElementVarHandle(Duenio[].class);
+
+    private static final class Duenio {
+        final long id;
+        final WeakReference<Thread> hilo;
+
+        Duenio(Thread hilo) {
+            this.id = hilo.threadId();
+            this.hilo = new WeakReference<>(hilo);
+        }
+
+        boolean terminado() {
+            Thread actual = hilo.get();
+            // Ver terminado al hilo también hace visibles sus últimas escrituras en la raya
+            return actual == null || !actual.isAlive();
+        }
+    }
+
+    private final long[] valores = new long[RAYAS * SEPARACION];
+    private final Duenio[] duenios = new Duenio[RAYAS];
+    private final LongAdder desborde = new LongAdder();
+    private volatile long desplazamiento;
+
+    void incrementar() {
+        agregar(1);
+    }
+
+    void agregar(long cantidad) {
+        Thread hilo = Thread.currentThread();
+        int raya = (int) hilo.threadId() & (RAYAS - 1);
+        Duenio duenio = (Duenio) DUENIO.getOpaque(duenios, raya);
+        if (duenio != null && duenio.id == hilo.threadId()) {
+            int posicion = raya * SEPARACION;
+            VALOR.setOpaque(valores, posicion, (long) VALOR.getOpaque(valores, posicion) + cantidad);
+        } else {
+            agregarSinRaya(hilo, raya, duenio, cantidad);
+        }
+    }
+
+    /**
+     * Total desde la creación o el último reinicio; puede no ver los incrementos de los últimos instantes
+     */
+    long sumar() {
+        return total() - desplazamiento;
+    }
+
+    /**
+     * Vuelve a cero sin tocar las rayas, que sólo escribe su dueño
+     */
+    void reiniciar() {
+        desplazamiento = total();
+    }
+
+    private void agregarSinRaya(Thread hilo, int raya, Duenio duenio, long cantidad) {
+        if ((duenio == null || duenio.terminado()) && DUENIO.compareAndSet(duenios, raya, duenio, new Duenio(hilo))) {
+            int posicion = raya * SEPARACION;
+            VALOR.setOpaque(valores, posicion, (long) VALOR.getOpaque(valores, posicion) + cantidad);
+        } else {
+            desborde.add(cantidad);
+        }
+    }
+
+    private long total() {
+        long suma = desborde.sum();
+        for (int raya = 0; raya < RAYAS; raya++) {
+            suma += (long) VALOR.getOpaque(valores, raya * SEPARACION);
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,298 @@
+package com.rodrigo.conversor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Conversión masiva en paralelo sobre un ForkJoinPool
+ * Todo el trabajo de una llamada usa la misma instantánea de tasas, y cada resultado queda
+ * en la posición de su entrada, así que la salida no depende de cómo se reparta el trabajo.
+ */
+public class ConversorMasivo {
+
+    /** Cantidad de elementos por debajo de la cual una tarea ya no se divide */
+    public static final int UMBRAL_PREDETERMINADO = 1 << 16;
+
+    private final ConversorMonedas conversor;
+    private final ForkJoinPool pool;
+    private final int umbral;
+
+    /**
+     * Registro de entrada para la conversión desde un Spliterator
+     */
+    public record RegistroConversion(double cantidad, String monedaOrigen, String monedaDestino) {
+    }
+
+    public ConversorMasivo(ConversorMonedas conversor) {
+        this(conversor, UMBRAL_PREDETERMINADO, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param conversor Conversor del que se toma la instantánea de tasas vigente
+     * @param umbral Tamaño máximo de un tramo que se procesa sin dividir
+     * @param paralelismo Cantidad de hilos del pool
+     */
+    public ConversorMasivo(ConversorMonedas conversor, int umbral, int paralelismo) {
+        if (umbral < 1) {
+            throw new IllegalArgumentException("El umbral debe ser mayor que cero: " + umbral);
+        }
+        this.conversor = conversor;
+        this.umbral = umbral;
+        this.pool = new ForkJoinPool(paralelismo);
+    }
+
+    /**
+     * Convierte en paralelo un arreglo de cantidades de una moneda a otra
+     */
+    public void convertir(double[] cantidades, String monedaOrigen, String monedaDestino, double[] salida) {
+        TablaTasas tabla = conversor.obtenerTabla();
+        int idOrigen = tabla.resolverMoneda(monedaOrigen);
+        int idDestino = tabla.resolverMoneda(monedaDestino);
+        if (salida.length < cantidades.length) {
+            throw new IllegalArgumentException("La salida tiene " + salida.length
+                    + " posiciones para " + cantidades.length + " cantidades");
+        }
+        pool.invoke(new TareaUnPar(tabla, cantidades, idOrigen, idDestino, salida, 0, cantidades.length));
+    }
+
+    /**
+     * Convierte en paralelo un arreglo con un par de monedas por posición (ids de {@link IndiceMonedas})
+     */
+    public void convertir(double[] cantidades, int[] origenes, int[] destinos, double[] salida) {
+        if (salida.length < cantidades.length || origenes.length < cantidades.length
+                || destinos.length < cantidades.length) {
+            throw new IllegalArgumentException("Los arreglos de monedas y de salida deben cubrir las "
+                    + cantidades.length + " cantidades");
+        }
+        TablaTasas tabla = conversor.obtenerTabla();
+        pool.invoke(new TareaPares(tabla, cantidades, origenes, destinos, salida, 0, cantidades.length));
+    }
+
+    /**
+     * Convierte en paralelo los registros de un Spliterator
+     * Si la fuente conoce el tamaño exacto de cada división (SUBSIZED, ej: una lista o un arreglo) cada
+     * tramo escribe directamente en su rango de la salida; si no, cada tramo junta sus resultados y se
+     * copian una sola vez al final.
+     * @param registros Fuente de registros; se divide con trySplit, que conserva el orden de encuentro
+     * @return double[] resultados en el mismo orden que los registros
+     */
+    public double[] convertir(Spliterator<RegistroConversion> registros) {
+        TablaTasas tabla = conversor.obtenerTabla();
+        long tamanio = registros.getExactSizeIfKnown();
+        if (registros.hasCharacteristics(Spliterator.SUBSIZED) && tamanio >= 0 && tamanio < Integer.MAX_VALUE) {
+            double[] salida = new double[(int) tamanio];
+            pool.invoke(new TareaRegistros(tabla, registros, umbral, salida, 0));
+            return salida;
+        }
+
+        List<double[]> tramos = pool.invoke(new TareaTramos(tabla, registros, umbral));
+        long total = 0;
+        for (double[] tramo : tramos) {
+            total += tramo.length;
+        }
+        if (total >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados registros para un solo arreglo: " + total);
+        }
+        double[] salida = new double[(int) total];
+        int posicion = 0;
+        for (double[] tramo : tramos) {
+            System.arraycopy(tramo, 0, salida, posicion, tramo.length);
+            posicion += tramo.length;
+        }
+        return salida;
+    }
+
+    /**
+     * Libera los hilos del pool
+     */
+    public void cerrar() {
+        pool.shutdown();
+    }
+
+    @SuppressWarnings("serial")
+    private final class TareaUnPar extends RecursiveAction {
+        private final TablaTasas tabla;
+        private final double[] cantidades;
+        private final int idOrigen;
+        private final int idDestino;
+        private final double[] salida;
+        private final int desde;
+        private final int hasta;
+
+        TareaUnPar(TablaTasas tabla, double[] cantidades, int idOrigen, int idDestino,
+                   double[] salida, int desde, int hasta) {
+            this.tabla = tabla;
+            this.cantidades = cantidades;
+            this.idOrigen = idOrigen;
+            this.idDestino = idDestino;
+            this.salida = salida;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= umbral) {
+                tabla.convertirLote(cantidades, desde, hasta, idOrigen, idDestino, salida);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaUnPar(tabla, cantidades, idOrigen, idDestino, salida, desde, medio),
+                    new TareaUnPar(tabla, cantidades, idOrigen, idDestino, salida, medio, hasta));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class TareaPares extends RecursiveAction {
+        private final TablaTasas tabla;
+        private final double[] cantidades;
+        private final int[] origenes;
+        private final int[] destinos;
+        private final double[] salida;
+        private final int desde;
+        private final int hasta;
+
+        TareaPares(TablaTasas tabla, double[] cantidades, int[] origenes, int[] destinos,
+                   double[] salida, int desde, int hasta) {
+            this.tabla = tabla;
+            this.cantidades = cantidades;
+            this.origenes = origenes;
+            this.destinos = destinos;
+            this.salida = salida;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= umbral) {
+                tabla.convertirLote(cantidades, origenes, destinos, desde, hasta, salida);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaPares(tabla, cantidades, origenes, destinos, salida, desde, medio),
+                    new TareaPares(tabla, cantidades, origenes, destinos, salida, medio, hasta));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class TareaRegistros extends RecursiveAction {
+        private final TablaTasas tabla;
+        private final Spliterator<RegistroConversion> registros;
+        private final int umbral;
+        private final double[] salida;
+        private final int desde;
+
+        /**
+         * @param registros Tramo con tamaño exacto; sus resultados van a salida a partir de desde
+         */
+        TareaRegistros(TablaTasas tabla, Spliterator<RegistroConversion> registros, int umbral,
+                       double[] salida, int desde) {
+            this.tabla = tabla;
+            this.registros = registros;
+            this.umbral = umbral;
+            this.salida = salida;
+            this.desde = desde;
+        }
+
+        @Override
+        protected void compute() {
+            Spliterator<RegistroConversion> prefijo;
+            if (registros.estimateSize() > umbral && (prefijo = registros.trySplit()) != null) {
+                // trySplit devuelve el prefijo: ocupa el rango inicial y el resto sigue a continuación
+                int medio = desde + (int) prefijo.getExactSizeIfKnown();
+                invokeAll(new TareaRegistros(tabla, prefijo, umbral, salida, desde),
+                        new TareaRegistros(tabla, registros, umbral, salida, medio));
+                return;
+            }
+            registros.forEachRemaining(new Escritor(tabla, salida, desde));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class TareaTramos extends RecursiveTask<List<double[]>> {
+        private final TablaTasas tabla;
+        private final Spliterator<RegistroConversion> registros;
+        private final int umbral;
+
+        TareaTramos(TablaTasas tabla, Spliterator<RegistroConversion> registros, int umbral) {
+            this.tabla = tabla;
+            this.registros = registros;
+            this.umbral = umbral;
+        }
+
+        @Override
+        protected List<double[]> compute() {
+            Spliterator<RegistroConversion> prefijo;
+            if (registros.estimateSize() > umbral && (prefijo = registros.trySplit()) != null) {
+                // Al unir sólo se encadenan las referencias a los tramos, no los valores
+                TareaTramos izquierda = new TareaTramos(tabla, prefijo, umbral);
+                izquierda.fork();
+                List<double[]> derecha = new TareaTramos(tabla, registros, umbral).compute();
+                List<double[]> tramos = izquierda.join();
+                tramos.addAll(derecha);
+                return tramos;
+            }
+
+            Acumulador acumulador = new Acumulador(tabla,
+                    (int) Math.min(Math.max(registros.estimateSize(), 16), umbral));
+            registros.forEachRemaining(acumulador);
+            List<double[]> tramos = new ArrayList<>();
+            tramos.add(acumulador.resultados());
+            return tramos;
+        }
+    }
+
+    private static double convertirRegistro(TablaTasas tabla, RegistroConversion registro) {
+        return tabla.convertir(registro.cantidad(),
+                tabla.resolverMoneda(registro.monedaOrigen()),
+                tabla.resolverMoneda(registro.monedaDestino()));
+    }
+
+    private static final class Escritor implements Consumer<RegistroConversion> {
+        private final TablaTasas tabla;
+        private final double[] salida;
+        private int posicion;
+
+        Escritor(TablaTasas tabla, double[] salida, int desde) {
+            this.tabla = tabla;
+            this.salida = salida;
+            this.posicion = desde;
+        }
+
+        @Override
+        public void accept(RegistroConversion registro) {
+            salida[posicion++] = convertirRegistro(tabla, registro);
+        }
+    }
+
+    private static final class Acumulador implements Consumer<RegistroConversion> {
+        private final TablaTasas tabla;
+        private double[] resultados;
+        private int cantidad;
+
+        Acumulador(TablaTasas tabla, int capacidadInicial) {
+            this.tabla = tabla;
+            this.resultados = new double[capacidadInicial];
+        }
+
+        @Override
+        public void accept(RegistroConversion registro) {
+            double convertido = convertirRegistro(tabla, registro);
+            if (cantidad == resultados.length) {
+                resultados = Arrays.copyOf(resultados, cantidad * 2);
+            }
+            resultados[cantidad++] = convertido;
+        }
+
+        double[] resultados() {
+            return cantidad == resultados.length ? resultados : Arrays.copyOf(resultados, cantidad);
+        }
+    }
+}
@@ -1,20 +1,47 @@
 package com.rodrigo.conversor;
 
-import java.text.DecimalFormat;
 import java.util.Map;
 
 /**
  * Clase para realizar conversiones entre monedas
  * Tarjeta 9: Convertiendo los valores
  */
-public class ConversorMonedas {
+public class ConversorMonedas implements MotorConversion {
 
-    private final Map<String, Double> tasasConversion;
-    private final DecimalFormat formateador;
+    // Instantánea publicada; se reemplaza entera con una sola escritura volátil
+    private volatile TablaTasas tabla;
+    private final FormateadorDecimal formateador;
 
     public ConversorMonedas(Map<String, Double> tasasConversion) {
-        this.tasasConversion = tasasConversion;
-        this.formateador = new DecimalFormat("#,##0.0000");
+        this(TablaTasas.desdeMapa(tasasConversion));
+    }
+
+    public ConversorMonedas(TablaTasas tabla) {
+        this.tabla = tabla;
+        this.formateador = new FormateadorDecimal();
+    }
+
+    /**
+     * Publica una nueva instantánea de tasas; los lectores ven la anterior o la nueva, nunca una mezcla
+     * @param nuevaTabla Tabla construida con las tasas actualizadas
+     */
+    public void publicarTabla(TablaTasas nuevaTabla) {
+        this.tabla = nuevaTabla;
+    }
+
+    /**
+     * Construye y publica una nueva instantánea a partir de un mapa de tasas
+     */
+    @Override
+    public void actualizarTasas(Map<String, Double> tasasConversion) {
+        publicarTabla(TablaTasas.desdeMapa(tasasConversion));
+    }
+
+    /**
+     * Obtiene la instantánea vigente para hacer varias operaciones sobre las mismas tasas
+     */
+    public TablaTasas obtenerTabla() {
+        return tabla;
     }
 
     /**
@@ -24,44 +51,108 @@ public class ConversorMonedas {
      * @param monedaDestino Moneda de destino (ej: "EUR")
      * @return double cantidad convertida
      */
+    @Override
     public double convertir(double cantidad, String monedaOrigen, String monedaDestino) {
-        validarMoneda(monedaOrigen);
-        validarMoneda(monedaDestino);
+        MetricasConversor.contarConversion();
+        EventoConversion evento = new EventoConversion();
+        if (evento.isEnabled() && EventoConversion.muestrear()) {
+            return convertirRegistrando(evento, cantidad, monedaOrigen, monedaDestino);
+        }
+        return resolverYConvertir(cantidad, monedaOrigen, monedaDestino);
+    }
 
-        if (monedaOrigen.equals(monedaDestino)) {
-            return cantidad;
+    /**
+     * Conversión muestreada para JFR: la misma operación dentro de un EventoConversion
+     */
+    private double convertirRegistrando(EventoConversion evento, double cantidad, String monedaOrigen,
+                                        String monedaDestino) {
+        evento.begin();
+        try {
+            return resolverYConvertir(cantidad, monedaOrigen, monedaDestino);
+        } finally {
+            evento.monedaBase = monedaOrigen;
+            evento.monedaDestino = monedaDestino;
+            evento.cantidad = cantidad;
+            evento.muestreo = EventoConversion.MUESTREO;
+            evento.commit();
         }
+    }
 
-        // Convertir a USD primero (moneda base)
-        double cantidadEnUSD;
-        if (monedaOrigen.equals("USD")) {
-            cantidadEnUSD = cantidad;
-        } else {
-            double tasaOrigen = tasasConversion.get(monedaOrigen);
-            cantidadEnUSD = cantidad / tasaOrigen;
+    private double resolverYConvertir(double cantidad, String monedaOrigen, String monedaDestino) {
+        TablaTasas actual = tabla;
+        try {
+            return actual.convertir(cantidad, validarMoneda(actual, monedaOrigen), validarMoneda(actual, monedaDestino));
+        } catch (IllegalArgumentException e) {
+            MetricasConversor.contarConversionFallida();
+            throw e;
         }
+    }
 
-        // Convertir de USD a moneda destino
-        if (monedaDestino.equals("USD")) {
-            return cantidadEnUSD;
-        } else {
-            double tasaDestino = tasasConversion.get(monedaDestino);
-            return cantidadEnUSD * tasaDestino;
+    /**
+     * Convierte una cantidad usando ids de {@link IndiceMonedas}, sin boxing ni hashing
+     * @param cantidad Cantidad a convertir
+     * @param idOrigen Id de la moneda de origen
+     * @param idDestino Id de la moneda de destino
+     * @return double cantidad convertida
+     */
+    public double convertir(double cantidad, int idOrigen, int idDestino) {
+        MetricasConversor.contarConversion();
+        try {
+            return tabla.convertir(cantidad, idOrigen, idDestino);
+        } catch (IllegalArgumentException e) {
+            MetricasConversor.contarConversionFallida();
+            throw e;
         }
     }
 
+    /**
+     * Convierte un lote de cantidades de una moneda a otra validando y resolviendo la tasa una sola vez
+     * @param cantidades Cantidades a convertir
+     * @param monedaOrigen Moneda de origen de todo el lote
+     * @param monedaDestino Moneda de destino de todo el lote
+     * @param salida Arreglo de al menos cantidades.length posiciones para los resultados
+     */
+    public void convertirLote(double[] cantidades, String monedaOrigen, String monedaDestino, double[] salida) {
+        long inicio = System.nanoTime();
+        TablaTasas actual = tabla;
+        actual.convertirLote(cantidades, 0, cantidades.length,
+                validarMoneda(actual, monedaOrigen), validarMoneda(actual, monedaDestino), salida);
+        MetricasConversor.registrarLote(cantidades.length, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Convierte un lote con un par de monedas por posición, expresado con ids de {@link IndiceMonedas}
+     * @param cantidades Cantidades a convertir
+     * @param origenes Id de la moneda de origen de cada cantidad
+     * @param destinos Id de la moneda de destino de cada cantidad
+     * @param salida Arreglo de al menos cantidades.length posiciones para los resultados
+     */
+    public void convertirLote(double[] cantidades, int[] origenes, int[] destinos, double[] salida) {
+        long inicio = System.nanoTime();
+        tabla.convertirLote(cantidades, origenes, destinos, 0, cantidades.length, salida);
+        MetricasConversor.registrarLote(cantidades.length, System.nanoTime() - inicio);
+    }
+
     /**
      * Convierte y formatea el resultado para mostrar al usuario
      */
+    @Override
     public String convertirYFormatear(double cantidad, String monedaOrigen, String monedaDestino) {
         double resultado = convertir(cantidad, monedaOrigen, monedaDestino);
-        return formateador.format(resultado);
+        return formateador.formatear(resultado);
     }
 
-    private void validarMoneda(String codigoMoneda) {
-        if (!tasasConversion.containsKey(codigoMoneda)) {
-            throw new IllegalArgumentException("Moneda no disponible: " + codigoMoneda);
-        }
+    /**
+     * Convierte y agrega el resultado formateado al StringBuilder indicado, sin crear objetos
+     * @return StringBuilder el mismo destino, para encadenar
+     */
+    public StringBuilder convertirYFormatear(double cantidad, String monedaOrigen, String monedaDestino,
+                                             StringBuilder destino) {
+        return formateador.formatear(convertir(cantidad, monedaOrigen, monedaDestino), destino);
+    }
+
+    private int validarMoneda(TablaTasas actual, String codigoMoneda) {
+        return actual.resolverMoneda(codigoMoneda);
     }
 
     /**
@@ -86,32 +177,32 @@ public class ConversorMonedas {
     /**
      * Obtiene la tasa de conversión entre dos monedas
      */
+    @Override
     public double obtenerTasaConversion(String monedaOrigen, String monedaDestino) {
-        validarMoneda(monedaOrigen);
-        validarMoneda(monedaDestino);
-
-        if (monedaOrigen.equals(monedaDestino)) {
-            return 1.0;
-        }
-
-        // Tasa = (1 USD / monedaOrigen) * (monedaDestino / 1 USD)
-        double tasaOrigen = monedaOrigen.equals("USD") ? 1.0 : tasasConversion.get(monedaOrigen);
-        double tasaDestino = monedaDestino.equals("USD") ? 1.0 : tasasConversion.get(monedaDestino);
+        TablaTasas actual = tabla;
+        return actual.tasaCruzada(validarMoneda(actual, monedaOrigen), validarMoneda(actual, monedaDestino));
+    }
 
-        return tasaDestino / tasaOrigen;
+    /**
+     * Obtiene la tasa de conversión entre dos monedas identificadas por id
+     */
+    public double obtenerTasaConversion(int idOrigen, int idDestino) {
+        return tabla.tasaCruzada(idOrigen, idDestino);
     }
 
     /**
      * Verifica si una moneda está disponible para conversión
      */
+    @Override
     public boolean monedaDisponible(String codigoMoneda) {
-        return tasasConversion.containsKey(codigoMoneda);
+        return tabla.disponible(IndiceMonedas.buscarId(codigoMoneda));
     }
 
     /**
      * Obtiene la lista de monedas disponibles
      */
+    @Override
     public String[] obtenerMonedasDisponibles() {
-        return tasasConversion.keySet().toArray(new String[0]);
+        return tabla.obtenerMonedasDisponibles();
     }
-}
\ No newline at end of file
+}
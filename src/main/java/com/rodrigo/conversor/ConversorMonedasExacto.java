@@ -0,0 +1,204 @@
+package com.rodrigo.conversor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Conversor de punto fijo: cantidades en unidades menores (centavos, yenes, fils) y tasas
+ * como enteros escalados por 10^ESCALA_TASA. El resultado es el cociente exacto
+ * cantidad * tasaDestino / tasaOrigen redondeado una sola vez con el modo configurado para
+ * el exponente de la moneda destino, usando aritmética de 128 bits sin BigDecimal.
+ */
+public class ConversorMonedasExacto implements MotorConversion {
+
+    /** Decimales con los que se guardan las tasas */
+    public static final int ESCALA_TASA = 10;
+
+    private static final long[] POTENCIAS_DIEZ = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L
+    };
+
+    // Exponente de unidad menor por código empaquetado (ISO 4217); 2 si no figura
+    private static final byte[] EXPONENTES = new byte[IndiceMonedas.CAPACIDAD_EMPAQUETADOS];
+
+    static {
+        Arrays.fill(EXPONENTES, (byte) 2);
+        for (String codigo : new String[]{"BIF", "CLP", "DJF", "GNF", "ISK", "JPY", "KMF", "KRW",
+                "PYG", "RWF", "UGX", "UYI", "VND", "VUV", "XAF", "XOF", "XPF"}) {
+            EXPONENTES[IndiceMonedas.empaquetar(codigo)] = 0;
+        }
+        for (String codigo : new String[]{"BHD", "IQD", "JOD", "KWD", "LYD", "OMR", "TND"}) {
+            EXPONENTES[IndiceMonedas.empaquetar(codigo)] = 3;
+        }
+        for (String codigo : new String[]{"CLF", "UYW"}) {
+            EXPONENTES[IndiceMonedas.empaquetar(codigo)] = 4;
+        }
+    }
+
+    private final RoundingMode[] modosPorExponente = new RoundingMode[5];
+    private final FormateadorDecimal formateador;
+    private volatile Tabla tabla;
+
+    public ConversorMonedasExacto(Map<String, Double> tasasConversion) {
+        this(tasasConversion, Map.of());
+    }
+
+    /**
+     * @param tasasConversion Mapa código → tasa respecto a la moneda base
+     * @param modosRedondeo Modo de redondeo por exponente de unidad menor (0 a 4); HALF_EVEN si no figura
+     */
+    public ConversorMonedasExacto(Map<String, Double> tasasConversion, Map<Integer, RoundingMode> modosRedondeo) {
+        Arrays.fill(modosPorExponente, RoundingMode.HALF_EVEN);
+        modosRedondeo.forEach((exponente, modo) -> {
+            if (exponente < 0 || exponente >= modosPorExponente.length) {
+                throw new IllegalArgumentException("Exponente de unidad menor inválido: " + exponente);
+            }
+            modosPorExponente[exponente] = modo;
+        });
+        this.formateador = new FormateadorDecimal();
+        this.tabla = new Tabla(tasasConversion);
+    }
+
+    /**
+     * Exponente de la unidad menor de una moneda según ISO 4217 (ej: USD 2, JPY 0, KWD 3)
+     */
+    public static int exponenteMenor(String codigoMoneda) {
+        int empaquetado = IndiceMonedas.empaquetar(codigoMoneda);
+        if (empaquetado < 0) {
+            throw new IllegalArgumentException("Código de moneda inválido: " + codigoMoneda);
+        }
+        return EXPONENTES[empaquetado];
+    }
+
+    /**
+     * Exponente de la unidad menor a partir del código ya empaquetado, sin validar la cadena
+     */
+    static int exponenteMenor(int empaquetado) {
+        return EXPONENTES[empaquetado];
+    }
+
+    @Override
+    public void actualizarTasas(Map<String, Double> tasasConversion) {
+        this.tabla = new Tabla(tasasConversion);
+    }
+
+    /**
+     * Convierte una cantidad expresada en unidades menores
+     * @param cantidadMenor Cantidad en unidades menores de la moneda de origen (ej: centavos)
+     * @return long cantidad en unidades menores de la moneda destino, redondeada una sola vez
+     */
+    public long convertirMenores(long cantidadMenor, String monedaOrigen, String monedaDestino) {
+        Tabla actual = tabla;
+        return actual.convertir(cantidadMenor, actual.resolver(monedaOrigen), actual.resolver(monedaDestino),
+                modosPorExponente);
+    }
+
+    /**
+     * Convierte una cantidad en unidades menores usando ids de {@link IndiceMonedas}
+     */
+    public long convertirMenores(long cantidadMenor, int idOrigen, int idDestino) {
+        return tabla.convertir(cantidadMenor, idOrigen, idDestino, modosPorExponente);
+    }
+
+    /**
+     * Convierte una cantidad en unidades de la moneda pasando por unidades menores
+     * La cantidad se redondea primero a la unidad menor de origen (HALF_EVEN).
+     */
+    @Override
+    public double convertir(double cantidad, String monedaOrigen, String monedaDestino) {
+        Tabla actual = tabla;
+        int idOrigen = actual.resolver(monedaOrigen);
+        int idDestino = actual.resolver(monedaDestino);
+        long cantidadMenor = (long) Math.rint(cantidad * POTENCIAS_DIEZ[actual.exponentes[idOrigen]]);
+        long resultado = actual.convertir(cantidadMenor, idOrigen, idDestino, modosPorExponente);
+        return resultado / (double) POTENCIAS_DIEZ[actual.exponentes[idDestino]];
+    }
+
+    @Override
+    public String convertirYFormatear(double cantidad, String monedaOrigen, String monedaDestino) {
+        return formateador.formatear(convertir(cantidad, monedaOrigen, monedaDestino));
+    }
+
+    @Override
+    public double obtenerTasaConversion(String monedaOrigen, String monedaDestino) {
+        Tabla actual = tabla;
+        return (double) actual.tasas[actual.resolver(monedaDestino)] / actual.tasas[actual.resolver(monedaOrigen)];
+    }
+
+    @Override
+    public boolean monedaDisponible(String codigoMoneda) {
+        return tabla.disponible(IndiceMonedas.buscarId(codigoMoneda));
+    }
+
+    @Override
+    public String[] obtenerMonedasDisponibles() {
+        return tabla.monedas.clone();
+    }
+
+    /**
+     * Instantánea inmutable de tasas escaladas, indexada por id de moneda
+     */
+    private static final class Tabla {
+        final long[] tasas;
+        final int[] exponentes;
+        final String[] monedas;
+
+        Tabla(Map<String, Double> tasasConversion) {
+            int maximoId = -1;
+            for (String codigoMoneda : tasasConversion.keySet()) {
+                maximoId = Math.max(maximoId, IndiceMonedas.obtenerId(codigoMoneda));
+            }
+            this.tasas = new long[maximoId + 1];
+            this.exponentes = new int[maximoId + 1];
+            this.monedas = tasasConversion.keySet().toArray(new String[0]);
+            for (Map.Entry<String, Double> entrada : tasasConversion.entrySet()) {
+                int id = IndiceMonedas.buscarId(entrada.getKey());
+                long escalada = BigDecimal.valueOf(entrada.getValue())
+                        .setScale(ESCALA_TASA, RoundingMode.HALF_EVEN)
+                        .unscaledValue().longValueExact();
+                if (escalada <= 0) {
+                    throw new IllegalArgumentException("Tasa no representable para " + entrada.getKey()
+                            + ": " + entrada.getValue());
+                }
+                tasas[id] = escalada;
+                exponentes[id] = exponenteMenor(entrada.getKey());
+            }
+        }
+
+        boolean disponible(int id) {
+            return id >= 0 && id < tasas.length && tasas[id] != 0;
+        }
+
+        int resolver(String codigoMoneda) {
+            int id = IndiceMonedas.buscarId(codigoMoneda);
+            if (!disponible(id)) {
+                throw new IllegalArgumentException("Moneda no disponible: " + codigoMoneda);
+            }
+            return id;
+        }
+
+        long convertir(long cantidadMenor, int idOrigen, int idDestino, RoundingMode[] modos) {
+            if (!disponible(idOrigen) || !disponible(idDestino)) {
+                throw new IllegalArgumentException("Moneda no disponible: id "
+                        + (disponible(idOrigen) ? idDestino : idOrigen));
+            }
+            if (idOrigen == idDestino) {
+                return cantidadMenor;
+            }
+            int exponenteDestino = exponentes[idDestino];
+            int diferencia = exponenteDestino - exponentes[idOrigen];
+            long multiplicador = tasas[idDestino];
+            long divisor = tasas[idOrigen];
+            if (diferencia > 0) {
+                multiplicador = Math.multiplyExact(multiplicador, POTENCIAS_DIEZ[diferencia]);
+            } else if (diferencia < 0) {
+                divisor = Math.multiplyExact(divisor, POTENCIAS_DIEZ[-diferencia]);
+            }
+            return AritmeticaExacta.multiplicarYDividir(cantidadMenor, multiplicador, divisor,
+                    modos[exponenteDestino]);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.rodrigo.conversor;
+
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Cuerpo de una respuesta de tasas que se analiza mientras llegan los bytes
+ * El manejador entrega los ByteBuffer del HttpClient a un InputStream (sin armar el String del
+ * cuerpo completo) y {@link #obtener()} los analiza con JsonReader a medida que se reciben, así
+ * la tabla queda lista al llegar el último byte. Mide el tiempo desde el primer byte hasta ese momento.
+ * Un cuerpo con Content-Encoding: gzip se descomprime en la misma pasada.
+ */
+public final class CuerpoTasas {
+
+    /** Tamaño máximo de un cuerpo descartado que todavía vale la pena leer para conservar la conexión */
+    static final int MAXIMO_DESCARTE = 64 * 1024;
+
+    private final int codigoEstado;
+    private final HttpHeaders headers;
+    private volatile InputStream entrada;
+    private volatile long nanosPrimerByte;
+    private volatile long nanosListo;
+    private volatile long bytesRecibidos;
+    private TasasAnalizadas tasas;
+    // Evento de la descarga que se emite al terminar de leer el cuerpo (sólo con JFR grabando)
+    private EventoDescargaTasas descarga;
+    // No se usa synchronized: bloquear en la lectura con el monitor tomado fija el hilo virtual a su portador
+    private final ReentrantLock candado = new ReentrantLock();
+
+    private CuerpoTasas(int codigoEstado, HttpHeaders headers) {
+        this.codigoEstado = codigoEstado;
+        this.headers = headers;
+    }
+
+    /**
+     * Cuerpo para una respuesta 304 que reutiliza tasas ya analizadas, sin leer nada de la red
+     * @param headers Headers de la respuesta 304
+     * @param vigentes Tasas de la última respuesta completa para el mismo recurso
+     */
+    static CuerpoTasas noModificado(HttpHeaders headers, TasasAnalizadas vigentes) {
+        CuerpoTasas cuerpo = new CuerpoTasas(304, headers);
+        cuerpo.tasas = vigentes;
+        return cuerpo;
+    }
+
+    /**
+     * Manejador para HttpClient.send/sendAsync que devuelve el cuerpo sin leerlo todavía
+     * La llamada retorna al recibir los headers; el análisis ocurre en {@link #obtener()}.
+     */
+    public static HttpResponse.BodyHandler<CuerpoTasas> manejador() {
+        return informacion -> {
+            CuerpoTasas cuerpo = new CuerpoTasas(informacion.statusCode(), informacion.headers());
+            HttpResponse.BodySubscriber<InputStream> flujo =
+                    new MedidorBytes(HttpResponse.BodySubscribers.ofInputStream(), cuerpo);
+            return HttpResponse.BodySubscribers.mapping(flujo, entrada -> {
+                cuerpo.entrada = entrada;
+                return cuerpo;
+            });
+        };
+    }
+
+    public int obtenerCodigoEstado() {
+        return codigoEstado;
+    }
+
+    public boolean esExitosa() {
+        return codigoEstado >= 200 && codigoEstado < 300;
+    }
+
+    /**
+     * @return boolean true si el servidor respondió 304: las tasas vigentes siguen valiendo
+     */
+    public boolean esNoModificada() {
+        return codigoEstado == 304;
+    }
+
+    /**
+     * Obtiene un header de la respuesta
+     * @param nombreHeader nombre del header a buscar
+     * @return String valor del header o null si no existe
+     */
+    public String obtenerHeader(String nombreHeader) {
+        return headers.firstValue(nombreHeader).orElse(null);
+    }
+
+    /**
+     * Analiza el cuerpo a medida que llega (bloquea hasta el último byte) y memoriza el resultado
+     * @return TasasAnalizadas con los datos de la respuesta
+     */
+    public TasasAnalizadas obtener() {
+        candado.lock();
+        try {
+            if (tasas == null) {
+                EventoAnalisisJSON evento = new EventoAnalisisJSON();
+                evento.begin();
+                long inicio = System.nanoTime();
+                try (InputStream flujo = descomprimir(new ConsumirAlCerrar(entrada))) {
+                    tasas = TasasAnalizadas.analizar(new InputStreamReader(flujo, StandardCharsets.UTF_8));
+                    nanosListo = System.nanoTime();
+                    // Incluye la espera de los bytes que todavía no habían llegado: se analiza mientras se recibe
+                    MetricasConversor.registrarAnalisisJSON(nanosListo - inicio, bytesRecibidos, true);
+                } catch (JsonParseException e) {
+                    MetricasConversor.registrarAnalisisJSON(System.nanoTime() - inicio, bytesRecibidos, false);
+                    throw e;
+                } catch (IOException e) {
+                    MetricasConversor.registrarAnalisisJSON(System.nanoTime() - inicio, bytesRecibidos, false);
+                    throw new UncheckedIOException("Error al leer el cuerpo de la respuesta", e);
+                } finally {
+                    registrarAnalisis(evento);
+                    terminarDescarga();
+                }
+            }
+            return tasas;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Asocia el evento de la descarga, que se completa cuando se termina de leer o se descarta el cuerpo
+     * @param evento Evento ya iniciado, con la moneda base cargada
+     */
+    void registrarDescargaAlTerminar(EventoDescargaTasas evento) {
+        candado.lock();
+        try {
+            descarga = evento;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    private void terminarDescarga() {
+        candado.lock();
+        try {
+            if (descarga == null) {
+                return;
+            }
+            descarga.end();
+            if (descarga.shouldCommit()) {
+                descarga.codigoEstado = codigoEstado;
+                descarga.bytes = bytesRecibidos;
+                descarga.commit();
+            }
+            descarga = null;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Completa y emite el evento de JFR del análisis en streaming; sin grabación activa no hace nada
+     */
+    private void registrarAnalisis(EventoAnalisisJSON evento) {
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.etapa = EventoAnalisisJSON.ETAPA_STREAMING;
+            evento.monedaBase = tasas == null ? null : tasas.obtenerMonedaBase();
+            evento.bytes = bytesRecibidos;
+            evento.codigoEstado = codigoEstado;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Descarta el cuerpo sin analizarlo (ej: respuestas de error), liberando la conexión
+     * Un cuerpo de hasta {@link #MAXIMO_DESCARTE} bytes se lee hasta el final para que la conexión vuelva
+     * al pool, como en {@link ConsumirAlCerrar}; uno más grande se corta y la conexión se pierde.
+     */
+    public void descartar() {
+        if (entrada == null) {
+            return;
+        }
+        try (InputStream flujo = entrada) {
+            drenar(flujo);
+        } catch (IOException e) {
+            // No hay nada que hacer con un cuerpo que se descarta
+        } finally {
+            terminarDescarga();
+        }
+    }
+
+    /**
+     * Tiempo desde que llegó el primer byte del cuerpo hasta que las tasas quedaron listas
+     * @return Duration medida, o Duration.ZERO si todavía no se analizó
+     */
+    public Duration obtenerTiempoHastaListo() {
+        long listo = nanosListo;
+        long primerByte = nanosPrimerByte;
+        return listo == 0 || primerByte == 0 ? Duration.ZERO : Duration.ofNanos(listo - primerByte);
+    }
+
+    /**
+     * Bytes del cuerpo tal como llegaron por la red (comprimidos, si el servidor usó gzip)
+     */
+    public long obtenerBytesRecibidos() {
+        return bytesRecibidos;
+    }
+
+    private InputStream descomprimir(InputStream flujo) throws IOException {
+        String codificacion = obtenerHeader("Content-Encoding");
+        if (codificacion == null || codificacion.equalsIgnoreCase("identity")) {
+            return flujo;
+        }
+        if (codificacion.equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(flujo);
+        }
+        flujo.close();
+        throw new IOException("Codificación de contenido no soportada: " + codificacion);
+    }
+
+    /**
+     * Lee hasta {@link #MAXIMO_DESCARTE} bytes de lo que quede; un resto más largo (o sin fin) se abandona
+     */
+    private static void drenar(InputStream flujo) throws IOException {
+        byte[] buffer = new byte[4096];
+        long restantes = MAXIMO_DESCARTE;
+        int leidos;
+        while (restantes > 0 && (leidos = flujo.read(buffer, 0, (int) Math.min(buffer.length, restantes))) >= 0) {
+            restantes -= leidos;
+        }
+    }
+
+    /**
+     * Lee lo que quede del cuerpo antes de cerrarlo: cerrar antes del final cancela la suscripción
+     * y el HttpClient descarta la conexión en lugar de devolverla al pool. Como en {@link #descartar()},
+     * se lee como mucho {@link #MAXIMO_DESCARTE} bytes; con un resto mayor se pierde la conexión.
+     */
+    private static final class ConsumirAlCerrar extends FilterInputStream {
+        private boolean cerrado;
+
+        ConsumirAlCerrar(InputStream origen) {
+            super(origen);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            try {
+                drenar(in);
+            } finally {
+                super.close();
+            }
+        }
+    }
+
+    /**
+     * Envoltorio que registra el momento del primer byte y cuenta los bytes antes de delegar
+     */
+    private static final class MedidorBytes implements HttpResponse.BodySubscriber<InputStream> {
+        private final HttpResponse.BodySubscriber<InputStream> destino;
+        private final CuerpoTasas cuerpo;
+
+        MedidorBytes(HttpResponse.BodySubscriber<InputStream> destino, CuerpoTasas cuerpo) {
+            this.destino = destino;
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public CompletionStage<InputStream> getBody() {
+            return destino.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription suscripcion) {
+            destino.onSubscribe(suscripcion);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> fragmentos) {
+            long bytes = 0;
+            for (ByteBuffer fragmento : fragmentos) {
+                bytes += fragmento.remaining();
+            }
+            if (cuerpo.nanosPrimerByte == 0 && bytes > 0) {
+                cuerpo.nanosPrimerByte = System.nanoTime();
+            }
+            // onNext nunca se invoca en paralelo para una misma suscripción
+            cuerpo.bytesRecibidos += bytes;
+            destino.onNext(fragmentos);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            destino.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            destino.onComplete();
+        }
+    }
+}
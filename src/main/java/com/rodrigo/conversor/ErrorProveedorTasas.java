@@ -0,0 +1,79 @@
+package com.rodrigo.conversor;
+
+import java.net.http.HttpTimeoutException;
+
+/**
+ * Falla al obtener tasas del proveedor, con el motivo tipado para decidir si reintentar o degradar
+ * Extiende RuntimeException, así el código que ya capturaba RuntimeException sigue funcionando.
+ */
+public class ErrorProveedorTasas extends RuntimeException {
+
+    public enum Motivo {
+        /** El servidor respondió con un código de error */
+        HTTP,
+        /** Venció un timeout o el plazo de la llamada */
+        TIMEOUT,
+        /** No se pudo conectar o se cortó la conexión */
+        RED,
+        /** La respuesta llegó pero no se pudo interpretar */
+        RESPUESTA_INVALIDA,
+        /** El circuito está abierto y no hay tasas de respaldo */
+        CIRCUITO_ABIERTO
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private final Motivo motivo;
+    private final int codigoHttp;
+
+    public ErrorProveedorTasas(Motivo motivo, String mensaje) {
+        this(motivo, mensaje, 0, null);
+    }
+
+    public ErrorProveedorTasas(Motivo motivo, String mensaje, Throwable causa) {
+        this(motivo, mensaje, 0, causa);
+    }
+
+    private ErrorProveedorTasas(Motivo motivo, String mensaje, int codigoHttp, Throwable causa) {
+        super(mensaje, causa);
+        this.motivo = motivo;
+        this.codigoHttp = codigoHttp;
+    }
+
+    /**
+     * Error por código de estado HTTP, con el mensaje que ya usaba SolicitudHTTP
+     */
+    public static ErrorProveedorTasas porCodigo(int codigoHttp) {
+        return new ErrorProveedorTasas(Motivo.HTTP, "Error en la API: Código " + codigoHttp, codigoHttp, null);
+    }
+
+    /**
+     * Clasifica una excepción del envío (timeout o falla de red)
+     */
+    public static ErrorProveedorTasas porEnvio(Throwable causa) {
+        Motivo motivo = causa instanceof HttpTimeoutException ? Motivo.TIMEOUT : Motivo.RED;
+        return new ErrorProveedorTasas(motivo, "Error al realizar la solicitud: " + causa.getMessage(), causa);
+    }
+
+    public Motivo obtenerMotivo() {
+        return motivo;
+    }
+
+    /**
+     * @return int código HTTP de la respuesta, o 0 si el error no vino de un código de estado
+     */
+    public int obtenerCodigoHttp() {
+        return codigoHttp;
+    }
+
+    /**
+     * Indica si vale la pena reintentar: fallas transitorias o errores 5xx / 429
+     */
+    public boolean esTransitorio() {
+        return switch (motivo) {
+            case TIMEOUT, RED, CIRCUITO_ABIERTO -> true;
+            case HTTP -> codigoHttp >= 500 || codigoHttp == 429;
+            case RESPUESTA_INVALIDA -> false;
+        };
+    }
+}
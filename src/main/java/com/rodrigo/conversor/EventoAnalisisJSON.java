@@ -0,0 +1,42 @@
+package com.rodrigo.conversor;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR para el procesamiento del JSON de una respuesta, para distinguirlo de los frames genéricos de Gson
+ */
+@Name("com.rodrigo.conversor.AnalisisJSON")
+@Label("Análisis de JSON de tasas")
+@Category({"Conversor de Monedas", "JSON"})
+@Description("Análisis del cuerpo de una respuesta de tasas")
+@StackTrace(false)
+final class EventoAnalisisJSON extends jdk.jfr.Event {
+
+    static final String ETAPA_TASAS = "Tasas";
+    static final String ETAPA_STREAMING = "Tasas en streaming";
+    static final String ETAPA_RESPUESTA_API = "RespuestaAPI";
+
+    @Label("Etapa")
+    @Description("Tasas: JSON a arreglos; Tasas en streaming: mientras llega el cuerpo; RespuestaAPI: arreglos a mapa")
+    String etapa;
+
+    @Label("Moneda base")
+    String monedaBase;
+
+    @Label("Bytes del cuerpo")
+    @Description("Bytes recibidos por la red (comprimidos, si vino con gzip); -1 si se desconocen")
+    @DataAmount
+    long bytes;
+
+    @Label("Caracteres del cuerpo")
+    @Description("Largo del cuerpo analizado como String; 0 en el análisis en streaming")
+    long caracteres;
+
+    @Label("Código de estado")
+    int codigoEstado;
+}
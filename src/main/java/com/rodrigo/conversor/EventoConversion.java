@@ -0,0 +1,44 @@
+package com.rodrigo.conversor;
+
+import java.util.concurrent.ThreadLocalRandom;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR para una conversión muestreada: registrar todas pesaría más que convertir
+ * Se registra en promedio una de cada {@link #MUESTREO} conversiones (-Dconversor.jfr.muestreo, 1 = todas).
+ * Con la grabación apagada isEnabled() es falso y el JIT elimina el evento y el muestreo.
+ */
+@Name("com.rodrigo.conversor.Conversion")
+@Label("Conversión muestreada")
+@Category({"Conversor de Monedas", "Conversión"})
+@Description("Una de cada N conversiones de ConversorMonedas")
+@StackTrace(false)
+final class EventoConversion extends jdk.jfr.Event {
+
+    static final int MUESTREO = Math.max(1, Integer.getInteger("conversor.jfr.muestreo", 1024));
+
+    @Label("Moneda base")
+    @Description("Moneda de origen de la conversión")
+    String monedaBase;
+
+    @Label("Moneda destino")
+    String monedaDestino;
+
+    @Label("Cantidad")
+    double cantidad;
+
+    @Label("Conversiones representadas")
+    @Description("Cuántas conversiones representa esta muestra (la tasa de muestreo)")
+    int muestreo;
+
+    /**
+     * Decide si esta conversión se registra
+     */
+    static boolean muestrear() {
+        return MUESTREO == 1 || ThreadLocalRandom.current().nextInt(MUESTREO) == 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.rodrigo.conversor;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR para una descarga de tasas, desde el envío hasta tener el cuerpo completo (duración del evento)
+ * Con el cuerpo en streaming lo emite {@link CuerpoTasas} al terminar de leerlo o descartarlo.
+ */
+@Name("com.rodrigo.conversor.DescargaTasas")
+@Label("Descarga de tasas")
+@Category({"Conversor de Monedas", "HTTP"})
+@Description("Solicitud HTTP a la API de tasas de cambio")
+@StackTrace(false)
+final class EventoDescargaTasas extends jdk.jfr.Event {
+
+    @Label("Moneda base")
+    String monedaBase;
+
+    @Label("Bytes del cuerpo")
+    @Description("Bytes recibidos por la red (comprimidos, si vino con gzip); -1 si se desconocen")
+    @DataAmount
+    long bytes;
+
+    @Label("Caracteres del cuerpo")
+    @Description("Largo del cuerpo leído como String; 0 en las descargas en streaming")
+    long caracteres;
+
+    @Label("Código de estado")
+    @Description("Código HTTP de la respuesta, o 0 si no hubo respuesta")
+    int codigoEstado;
+
+    /**
+     * Moneda base de una URL de la API: el último segmento de la ruta (ej: .../latest/USD)
+     */
+    static String monedaDeRuta(String ruta) {
+        int barra = ruta.lastIndexOf('/');
+        return barra < 0 ? ruta : ruta.substring(barra + 1);
+    }
+}
@@ -0,0 +1,260 @@
+package com.rodrigo.conversor;
+
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formateador de escala fija equivalente a DecimalFormat("#,##0.0000"), sin basura por llamada
+ * Es inmutable, así que una instancia se puede compartir entre hilos. El redondeo HALF_EVEN se hace
+ * con aritmética entera exacta sobre la mantisa del double; los casos donde el resultado de DecimalFormat
+ * depende de sus dígitos intermedios (restos casi en el empate, valores enormes, NaN, infinitos)
+ * se delegan en un DecimalFormat nuevo por llamada.
+ */
+public final class FormateadorDecimal {
+
+    private static final long[] POTENCIAS_DIEZ = new long[19];
+
+    static {
+        POTENCIAS_DIEZ[0] = 1;
+        for (int i = 1; i < POTENCIAS_DIEZ.length; i++) {
+            POTENCIAS_DIEZ[i] = POTENCIAS_DIEZ[i - 1] * 10;
+        }
+    }
+
+    private final int escala;
+    private final boolean agrupar;
+    private final DecimalFormatSymbols simbolos;
+    private final String patron;
+    private final double limiteExacto;
+
+    private final char cero;
+    private final char separadorMiles;
+    private final char separadorDecimal;
+    private final String signoMenos;
+    private final byte[][] bytesDigitos = new byte[10][];
+    private final byte[] bytesSeparadorMiles;
+    private final byte[] bytesSeparadorDecimal;
+    private final byte[] bytesSignoMenos;
+
+    /**
+     * Formateador "#,##0.0000" con los símbolos del locale por defecto, como new DecimalFormat("#,##0.0000")
+     */
+    public FormateadorDecimal() {
+        this(4, true, DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)));
+    }
+
+    /**
+     * @param escala Cantidad fija de decimales (0 a 9)
+     * @param agrupar true para separar miles de a tres dígitos
+     * @param simbolos Símbolos de dígitos, separadores y signo a usar
+     */
+    public FormateadorDecimal(int escala, boolean agrupar, DecimalFormatSymbols simbolos) {
+        if (escala < 0 || escala > 9) {
+            throw new IllegalArgumentException("Escala fuera de rango (0-9): " + escala);
+        }
+        this.escala = escala;
+        this.agrupar = agrupar;
+        this.simbolos = (DecimalFormatSymbols) simbolos.clone();
+        this.patron = (agrupar ? "#,##0" : "0") + (escala > 0 ? "." + "0".repeat(escala) : "");
+
+        // Mayor potencia de dos cuyo valor escalado todavía entra en un long
+        int exponente = 0;
+        while (Math.scalb(1.0, exponente + 1) * POTENCIAS_DIEZ[escala] < 0x1p62) {
+            exponente++;
+        }
+        this.limiteExacto = Math.scalb(1.0, exponente);
+
+        this.cero = simbolos.getZeroDigit();
+        this.separadorMiles = simbolos.getGroupingSeparator();
+        this.separadorDecimal = simbolos.getDecimalSeparator();
+        // El prefijo negativo puede ser más de un carácter (ej: marca de dirección en árabe)
+        this.signoMenos = new DecimalFormat(patron, this.simbolos).getNegativePrefix();
+        for (int d = 0; d < 10; d++) {
+            bytesDigitos[d] = utf8((char) (cero + d));
+        }
+        this.bytesSeparadorMiles = utf8(separadorMiles);
+        this.bytesSeparadorDecimal = utf8(separadorDecimal);
+        this.bytesSignoMenos = signoMenos.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formatea un valor y devuelve un String nuevo
+     */
+    public String formatear(double valor) {
+        return formatear(valor, new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Agrega el valor formateado al StringBuilder indicado
+     * @return StringBuilder el mismo destino, para encadenar
+     */
+    public StringBuilder formatear(double valor, StringBuilder destino) {
+        long escalado = escalar(valor);
+        if (escalado < 0) {
+            return destino.append(respaldo(valor));
+        }
+        if (esNegativo(valor)) {
+            destino.append(signoMenos);
+        }
+
+        // Se reserva el largo final y se completa de derecha a izquierda: una división por dígito
+        int digitosEntero = contarDigitos(escalado / POTENCIAS_DIEZ[escala]);
+        int posicion = destino.length() + digitosEntero + (agrupar ? (digitosEntero - 1) / 3 : 0)
+                + (escala > 0 ? escala + 1 : 0);
+        destino.setLength(posicion);
+        long resto = escalado;
+        for (int i = 0; i < escala; i++) {
+            destino.setCharAt(--posicion, (char) (cero + resto % 10));
+            resto /= 10;
+        }
+        if (escala > 0) {
+            destino.setCharAt(--posicion, separadorDecimal);
+        }
+        for (int i = 0; i < digitosEntero; i++) {
+            if (agrupar && i > 0 && i % 3 == 0) {
+                destino.setCharAt(--posicion, separadorMiles);
+            }
+            destino.setCharAt(--posicion, (char) (cero + resto % 10));
+            resto /= 10;
+        }
+        return destino;
+    }
+
+    /**
+     * Escribe el valor formateado en UTF-8 dentro de un arreglo de bytes
+     * @param destino Arreglo donde escribir; debe tener espacio suficiente
+     * @param posicion Índice desde el que se escribe
+     * @return int posición siguiente al último byte escrito
+     */
+    public int formatear(double valor, byte[] destino, int posicion) {
+        long escalado = escalar(valor);
+        if (escalado < 0) {
+            byte[] texto = respaldo(valor).getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(texto, 0, destino, posicion, texto.length);
+            return posicion + texto.length;
+        }
+        if (esNegativo(valor)) {
+            posicion = copiar(bytesSignoMenos, destino, posicion);
+        }
+
+        int digitosEntero = contarDigitos(escalado / POTENCIAS_DIEZ[escala]);
+        int bytesPorDigito = bytesDigitos[0].length;
+        int fin = posicion + (digitosEntero + escala) * bytesPorDigito
+                + (agrupar ? (digitosEntero - 1) / 3 * bytesSeparadorMiles.length : 0)
+                + (escala > 0 ? bytesSeparadorDecimal.length : 0);
+        posicion = fin;
+        long resto = escalado;
+        for (int i = 0; i < escala; i++) {
+            posicion -= bytesPorDigito;
+            copiar(bytesDigitos[(int) (resto % 10)], destino, posicion);
+            resto /= 10;
+        }
+        if (escala > 0) {
+            posicion -= bytesSeparadorDecimal.length;
+            copiar(bytesSeparadorDecimal, destino, posicion);
+        }
+        for (int i = 0; i < digitosEntero; i++) {
+            if (agrupar && i > 0 && i % 3 == 0) {
+                posicion -= bytesSeparadorMiles.length;
+                copiar(bytesSeparadorMiles, destino, posicion);
+            }
+            posicion -= bytesPorDigito;
+            copiar(bytesDigitos[(int) (resto % 10)], destino, posicion);
+            resto /= 10;
+        }
+        return fin;
+    }
+
+    /**
+     * Calcula |valor| * 10^escala redondeado HALF_EVEN sobre el valor binario exacto
+     * @return long valor escalado, o -1 si el valor está fuera del rango exacto
+     */
+    private long escalar(double valor) {
+        double absoluto = Math.abs(valor);
+        if (!(absoluto < limiteExacto)) {
+            return -1;
+        }
+        if (absoluto == 0.0) {
+            return 0;
+        }
+        long bits = Double.doubleToRawLongBits(absoluto);
+        int exponenteBinario = (int) (bits >>> 52);
+        long mantisa = bits & 0xFFFFFFFFFFFFFL;
+        if (exponenteBinario == 0) {
+            exponenteBinario = 1;
+        } else {
+            mantisa |= 1L << 52;
+        }
+        // absoluto = mantisa * 2^-corrimiento
+        int corrimiento = 1075 - exponenteBinario;
+        long potencia = POTENCIAS_DIEZ[escala];
+        if (corrimiento <= 0) {
+            return (mantisa << -corrimiento) * potencia;
+        }
+
+        // Producto de 128 bits alto:bajo = mantisa * 10^escala
+        long alto = Math.multiplyHigh(mantisa, potencia);
+        long bajo = mantisa * potencia;
+        long cociente;
+        long diferenciaAlto;
+        long diferenciaBajo;
+        if (corrimiento >= 128) {
+            return 0;
+        } else if (corrimiento >= 64) {
+            int s = corrimiento - 64;
+            cociente = alto >>> s;
+            long restoAlto = s == 0 ? 0 : alto & ((1L << s) - 1);
+            long mitadAlto = s == 0 ? 0 : 1L << (s - 1);
+            long mitadBajo = s == 0 ? Long.MIN_VALUE : 0;
+            diferenciaBajo = bajo - mitadBajo;
+            diferenciaAlto = restoAlto - mitadAlto - (Long.compareUnsigned(bajo, mitadBajo) < 0 ? 1 : 0);
+        } else {
+            cociente = (alto << (64 - corrimiento)) | (bajo >>> corrimiento);
+            diferenciaBajo = (bajo & ((1L << corrimiento) - 1)) - (1L << (corrimiento - 1));
+            diferenciaAlto = diferenciaBajo < 0 ? -1 : 0;
+        }
+
+        // Resto a menos de medio ulp de la mitad: los dígitos que redondea DecimalFormat pueden ser
+        // justo el empate y su desempate depende de FloatingDecimal, así que se usa el respaldo.
+        if ((diferenciaAlto == 0 && Long.compareUnsigned(diferenciaBajo, potencia) < 0)
+                || (diferenciaAlto == -1 && Long.compareUnsigned(-diferenciaBajo, potencia) < 0)) {
+            return -1;
+        }
+        if (diferenciaAlto >= 0) {
+            cociente++;
+        }
+        return cociente;
+    }
+
+    private static boolean esNegativo(double valor) {
+        // DecimalFormat conserva el signo de -0.0 y de negativos que redondean a cero
+        return Double.doubleToRawLongBits(valor) < 0;
+    }
+
+    private String respaldo(double valor) {
+        return new DecimalFormat(patron, simbolos).format(valor);
+    }
+
+    private static int contarDigitos(long valor) {
+        int digitos = 1;
+        while (digitos < POTENCIAS_DIEZ.length && valor >= POTENCIAS_DIEZ[digitos]) {
+            digitos++;
+        }
+        return digitos;
+    }
+
+    private static int copiar(byte[] origen, byte[] destino, int posicion) {
+        if (origen.length == 1) {
+            destino[posicion] = origen[0];
+            return posicion + 1;
+        }
+        System.arraycopy(origen, 0, destino, posicion, origen.length);
+        return posicion + origen.length;
+    }
+
+    private static byte[] utf8(char caracter) {
+        return String.valueOf(caracter).getBytes(StandardCharsets.UTF_8);
+    }
+}
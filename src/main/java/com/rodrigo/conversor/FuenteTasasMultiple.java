@@ -0,0 +1,292 @@
+package com.rodrigo.conversor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Combina varios proveedores de tasas en uno solo
+ * MAS_RAPIDA consulta a los proveedores mejor ubicados en paralelo y se queda con la primera respuesta
+ * exitosa; MEDIANA consulta a varios, exige quórum y toma la mediana de cada tasa, así un proveedor
+ * con datos erróneos no altera el resultado. La ubicación de cada proveedor sale de su histograma de
+ * latencias (p95) penalizado por su fracción de fallos.
+ */
+public class FuenteTasasMultiple implements ProveedorTasas {
+
+    public enum ModoConsulta { MAS_RAPIDA, MEDIANA }
+
+    public static final Duration PLAZO_PREDETERMINADO = Duration.ofSeconds(5);
+    // Con menos muestras que esto el proveedor todavía se está midiendo y se le da prioridad
+    private static final int MUESTRAS_MINIMAS = 5;
+
+    private final List<Registro> registros = new ArrayList<>();
+    private final ModoConsulta modo;
+    private final int participantes;
+    private final long plazoMillis;
+
+    /**
+     * @param proveedores Proveedores a combinar
+     * @param modo Forma de combinar las respuestas
+     * @param participantes Proveedores consultados por llamada (en MEDIANA, el quórum es la mayoría de ellos)
+     * @param plazo Tiempo máximo de cada consulta a un proveedor
+     */
+    public FuenteTasasMultiple(List<? extends ProveedorTasas> proveedores, ModoConsulta modo, int participantes,
+                               Duration plazo) {
+        if (proveedores.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos un proveedor de tasas");
+        }
+        if (participantes < 1 || participantes > proveedores.size()) {
+            throw new IllegalArgumentException("Participantes debe estar entre 1 y " + proveedores.size());
+        }
+        for (ProveedorTasas proveedor : proveedores) {
+            registros.add(new Registro(proveedor));
+        }
+        this.modo = modo;
+        this.participantes = participantes;
+        this.plazoMillis = plazo.toMillis();
+    }
+
+    @Override
+    public String obtenerNombre() {
+        return modo == ModoConsulta.MEDIANA ? "mediana de " + participantes : "más rápida de " + participantes;
+    }
+
+    @Override
+    public CompletableFuture<TasasAnalizadas> obtenerTasasAsync(String monedaBase) {
+        List<Registro> ordenados = ordenarPorDesempenio();
+        return modo == ModoConsulta.MEDIANA
+                ? mediana(monedaBase, ordenados.subList(0, participantes))
+                : masRapida(monedaBase, ordenados);
+    }
+
+    public ModoConsulta obtenerModo() {
+        return modo;
+    }
+
+    /**
+     * Histograma de latencias de un proveedor (respuestas exitosas y carreras perdidas)
+     */
+    public HistogramaLatencia obtenerLatencias(String nombreProveedor) {
+        for (Registro registro : registros) {
+            if (registro.proveedor.obtenerNombre().equals(nombreProveedor)) {
+                return registro.latencias;
+            }
+        }
+        throw new IllegalArgumentException("Proveedor desconocido: " + nombreProveedor);
+    }
+
+    /**
+     * Nombres de los proveedores en el orden en que se consultarían ahora
+     */
+    public List<String> obtenerOrden() {
+        List<String> nombres = new ArrayList<>();
+        for (Registro registro : ordenarPorDesempenio()) {
+            nombres.add(registro.proveedor.obtenerNombre());
+        }
+        return nombres;
+    }
+
+    /**
+     * Muestra, por proveedor, respuestas exitosas, fallos y latencias
+     */
+    public void mostrarEstadisticas() {
+        System.out.println("=== PROVEEDORES DE TASAS (" + obtenerNombre() + ") ===");
+        for (Registro registro : ordenarPorDesempenio()) {
+            System.out.println("📡 " + registro.proveedor.obtenerNombre() + ": " + registro.exitos.sum() + " ok, "
+                    + registro.fallos.sum() + " fallos, " + registro.latencias.resumen());
+        }
+        System.out.println("===========================================");
+    }
+
+    private CompletableFuture<TasasAnalizadas> masRapida(String monedaBase, List<Registro> ordenados) {
+        CompletableFuture<TasasAnalizadas> resultado = new CompletableFuture<>();
+        lanzarTanda(monedaBase, ordenados, 0, resultado);
+        return resultado;
+    }
+
+    /**
+     * Carrera entre los próximos participantes; si todos fallan se pasa a los siguientes
+     */
+    private void lanzarTanda(String monedaBase, List<Registro> ordenados, int desde,
+                             CompletableFuture<TasasAnalizadas> resultado) {
+        if (resultado.isDone()) {
+            return;
+        }
+        List<Registro> tanda = ordenados.subList(desde, Math.min(desde + participantes, ordenados.size()));
+        int siguiente = desde + tanda.size();
+        List<CompletableFuture<TasasAnalizadas>> intentos = new ArrayList<>();
+        AtomicInteger pendientes = new AtomicInteger(tanda.size());
+
+        for (Registro registro : tanda) {
+            CompletableFuture<TasasAnalizadas> intento = consultar(registro, monedaBase);
+            intentos.add(intento);
+            intento.whenComplete((tasas, error) -> {
+                if (error == null) {
+                    resultado.complete(tasas);
+                } else if (pendientes.decrementAndGet() == 0) {
+                    if (siguiente < ordenados.size()) {
+                        lanzarTanda(monedaBase, ordenados, siguiente, resultado);
+                    } else {
+                        resultado.completeExceptionally(clasificar(error));
+                    }
+                }
+            });
+        }
+        // La primera respuesta gana: el resto se cancela y no cuenta como fallo del proveedor
+        resultado.whenComplete((tasas, error) -> intentos.forEach(intento -> intento.cancel(true)));
+    }
+
+    /**
+     * Consulta a todos los participantes y combina las tasas por mediana, si responde la mayoría
+     */
+    private CompletableFuture<TasasAnalizadas> mediana(String monedaBase, List<Registro> elegidos) {
+        List<CompletableFuture<TasasAnalizadas>> intentos = new ArrayList<>();
+        for (Registro registro : elegidos) {
+            intentos.add(consultar(registro, monedaBase));
+        }
+        int quorum = elegidos.size() / 2 + 1;
+        CompletableFuture<TasasAnalizadas> combinada = CompletableFuture.allOf(intentos.stream()
+                        .map(intento -> intento.handle((tasas, error) -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenApply(nada -> {
+                    List<TasasAnalizadas> respuestas = new ArrayList<>();
+                    for (CompletableFuture<TasasAnalizadas> intento : intentos) {
+                        if (!intento.isCompletedExceptionally()) {
+                            respuestas.add(intento.join());
+                        }
+                    }
+                    if (respuestas.size() < quorum) {
+                        throw new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.RESPUESTA_INVALIDA, "Sin quórum para "
+                                + monedaBase + ": respondieron " + respuestas.size() + " de " + elegidos.size());
+                    }
+                    return combinarPorMediana(monedaBase, respuestas, quorum);
+                });
+        combinada.whenComplete((tasas, error) -> {
+            if (error != null) {
+                intentos.forEach(intento -> intento.cancel(true));
+            }
+        });
+        return combinada;
+    }
+
+    private static TasasAnalizadas combinarPorMediana(String monedaBase, List<TasasAnalizadas> respuestas, int quorum) {
+        // Valores de cada moneda en el orden en que aparece por primera vez
+        Map<Integer, double[]> valoresPorId = new LinkedHashMap<>();
+        Map<Integer, Integer> cantidadPorId = new LinkedHashMap<>();
+        long ultima = 0;
+        long proxima = Long.MAX_VALUE;
+        for (TasasAnalizadas respuesta : respuestas) {
+            for (int i = 0; i < respuesta.cantidadTasas(); i++) {
+                int id = respuesta.idEn(i);
+                int n = cantidadPorId.merge(id, 1, Integer::sum);
+                valoresPorId.computeIfAbsent(id, clave -> new double[respuestas.size()])[n - 1] = respuesta.tasaEn(i);
+            }
+            ultima = Math.max(ultima, respuesta.obtenerUltimaActualizacionUnix());
+            if (respuesta.obtenerProximaActualizacionUnix() > 0) {
+                proxima = Math.min(proxima, respuesta.obtenerProximaActualizacionUnix());
+            }
+        }
+
+        int[] ids = new int[valoresPorId.size()];
+        double[] medianas = new double[valoresPorId.size()];
+        int cantidad = 0;
+        for (Map.Entry<Integer, double[]> entrada : valoresPorId.entrySet()) {
+            int n = cantidadPorId.get(entrada.getKey());
+            if (n < quorum) {
+                // Una moneda que sólo informa la minoría no tiene consenso
+                continue;
+            }
+            double[] valores = Arrays.copyOf(entrada.getValue(), n);
+            Arrays.sort(valores);
+            ids[cantidad] = entrada.getKey();
+            medianas[cantidad] = n % 2 == 1 ? valores[n / 2] : (valores[n / 2 - 1] + valores[n / 2]) / 2;
+            cantidad++;
+        }
+        return TasasAnalizadas.combinadas(monedaBase, ids, medianas, cantidad, ultima,
+                proxima == Long.MAX_VALUE ? 0 : proxima);
+    }
+
+    private CompletableFuture<TasasAnalizadas> consultar(Registro registro, String monedaBase) {
+        long inicio = System.nanoTime();
+        CompletableFuture<TasasAnalizadas> consulta;
+        try {
+            consulta = registro.proveedor.obtenerTasasAsync(monedaBase);
+        } catch (RuntimeException e) {
+            consulta = CompletableFuture.failedFuture(e);
+        }
+        // orTimeout devuelve el mismo futuro: cancelarlo (carrera perdida) o vencerlo aborta la consulta
+        consulta.orTimeout(plazoMillis, TimeUnit.MILLISECONDS).whenComplete((tasas, error) -> {
+            if (error == null) {
+                registro.latencias.registrar(System.nanoTime() - inicio);
+                registro.exitos.increment();
+            } else if (desenvolver(error) instanceof CancellationException) {
+                // Perdió la carrera: tardó al menos esto, así un proveedor que nunca gana igual se mide
+                registro.latencias.registrar(System.nanoTime() - inicio);
+            } else {
+                registro.fallos.increment();
+            }
+        });
+        return consulta;
+    }
+
+    private List<Registro> ordenarPorDesempenio() {
+        List<Registro> ordenados = new ArrayList<>(registros);
+        // Orden estable: a igual puntaje se respeta el orden configurado
+        ordenados.sort(Comparator.comparingDouble(Registro::puntaje));
+        return ordenados;
+    }
+
+    private static ErrorProveedorTasas clasificar(Throwable error) {
+        Throwable causa = desenvolver(error);
+        if (causa instanceof ErrorProveedorTasas) {
+            return (ErrorProveedorTasas) causa;
+        }
+        if (causa instanceof TimeoutException) {
+            return new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.TIMEOUT, "Ningún proveedor respondió en plazo", causa);
+        }
+        return ErrorProveedorTasas.porEnvio(causa);
+    }
+
+    private static Throwable desenvolver(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Proveedor junto con sus estadísticas
+     */
+    private static final class Registro {
+        final ProveedorTasas proveedor;
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+        final LongAdder exitos = new LongAdder();
+        final LongAdder fallos = new LongAdder();
+
+        Registro(ProveedorTasas proveedor) {
+            this.proveedor = proveedor;
+        }
+
+        /**
+         * Menor es mejor: p95 en milisegundos, multiplicado por la penalización de fallos
+         */
+        double puntaje() {
+            long muestras = latencias.obtenerCantidad();
+            long mal = fallos.sum();
+            if (muestras < MUESTRAS_MINIMAS && mal == 0) {
+                return 0;
+            }
+            double p95 = muestras == 0 ? PLAZO_PREDETERMINADO.toMillis() : latencias.percentil(0.95).toNanos() / 1e6;
+            double fraccionFallos = (double) mal / (muestras + mal);
+            return p95 * (1 + 10 * fraccionFallos);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.rodrigo.conversor;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga HTTP/1.1 para medir el ServidorConversion
+ * Cada conexión persistente es un hilo virtual que envía una solicitud, lee la respuesta completa y
+ * vuelve a enviar, hasta que se cumple la duración. Habla HTTP directamente sobre el socket para que el
+ * costo del cliente no tape el del servidor.
+ *
+ * Uso: java ... GeneradorCarga [host:puerto [conexiones [segundos]]]
+ * Sin destino, levanta un servidor local con tasas de ejemplo y lo mide.
+ */
+public final class GeneradorCarga {
+
+    /**
+     * Resultado de una corrida
+     */
+    public record Resultado(long respuestas, long errores, Duration duracion, HistogramaLatencia latencias) {
+
+        public double solicitudesPorSegundo() {
+            return respuestas / (duracion.toNanos() / 1e9);
+        }
+
+        public void mostrar() {
+            System.out.printf("⚡ %,.0f solicitudes/s (%,d respuestas, %d errores en %.1f s)%n",
+                    solicitudesPorSegundo(), respuestas, errores, duracion.toNanos() / 1e9);
+            System.out.println("⏱️ " + latencias.resumen());
+        }
+    }
+
+    private GeneradorCarga() {
+    }
+
+    /**
+     * Envía solicitudes GET por varias conexiones persistentes durante un tiempo fijo
+     * @param destino Dirección del servidor
+     * @param rutas Rutas con su consulta (ej: "/convertir?de=USD&a=ARS&cantidad=1"); se alternan en cada envío
+     * @param conexiones Conexiones simultáneas
+     * @param duracion Tiempo de medición
+     */
+    public static Resultado ejecutar(InetSocketAddress destino, List<String> rutas, int conexiones, Duration duracion)
+            throws InterruptedException {
+        byte[][] solicitudes = new byte[rutas.size()][];
+        for (int i = 0; i < solicitudes.length; i++) {
+            solicitudes[i] = ("GET " + rutas.get(i) + " HTTP/1.1\r\nHost: " + destino.getHostString() + ":"
+                    + destino.getPort() + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        }
+        HistogramaLatencia latencias = new HistogramaLatencia();
+        LongAdder respuestas = new LongAdder();
+        LongAdder errores = new LongAdder();
+
+        long inicio = System.nanoTime();
+        long fin = inicio + duracion.toNanos();
+        List<Future<?>> tareas = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < conexiones; c++) {
+                int desplazamiento = c;
+                tareas.add(hilos.submit(() -> {
+                    conexion(destino, solicitudes, desplazamiento, fin, latencias, respuestas, errores);
+                    return null;
+                }));
+            }
+        }
+        Duration transcurrido = Duration.ofNanos(System.nanoTime() - inicio);
+        for (Future<?> tarea : tareas) {
+            if (tarea.state() == Future.State.FAILED) {
+                errores.increment();
+            }
+        }
+        return new Resultado(respuestas.sum(), errores.sum(), transcurrido, latencias);
+    }
+
+    private static void conexion(InetSocketAddress destino, byte[][] solicitudes, int desplazamiento, long fin,
+                                 HistogramaLatencia latencias, LongAdder respuestas, LongAdder errores)
+            throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.connect(destino);
+            OutputStream salida = socket.getOutputStream();
+            InputStream entrada = new BufferedInputStream(socket.getInputStream(), 8192);
+            byte[] descarte = new byte[8192];
+            for (int i = desplazamiento; System.nanoTime() < fin; i++) {
+                long envio = System.nanoTime();
+                salida.write(solicitudes[i % solicitudes.length]);
+                salida.flush();
+                int codigo = leerRespuesta(entrada, descarte);
+                latencias.registrar(System.nanoTime() - envio);
+                respuestas.increment();
+                if (codigo != 200) {
+                    errores.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lee línea de estado, headers y cuerpo (con Content-Length) de una respuesta
+     * @return int código de estado
+     */
+    private static int leerRespuesta(InputStream entrada, byte[] descarte) throws IOException {
+        StringBuilder linea = new StringBuilder(64);
+        int codigo = 0;
+        long largo = 0;
+        boolean primera = true;
+        while (true) {
+            linea.setLength(0);
+            int b;
+            while ((b = entrada.read()) != '\n') {
+                if (b < 0) {
+                    throw new EOFException("El servidor cerró la conexión");
+                }
+                if (b != '\r') {
+                    linea.append((char) b);
+                }
+            }
+            if (linea.length() == 0) {
+                break;
+            }
+            if (primera) {
+                codigo = Integer.parseInt(linea.substring(9, 12));
+                primera = false;
+            } else if (linea.length() > 15 && linea.substring(0, 15).equalsIgnoreCase("content-length:")) {
+                largo = Long.parseLong(linea.substring(15).trim());
+            }
+        }
+        while (largo > 0) {
+            int leidos = entrada.read(descarte, 0, (int) Math.min(descarte.length, largo));
+            if (leidos < 0) {
+                throw new EOFException("Cuerpo incompleto");
+            }
+            largo -= leidos;
+        }
+        return codigo;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int conexiones = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        Duration duracion = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+        List<String> rutas = List.of("/convertir?de=USD&a=ARS&cantidad=100", "/convertir?de=EUR&a=JPY&cantidad=2.5");
+
+        if (args.length > 0) {
+            String[] partes = args[0].split(":");
+            InetSocketAddress destino = new InetSocketAddress(partes[0], Integer.parseInt(partes[1]));
+            System.out.println("🎯 " + destino + " con " + conexiones + " conexiones durante " + duracion.toSeconds() + " s");
+            ejecutar(destino, rutas, conexiones, duracion).mostrar();
+            return;
+        }
+
+        ConversorMonedas conversor = new ConversorMonedas(Map.of("USD", 1.0, "EUR", 0.86, "ARS", 1292.33, "JPY", 147.12));
+        try (ServidorConversion servidor = new ServidorConversion(conversor,
+                new InetSocketAddress("127.0.0.1", 0), ModoEjecucion.VIRTUAL)) {
+            servidor.iniciar();
+            InetSocketAddress destino = new InetSocketAddress("127.0.0.1", servidor.obtenerPuerto());
+            System.out.println("🎯 Servidor local con " + conexiones + " conexiones durante " + duracion.toSeconds() + " s");
+            ejecutar(destino, rutas, conexiones, Duration.ofSeconds(1));
+            ejecutar(destino, rutas, conexiones, duracion).mostrar();
+            servidor.mostrarEstadisticas();
+        }
+    }
+}
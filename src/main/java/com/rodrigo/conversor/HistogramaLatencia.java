@@ -0,0 +1,117 @@
+package com.rodrigo.conversor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin bloqueos, con cubetas logarítmicas en microsegundos
+ * Cada potencia de dos se divide en 4 cubetas, así un percentil se informa con un error máximo
+ * del 25% usando una memoria fija (~150 contadores) sin importar cuántas muestras se registren.
+ */
+public class HistogramaLatencia {
+
+    private static final int SUBCUBETAS_BITS = 2;
+    private static final int SUBCUBETAS = 1 << SUBCUBETAS_BITS;
+    // Hasta 2^37 µs (~38 horas); lo que exceda cae en la última cubeta
+    private static final int CUBETAS = 38 * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder sumaMicros = new LongAdder();
+
+    /**
+     * Registra una muestra
+     * @param nanos Duración medida en nanosegundos
+     */
+    public void registrar(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        cubetas.incrementAndGet(indice(micros));
+        cantidad.increment();
+        sumaMicros.add(micros);
+    }
+
+    public void registrar(Duration duracion) {
+        registrar(duracion.toNanos());
+    }
+
+    public long obtenerCantidad() {
+        return cantidad.sum();
+    }
+
+    /**
+     * Latencia promedio, o Duration.ZERO si no hay muestras
+     */
+    public Duration obtenerPromedio() {
+        long n = cantidad.sum();
+        return n == 0 ? Duration.ZERO : Duration.ofNanos(sumaMicros.sum() * 1_000 / n);
+    }
+
+    /**
+     * Valor por debajo del cual cae la fracción pedida de las muestras (límite superior de su cubeta)
+     * @param fraccion Percentil entre 0 y 1 (ej: 0.95)
+     * @return Duration estimada, o Duration.ZERO si no hay muestras
+     */
+    public Duration percentil(double fraccion) {
+        if (fraccion < 0 || fraccion > 1) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 1: " + fraccion);
+        }
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(fraccion * total));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Duration.ofNanos(limiteSuperiorMicros(i) * 1_000);
+            }
+        }
+        return Duration.ofNanos(limiteSuperiorMicros(CUBETAS - 1) * 1_000);
+    }
+
+    /**
+     * Descarta todas las muestras
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        cantidad.reset();
+        sumaMicros.reset();
+    }
+
+    /**
+     * Resumen de una línea (cantidad, promedio, p50, p95 y p99 en milisegundos)
+     */
+    public String resumen() {
+        return String.format("n=%d prom=%.1f ms p50=%.1f ms p95=%.1f ms p99=%.1f ms", obtenerCantidad(),
+                obtenerPromedio().toNanos() / 1e6, percentil(0.50).toNanos() / 1e6,
+                percentil(0.95).toNanos() / 1e6, percentil(0.99).toNanos() / 1e6);
+    }
+
+    private static int indice(long micros) {
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponente < SUBCUBETAS_BITS) {
+            // 1, 2 y 3 µs tienen cubeta propia
+            return (int) micros;
+        }
+        int sub = (int) (micros >>> (exponente - SUBCUBETAS_BITS)) & (SUBCUBETAS - 1);
+        return Math.min(CUBETAS - 1, (exponente - SUBCUBETAS_BITS + 1) * SUBCUBETAS + sub);
+    }
+
+    private static long limiteSuperiorMicros(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS - 1 + SUBCUBETAS_BITS;
+        int sub = indice % SUBCUBETAS;
+        return ((long) (SUBCUBETAS + sub + 1) << (exponente - SUBCUBETAS_BITS)) - 1;
+    }
+}
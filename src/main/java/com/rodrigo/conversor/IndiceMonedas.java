@@ -0,0 +1,146 @@
+package com.rodrigo.conversor;
+
+import java.util.Arrays;
+
+/**
+ * Registro global que asigna a cada código ISO-4217 un identificador entero pequeño
+ * Los tres caracteres del código se empaquetan en un int (5 bits por letra) y ese valor
+ * indexa una tabla plana con el id denso, sin hashing ni comparación de cadenas.
+ */
+public final class IndiceMonedas {
+
+    /** Cantidad de códigos posibles de tres letras A-Z empaquetados en 15 bits */
+    public static final int CAPACIDAD_EMPAQUETADOS = 1 << 15;
+
+    private static final int[] idsPorEmpaquetado = new int[CAPACIDAD_EMPAQUETADOS];
+    private static String[] codigosPorId = new String[256];
+    private static int cantidad;
+    // Se incrementa después de cada registro: leerla hace visibles los ids registrados antes, sin el monitor
+    private static volatile int generacion;
+
+    static {
+        Arrays.fill(idsPorEmpaquetado, -1);
+    }
+
+    private IndiceMonedas() {
+    }
+
+    /**
+     * Empaqueta un código de tres letras mayúsculas en un int
+     * @param codigoMoneda Código de la moneda (ej: "USD")
+     * @return int valor empaquetado o -1 si el código no es de tres letras A-Z
+     */
+    public static int empaquetar(String codigoMoneda) {
+        if (codigoMoneda == null || codigoMoneda.length() != 3) {
+            return -1;
+        }
+        return empaquetar(codigoMoneda.charAt(0), codigoMoneda.charAt(1), codigoMoneda.charAt(2));
+    }
+
+    /**
+     * Empaqueta tres caracteres (o bytes ASCII) en un int
+     * @return int valor empaquetado o -1 si algún carácter no es A-Z
+     */
+    public static int empaquetar(int c0, int c1, int c2) {
+        int a = c0 - 'A';
+        int b = c1 - 'A';
+        int c = c2 - 'A';
+        if ((a | b | c) < 0 || a > 25 || b > 25 || c > 25) {
+            return -1;
+        }
+        return (a << 10) | (b << 5) | c;
+    }
+
+    /**
+     * Reconstruye el código de tres letras a partir de su valor empaquetado
+     * @param empaquetado Valor devuelto por {@link #empaquetar(String)}
+     * @return String código de la moneda (ej: "USD")
+     */
+    public static String desempaquetar(int empaquetado) {
+        if (empaquetado < 0 || empaquetado >= CAPACIDAD_EMPAQUETADOS) {
+            throw new IllegalArgumentException("Código empaquetado inválido: " + empaquetado);
+        }
+        char[] letras = {
+                (char) ('A' + (empaquetado >>> 10)),
+                (char) ('A' + ((empaquetado >>> 5) & 0x1F)),
+                (char) ('A' + (empaquetado & 0x1F))
+        };
+        if (letras[0] > 'Z' || letras[1] > 'Z' || letras[2] > 'Z') {
+            throw new IllegalArgumentException("Código empaquetado inválido: " + empaquetado);
+        }
+        return new String(letras);
+    }
+
+    /**
+     * Obtiene el id de una moneda, registrándola si todavía no existe
+     * @param codigoMoneda Código ISO de tres letras mayúsculas
+     * @return int id denso de la moneda
+     */
+    public static int obtenerId(String codigoMoneda) {
+        int empaquetado = empaquetar(codigoMoneda);
+        if (empaquetado < 0) {
+            throw new IllegalArgumentException("Código de moneda inválido: " + codigoMoneda);
+        }
+        int id = idsPorEmpaquetado[empaquetado];
+        return id >= 0 ? id : registrar(empaquetado, codigoMoneda);
+    }
+
+    /**
+     * Busca el id de una moneda sin registrarla
+     * @param codigoMoneda Código de la moneda
+     * @return int id denso o -1 si la moneda no fue registrada
+     */
+    public static int buscarId(String codigoMoneda) {
+        return buscarIdEmpaquetado(empaquetar(codigoMoneda));
+    }
+
+    /**
+     * Busca el id a partir de un código ya empaquetado
+     * @param empaquetado Valor devuelto por {@link #empaquetar(String)}
+     * @return int id denso o -1 si no existe
+     */
+    public static int buscarIdEmpaquetado(int empaquetado) {
+        if (empaquetado < 0 || empaquetado >= CAPACIDAD_EMPAQUETADOS) {
+            return -1;
+        }
+        int id = idsPorEmpaquetado[empaquetado];
+        if (id < 0 && generacion > 0) {
+            // Puede haberse registrado en otro hilo: tras la lectura volatile se relee sin bloquear, porque
+            // los códigos desconocidos llegan por cada trama o solicitud y el monitor serializaría a todos
+            id = idsPorEmpaquetado[empaquetado];
+        }
+        return id;
+    }
+
+    /**
+     * Obtiene el código ISO correspondiente a un id
+     */
+    public static synchronized String obtenerCodigo(int id) {
+        if (id < 0 || id >= cantidad) {
+            throw new IllegalArgumentException("Id de moneda inválido: " + id);
+        }
+        return codigosPorId[id];
+    }
+
+    /**
+     * Cantidad de monedas registradas hasta el momento
+     */
+    public static synchronized int cantidad() {
+        return cantidad;
+    }
+
+    private static synchronized int registrar(int empaquetado, String codigoMoneda) {
+        int id = idsPorEmpaquetado[empaquetado];
+        if (id >= 0) {
+            return id;
+        }
+        if (cantidad == codigosPorId.length) {
+            codigosPorId = Arrays.copyOf(codigosPorId, cantidad * 2);
+        }
+        id = cantidad++;
+        codigosPorId[id] = codigoMoneda;
+        idsPorEmpaquetado[empaquetado] = id;
+        generacion++;
+        return id;
+    }
+}
@@ -0,0 +1,143 @@
+package com.rodrigo.conversor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Instantánea binaria de la última respuesta válida de la API, para arrancar sin red
+ *
+ * Formato (big-endian):
+ *   int magia "CMTS", short versión, short base empaquetada,
+ *   long última actualización unix, long próxima actualización unix, int cantidad,
+ *   cantidad × (short código empaquetado, double tasa), int CRC32 de todo lo anterior.
+ */
+public final class InstantaneaTasas {
+
+    private static final int MAGIA = 0x434D5453;
+    private static final short VERSION = 1;
+    private static final int TAMANIO_CABECERA = 4 + 2 + 2 + 8 + 8 + 4;
+    private static final int TAMANIO_REGISTRO = 2 + 8;
+    private static final int TAMANIO_CRC = 4;
+
+    private InstantaneaTasas() {
+    }
+
+    /**
+     * Ruta por defecto de la instantánea de una moneda base: ~/.conversor-monedas/tasas-USD.bin
+     */
+    public static Path rutaPredeterminada(String monedaBase) {
+        return Path.of(System.getProperty("user.home"), ".conversor-monedas", "tasas-" + monedaBase + ".bin");
+    }
+
+    /**
+     * Guarda la respuesta de forma atómica: se escribe un archivo temporal y se lo mueve encima
+     * Un lector nunca ve una instantánea a medio escribir.
+     * @param respuesta Respuesta exitosa de la API
+     * @param ruta Archivo destino
+     */
+    public static void guardar(RespuestaAPI respuesta, Path ruta) throws IOException {
+        Map<String, Double> tasas = respuesta.getTasasConversion();
+        int base = empaquetarValidado(respuesta.getCodigoBase());
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANIO_CABECERA + tasas.size() * TAMANIO_REGISTRO + TAMANIO_CRC);
+        buffer.putInt(MAGIA)
+                .putShort(VERSION)
+                .putShort((short) base)
+                .putLong(respuesta.getUltimaActualizacionUnix())
+                .putLong(respuesta.getProximaActualizacionUnix())
+                .putInt(tasas.size());
+        for (Map.Entry<String, Double> entrada : tasas.entrySet()) {
+            buffer.putShort((short) empaquetarValidado(entrada.getKey()))
+                    .putDouble(entrada.getValue());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path directorio = ruta.toAbsolutePath().getParent();
+        Files.createDirectories(directorio);
+        Path temporal = Files.createTempFile(directorio, ruta.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(true);
+            }
+            Files.move(temporal, ruta, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Lee una instantánea mapeando el archivo en memoria
+     * @param ruta Archivo guardado con {@link #guardar(RespuestaAPI, Path)}
+     * @return RespuestaAPI con result "success" y los datos guardados
+     * @throws IOException si el archivo no existe, está truncado o no pasa la verificación
+     */
+    public static RespuestaAPI cargar(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < TAMANIO_CABECERA + TAMANIO_CRC || tamanio > Integer.MAX_VALUE) {
+                throw new IOException("Instantánea con tamaño inválido: " + ruta);
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+
+            if (buffer.getInt() != MAGIA) {
+                throw new IOException("No es una instantánea de tasas: " + ruta);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            int base = buffer.getShort();
+            long ultimaActualizacion = buffer.getLong();
+            long proximaActualizacion = buffer.getLong();
+            int cantidad = buffer.getInt();
+            if (cantidad < 0 || tamanio != TAMANIO_CABECERA + (long) cantidad * TAMANIO_REGISTRO + TAMANIO_CRC) {
+                throw new IOException("Instantánea truncada: " + ruta);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) tamanio - TAMANIO_CRC));
+            if ((int) crc.getValue() != buffer.getInt((int) tamanio - TAMANIO_CRC)) {
+                throw new IOException("Instantánea corrupta (CRC): " + ruta);
+            }
+
+            Map<String, Double> tasas = new HashMap<>(cantidad * 2);
+            for (int i = 0; i < cantidad; i++) {
+                String codigo = IndiceMonedas.desempaquetar(buffer.getShort());
+                tasas.put(codigo, buffer.getDouble());
+            }
+
+            RespuestaAPI respuesta = new RespuestaAPI();
+            respuesta.setResult("success");
+            respuesta.setCodigoBase(IndiceMonedas.desempaquetar(base));
+            respuesta.setUltimaActualizacionUnix(ultimaActualizacion);
+            respuesta.setProximaActualizacionUnix(proximaActualizacion);
+            respuesta.setTasasConversion(tasas);
+            return respuesta;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Código de moneda inválido en instantánea: " + ruta, e);
+        }
+    }
+
+    private static int empaquetarValidado(String codigoMoneda) {
+        int empaquetado = IndiceMonedas.empaquetar(codigoMoneda);
+        if (empaquetado < 0) {
+            throw new IllegalArgumentException("Código de moneda inválido: " + codigoMoneda);
+        }
+        return empaquetado;
+    }
+}
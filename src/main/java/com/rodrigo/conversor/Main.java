@@ -21,27 +21,77 @@ public class Main {
 }*/
 package com.rodrigo.conversor;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 public class Main {
     public static void main(String[] args) {
         System.out.println("🚀 Iniciando Conversor de Monedas...");
+        // Visibles con jconsole/jcmd bajo com.rodrigo.conversor:type=Metricas
+        MetricasConversor.registrarJMX();
 
         try {
-            // Obtener tasas de la API
-            System.out.println("📡 Conectando con API de tasas de cambio...");
-            SolicitudHTTP solicitud = new SolicitudHTTP();
-            RespuestaHTTP respuesta = solicitud.obtenerRespuestaProcesada("USD");
+            CacheTasas cache = crearCache();
+            Path rutaInstantanea = InstantaneaTasas.rutaPredeterminada("USD");
+            RespuestaAPI respuestaAPI = cargarInstantanea(rutaInstantanea);
+
+            if (respuestaAPI != null) {
+                // Arranque sin red: se usan las tasas guardadas y se refrescan en segundo plano
+                cache.precargar(respuestaAPI);
+                System.out.println("💾 Tasas guardadas cargadas (" +
+                        respuestaAPI.getTasasConversion().size() + " monedas disponibles)");
+            } else {
+                // Obtener tasas de la API
+                System.out.println("📡 Conectando con API de tasas de cambio...");
+                respuestaAPI = cache.obtener("USD");
+                guardarInstantanea(respuestaAPI, rutaInstantanea);
+                System.out.println("✅ Tasas obtenidas correctamente (" +
+                        respuestaAPI.getTasasConversion().size() + " monedas disponibles)");
+            }
+            ConversorMonedas conversor = new ConversorMonedas(respuestaAPI.getTasasConversion());
 
-            if (!respuesta.esExitosa()) {
-                System.out.println("❌ Error: No se pudieron obtener las tasas de cambio");
+            // Cada instantánea queda en el histórico para poder convertir en fechas pasadas
+            AlmacenHistorico historico = abrirHistorico("USD");
+            guardarEnHistorico(historico, respuestaAPI);
+
+            // Las tasas nuevas se publican en el conversor y se guardan a medida que la API las emite
+            ActualizadorTasas actualizador = new ActualizadorTasas(cache, "USD");
+            actualizador.registrar(conversor);
+            actualizador.agregarOyente(nueva -> guardarInstantanea(nueva, rutaInstantanea));
+            actualizador.agregarOyente(nueva -> guardarEnHistorico(historico, nueva));
+            actualizador.iniciar(respuestaAPI);
+
+            // Modo por lotes: java ... Main --csv entrada.csv salida.csv
+            if (args.length == 3 && "--csv".equals(args[0])) {
+                System.out.println("📂 Revaluando " + args[1] + " → " + args[2]);
+                ProcesadorCSV procesador = new ProcesadorCSV(conversor);
+                procesador.procesar(Path.of(args[1]), Path.of(args[2])).mostrarResumen();
                 return;
             }
 
-            // Crear conversor con las tasas obtenidas
-            RespuestaAPI respuestaAPI = respuesta.obtenerComoRespuestaAPI();
-            ConversorMonedas conversor = new ConversorMonedas(respuestaAPI.getTasasConversion());
+            // Modo servicio: java ... Main --servidor [puerto]
+            if (args.length >= 1 && "--servidor".equals(args[0])) {
+                int puerto = args.length > 1 ? Integer.parseInt(args[1]) : ServidorConversion.PUERTO_PREDETERMINADO;
+                ServidorConversion servidor = new ServidorConversion(conversor, puerto);
+                Runtime.getRuntime().addShutdownHook(new Thread(servidor::close));
+                servidor.iniciar();
+                System.out.println("🌐 Servidor de conversión escuchando en http://localhost:" + servidor.obtenerPuerto()
+                        + " (/convertir, /convertir/lote, /tasas, /metricas)");
+                Thread.currentThread().join();
+                return;
+            }
 
-            System.out.println("✅ Tasas obtenidas correctamente (" +
-                    respuestaAPI.getTasasConversion().size() + " monedas disponibles)");
+            // Modo binario para clientes de alta frecuencia: java ... Main --binario [puerto]
+            if (args.length >= 1 && "--binario".equals(args[0])) {
+                int puerto = args.length > 1 ? Integer.parseInt(args[1]) : ServidorBinario.PUERTO_PREDETERMINADO;
+                ServidorBinario servidor = new ServidorBinario(conversor, puerto);
+                servidor.iniciar();
+                System.out.println("⚡ Servidor binario escuchando en el puerto " + servidor.obtenerPuerto());
+                Thread.currentThread().join();
+                return;
+            }
 
             // Iniciar interfaz de usuario
             InterfazUsuario interfaz = new InterfazUsuario(conversor);
@@ -52,4 +102,64 @@ public class Main {
             System.out.println("🔌 Verifica tu conexión a internet e intenta nuevamente.");
         }
     }
+
+    /**
+     * Con -Dconversor.proveedores="nombre=url;nombre=url" las tasas salen de varios proveedores;
+     * -Dconversor.modo=MEDIANA los combina por consenso en lugar de quedarse con el más rápido
+     */
+    private static CacheTasas crearCache() {
+        String configuracion = System.getProperty("conversor.proveedores");
+        if (configuracion == null || configuracion.isBlank()) {
+            return CacheTasas.paraSolicitud(new SolicitudResiliente(new SolicitudHTTP()));
+        }
+        List<ProveedorTasas> proveedores = ProveedorTasasHTTP.desdeConfiguracion(configuracion);
+        FuenteTasasMultiple.ModoConsulta modo = FuenteTasasMultiple.ModoConsulta.valueOf(
+                System.getProperty("conversor.modo", "MAS_RAPIDA"));
+        int participantes = modo == FuenteTasasMultiple.ModoConsulta.MEDIANA ? proveedores.size()
+                : Math.min(2, proveedores.size());
+        FuenteTasasMultiple fuente = new FuenteTasasMultiple(proveedores, modo, participantes,
+                FuenteTasasMultiple.PLAZO_PREDETERMINADO);
+        System.out.println("📡 Proveedores de tasas: " + proveedores + " (" + fuente.obtenerNombre() + ")");
+        return CacheTasas.paraProveedor(fuente);
+    }
+
+    private static AlmacenHistorico abrirHistorico(String monedaBase) {
+        try {
+            return AlmacenHistorico.abrir(AlmacenHistorico.rutaPredeterminada(monedaBase), monedaBase);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("⚠️ Histórico de tasas no disponible: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void guardarEnHistorico(AlmacenHistorico historico, RespuestaAPI respuesta) {
+        if (historico == null) {
+            return;
+        }
+        try {
+            historico.agregar(respuesta);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("⚠️ No se pudo guardar en el histórico de tasas: " + e.getMessage());
+        }
+    }
+
+    private static RespuestaAPI cargarInstantanea(Path ruta) {
+        if (!Files.exists(ruta)) {
+            return null;
+        }
+        try {
+            return InstantaneaTasas.cargar(ruta);
+        } catch (IOException e) {
+            System.out.println("⚠️ Instantánea de tasas ignorada: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void guardarInstantanea(RespuestaAPI respuesta, Path ruta) {
+        try {
+            InstantaneaTasas.guardar(respuesta, ruta);
+        } catch (IOException e) {
+            System.out.println("⚠️ No se pudo guardar la instantánea de tasas: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,241 @@
+package com.rodrigo.conversor;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Métricas de todo el proceso para los caminos calientes: conversiones, análisis de JSON, envíos HTTP y cache
+ * Los contadores son LongAdder y las latencias usan HistogramaLatencia. Una conversión suelta sólo
+ * incrementa un contador, y como el CAS de un LongAdder cuesta más que la conversión, ese usa un
+ * {@link ContadorRayado}. Medir el tiempo de cada conversión costaría más que convertir: se cronometran los lotes.
+ * Con -Dconversor.metricas=false las llamadas quedan vacías y el JIT las elimina.
+ * Se exponen por JMX ({@link #registrarJMX()}) y como texto en {@link #escribirTexto(StringBuilder)}.
+ */
+public final class MetricasConversor {
+
+    public static final String NOMBRE_JMX = "com.rodrigo.conversor:type=Metricas";
+
+    /** Constante leída una vez: el JIT descarta el código de métricas si está apagado */
+    static final boolean ACTIVAS = !"false".equals(System.getProperty("conversor.metricas"));
+
+    private static final ContadorRayado conversiones = new ContadorRayado();
+    private static final LongAdder conversionesFallidas = new LongAdder();
+    private static final HistogramaLatencia lotes = new HistogramaLatencia();
+
+    private static final HistogramaLatencia analisisJSON = new HistogramaLatencia();
+    private static final LongAdder analisisJSONFallidos = new LongAdder();
+    private static final LongAdder bytesJSON = new LongAdder();
+
+    private static final HistogramaLatencia enviosHTTP = new HistogramaLatencia();
+    private static final LongAdder enviosHTTPFallidos = new LongAdder();
+
+    private static final LongAdder aciertosCache = new LongAdder();
+    private static final LongAdder fallosCache = new LongAdder();
+
+    private MetricasConversor() {
+    }
+
+    static void contarConversion() {
+        if (ACTIVAS) {
+            conversiones.incrementar();
+        }
+    }
+
+    static void contarConversionFallida() {
+        if (ACTIVAS) {
+            conversionesFallidas.increment();
+        }
+    }
+
+    /**
+     * @param cantidad Conversiones que hizo el lote
+     * @param nanos Duración del lote completo
+     */
+    static void registrarLote(int cantidad, long nanos) {
+        if (ACTIVAS) {
+            conversiones.agregar(cantidad);
+            lotes.registrar(nanos);
+        }
+    }
+
+    /**
+     * @param bytes Tamaño del cuerpo analizado (caracteres si se analizó un String)
+     */
+    static void registrarAnalisisJSON(long nanos, long bytes, boolean exitoso) {
+        if (ACTIVAS) {
+            analisisJSON.registrar(nanos);
+            bytesJSON.add(bytes);
+            if (!exitoso) {
+                analisisJSONFallidos.increment();
+            }
+        }
+    }
+
+    static void registrarEnvioHTTP(long nanos, boolean exitoso) {
+        if (ACTIVAS) {
+            enviosHTTP.registrar(nanos);
+            if (!exitoso) {
+                enviosHTTPFallidos.increment();
+            }
+        }
+    }
+
+    static void contarAciertoCache() {
+        if (ACTIVAS) {
+            aciertosCache.increment();
+        }
+    }
+
+    static void contarFalloCache() {
+        if (ACTIVAS) {
+            fallosCache.increment();
+        }
+    }
+
+    public static long obtenerConversiones() {
+        return conversiones.sumar();
+    }
+
+    public static HistogramaLatencia obtenerLatenciasAnalisisJSON() {
+        return analisisJSON;
+    }
+
+    public static HistogramaLatencia obtenerLatenciasEnvioHTTP() {
+        return enviosHTTP;
+    }
+
+    /**
+     * Registra el MBean en el servidor de plataforma; llamarlo más de una vez no tiene efecto
+     */
+    public static void registrarJMX() {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            servidor.registerMBean(new StandardMBean(new Vista(), MetricasConversorMBean.class),
+                    new ObjectName(NOMBRE_JMX));
+        } catch (InstanceAlreadyExistsException e) {
+            // Ya estaba registrado
+        } catch (JMException e) {
+            System.err.println("⚠️ No se pudieron registrar las métricas en JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega las métricas en formato de texto de Prometheus (una línea por valor)
+     */
+    public static StringBuilder escribirTexto(StringBuilder texto) {
+        linea(texto, "conversor_conversiones_total", conversiones.sumar());
+        linea(texto, "conversor_conversiones_fallidas_total", conversionesFallidas.sum());
+        latencias(texto, "conversor_lote", lotes);
+        latencias(texto, "conversor_analisis_json", analisisJSON);
+        linea(texto, "conversor_analisis_json_fallidos_total", analisisJSONFallidos.sum());
+        linea(texto, "conversor_analisis_json_bytes_total", bytesJSON.sum());
+        latencias(texto, "conversor_envio_http", enviosHTTP);
+        linea(texto, "conversor_envio_http_fallidos_total", enviosHTTPFallidos.sum());
+        linea(texto, "conversor_cache_aciertos_total", aciertosCache.sum());
+        linea(texto, "conversor_cache_fallos_total", fallosCache.sum());
+        return texto;
+    }
+
+    /**
+     * Muestra todas las métricas del proceso
+     */
+    public static void mostrarEstadisticas() {
+        System.out.println("=== MÉTRICAS DEL CONVERSOR ===");
+        System.out.println("💱 Conversiones: " + conversiones.sumar() + " (fallidas: " + conversionesFallidas.sum() + ")");
+        System.out.println("📦 Lotes: " + lotes.resumen());
+        System.out.println("🧩 JSON: " + analisisJSON.resumen() + ", " + bytesJSON.sum() + " bytes, "
+                + analisisJSONFallidos.sum() + " fallidos");
+        System.out.println("📡 HTTP: " + enviosHTTP.resumen() + ", " + enviosHTTPFallidos.sum() + " fallidos");
+        System.out.println("🗄️ Cache: " + aciertosCache.sum() + " aciertos, " + fallosCache.sum() + " fallos");
+        System.out.println("==============================");
+    }
+
+    /**
+     * Descarta todas las muestras y contadores
+     */
+    public static void reiniciar() {
+        conversiones.reiniciar();
+        conversionesFallidas.reset();
+        lotes.reiniciar();
+        analisisJSON.reiniciar();
+        analisisJSONFallidos.reset();
+        bytesJSON.reset();
+        enviosHTTP.reiniciar();
+        enviosHTTPFallidos.reset();
+        aciertosCache.reset();
+        fallosCache.reset();
+    }
+
+    private static void linea(StringBuilder texto, String nombre, long valor) {
+        texto.append(nombre).append(' ').append(valor).append('\n');
+    }
+
+    private static void latencias(StringBuilder texto, String nombre, HistogramaLatencia histograma) {
+        linea(texto, nombre + "_total", histograma.obtenerCantidad());
+        linea(texto, nombre + "_p50_us", micros(histograma, 0.50));
+        linea(texto, nombre + "_p99_us", micros(histograma, 0.99));
+    }
+
+    private static long micros(HistogramaLatencia histograma, double fraccion) {
+        return histograma.percentil(fraccion).toNanos() / 1_000;
+    }
+
+    /**
+     * Implementación del MBean sobre los contadores estáticos
+     */
+    private static final class Vista implements MetricasConversorMBean {
+
+        @Override
+        public long getConversiones() { return conversiones.sumar(); }
+
+        @Override
+        public long getConversionesFallidas() { return conversionesFallidas.sum(); }
+
+        @Override
+        public long getLotes() { return lotes.obtenerCantidad(); }
+
+        @Override
+        public long getLoteP99Micros() { return micros(lotes, 0.99); }
+
+        @Override
+        public long getAnalisisJSON() { return analisisJSON.obtenerCantidad(); }
+
+        @Override
+        public long getAnalisisJSONFallidos() { return analisisJSONFallidos.sum(); }
+
+        @Override
+        public long getBytesJSON() { return bytesJSON.sum(); }
+
+        @Override
+        public long getAnalisisJSONP50Micros() { return micros(analisisJSON, 0.50); }
+
+        @Override
+        public long getAnalisisJSONP99Micros() { return micros(analisisJSON, 0.99); }
+
+        @Override
+        public long getEnviosHTTP() { return enviosHTTP.obtenerCantidad(); }
+
+        @Override
+        public long getEnviosHTTPFallidos() { return enviosHTTPFallidos.sum(); }
+
+        @Override
+        public long getEnvioHTTPP50Micros() { return micros(enviosHTTP, 0.50); }
+
+        @Override
+        public long getEnvioHTTPP99Micros() { return micros(enviosHTTP, 0.99); }
+
+        @Override
+        public long getAciertosCache() { return aciertosCache.sum(); }
+
+        @Override
+        public long getFallosCache() { return fallosCache.sum(); }
+
+        @Override
+        public void reiniciar() { MetricasConversor.reiniciar(); }
+    }
+}
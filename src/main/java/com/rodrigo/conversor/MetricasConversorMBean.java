@@ -0,0 +1,43 @@
+package com.rodrigo.conversor;
+
+/**
+ * Vista JMX de {@link MetricasConversor}, registrada como com.rodrigo.conversor:type=Metricas
+ * Las latencias se informan en microsegundos.
+ */
+public interface MetricasConversorMBean {
+
+    long getConversiones();
+
+    long getConversionesFallidas();
+
+    long getLotes();
+
+    long getLoteP99Micros();
+
+    long getAnalisisJSON();
+
+    long getAnalisisJSONFallidos();
+
+    long getBytesJSON();
+
+    long getAnalisisJSONP50Micros();
+
+    long getAnalisisJSONP99Micros();
+
+    long getEnviosHTTP();
+
+    long getEnviosHTTPFallidos();
+
+    long getEnvioHTTPP50Micros();
+
+    long getEnvioHTTPP99Micros();
+
+    long getAciertosCache();
+
+    long getFallosCache();
+
+    /**
+     * Descarta todas las muestras y contadores
+     */
+    void reiniciar();
+}
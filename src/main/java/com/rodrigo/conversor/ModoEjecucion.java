@@ -0,0 +1,40 @@
+package com.rodrigo.conversor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo de ejecución de la capa HTTP: qué hilos atienden al HttpClient y a las llamadas bloqueantes
+ */
+public enum ModoEjecucion {
+
+    /**
+     * Comportamiento original: HttpClient con su ejecutor predeterminado y un pool de hilos de plataforma
+     * para el trabajo bloqueante
+     */
+    PLATAFORMA,
+
+    /**
+     * Un hilo virtual por tarea, tanto para el HttpClient como para el trabajo bloqueante
+     * Bloquear en send o al leer un cuerpo no ocupa un hilo del sistema operativo.
+     */
+    VIRTUAL;
+
+    /**
+     * Crea el ejecutor para el trabajo bloqueante de este modo
+     * @param nombre Prefijo del nombre de los hilos
+     */
+    public ExecutorService crearEjecutor(String nombre) {
+        if (this == VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(nombre, 0).factory());
+        }
+        return Executors.newCachedThreadPool(Thread.ofPlatform().daemon().name(nombre, 0).factory());
+    }
+
+    /**
+     * Indica si el HttpClient debe usar el mismo ejecutor en lugar del suyo predeterminado
+     */
+    public boolean compartirConCliente() {
+        return this == VIRTUAL;
+    }
+}
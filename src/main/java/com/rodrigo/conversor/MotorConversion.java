@@ -0,0 +1,46 @@
+package com.rodrigo.conversor;
+
+import java.util.Map;
+
+/**
+ * Operaciones comunes a los motores de conversión de monedas
+ * Lo implementan el conversor en double ({@link ConversorMonedas}) y el de punto fijo
+ * ({@link ConversorMonedasExacto}), así el resto de la aplicación puede usar cualquiera.
+ */
+public interface MotorConversion {
+
+    /**
+     * Convierte una cantidad de una moneda a otra
+     * @param cantidad Cantidad a convertir, en unidades de la moneda (ej: 12.50)
+     * @param monedaOrigen Moneda de origen (ej: "USD")
+     * @param monedaDestino Moneda de destino (ej: "EUR")
+     * @return double cantidad convertida
+     */
+    double convertir(double cantidad, String monedaOrigen, String monedaDestino);
+
+    /**
+     * Convierte y formatea el resultado para mostrar al usuario
+     */
+    String convertirYFormatear(double cantidad, String monedaOrigen, String monedaDestino);
+
+    /**
+     * Obtiene la tasa de conversión entre dos monedas
+     */
+    double obtenerTasaConversion(String monedaOrigen, String monedaDestino);
+
+    /**
+     * Verifica si una moneda está disponible para conversión
+     */
+    boolean monedaDisponible(String codigoMoneda);
+
+    /**
+     * Obtiene la lista de monedas disponibles
+     */
+    String[] obtenerMonedasDisponibles();
+
+    /**
+     * Reemplaza las tasas vigentes por las del mapa indicado
+     * @param tasasConversion Mapa código → tasa respecto a la moneda base
+     */
+    void actualizarTasas(Map<String, Double> tasasConversion);
+}
@@ -0,0 +1,338 @@
+package com.rodrigo.conversor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Revaluación por lotes de archivos CSV con filas "cantidad,origen,destino"
+ * La entrada se mapea en memoria por ventanas y se analiza byte a byte, sin crear un String por fila;
+ * la salida pasa por un único ByteBuffer directo reutilizado, así que el heap no crece con el archivo.
+ * Cada campo puede ir entre comillas dobles, siempre que no contenga comas.
+ */
+public class ProcesadorCSV {
+
+    private static final long TAMANO_VENTANA = 128L << 20;
+    private static final int TAMANO_BUFFER_SALIDA = 1 << 20;
+    private static final int LONGITUD_MAXIMA_RESULTADO = 512;
+
+    // Sin separador de miles y con símbolos fijos para que la salida no dependa del locale
+    private static final FormateadorDecimal FORMATEADOR =
+            new FormateadorDecimal(6, false, DecimalFormatSymbols.getInstance(Locale.ROOT));
+
+    private static final byte[] SUFIJO_ENCABEZADO = ",resultado\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final double[] POTENCIAS_DIEZ = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ConversorMonedas conversor;
+
+    public ProcesadorCSV(ConversorMonedas conversor) {
+        this.conversor = conversor;
+    }
+
+    /**
+     * Convierte todas las filas del archivo de entrada y escribe "cantidad,origen,destino,resultado"
+     * Si la primera línea no empieza con un número se trata como encabezado y se copia con ",resultado".
+     * @param entrada Archivo CSV de entrada
+     * @param salida Archivo CSV de salida (se crea o se sobrescribe)
+     * @return EstadisticasProceso filas procesadas, rechazadas y rendimiento
+     */
+    public EstadisticasProceso procesar(Path entrada, Path salida) throws IOException {
+        long inicio = System.nanoTime();
+        // Todas las filas del archivo usan la misma instantánea de tasas
+        TablaTasas tabla = conversor.obtenerTabla();
+        Estado estado = new Estado(tabla);
+
+        try (FileChannel canalEntrada = FileChannel.open(entrada, StandardOpenOption.READ);
+             FileChannel canalSalida = FileChannel.open(salida, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer bufferSalida = ByteBuffer.allocateDirect(TAMANO_BUFFER_SALIDA);
+            long tamano = canalEntrada.size();
+            long posicion = 0;
+            boolean primeraLinea = true;
+
+            while (posicion < tamano) {
+                long longitudVentana = Math.min(TAMANO_VENTANA, tamano - posicion);
+                boolean ultimaVentana = posicion + longitudVentana == tamano;
+                MappedByteBuffer ventana = canalEntrada.map(FileChannel.MapMode.READ_ONLY, posicion, longitudVentana);
+                int limite = (int) longitudVentana;
+                int inicioLinea = 0;
+
+                while (inicioLinea < limite) {
+                    int finLinea = buscarFinDeLinea(ventana, inicioLinea, limite);
+                    if (finLinea == limite && !ultimaVentana) {
+                        // Línea incompleta: la próxima ventana arranca en su inicio
+                        break;
+                    }
+                    int finContenido = finLinea;
+                    if (finContenido > inicioLinea && ventana.get(finContenido - 1) == '\r') {
+                        finContenido--;
+                    }
+                    if (finContenido > inicioLinea) {
+                        if (primeraLinea && !esInicioNumerico(ventana, inicioLinea, finContenido)) {
+                            escribirEncabezado(ventana, inicioLinea, finContenido, canalSalida, bufferSalida);
+                        } else {
+                            procesarFila(ventana, inicioLinea, finContenido, estado, canalSalida, bufferSalida);
+                        }
+                        primeraLinea = false;
+                    }
+                    inicioLinea = finLinea + 1;
+                }
+
+                if (inicioLinea == 0 && !ultimaVentana) {
+                    throw new IOException("Línea de más de " + TAMANO_VENTANA + " bytes en la posición " + posicion);
+                }
+                posicion += Math.min(inicioLinea, limite);
+            }
+
+            vaciar(canalSalida, bufferSalida);
+            return new EstadisticasProceso(estado.filas, estado.rechazadas, estado.primeraFilaRechazada,
+                    tamano, canalSalida.size(), System.nanoTime() - inicio);
+        }
+    }
+
+    private void procesarFila(ByteBuffer ventana, int inicio, int fin, Estado estado,
+                              FileChannel canalSalida, ByteBuffer bufferSalida) throws IOException {
+        estado.numeroLinea++;
+        int coma1 = buscarComa(ventana, inicio, fin);
+        int coma2 = coma1 < 0 ? -1 : buscarComa(ventana, coma1 + 1, fin);
+        int origen = coma2 < 0 ? -1 : inicioCodigo(ventana, coma1 + 1, coma2);
+        int destino = coma2 < 0 ? -1 : inicioCodigo(ventana, coma2 + 1, fin);
+        if (origen < 0 || destino < 0) {
+            estado.rechazar();
+            return;
+        }
+
+        int idOrigen = IndiceMonedas.buscarIdEmpaquetado(IndiceMonedas.empaquetar(
+                ventana.get(origen), ventana.get(origen + 1), ventana.get(origen + 2)));
+        int idDestino = IndiceMonedas.buscarIdEmpaquetado(IndiceMonedas.empaquetar(
+                ventana.get(destino), ventana.get(destino + 1), ventana.get(destino + 2)));
+        double cantidad = entreComillas(ventana, inicio, coma1)
+                ? analizarCantidad(ventana, inicio + 1, coma1 - 1)
+                : analizarCantidad(ventana, inicio, coma1);
+        if (Double.isNaN(cantidad) || !estado.tabla.disponible(idOrigen) || !estado.tabla.disponible(idDestino)) {
+            estado.rechazar();
+            return;
+        }
+        double resultado = estado.tabla.convertir(cantidad, idOrigen, idDestino);
+
+        asegurarEspacio(canalSalida, bufferSalida, fin - inicio + LONGITUD_MAXIMA_RESULTADO);
+        for (int i = inicio; i < fin; i++) {
+            bufferSalida.put(ventana.get(i));
+        }
+        bufferSalida.put((byte) ',');
+        escribirNumero(resultado, estado, bufferSalida);
+        bufferSalida.put((byte) '\n');
+        estado.filas++;
+    }
+
+    private void escribirNumero(double valor, Estado estado, ByteBuffer bufferSalida) {
+        int longitud = FORMATEADOR.formatear(valor, estado.numero, 0);
+        bufferSalida.put(estado.numero, 0, longitud);
+    }
+
+    /**
+     * Analiza un número decimal ASCII sin crear objetos en el caso habitual
+     * Con hasta 15 dígitos significativos y 22 decimales el cociente entero / 10^n es exacto al redondeo;
+     * los demás casos (exponentes, demasiados dígitos) se delegan en Double.parseDouble.
+     * @return double valor leído o NaN si el campo no es un número
+     */
+    static double analizarCantidad(ByteBuffer ventana, int inicio, int fin) {
+        int i = inicio;
+        boolean negativo = false;
+        if (i < fin && (ventana.get(i) == '-' || ventana.get(i) == '+')) {
+            negativo = ventana.get(i) == '-';
+            i++;
+        }
+        long mantisa = 0;
+        int digitos = 0;
+        int decimales = 0;
+        boolean punto = false;
+        boolean hayDigitos = false;
+        for (; i < fin; i++) {
+            byte b = ventana.get(i);
+            if (b >= '0' && b <= '9') {
+                hayDigitos = true;
+                if (mantisa != 0 || b != '0') {
+                    digitos++;
+                }
+                mantisa = mantisa * 10 + (b - '0');
+                if (punto) {
+                    decimales++;
+                }
+                if (digitos > 15) {
+                    return analizarCantidadLento(ventana, inicio, fin);
+                }
+            } else if (b == '.' && !punto) {
+                punto = true;
+            } else if (b == 'e' || b == 'E') {
+                return analizarCantidadLento(ventana, inicio, fin);
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (!hayDigitos) {
+            return Double.NaN;
+        }
+        if (decimales >= POTENCIAS_DIEZ.length) {
+            return analizarCantidadLento(ventana, inicio, fin);
+        }
+        double valor = mantisa / POTENCIAS_DIEZ[decimales];
+        return negativo ? -valor : valor;
+    }
+
+    private static double analizarCantidadLento(ByteBuffer ventana, int inicio, int fin) {
+        byte[] bytes = new byte[fin - inicio];
+        ventana.get(inicio, bytes);
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private void escribirEncabezado(ByteBuffer ventana, int inicio, int fin,
+                                    FileChannel canalSalida, ByteBuffer bufferSalida) throws IOException {
+        asegurarEspacio(canalSalida, bufferSalida, fin - inicio + LONGITUD_MAXIMA_RESULTADO);
+        for (int i = inicio; i < fin; i++) {
+            bufferSalida.put(ventana.get(i));
+        }
+        bufferSalida.put(SUFIJO_ENCABEZADO);
+    }
+
+    private static int buscarFinDeLinea(ByteBuffer ventana, int desde, int limite) {
+        for (int i = desde; i < limite; i++) {
+            if (ventana.get(i) == '\n') {
+                return i;
+            }
+        }
+        return limite;
+    }
+
+    private static int buscarComa(ByteBuffer ventana, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (ventana.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean esInicioNumerico(ByteBuffer ventana, int inicio, int fin) {
+        if (ventana.get(inicio) == '"' && inicio + 1 < fin) {
+            inicio++;
+        }
+        byte b = ventana.get(inicio);
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+    }
+
+    private static boolean entreComillas(ByteBuffer ventana, int inicio, int fin) {
+        return fin - inicio >= 2 && ventana.get(inicio) == '"' && ventana.get(fin - 1) == '"';
+    }
+
+    /**
+     * Posición del código de tres letras de un campo, con o sin comillas, o -1 si el campo no es un código
+     */
+    private static int inicioCodigo(ByteBuffer ventana, int inicio, int fin) {
+        if (entreComillas(ventana, inicio, fin)) {
+            inicio++;
+            fin--;
+        }
+        return fin - inicio == 3 ? inicio : -1;
+    }
+
+    private static void asegurarEspacio(FileChannel canal, ByteBuffer buffer, int necesario) throws IOException {
+        if (necesario > buffer.capacity()) {
+            throw new IOException("Fila de " + necesario + " bytes excede el buffer de salida");
+        }
+        if (buffer.remaining() < necesario) {
+            vaciar(canal, buffer);
+        }
+    }
+
+    private static void vaciar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static final class Estado {
+        final TablaTasas tabla;
+        final byte[] numero = new byte[LONGITUD_MAXIMA_RESULTADO];
+        long filas;
+        long rechazadas;
+        long numeroLinea;
+        long primeraFilaRechazada = -1;
+
+        Estado(TablaTasas tabla) {
+            this.tabla = tabla;
+        }
+
+        void rechazar() {
+            if (rechazadas++ == 0) {
+                primeraFilaRechazada = numeroLinea;
+            }
+        }
+    }
+
+    /**
+     * Resultado de un procesamiento: conteos y rendimiento
+     */
+    public static class EstadisticasProceso {
+        public final long filasConvertidas;
+        public final long filasRechazadas;
+        public final long primeraFilaRechazada;
+        public final long bytesLeidos;
+        public final long bytesEscritos;
+        public final long duracionNanos;
+
+        public EstadisticasProceso(long filasConvertidas, long filasRechazadas, long primeraFilaRechazada,
+                                   long bytesLeidos, long bytesEscritos, long duracionNanos) {
+            this.filasConvertidas = filasConvertidas;
+            this.filasRechazadas = filasRechazadas;
+            this.primeraFilaRechazada = primeraFilaRechazada;
+            this.bytesLeidos = bytesLeidos;
+            this.bytesEscritos = bytesEscritos;
+            this.duracionNanos = duracionNanos;
+        }
+
+        public double filasPorSegundo() {
+            return (filasConvertidas + filasRechazadas) / segundos();
+        }
+
+        public double megabytesPorSegundo() {
+            return bytesLeidos / (1024.0 * 1024.0) / segundos();
+        }
+
+        private double segundos() {
+            return Math.max(duracionNanos, 1) / 1e9;
+        }
+
+        /**
+         * Muestra un resumen del procesamiento
+         */
+        public void mostrarResumen() {
+            System.out.println("\n📊 === RESUMEN DE REVALUACIÓN CSV ===");
+            System.out.printf("✅ Filas convertidas: %,d%n", filasConvertidas);
+            if (filasRechazadas > 0) {
+                System.out.printf("⚠️ Filas rechazadas: %,d (primera: fila %d)%n", filasRechazadas, primeraFilaRechazada);
+            }
+            System.out.printf("📏 Leído: %,d bytes | Escrito: %,d bytes%n", bytesLeidos, bytesEscritos);
+            System.out.printf("⏱️ Duración: %.3f s%n", segundos());
+            System.out.printf("🚀 Rendimiento: %,.0f filas/s | %.1f MB/s%n", filasPorSegundo(), megabytesPorSegundo());
+            System.out.println("=====================================");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.rodrigo.conversor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Protocolo binario de conversión sobre TCP, compartido por ServidorBinario y ClienteBinario
+ * Todas las tramas tienen tamaño fijo, así que no llevan prefijo de longitud: el tamaño es la longitud.
+ * Las respuestas salen en el mismo orden que las solicitudes, por lo que un cliente puede enviar muchas
+ * seguidas (pipelining) y leer después todas las respuestas.
+ *
+ * Solicitud (16 bytes, big-endian):
+ *   short moneda de origen empaquetada, short moneda de destino empaquetada, byte formato, 3 bytes en cero,
+ *   long cantidad (bits del double en FORMATO_DOUBLE, unidades menores en FORMATO_MENORES).
+ * Respuesta (16 bytes, big-endian):
+ *   byte estado, 7 bytes en cero, long resultado en el mismo formato que la cantidad.
+ * Las monedas viajan empaquetadas con {@link IndiceMonedas#empaquetar(String)}, que no depende del proceso;
+ * los ids densos de IndiceMonedas no se envían porque cambian según el orden de registro.
+ */
+public final class ProtocoloBinario {
+
+    public static final int TAMANIO_SOLICITUD = 16;
+    public static final int TAMANIO_RESPUESTA = 16;
+
+    /** Cantidad y resultado como double */
+    public static final byte FORMATO_DOUBLE = 0;
+    /** Cantidad y resultado como long en unidades menores ISO 4217 (ej: centavos), redondeado al más cercano */
+    public static final byte FORMATO_MENORES = 1;
+
+    public static final byte ESTADO_OK = 0;
+    public static final byte ESTADO_MONEDA_NO_DISPONIBLE = 1;
+    public static final byte ESTADO_SOLICITUD_INVALIDA = 2;
+
+    private ProtocoloBinario() {
+    }
+
+    static void escribirSolicitud(ByteBuffer destino, int origenEmpaquetado, int destinoEmpaquetado, byte formato,
+                                  long cantidad) {
+        destino.putShort((short) origenEmpaquetado)
+                .putShort((short) destinoEmpaquetado)
+                .put(formato)
+                .put((byte) 0).putShort((short) 0)
+                .putLong(cantidad);
+    }
+
+    static void escribirRespuesta(ByteBuffer destino, byte estado, long resultado) {
+        destino.put(estado)
+                .put((byte) 0).putShort((short) 0).putInt(0)
+                .putLong(resultado);
+    }
+
+    /**
+     * Empaqueta un código para una solicitud
+     * @throws IllegalArgumentException si no es un código de tres letras A-Z
+     */
+    public static int empaquetar(String codigoMoneda) {
+        int empaquetado = IndiceMonedas.empaquetar(codigoMoneda);
+        if (empaquetado < 0) {
+            throw new IllegalArgumentException("Código de moneda inválido: " + codigoMoneda);
+        }
+        return empaquetado;
+    }
+
+    static String describirEstado(byte estado) {
+        switch (estado) {
+            case ESTADO_MONEDA_NO_DISPONIBLE:
+                return "Moneda no disponible";
+            case ESTADO_SOLICITUD_INVALIDA:
+                return "Solicitud inválida";
+            default:
+                return "Estado desconocido " + estado;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.rodrigo.conversor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Punto único de acceso al HttpClient de la aplicación
+ * ClienteHTTP, SolicitudHTTP y APITest piden aquí su cliente, así todas las descargas comparten el
+ * pool de conexiones, las sesiones TLS y la multiplexación de HTTP/2: una actualización repetida
+ * reutiliza la conexión abierta en lugar de volver a hacer el handshake TCP+TLS.
+ */
+public final class ProveedorClienteHTTP {
+
+    /** Segundos que una conexión ociosa queda abierta en el pool (el JDK usa 30 por omisión) */
+    public static final int KEEP_ALIVE_SEGUNDOS = 300;
+    public static final Duration TIMEOUT_CONEXION_PREDETERMINADO = Duration.ofSeconds(10);
+    public static final Duration TIMEOUT_SOLICITUD_PREDETERMINADO = Duration.ofSeconds(30);
+
+    static {
+        // El JDK lee estas propiedades al crear el primer HttpClient; se respeta un valor dado con -D
+        configurarSiFalta("jdk.httpclient.keepalive.timeout", KEEP_ALIVE_SEGUNDOS);
+        configurarSiFalta("jdk.httpclient.keepalive.timeout.h2", KEEP_ALIVE_SEGUNDOS);
+    }
+
+    private static final Map<ModoEjecucion, ProveedorClienteHTTP> compartidos = new EnumMap<>(ModoEjecucion.class);
+
+    private final HttpClient cliente;
+    private final ModoEjecucion modo;
+    private final ExecutorService ejecutor;
+    private final Duration timeoutSolicitud;
+
+    /**
+     * @param modo Hilos que atienden al cliente y al trabajo bloqueante
+     * @param timeoutConexion Tiempo máximo para establecer una conexión nueva
+     * @param timeoutSolicitud Tiempo máximo de cada solicitud, hasta recibir los headers
+     */
+    public ProveedorClienteHTTP(ModoEjecucion modo, Duration timeoutConexion, Duration timeoutSolicitud) {
+        this.modo = modo;
+        this.timeoutSolicitud = timeoutSolicitud;
+        this.ejecutor = modo.crearEjecutor("http-" + modo.name().toLowerCase() + "-");
+        HttpClient.Builder constructor = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeoutConexion);
+        if (modo.compartirConCliente()) {
+            constructor.executor(ejecutor);
+        }
+        this.cliente = constructor.build();
+    }
+
+    /**
+     * Proveedor compartido con hilos de plataforma y los timeouts predeterminados
+     */
+    public static ProveedorClienteHTTP predeterminado() {
+        return compartido(ModoEjecucion.PLATAFORMA);
+    }
+
+    /**
+     * Proveedor compartido por toda la aplicación para un modo de ejecución
+     * @param modo Modo de ejecución deseado
+     * @return La misma instancia en cada llamada con el mismo modo
+     */
+    public static synchronized ProveedorClienteHTTP compartido(ModoEjecucion modo) {
+        return compartidos.computeIfAbsent(modo, m ->
+                new ProveedorClienteHTTP(m, TIMEOUT_CONEXION_PREDETERMINADO, TIMEOUT_SOLICITUD_PREDETERMINADO));
+    }
+
+    public HttpClient obtenerCliente() {
+        return cliente;
+    }
+
+    public ModoEjecucion obtenerModo() {
+        return modo;
+    }
+
+    /**
+     * Ejecutor del modo configurado para el trabajo que bloquea (envíos síncronos, lectura de cuerpos)
+     */
+    public ExecutorService obtenerEjecutor() {
+        return ejecutor;
+    }
+
+    public Duration obtenerTimeoutSolicitud() {
+        return timeoutSolicitud;
+    }
+
+    /**
+     * Constructor de solicitud GET con el timeout del proveedor y Accept: application/json
+     * @param url URL completa a consultar
+     * @return HttpRequest.Builder al que se pueden agregar más headers
+     */
+    public HttpRequest.Builder nuevaSolicitud(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(timeoutSolicitud)
+                .header("Accept", "application/json")
+                .GET();
+    }
+
+    private static void configurarSiFalta(String propiedad, int valor) {
+        if (System.getProperty(propiedad) == null) {
+            System.setProperty(propiedad, String.valueOf(valor));
+        }
+    }
+}
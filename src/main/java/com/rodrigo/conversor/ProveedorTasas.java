@@ -0,0 +1,38 @@
+package com.rodrigo.conversor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Fuente de tasas de cambio para una moneda base
+ * Las implementaciones pueden ser un servicio HTTP compatible con open.er-api.com, un servidor de
+ * pruebas o una combinación de varios proveedores (ver {@link FuenteTasasMultiple}).
+ */
+public interface ProveedorTasas {
+
+    /**
+     * Nombre con el que el proveedor aparece en estadísticas y errores
+     */
+    String obtenerNombre();
+
+    /**
+     * Pide las tasas sin bloquear; cancelar el futuro aborta la consulta en curso
+     * @param monedaBase La moneda base (ej: "USD")
+     * @return CompletableFuture con tasas exitosas, o con un ErrorProveedorTasas
+     */
+    CompletableFuture<TasasAnalizadas> obtenerTasasAsync(String monedaBase);
+
+    /**
+     * Versión bloqueante de {@link #obtenerTasasAsync(String)}
+     */
+    default TasasAnalizadas obtenerTasas(String monedaBase) {
+        try {
+            return obtenerTasasAsync(monedaBase).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.rodrigo.conversor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Proveedor de tasas que habla el formato de open.er-api.com sobre el cliente HTTP compartido
+ */
+public class ProveedorTasasHTTP implements ProveedorTasas {
+
+    public static final String URL_OPEN_ER_API = "https://open.er-api.com/v6/latest/";
+
+    private final String nombre;
+    private final SolicitudHTTP solicitud;
+
+    /**
+     * @param nombre Nombre del proveedor (ej: "open-er-api")
+     * @param urlBase URL a la que se agrega el código de la moneda base
+     */
+    public ProveedorTasasHTTP(String nombre, String urlBase) {
+        this(nombre, new SolicitudHTTP(urlBase));
+    }
+
+    public ProveedorTasasHTTP(String nombre, SolicitudHTTP solicitud) {
+        this.nombre = nombre;
+        this.solicitud = solicitud;
+    }
+
+    /**
+     * Proveedor predeterminado de la aplicación
+     */
+    public static ProveedorTasasHTTP openErApi() {
+        return new ProveedorTasasHTTP("open-er-api", URL_OPEN_ER_API);
+    }
+
+    /**
+     * Arma proveedores desde una configuración de la forma "nombre=url;nombre=url"
+     * @param configuracion Texto de configuración (ej: el valor de -Dconversor.proveedores)
+     * @return Lista de proveedores en el orden configurado
+     */
+    public static List<ProveedorTasas> desdeConfiguracion(String configuracion) {
+        List<ProveedorTasas> proveedores = new ArrayList<>();
+        for (String entrada : configuracion.split(";")) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            int igual = entrada.indexOf('=');
+            if (igual <= 0 || igual == entrada.length() - 1) {
+                throw new IllegalArgumentException("Proveedor mal configurado (se espera nombre=url): " + entrada);
+            }
+            proveedores.add(new ProveedorTasasHTTP(entrada.substring(0, igual).trim(), entrada.substring(igual + 1).trim()));
+        }
+        return proveedores;
+    }
+
+    @Override
+    public String obtenerNombre() {
+        return nombre;
+    }
+
+    @Override
+    public CompletableFuture<TasasAnalizadas> obtenerTasasAsync(String monedaBase) {
+        CompletableFuture<CuerpoTasas> descarga = solicitud.obtenerTasasAnalizadasAsync(monedaBase);
+        CompletableFuture<TasasAnalizadas> tasas = descarga.thenApply(cuerpo -> {
+            TasasAnalizadas analizadas = cuerpo.obtener();
+            if (!"success".equals(analizadas.obtenerResultado())) {
+                throw new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.RESPUESTA_INVALIDA,
+                        nombre + " respondió " + analizadas.obtenerResultado() + " para " + monedaBase);
+            }
+            return analizadas;
+        });
+        // Cancelar el resultado cancela también la descarga
+        tasas.whenComplete((resultado, error) -> {
+            if (error != null) {
+                descarga.cancel(true);
+            }
+        });
+        return tasas;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
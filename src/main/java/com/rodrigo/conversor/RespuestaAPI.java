@@ -34,6 +34,12 @@ public class RespuestaAPI {
     @SerializedName("rates")
     private Map<String, Double> tasasConversion;
 
+    // No viene de la API: lo marca la capa de resiliencia al responder con tasas anteriores
+    private transient boolean deRespaldo;
+
+    // No viene de la API: un 304 confirma que estas tasas siguen siendo las últimas hasta este momento
+    private transient volatile long vigenteHastaMillis;
+
     // Getters y Setters en español
     public String getResult() { return result; }
     public void setResult(String result) { this.result = result; }
@@ -62,6 +68,18 @@ public class RespuestaAPI {
     public Map<String, Double> getTasasConversion() { return tasasConversion; }
     public void setTasasConversion(Map<String, Double> tasasConversion) { this.tasasConversion = tasasConversion; }
 
+    /**
+     * true si son tasas anteriores devueltas porque el proveedor falló (ver {@link SolicitudResiliente})
+     */
+    public boolean esRespaldo() { return deRespaldo; }
+    public void setDeRespaldo(boolean deRespaldo) { this.deRespaldo = deRespaldo; }
+
+    /**
+     * Momento (epoch en milisegundos) hasta el que un 304 confirmó estas tasas, o 0 si nunca se revalidaron
+     */
+    public long obtenerVigenteHastaMillis() { return vigenteHastaMillis; }
+    public void setVigenteHastaMillis(long vigenteHastaMillis) { this.vigenteHastaMillis = vigenteHastaMillis; }
+
     /**
      * Obtiene la tasa de conversión para una moneda específica
      * @param codigoMoneda Código de la moneda (ej: "EUR", "USD")
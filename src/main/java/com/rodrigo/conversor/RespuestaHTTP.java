@@ -1,7 +1,7 @@
 package com.rodrigo.conversor;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import java.net.http.HttpResponse;
@@ -16,34 +16,70 @@ import java.util.Map;
 public class RespuestaHTTP {
 
     private final HttpResponse<String> respuestaOriginal;
-    private final JsonObject datosJSON;
     private final LocalDateTime tiempoRespuesta;
-    private final Gson gson;
+
+    // El cuerpo se analiza recién cuando algún método lo necesita, y una sola vez.
+    // Lectura sin bloqueo de los campos volatile; el candado sólo se toma en la primera construcción.
+    private final Object candado = new Object();
+    private volatile Analisis analisis;
+    private volatile JsonObject datosJSON;
+    private volatile RespuestaAPI respuestaAPI;
 
     /**
-     * Constructor que analiza y procesa la respuesta HTTP
+     * Constructor que envuelve la respuesta HTTP sin analizar todavía el cuerpo
      * @param response La respuesta HTTP recibida
      */
     public RespuestaHTTP(HttpResponse<String> response) {
         this.respuestaOriginal = response;
         this.tiempoRespuesta = LocalDateTime.now();
-        this.gson = new Gson();
-        this.datosJSON = procesarJSON(response.body());
     }
 
     /**
-     * Procesa el JSON de la respuesta de manera segura
+     * Analiza el cuerpo en una sola pasada con JsonReader la primera vez que se lo pide
      */
-    private JsonObject procesarJSON(String jsonString) {
-        try {
-            // ✅ FORMA MODERNA (recomendada para Gson 2.8.6+)
-            return JsonParser.parseString(jsonString).getAsJsonObject();
-        } catch (JsonSyntaxException e) {
-            System.err.println("⚠️ Error al procesar JSON: " + e.getMessage());
-            return new JsonObject();
+    private Analisis analizar() {
+        Analisis actual = analisis;
+        if (actual == null) {
+            synchronized (candado) {
+                actual = analisis;
+                if (actual == null) {
+                    String cuerpo = respuestaOriginal.body();
+                    EventoAnalisisJSON evento = new EventoAnalisisJSON();
+                    evento.begin();
+                    long inicio = System.nanoTime();
+                    try {
+                        actual = new Analisis(TasasAnalizadas.analizar(cuerpo), null);
+                    } catch (JsonParseException e) {
+                        System.err.println("⚠️ Error al procesar JSON: " + e.getMessage());
+                        actual = new Analisis(null, e.getMessage());
+                    }
+                    MetricasConversor.registrarAnalisisJSON(System.nanoTime() - inicio,
+                            cuerpo == null ? 0 : cuerpo.length(), actual.tasas() != null);
+                    registrarAnalisis(evento, EventoAnalisisJSON.ETAPA_TASAS, actual.tasas());
+                    analisis = actual;
+                }
+            }
         }
+        return actual;
     }
 
+    /**
+     * Completa y emite el evento de JFR de una etapa del análisis; sin grabación activa no hace nada
+     * @param tasas Resultado del análisis, o null si el cuerpo no se pudo analizar
+     */
+    private void registrarAnalisis(EventoAnalisisJSON evento, String etapa, TasasAnalizadas tasas) {
+        evento.end();
+        if (!evento.shouldCommit()) {
+            return;
+        }
+        String cuerpo = respuestaOriginal.body();
+        evento.etapa = etapa;
+        evento.monedaBase = tasas == null ? null : tasas.obtenerMonedaBase();
+        evento.bytes = respuestaOriginal.headers().firstValueAsLong("Content-Length").orElse(-1);
+        evento.caracteres = cuerpo == null ? 0 : cuerpo.length();
+        evento.codigoEstado = obtenerCodigoEstado();
+        evento.commit();
+    }
 
     /**
      * Obtiene el código de estado HTTP
@@ -105,24 +141,65 @@ public class RespuestaHTTP {
     }
 
     /**
-     * Obtiene el JSON parseado
-     * @return JsonObject con los datos de la API
+     * Obtiene el JSON como árbol de Gson
+     * El árbol no se usa internamente: se arma la primera vez que se pide y se reutiliza.
+     * @return JsonObject con los datos de la API (vacío si el cuerpo no es JSON)
      */
     public JsonObject obtenerDatosJSON() {
-        return datosJSON;
+        JsonObject actual = datosJSON;
+        if (actual == null) {
+            synchronized (candado) {
+                actual = datosJSON;
+                if (actual == null) {
+                    try {
+                        actual = JsonParser.parseString(obtenerCuerpoTexto()).getAsJsonObject();
+                    } catch (JsonSyntaxException | IllegalStateException e) {
+                        actual = new JsonObject();
+                    }
+                    datosJSON = actual;
+                }
+            }
+        }
+        return actual;
     }
 
     /**
-     * ✅ Tarjeta 7: Obtiene la respuesta deserializada como objeto RespuestaAPI usando Gson
+     * Obtiene las tasas analizadas en arreglos primitivos
+     * @return TasasAnalizadas resultado del análisis del cuerpo
+     */
+    public TasasAnalizadas obtenerTasasAnalizadas() {
+        Analisis actual = analizar();
+        if (actual.tasas() == null) {
+            throw new RuntimeException("Error al procesar JSON: " + actual.error());
+        }
+        return actual.tasas();
+    }
+
+    /**
+     * ✅ Tarjeta 7: Obtiene la respuesta deserializada como objeto RespuestaAPI
+     * Se construye una sola vez; todas las llamadas devuelven la misma instancia.
      * @return RespuestaAPI objeto con todos los datos de la respuesta
      */
     public RespuestaAPI obtenerComoRespuestaAPI() {
-        try {
-            Gson gson = new Gson();
-            return gson.fromJson(obtenerCuerpoTexto(), RespuestaAPI.class);
-        } catch (Exception e) {
-            throw new RuntimeException("Error al deserializar RespuestaAPI: " + e.getMessage());
+        RespuestaAPI actual = respuestaAPI;
+        if (actual == null) {
+            synchronized (candado) {
+                actual = respuestaAPI;
+                if (actual == null) {
+                    try {
+                        TasasAnalizadas tasas = obtenerTasasAnalizadas();
+                        EventoAnalisisJSON evento = new EventoAnalisisJSON();
+                        evento.begin();
+                        actual = tasas.aRespuestaAPI();
+                        registrarAnalisis(evento, EventoAnalisisJSON.ETAPA_RESPUESTA_API, tasas);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error al deserializar RespuestaAPI: " + e.getMessage());
+                    }
+                    respuestaAPI = actual;
+                }
+            }
         }
+        return actual;
     }
 
     /**
@@ -130,16 +207,16 @@ public class RespuestaHTTP {
      * @return InformacionMoneda objeto con datos procesados
      */
     public InformacionMoneda extraerInformacionMoneda() {
-        if (!datosJSON.has("result") || !esExitosa()) {
+        if (!esExitosa()) {
+            throw new RuntimeException("No se puede extraer información: respuesta inválida");
+        }
+        TasasAnalizadas tasasAnalizadas = analizar().tasas();
+        if (tasasAnalizadas == null || tasasAnalizadas.obtenerResultado() == null) {
             throw new RuntimeException("No se puede extraer información: respuesta inválida");
         }
 
-        String resultado = datosJSON.get("result").getAsString();
-        String monedaBase = datosJSON.get("base_code").getAsString();
-        long tiempoActualizacion = datosJSON.get("time_last_update_unix").getAsLong();
-        JsonObject tasas = datosJSON.getAsJsonObject("rates");
-
-        return new InformacionMoneda(resultado, monedaBase, tiempoActualizacion, tasas);
+        return new InformacionMoneda(tasasAnalizadas.obtenerResultado(), tasasAnalizadas.obtenerMonedaBase(),
+                tasasAnalizadas.obtenerUltimaActualizacionUnix(), tasasAnalizadas);
     }
 
     /**
@@ -161,14 +238,15 @@ public class RespuestaHTTP {
         if (server != null) System.out.println("   🖥️ Server: " + server);
         if (contentLength != null) System.out.println("   📏 Content-Length: " + contentLength + " bytes");
 
-        if (esExitosa() && datosJSON.has("result")) {
+        TasasAnalizadas tasasAnalizadas = esExitosa() ? analizar().tasas() : null;
+        if (tasasAnalizadas != null && tasasAnalizadas.obtenerResultado() != null) {
             System.out.println("\n💰 Información de moneda:");
             try {
                 InformacionMoneda info = extraerInformacionMoneda();
                 System.out.println("   ✅ Estado API: " + info.resultado);
                 System.out.println("   💱 Moneda base: " + info.monedaBase);
                 System.out.println("   🕐 Última actualización: " + info.obtenerFechaActualizacion());
-                System.out.println("   📊 Total de tasas: " + info.tasas.size());
+                System.out.println("   📊 Total de tasas: " + info.tasas.cantidadTasas());
             } catch (Exception e) {
                 System.out.println("   ⚠️ Error al procesar información de moneda: " + e.getMessage());
             }
@@ -181,8 +259,8 @@ public class RespuestaHTTP {
                 System.out.println("   🔢 Total tasas: " + respuestaAPI.getTasasConversion().size());
 
                 // Validación cruzada para demostrar consistencia
-                if (datosJSON.has("base_code") &&
-                        respuestaAPI.getCodigoBase().equals(datosJSON.get("base_code").getAsString())) {
+                if (tasasAnalizadas.obtenerMonedaBase() != null &&
+                        respuestaAPI.getCodigoBase().equals(tasasAnalizadas.obtenerMonedaBase())) {
                     System.out.println("   ✅ Validación cruzada: OK");
                 }
             } catch (Exception e) {
@@ -193,6 +271,12 @@ public class RespuestaHTTP {
         System.out.println("=============================================");
     }
 
+    /**
+     * Resultado memorizado del análisis: las tasas, o el mensaje de error si el cuerpo no era JSON válido
+     */
+    private record Analisis(TasasAnalizadas tasas, String error) {
+    }
+
     /**
      * Clase interna para encapsular información específica de monedas
      */
@@ -200,9 +284,9 @@ public class RespuestaHTTP {
         public final String resultado;
         public final String monedaBase;
         public final long tiempoActualizacion;
-        public final JsonObject tasas;
+        public final TasasAnalizadas tasas;
 
-        public InformacionMoneda(String resultado, String monedaBase, long tiempoActualizacion, JsonObject tasas) {
+        public InformacionMoneda(String resultado, String monedaBase, long tiempoActualizacion, TasasAnalizadas tasas) {
             this.resultado = resultado;
             this.monedaBase = monedaBase;
             this.tiempoActualizacion = tiempoActualizacion;
@@ -222,10 +306,7 @@ public class RespuestaHTTP {
          * Obtiene la tasa de una moneda específica
          */
         public double obtenerTasa(String codigoMoneda) {
-            if (tasas.has(codigoMoneda)) {
-                return tasas.get(codigoMoneda).getAsDouble();
-            }
-            throw new IllegalArgumentException("Moneda no encontrada: " + codigoMoneda);
+            return tasas.obtenerTasa(codigoMoneda);
         }
     }
 }
\ No newline at end of file
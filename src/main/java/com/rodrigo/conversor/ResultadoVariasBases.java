@@ -0,0 +1,85 @@
+package com.rodrigo.conversor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resultado de descargar varias monedas base a la vez: las que llegaron y el error de las que no
+ * Se completa de forma incremental desde los hilos del cliente HTTP; al cerrarse (todas terminaron
+ * o venció el plazo total) queda fijo y las bases sin respuesta figuran como fallidas por tiempo.
+ */
+public class ResultadoVariasBases {
+
+    private final Set<String> solicitadas;
+    private final Map<String, TasasAnalizadas> exitosas = new LinkedHashMap<>();
+    private final Map<String, Throwable> fallidas = new LinkedHashMap<>();
+    private boolean cerrado;
+
+    ResultadoVariasBases(Collection<String> bases) {
+        this.solicitadas = Collections.unmodifiableSet(new LinkedHashSet<>(bases));
+    }
+
+    synchronized void registrarExito(String monedaBase, TasasAnalizadas tasas) {
+        if (!cerrado) {
+            exitosas.put(monedaBase, tasas);
+        }
+    }
+
+    synchronized void registrarFallo(String monedaBase, Throwable error) {
+        if (!cerrado) {
+            fallidas.put(monedaBase, error);
+        }
+    }
+
+    /**
+     * Fija el resultado; las bases que todavía no respondieron se marcan como vencidas
+     */
+    synchronized ResultadoVariasBases cerrar() {
+        if (!cerrado) {
+            for (String base : solicitadas) {
+                if (!exitosas.containsKey(base) && !fallidas.containsKey(base)) {
+                    fallidas.put(base, new TimeoutException("Plazo total vencido para " + base));
+                }
+            }
+            cerrado = true;
+        }
+        return this;
+    }
+
+    public Set<String> obtenerSolicitadas() {
+        return solicitadas;
+    }
+
+    public synchronized Map<String, TasasAnalizadas> obtenerExitosas() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(exitosas));
+    }
+
+    public synchronized Map<String, Throwable> obtenerFallidas() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(fallidas));
+    }
+
+    /**
+     * @return boolean true si todas las bases solicitadas llegaron bien
+     */
+    public synchronized boolean estaCompleto() {
+        return exitosas.size() == solicitadas.size();
+    }
+
+    /**
+     * Muestra qué bases llegaron y el motivo de las que fallaron
+     */
+    public synchronized void mostrarResumen() {
+        System.out.println("=== DESCARGA DE VARIAS MONEDAS BASE ===");
+        exitosas.forEach((base, tasas) ->
+                System.out.println("   ✅ " + base + ": " + tasas.cantidadTasas() + " tasas"));
+        fallidas.forEach((base, error) -> System.out.println("   ❌ " + base + ": " + error.getClass().getSimpleName()
+                + (error.getMessage() != null ? " - " + error.getMessage() : "")));
+        System.out.println("📊 " + exitosas.size() + " de " + solicitadas.size() + " bases obtenidas");
+        System.out.println("=======================================");
+    }
+}
@@ -0,0 +1,236 @@
+package com.rodrigo.conversor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor del {@link ProtocoloBinario} sobre un único hilo con Selector de NIO
+ * Cada lectura procesa todas las tramas completas que llegaron juntas con la misma TablaTasas y
+ * devuelve sus respuestas en una sola escritura. Si el cliente no lee sus respuestas, el servidor
+ * deja de leer de esa conexión hasta poder escribir (contrapresión).
+ */
+public final class ServidorBinario implements Closeable {
+
+    public static final int PUERTO_PREDETERMINADO = 9090;
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+
+    // 10^(exponenteDestino - exponenteOrigen) para diferencias de -4 a 4
+    private static final double[] FACTORES = {1e-4, 1e-3, 1e-2, 1e-1, 1, 1e1, 1e2, 1e3, 1e4};
+
+    private final ConversorMonedas conversor;
+    private final Selector selector;
+    private final ServerSocketChannel aceptador;
+    private final Thread hilo;
+    private final LongAdder conexiones = new LongAdder();
+    private final LongAdder operaciones = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private volatile boolean activo = true;
+
+    /**
+     * Buffers de una conexión; los dos quedan siempre en modo escritura entre eventos
+     */
+    private static final class Conexion {
+        final ByteBuffer entrada = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+        final ByteBuffer salida = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+    }
+
+    public ServidorBinario(ConversorMonedas conversor, int puerto) throws IOException {
+        this(conversor, new InetSocketAddress(puerto));
+    }
+
+    /**
+     * @param conversor Conversor cuyas tasas vigentes se usan en cada lote de tramas
+     * @param direccion Dirección de escucha (puerto 0 elige uno libre)
+     */
+    public ServidorBinario(ConversorMonedas conversor, InetSocketAddress direccion) throws IOException {
+        this.conversor = conversor;
+        this.selector = Selector.open();
+        this.aceptador = ServerSocketChannel.open();
+        try {
+            aceptador.bind(direccion, 1024);
+            aceptador.configureBlocking(false);
+            aceptador.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            aceptador.close();
+            selector.close();
+            throw e;
+        }
+        this.hilo = Thread.ofPlatform().daemon().name("servidor-binario").unstarted(this::bucle);
+    }
+
+    public void iniciar() {
+        hilo.start();
+    }
+
+    public int obtenerPuerto() {
+        return aceptador.socket().getLocalPort();
+    }
+
+    public long obtenerConexiones() {
+        return conexiones.sum();
+    }
+
+    public long obtenerOperaciones() {
+        return operaciones.sum();
+    }
+
+    public long obtenerRechazadas() {
+        return rechazadas.sum();
+    }
+
+    /**
+     * Muestra conexiones aceptadas y operaciones atendidas
+     */
+    public void mostrarEstadisticas() {
+        System.out.println("=== SERVIDOR BINARIO (puerto " + obtenerPuerto() + ") ===");
+        System.out.println("🔗 Conexiones: " + conexiones.sum());
+        System.out.println("💱 Operaciones: " + operaciones.sum() + " (rechazadas: " + rechazadas.sum() + ")");
+        System.out.println("==================================");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (hilo.getState() == Thread.State.NEW) {
+            // Nunca se inició: no hay bucle que libere los recursos
+            selector.close();
+            aceptador.close();
+            return;
+        }
+        activo = false;
+        selector.wakeup();
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void bucle() {
+        try {
+            while (activo) {
+                selector.select();
+                Iterator<SelectionKey> claves = selector.selectedKeys().iterator();
+                while (claves.hasNext()) {
+                    SelectionKey clave = claves.next();
+                    claves.remove();
+                    try {
+                        if (clave.isAcceptable()) {
+                            aceptar();
+                        } else {
+                            atender(clave);
+                        }
+                    } catch (IOException e) {
+                        // El cliente se fue: sólo se cierra su conexión
+                        cerrar(clave);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("❌ Servidor binario detenido: " + e.getMessage());
+        } finally {
+            for (SelectionKey clave : selector.keys()) {
+                cerrar(clave);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nada más que liberar
+            }
+        }
+    }
+
+    private void aceptar() throws IOException {
+        SocketChannel canal = aceptador.accept();
+        if (canal == null) {
+            return;
+        }
+        canal.configureBlocking(false);
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        canal.register(selector, SelectionKey.OP_READ, new Conexion());
+        conexiones.increment();
+    }
+
+    private void atender(SelectionKey clave) throws IOException {
+        SocketChannel canal = (SocketChannel) clave.channel();
+        Conexion conexion = (Conexion) clave.attachment();
+        if (clave.isReadable() && canal.read(conexion.entrada) < 0) {
+            cerrar(clave);
+            return;
+        }
+        // procesar se detiene con la salida llena; si la escritura la vacía, las tramas que quedaron en la
+        // entrada se responden ahora, porque un cliente que ya envió todo no volverá a despertar la lectura
+        do {
+            procesar(conexion);
+            conexion.salida.flip();
+            canal.write(conexion.salida);
+            conexion.salida.compact();
+        } while (conexion.salida.position() == 0
+                && conexion.entrada.position() >= ProtocoloBinario.TAMANIO_SOLICITUD);
+
+        // Con respuestas pendientes se espera a poder escribir y no se lee más de este cliente
+        clave.interestOps(conexion.salida.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    /**
+     * Responde todas las tramas completas de la entrada que entren en la salida
+     */
+    private void procesar(Conexion conexion) {
+        ByteBuffer entrada = conexion.entrada.flip();
+        ByteBuffer salida = conexion.salida;
+        TablaTasas tabla = conversor.obtenerTabla();
+        int atendidas = 0;
+        while (entrada.remaining() >= ProtocoloBinario.TAMANIO_SOLICITUD
+                && salida.remaining() >= ProtocoloBinario.TAMANIO_RESPUESTA) {
+            int origen = entrada.getShort();
+            int destino = entrada.getShort();
+            byte formato = entrada.get();
+            entrada.position(entrada.position() + 3);
+            long cantidad = entrada.getLong();
+            responder(tabla, origen, destino, formato, cantidad, salida);
+            atendidas++;
+        }
+        entrada.compact();
+        operaciones.add(atendidas);
+    }
+
+    private void responder(TablaTasas tabla, int origenEmpaquetado, int destinoEmpaquetado, byte formato,
+                           long cantidad, ByteBuffer salida) {
+        int idOrigen = IndiceMonedas.buscarIdEmpaquetado(origenEmpaquetado);
+        int idDestino = IndiceMonedas.buscarIdEmpaquetado(destinoEmpaquetado);
+        if (!tabla.disponible(idOrigen) || !tabla.disponible(idDestino)) {
+            rechazadas.increment();
+            ProtocoloBinario.escribirRespuesta(salida, ProtocoloBinario.ESTADO_MONEDA_NO_DISPONIBLE, 0);
+            return;
+        }
+        double tasa = tabla.tasaCruzada(idOrigen, idDestino);
+        if (formato == ProtocoloBinario.FORMATO_DOUBLE) {
+            double resultado = Double.longBitsToDouble(cantidad) * tasa;
+            ProtocoloBinario.escribirRespuesta(salida, ProtocoloBinario.ESTADO_OK, Double.doubleToRawLongBits(resultado));
+        } else if (formato == ProtocoloBinario.FORMATO_MENORES) {
+            double factor = FACTORES[4 + ConversorMonedasExacto.exponenteMenor(destinoEmpaquetado)
+                    - ConversorMonedasExacto.exponenteMenor(origenEmpaquetado)];
+            ProtocoloBinario.escribirRespuesta(salida, ProtocoloBinario.ESTADO_OK, Math.round(cantidad * tasa * factor));
+        } else {
+            rechazadas.increment();
+            ProtocoloBinario.escribirRespuesta(salida, ProtocoloBinario.ESTADO_SOLICITUD_INVALIDA, 0);
+        }
+    }
+
+    private static void cerrar(SelectionKey clave) {
+        clave.cancel();
+        try {
+            clave.channel().close();
+        } catch (IOException e) {
+            // Ya estaba cerrada
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.rodrigo.conversor;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor HTTP embebido que expone un ConversorMonedas a otros procesos
+ * - GET /convertir?de=USD&a=ARS&cantidad=100: una conversión
+ * - POST /convertir/lote con [{"de":"USD","a":"ARS","cantidad":100}, ...]: muchas conversiones en una llamada
+ * - GET /tasas: la tabla vigente en el formato de la API ("result" y "rates")
+ * - GET /metricas: solicitudes, errores y latencias p50/p99 por ruta, más {@link MetricasConversor}, en texto plano
+ * Cada solicitud corre en su propio hilo virtual. Las respuestas se escriben directo a bytes sin pasar
+ * por Gson; el JSON de /tasas se serializa una vez por tabla publicada y los errores fijos una sola vez.
+ */
+public final class ServidorConversion implements Closeable {
+
+    public static final int PUERTO_PREDETERMINADO = 8080;
+    private static final int COLA_CONEXIONES = 1024;
+
+    static {
+        // Sin esto cada respuesta chica espera el ACK retardado del cliente (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static final byte[] NO_ENCONTRADO = "{\"error\":\"Ruta inexistente\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] METODO_NO_PERMITIDO = "{\"error\":\"Método no permitido\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ConversorMonedas conversor;
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+    private final Map<String, Metricas> metricas = new LinkedHashMap<>();
+    private final long inicioNanos = System.nanoTime();
+    private volatile TasasSerializadas tasasSerializadas;
+
+    private record TasasSerializadas(TablaTasas tabla, byte[] cuerpo) {
+    }
+
+    /**
+     * Solicitudes, errores y latencias de una ruta
+     */
+    private static final class Metricas {
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+        final LongAdder solicitudes = new LongAdder();
+        final LongAdder errores = new LongAdder();
+    }
+
+    @FunctionalInterface
+    private interface Manejador {
+        /**
+         * @return int código HTTP que se respondió
+         */
+        int atender(HttpExchange intercambio) throws IOException;
+    }
+
+    /**
+     * Servidor en todas las interfaces del puerto indicado, con un hilo virtual por solicitud
+     */
+    public ServidorConversion(ConversorMonedas conversor, int puerto) throws IOException {
+        this(conversor, new InetSocketAddress(puerto), ModoEjecucion.VIRTUAL);
+    }
+
+    /**
+     * @param conversor Conversor cuyas tasas vigentes se usan en cada solicitud
+     * @param direccion Dirección de escucha (puerto 0 elige uno libre)
+     * @param modo Hilos que atienden las solicitudes
+     */
+    public ServidorConversion(ConversorMonedas conversor, InetSocketAddress direccion, ModoEjecucion modo)
+            throws IOException {
+        this.conversor = conversor;
+        this.servidor = HttpServer.create(direccion, COLA_CONEXIONES);
+        this.ejecutor = modo.crearEjecutor("servidor-conversion-");
+        servidor.setExecutor(ejecutor);
+        registrar("/convertir", "GET", this::convertir);
+        registrar("/convertir/lote", "POST", this::convertirLote);
+        registrar("/tasas", "GET", this::tasas);
+        servidor.createContext("/metricas", this::metricas);
+        servidor.createContext("/", intercambio -> responder(intercambio, 404, NO_ENCONTRADO));
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    public int obtenerPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Latencias de una ruta, desde que se recibe la solicitud hasta que se termina de escribir la respuesta
+     * @param ruta Una de "/convertir", "/convertir/lote" o "/tasas"
+     */
+    public HistogramaLatencia obtenerLatencias(String ruta) {
+        return obtenerMetricas(ruta).latencias;
+    }
+
+    public long obtenerSolicitudes(String ruta) {
+        return obtenerMetricas(ruta).solicitudes.sum();
+    }
+
+    public long obtenerErrores(String ruta) {
+        return obtenerMetricas(ruta).errores.sum();
+    }
+
+    /**
+     * Solicitudes atendidas por segundo desde que se creó el servidor, sumando todas las rutas
+     */
+    public double obtenerSolicitudesPorSegundo() {
+        long total = 0;
+        for (Metricas deRuta : metricas.values()) {
+            total += deRuta.solicitudes.sum();
+        }
+        return total / ((System.nanoTime() - inicioNanos) / 1e9);
+    }
+
+    /**
+     * Muestra las métricas de cada ruta
+     */
+    public void mostrarEstadisticas() {
+        System.out.println("=== SERVIDOR DE CONVERSIÓN (puerto " + obtenerPuerto() + ") ===");
+        for (Map.Entry<String, Metricas> entrada : metricas.entrySet()) {
+            Metricas deRuta = entrada.getValue();
+            System.out.println("🌐 " + entrada.getKey() + ": " + deRuta.solicitudes.sum() + " solicitudes, "
+                    + deRuta.errores.sum() + " errores, " + deRuta.latencias.resumen());
+        }
+        System.out.printf("⚡ %.0f solicitudes/s%n", obtenerSolicitudesPorSegundo());
+        System.out.println("==========================================");
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        ejecutor.shutdownNow();
+    }
+
+    private Metricas obtenerMetricas(String ruta) {
+        Metricas deRuta = metricas.get(ruta);
+        if (deRuta == null) {
+            throw new IllegalArgumentException("Ruta sin métricas: " + ruta);
+        }
+        return deRuta;
+    }
+
+    private void registrar(String ruta, String metodo, Manejador manejador) {
+        Metricas deRuta = new Metricas();
+        metricas.put(ruta, deRuta);
+        servidor.createContext(ruta, intercambio -> {
+            long inicio = System.nanoTime();
+            // Si falla al escribir la respuesta, la solicitud cuenta como error
+            int codigo = 500;
+            try {
+                if (!ruta.equals(intercambio.getRequestURI().getPath())) {
+                    codigo = responder(intercambio, 404, NO_ENCONTRADO);
+                } else if (!metodo.equals(intercambio.getRequestMethod())) {
+                    codigo = responder(intercambio, 405, METODO_NO_PERMITIDO);
+                } else {
+                    codigo = manejador.atender(intercambio);
+                }
+            } catch (IllegalArgumentException | JsonParseException e) {
+                codigo = responder(intercambio, 400, error(e.getMessage()));
+            } finally {
+                intercambio.close();
+                deRuta.solicitudes.increment();
+                if (codigo != 200) {
+                    deRuta.errores.increment();
+                }
+                deRuta.latencias.registrar(System.nanoTime() - inicio);
+            }
+        });
+    }
+
+    private int convertir(HttpExchange intercambio) throws IOException {
+        String de = null;
+        String a = null;
+        double cantidad = Double.NaN;
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta != null) {
+            for (String parametro : consulta.split("&")) {
+                int igual = parametro.indexOf('=');
+                String valor = igual < 0 ? "" : parametro.substring(igual + 1);
+                switch (igual < 0 ? parametro : parametro.substring(0, igual)) {
+                    case "de" -> de = valor;
+                    case "a" -> a = valor;
+                    case "cantidad" -> cantidad = leerCantidad(valor);
+                    default -> { }
+                }
+            }
+        }
+        if (de == null || a == null || Double.isNaN(cantidad)) {
+            throw new IllegalArgumentException("Se requieren los parámetros de, a y cantidad");
+        }
+
+        TablaTasas tabla = conversor.obtenerTabla();
+        int origen = tabla.resolverMoneda(de);
+        int destino = tabla.resolverMoneda(a);
+        double tasa = tabla.tasaCruzada(origen, destino);
+        double resultado = validarResultado(cantidad * tasa, "El resultado");
+        StringBuilder json = new StringBuilder(96)
+                .append("{\"de\":\"").append(de)
+                .append("\",\"a\":\"").append(a)
+                .append("\",\"cantidad\":").append(cantidad)
+                .append(",\"resultado\":").append(resultado)
+                .append(",\"tasa\":").append(tasa)
+                .append('}');
+        return responder(intercambio, 200, ascii(json));
+    }
+
+    private int convertirLote(HttpExchange intercambio) throws IOException {
+        TablaTasas tabla = conversor.obtenerTabla();
+        double[] cantidades = new double[16];
+        int[] origenes = new int[16];
+        int[] destinos = new int[16];
+        int n = 0;
+
+        try (JsonReader lector = new JsonReader(new InputStreamReader(intercambio.getRequestBody(),
+                StandardCharsets.UTF_8))) {
+            lector.beginArray();
+            while (lector.hasNext()) {
+                if (n == cantidades.length) {
+                    cantidades = Arrays.copyOf(cantidades, n * 2);
+                    origenes = Arrays.copyOf(origenes, n * 2);
+                    destinos = Arrays.copyOf(destinos, n * 2);
+                }
+                origenes[n] = -1;
+                destinos[n] = -1;
+                cantidades[n] = Double.NaN;
+                lector.beginObject();
+                while (lector.hasNext()) {
+                    switch (lector.nextName()) {
+                        case "de" -> origenes[n] = tabla.resolverMoneda(lector.nextString());
+                        case "a" -> destinos[n] = tabla.resolverMoneda(lector.nextString());
+                        case "cantidad" -> cantidades[n] = leerCantidad(lector);
+                        default -> lector.skipValue();
+                    }
+                }
+                lector.endObject();
+                if (origenes[n] < 0 || destinos[n] < 0 || Double.isNaN(cantidades[n])) {
+                    throw new IllegalArgumentException("Elemento " + n + " sin de, a o cantidad");
+                }
+                n++;
+            }
+            lector.endArray();
+        } catch (IllegalStateException | IOException e) {
+            // JsonReader informa la sintaxis inválida y el cuerpo truncado como IOException
+            throw new JsonParseException("Lote mal formado: " + e.getMessage(), e);
+        }
+
+        // Todo el lote se convierte con la misma tabla, en un solo recorrido
+        double[] resultados = new double[n];
+        tabla.convertirLote(cantidades, origenes, destinos, 0, n, resultados);
+        StringBuilder json = new StringBuilder(16 + n * 20).append("{\"resultados\":[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(validarResultado(resultados[i], "El resultado del elemento " + i));
+        }
+        json.append("]}");
+        return responder(intercambio, 200, ascii(json));
+    }
+
+    private int tasas(HttpExchange intercambio) throws IOException {
+        TablaTasas tabla = conversor.obtenerTabla();
+        TasasSerializadas serializadas = tasasSerializadas;
+        if (serializadas == null || serializadas.tabla() != tabla) {
+            // Una carrera entre dos hilos sólo serializa dos veces la misma tabla
+            serializadas = new TasasSerializadas(tabla, serializar(tabla));
+            tasasSerializadas = serializadas;
+        }
+        return responder(intercambio, 200, serializadas.cuerpo());
+    }
+
+    private void metricas(HttpExchange intercambio) throws IOException {
+        StringBuilder texto = new StringBuilder(512);
+        for (Map.Entry<String, Metricas> entrada : metricas.entrySet()) {
+            String etiqueta = "{ruta=\"" + entrada.getKey() + "\"} ";
+            Metricas deRuta = entrada.getValue();
+            texto.append("conversor_solicitudes_total").append(etiqueta).append(deRuta.solicitudes.sum()).append('\n')
+                    .append("conversor_errores_total").append(etiqueta).append(deRuta.errores.sum()).append('\n')
+                    .append("conversor_latencia_p50_us").append(etiqueta)
+                    .append(deRuta.latencias.percentil(0.50).toNanos() / 1_000).append('\n')
+                    .append("conversor_latencia_p99_us").append(etiqueta)
+                    .append(deRuta.latencias.percentil(0.99).toNanos() / 1_000).append('\n');
+        }
+        texto.append("conversor_solicitudes_por_segundo ")
+                .append(String.format("%.1f", obtenerSolicitudesPorSegundo())).append('\n');
+        MetricasConversor.escribirTexto(texto);
+        byte[] cuerpo = ascii(texto);
+        try {
+            intercambio.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    private static byte[] serializar(TablaTasas tabla) {
+        String[] codigos = tabla.obtenerMonedasDisponibles();
+        StringBuilder json = new StringBuilder(32 + codigos.length * 24).append("{\"result\":\"success\",\"rates\":{");
+        for (int i = 0; i < codigos.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(codigos[i]).append("\":")
+                    .append(tabla.tasaBase(IndiceMonedas.buscarId(codigos[i])));
+        }
+        json.append("}}");
+        return ascii(json);
+    }
+
+    private static double leerCantidad(String texto) {
+        try {
+            return validarCantidad(Double.parseDouble(texto));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cantidad inválida: " + texto);
+        }
+    }
+
+    private static double leerCantidad(JsonReader lector) throws IOException {
+        if (lector.peek() != JsonToken.NUMBER) {
+            throw new IllegalArgumentException("Cantidad inválida en el lote");
+        }
+        return validarCantidad(lector.nextDouble());
+    }
+
+    private static double validarCantidad(double cantidad) {
+        if (!Double.isFinite(cantidad)) {
+            throw new IllegalArgumentException("Cantidad inválida: " + cantidad);
+        }
+        return cantidad;
+    }
+
+    /**
+     * Una cantidad finita por una tasa mayor que 1 puede desbordar; Infinity no es un número JSON
+     */
+    private static double validarResultado(double resultado, String descripcion) {
+        if (!Double.isFinite(resultado)) {
+            throw new IllegalArgumentException(descripcion + " excede el rango de double");
+        }
+        return resultado;
+    }
+
+    private static byte[] error(String mensaje) {
+        StringBuilder json = new StringBuilder(32).append("{\"error\":\"");
+        if (mensaje != null) {
+            for (int i = 0; i < mensaje.length(); i++) {
+                char c = mensaje.charAt(i);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    case '\n' -> json.append("\\n");
+                    case '\r' -> json.append("\\r");
+                    case '\t' -> json.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            json.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            json.append(c);
+                        }
+                    }
+                }
+            }
+        }
+        return json.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Códigos ISO, números y claves fijas: todo el JSON generado aquí es ASCII
+     */
+    private static byte[] ascii(CharSequence texto) {
+        byte[] bytes = new byte[texto.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) texto.charAt(i);
+        }
+        return bytes;
+    }
+
+    private static int responder(HttpExchange intercambio, int codigo, byte[] cuerpo) throws IOException {
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(codigo, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+        return codigo;
+    }
+}
@@ -1,10 +1,31 @@
 package com.rodrigo.conversor;
 
-import java.net.URI;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * Clase para manejar solicitudes HTTP de manera estructurada
@@ -12,17 +33,61 @@ import java.time.Duration;
  */
 public class SolicitudHTTP {
 
+    private static final String URL_BASE_PREDETERMINADA = "https://open.er-api.com/v6/latest/";
+
+    private final ProveedorClienteHTTP proveedor;
     private final HttpClient cliente;
     private final String urlBase;
+    // Trabajo bloqueante: análisis de cuerpos fuera de los hilos del HttpClient y tareas de los llamadores
+    private final ExecutorService ejecutor;
+    private final ConcurrentHashMap<String, Validadores> validadores = new ConcurrentHashMap<>();
+    private final LongAdder noModificadas = new LongAdder();
 
     /**
-     * Constructor que inicializa el cliente HTTP con configuraciones específicas
+     * Constructor que usa el cliente HTTP compartido de la aplicación
      */
     public SolicitudHTTP() {
-        this.urlBase = "https://open.er-api.com/v6/latest/";
-        this.cliente = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this(URL_BASE_PREDETERMINADA);
+    }
+
+    /**
+     * @param urlBase URL a la que se agrega el código de la moneda base (ej: un servidor de pruebas)
+     */
+    public SolicitudHTTP(String urlBase) {
+        this(urlBase, ProveedorClienteHTTP.predeterminado());
+    }
+
+    /**
+     * @param urlBase URL a la que se agrega el código de la moneda base
+     * @param modo Hilos de plataforma (comportamiento original) o un hilo virtual por tarea
+     */
+    public SolicitudHTTP(String urlBase, ModoEjecucion modo) {
+        this(urlBase, ProveedorClienteHTTP.compartido(modo));
+    }
+
+    /**
+     * @param urlBase URL a la que se agrega el código de la moneda base
+     * @param proveedor Proveedor del HttpClient (y de sus conexiones) a usar
+     */
+    public SolicitudHTTP(String urlBase, ProveedorClienteHTTP proveedor) {
+        this.urlBase = urlBase;
+        this.proveedor = proveedor;
+        this.cliente = proveedor.obtenerCliente();
+        this.ejecutor = proveedor.obtenerEjecutor();
+    }
+
+    public ModoEjecucion obtenerModo() {
+        return proveedor.obtenerModo();
+    }
+
+    /**
+     * Ejecuta una tarea bloqueante (ej: un send o varias solicitudes en serie) con los hilos del modo
+     * configurado; en modo VIRTUAL cada tarea corre en su propio hilo virtual.
+     * @param tarea Tarea que puede bloquear
+     * @return CompletableFuture con el resultado de la tarea
+     */
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        return CompletableFuture.supplyAsync(tarea, ejecutor);
     }
 
     /**
@@ -33,12 +98,8 @@ public class SolicitudHTTP {
     public HttpRequest construirSolicitud(String monedaBase) {
         String urlCompleta = urlBase + monedaBase;
 
-        return HttpRequest.newBuilder()
-                .uri(URI.create(urlCompleta))
-                .timeout(Duration.ofSeconds(30))
-                .header("Accept", "application/json")
+        return proveedor.nuevaSolicitud(urlCompleta)
                 .header("User-Agent", "ConversorMonedas/1.0")
-                .GET()
                 .build();
     }
 
@@ -48,10 +109,23 @@ public class SolicitudHTTP {
      * @return HttpResponse<String> respuesta completa del servidor
      */
     public HttpResponse<String> enviarSolicitudCompleta(HttpRequest solicitud) {
+        EventoDescargaTasas evento = new EventoDescargaTasas();
+        evento.begin();
+        long inicio = System.nanoTime();
         try {
-            return cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
-        } catch (Exception e) {
-            throw new RuntimeException("Error al realizar la solicitud: " + e.getMessage());
+            HttpResponse<String> response = cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
+            MetricasConversor.registrarEnvioHTTP(System.nanoTime() - inicio, response.statusCode() < 400);
+            registrarDescarga(evento, solicitud, response);
+            return response;
+        } catch (IOException e) {
+            MetricasConversor.registrarEnvioHTTP(System.nanoTime() - inicio, false);
+            registrarDescarga(evento, solicitud, null);
+            throw ErrorProveedorTasas.porEnvio(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            MetricasConversor.registrarEnvioHTTP(System.nanoTime() - inicio, false);
+            registrarDescarga(evento, solicitud, null);
+            throw ErrorProveedorTasas.porEnvio(e);
         }
     }
 
@@ -66,6 +140,284 @@ public class SolicitudHTTP {
         return new RespuestaHTTP(httpResponse);
     }
 
+    /**
+     * Envía la solicitud entregando el cuerpo como bytes que se analizan mientras llegan
+     * Retorna al recibir los headers; {@link CuerpoTasas#obtener()} completa la lectura y, con ella,
+     * el evento de JFR de la descarga.
+     * @param solicitud La solicitud HTTP a enviar
+     * @return HttpResponse<CuerpoTasas> respuesta con el cuerpo todavía sin leer
+     */
+    public HttpResponse<CuerpoTasas> enviarSolicitudTasas(HttpRequest solicitud) {
+        EventoDescargaTasas evento = new EventoDescargaTasas();
+        evento.begin();
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<CuerpoTasas> response = cliente.send(solicitud, CuerpoTasas.manejador());
+            MetricasConversor.registrarEnvioHTTP(System.nanoTime() - inicio, response.statusCode() < 400);
+            entregarDescarga(evento, solicitud, response.body());
+            return response;
+        } catch (IOException e) {
+            MetricasConversor.registrarEnvioHTTP(System.nanoTime() - inicio, false);
+            registrarDescarga(evento, solicitud, null);
+            throw ErrorProveedorTasas.porEnvio(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            MetricasConversor.registrarEnvioHTTP(System.nanoTime() - inicio, false);
+            registrarDescarga(evento, solicitud, null);
+            throw ErrorProveedorTasas.porEnvio(e);
+        }
+    }
+
+    /**
+     * Obtiene las tasas de una moneda base analizadas en streaming, sin String intermedio
+     * Si la base ya se descargó la solicitud es condicional (ETag/Last-Modified): un 304 devuelve
+     * las mismas tasas sin volver a analizarlas.
+     * @param monedaBase La moneda base para consultar
+     * @return CuerpoTasas analizado
+     */
+    public CuerpoTasas obtenerTasasAnalizadas(String monedaBase) {
+        HttpResponse<CuerpoTasas> response = enviarSolicitudTasas(construirSolicitudTasas(monedaBase));
+        return resolverCuerpo(monedaBase, response);
+    }
+
+    /**
+     * Versión no bloqueante de {@link #obtenerTasasAnalizadas(String)}
+     * @param monedaBase La moneda base para consultar
+     * @return CompletableFuture que se completa con el cuerpo ya analizado, o con el error
+     */
+    public CompletableFuture<CuerpoTasas> obtenerTasasAnalizadasAsync(String monedaBase) {
+        HttpRequest solicitud = construirSolicitudTasas(monedaBase);
+        EventoDescargaTasas evento = new EventoDescargaTasas();
+        evento.begin();
+        long inicio = System.nanoTime();
+        CompletableFuture<HttpResponse<CuerpoTasas>> envio = cliente.sendAsync(solicitud, CuerpoTasas.manejador());
+        envio.whenComplete((response, error) -> {
+            MetricasConversor.registrarEnvioHTTP(System.nanoTime() - inicio, error == null && response.statusCode() < 400);
+            if (error == null) {
+                entregarDescarga(evento, solicitud, response.body());
+            } else {
+                registrarDescarga(evento, solicitud, null);
+            }
+        });
+        CompletableFuture<CuerpoTasas> analisis = envio.handleAsync((response, error) -> {
+            if (error != null) {
+                throw ErrorProveedorTasas.porEnvio(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+            return resolverCuerpo(monedaBase, response);
+        }, ejecutor);
+        // Si el llamador cancela o vence un timeout, se aborta también el intercambio HTTP
+        analisis.whenComplete((cuerpo, error) -> {
+            if (error != null) {
+                envio.cancel(true);
+            }
+        });
+        return analisis;
+    }
+
+    /**
+     * Completa y emite el evento de JFR de una descarga con el cuerpo ya leído; sin grabación activa no hace nada
+     * @param response Respuesta recibida, o null si el envío falló
+     */
+    private static void registrarDescarga(EventoDescargaTasas evento, HttpRequest solicitud,
+                                          HttpResponse<String> response) {
+        evento.end();
+        if (!evento.shouldCommit()) {
+            return;
+        }
+        evento.monedaBase = EventoDescargaTasas.monedaDeRuta(solicitud.uri().getPath());
+        if (response == null) {
+            evento.bytes = -1;
+        } else {
+            evento.codigoEstado = response.statusCode();
+            evento.bytes = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            evento.caracteres = response.body() == null ? 0 : response.body().length();
+        }
+        evento.commit();
+    }
+
+    /**
+     * Deja el evento de JFR de una descarga en streaming en manos del cuerpo, que lo emite al terminar de leerlo
+     */
+    private static void entregarDescarga(EventoDescargaTasas evento, HttpRequest solicitud, CuerpoTasas cuerpo) {
+        if (evento.isEnabled()) {
+            evento.monedaBase = EventoDescargaTasas.monedaDeRuta(solicitud.uri().getPath());
+            cuerpo.registrarDescargaAlTerminar(evento);
+        }
+    }
+
+    /**
+     * Cantidad de respuestas 304 resueltas con las tasas ya analizadas
+     */
+    public long obtenerRespuestasNoModificadas() {
+        return noModificadas.sum();
+    }
+
+    /**
+     * Solicitud de tasas condicional: envía los validadores de la última respuesta de esta base
+     * y acepta gzip (la JDK no trae decodificador de br, por eso no se anuncia)
+     */
+    private HttpRequest construirSolicitudTasas(String monedaBase) {
+        HttpRequest.Builder constructor = proveedor.nuevaSolicitud(urlBase + monedaBase)
+                .header("User-Agent", "ConversorMonedas/1.0")
+                .header("Accept-Encoding", "gzip");
+        Validadores previos = validadores.get(monedaBase);
+        if (previos != null) {
+            if (previos.etiqueta() != null) {
+                constructor.header("If-None-Match", previos.etiqueta());
+            }
+            if (previos.ultimaModificacion() != null) {
+                constructor.header("If-Modified-Since", previos.ultimaModificacion());
+            }
+        }
+        return constructor.build();
+    }
+
+    /**
+     * Analiza una respuesta 2xx y guarda sus validadores; un 304 devuelve las tasas vigentes sin leer nada
+     */
+    private CuerpoTasas resolverCuerpo(String monedaBase, HttpResponse<CuerpoTasas> response) {
+        CuerpoTasas cuerpo = response.body();
+        if (cuerpo.esNoModificada()) {
+            Validadores previos = validadores.get(monedaBase);
+            cuerpo.descartar();
+            if (previos == null) {
+                throw new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.RESPUESTA_INVALIDA,
+                        "Respuesta 304 sin tasas previas para " + monedaBase);
+            }
+            noModificadas.increment();
+            // Sin esto, unas tasas con time_next_update_unix vencido se volverían a pedir en cada consulta
+            previos.tasas().renovarVigencia(vigenciaNoModificada(response.headers(), System.currentTimeMillis()));
+            return CuerpoTasas.noModificado(response.headers(), previos.tasas());
+        }
+        if (!cuerpo.esExitosa()) {
+            cuerpo.descartar();
+            throw ErrorProveedorTasas.porCodigo(response.statusCode());
+        }
+
+        TasasAnalizadas tasas;
+        try {
+            tasas = cuerpo.obtener();
+        } catch (JsonParseException e) {
+            throw new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.RESPUESTA_INVALIDA,
+                    "Respuesta de tasas inválida: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            throw ErrorProveedorTasas.porEnvio(e.getCause());
+        }
+        String etiqueta = cuerpo.obtenerHeader("ETag");
+        String ultimaModificacion = cuerpo.obtenerHeader("Last-Modified");
+        if (etiqueta != null || ultimaModificacion != null) {
+            validadores.put(monedaBase, new Validadores(etiqueta, ultimaModificacion, tasas));
+        } else {
+            validadores.remove(monedaBase);
+        }
+        return cuerpo;
+    }
+
+    /**
+     * Hasta cuándo vale un 304: max-age de Cache-Control, si no Expires, si no la vigencia predeterminada
+     */
+    private static long vigenciaNoModificada(HttpHeaders headers, long ahoraMillis) {
+        for (String directiva : headers.firstValue("Cache-Control").orElse("").split(",")) {
+            String valor = directiva.trim().toLowerCase(Locale.ROOT);
+            if (valor.startsWith("max-age=")) {
+                try {
+                    return ahoraMillis + Long.parseLong(valor.substring("max-age=".length())) * 1000;
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+        Optional<String> expira = headers.firstValue("Expires");
+        if (expira.isPresent()) {
+            try {
+                return ZonedDateTime.parse(expira.get(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Una fecha inválida equivale a no informarla
+            }
+        }
+        return ahoraMillis + CacheTasas.VIGENCIA_PREDETERMINADA.toMillis();
+    }
+
+    /**
+     * Validadores de la última respuesta completa de una base, junto con las tasas que describen
+     */
+    private record Validadores(String etiqueta, String ultimaModificacion, TasasAnalizadas tasas) {
+    }
+
+    /**
+     * Descarga varias monedas base en paralelo sobre el mismo HttpClient
+     * Nunca hay más de maximoConcurrentes solicitudes en vuelo. El resultado incluye las bases que
+     * llegaron aunque otras fallen; al vencer el plazo total se cancelan las pendientes.
+     * @param bases Monedas base a descargar (ej: USD, EUR, BRL, ARS)
+     * @param maximoConcurrentes Límite de solicitudes simultáneas
+     * @param timeoutPorBase Tiempo máximo para cada base, incluyendo la lectura del cuerpo
+     * @param plazoTotal Tiempo máximo para el conjunto
+     * @return CompletableFuture que se completa siempre con un resultado, posiblemente parcial
+     */
+    public CompletableFuture<ResultadoVariasBases> obtenerVariasBasesAsync(Collection<String> bases,
+                                                                           int maximoConcurrentes,
+                                                                           Duration timeoutPorBase,
+                                                                           Duration plazoTotal) {
+        if (maximoConcurrentes < 1) {
+            throw new IllegalArgumentException("El máximo de solicitudes concurrentes debe ser positivo");
+        }
+        Set<String> unicas = new LinkedHashSet<>(bases);
+        ResultadoVariasBases resultado = new ResultadoVariasBases(unicas);
+        CompletableFuture<ResultadoVariasBases> total = new CompletableFuture<>();
+        if (unicas.isEmpty()) {
+            total.complete(resultado.cerrar());
+            return total;
+        }
+
+        Queue<String> pendientes = new ConcurrentLinkedQueue<>(unicas);
+        Set<CompletableFuture<CuerpoTasas>> enVuelo = ConcurrentHashMap.newKeySet();
+        AtomicInteger restantes = new AtomicInteger(unicas.size());
+
+        Runnable lanzarSiguiente = new Runnable() {
+            @Override
+            public void run() {
+                String base = pendientes.poll();
+                if (base == null || total.isDone()) {
+                    return;
+                }
+                CompletableFuture<CuerpoTasas> descarga;
+                try {
+                    descarga = obtenerTasasAnalizadasAsync(base)
+                            .orTimeout(timeoutPorBase.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (RuntimeException e) {
+                    descarga = CompletableFuture.failedFuture(e);
+                }
+                enVuelo.add(descarga);
+                CompletableFuture<CuerpoTasas> registrada = descarga;
+                descarga.whenComplete((cuerpo, error) -> {
+                    enVuelo.remove(registrada);
+                    if (error == null) {
+                        resultado.registrarExito(base, cuerpo.obtener());
+                    } else {
+                        resultado.registrarFallo(base, error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    }
+                    if (restantes.decrementAndGet() == 0) {
+                        total.complete(resultado.cerrar());
+                    } else {
+                        run();
+                    }
+                });
+            }
+        };
+        for (int i = 0; i < Math.min(maximoConcurrentes, unicas.size()); i++) {
+            lanzarSiguiente.run();
+        }
+
+        total.completeOnTimeout(resultado, plazoTotal.toMillis(), TimeUnit.MILLISECONDS);
+        return total.thenApply(completo -> {
+            completo.cerrar();
+            enVuelo.forEach(descarga -> descarga.cancel(true));
+            return completo;
+        });
+    }
+
     /**
      * Método legacy para compatibilidad (mantiene la funcionalidad anterior)
      * @param solicitud La solicitud HTTP a enviar
@@ -77,7 +429,7 @@ public class SolicitudHTTP {
         if (response.statusCode() == 200) {
             return response.body();
         } else {
-            throw new RuntimeException("Error en la API: Código " + response.statusCode());
+            throw ErrorProveedorTasas.porCodigo(response.statusCode());
         }
     }
 
@@ -0,0 +1,204 @@
+package com.rodrigo.conversor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Capa de resiliencia sobre SolicitudHTTP para acotar la latencia cuando el proveedor anda mal
+ * - Plazo por llamada: ninguna consulta espera más que el presupuesto configurado.
+ * - Solicitud duplicada: si la primera no respondió tras el p95 observado, se envía otra igual y
+ *   gana la que llegue primero (la otra se cancela).
+ * - Cortacircuitos: con muchos fallos seguidos deja de llamar al proveedor por un tiempo.
+ * Ante un fallo transitorio o con el circuito abierto se devuelven las últimas tasas buenas de la base,
+ * marcadas con {@link TasasAnalizadas#esRespaldo()} para que quien refresca las cuente como fallo.
+ */
+public class SolicitudResiliente {
+
+    public static final Duration PLAZO_PREDETERMINADO = Duration.ofSeconds(5);
+    /** Retardo del duplicado mientras no hay suficientes muestras para estimar el p95 */
+    public static final Duration RETARDO_DUPLICADO_INICIAL = Duration.ofMillis(500);
+    public static final Duration RETARDO_DUPLICADO_MINIMO = Duration.ofMillis(20);
+    private static final int MUESTRAS_MINIMAS_P95 = 20;
+
+    private final SolicitudHTTP solicitud;
+    private final CircuitoProveedor circuito;
+    private final long plazoMillis;
+    private final HistogramaLatencia latencias = new HistogramaLatencia();
+    private final ConcurrentHashMap<String, TasasAnalizadas> ultimasBuenas = new ConcurrentHashMap<>();
+
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder duplicadosEnviados = new LongAdder();
+    private final LongAdder duplicadosGanadores = new LongAdder();
+    private final LongAdder plazosVencidos = new LongAdder();
+    private final LongAdder respaldosUsados = new LongAdder();
+
+    public SolicitudResiliente(SolicitudHTTP solicitud) {
+        this(solicitud, new CircuitoProveedor(), PLAZO_PREDETERMINADO);
+    }
+
+    /**
+     * @param solicitud Solicitud HTTP hacia el proveedor
+     * @param circuito Cortacircuitos que decide si se llama al proveedor
+     * @param plazoPorLlamada Tiempo máximo de cada consulta, incluidos los duplicados
+     */
+    public SolicitudResiliente(SolicitudHTTP solicitud, CircuitoProveedor circuito, Duration plazoPorLlamada) {
+        this.solicitud = solicitud;
+        this.circuito = circuito;
+        this.plazoMillis = plazoPorLlamada.toMillis();
+    }
+
+    /**
+     * Obtiene las tasas de una moneda base dentro del plazo, o las últimas buenas si el proveedor falla
+     * @param monedaBase La moneda base (ej: "USD")
+     * @return TasasAnalizadas frescas o de respaldo (esRespaldo() en true)
+     * @throws ErrorProveedorTasas si el proveedor falló y no hay respaldo, o si el error no es transitorio
+     */
+    public TasasAnalizadas obtenerTasas(String monedaBase) {
+        llamadas.increment();
+        if (!circuito.permiteLlamada()) {
+            return respaldo(monedaBase, new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.CIRCUITO_ABIERTO,
+                    "Circuito abierto: el proveedor de tasas falló repetidamente"));
+        }
+
+        CompletableFuture<TasasAnalizadas> llamada = llamarConDuplicado(monedaBase);
+        try {
+            TasasAnalizadas tasas = llamada.get(plazoMillis, TimeUnit.MILLISECONDS);
+            circuito.registrarExito();
+            ultimasBuenas.put(monedaBase, tasas);
+            return tasas;
+        } catch (TimeoutException e) {
+            llamada.cancel(true);
+            plazosVencidos.increment();
+            circuito.registrarFallo();
+            return respaldo(monedaBase, new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.TIMEOUT,
+                    "Plazo de " + plazoMillis + " ms vencido para " + monedaBase, e));
+        } catch (InterruptedException e) {
+            llamada.cancel(true);
+            Thread.currentThread().interrupt();
+            circuito.registrarFallo();
+            throw new ErrorProveedorTasas(ErrorProveedorTasas.Motivo.RED, "Consulta de tasas interrumpida", e);
+        } catch (ExecutionException e) {
+            ErrorProveedorTasas error = clasificar(e.getCause());
+            if (!error.esTransitorio()) {
+                // El proveedor respondió (ej: 404 por moneda inválida): no cuenta como caída
+                circuito.registrarExito();
+                throw error;
+            }
+            circuito.registrarFallo();
+            return respaldo(monedaBase, error);
+        }
+    }
+
+    /**
+     * Retardo con el que se enviaría ahora un duplicado: el p95 de las respuestas exitosas
+     */
+    public Duration obtenerRetardoDuplicado() {
+        if (latencias.obtenerCantidad() < MUESTRAS_MINIMAS_P95) {
+            return RETARDO_DUPLICADO_INICIAL;
+        }
+        Duration p95 = latencias.percentil(0.95);
+        return p95.compareTo(RETARDO_DUPLICADO_MINIMO) < 0 ? RETARDO_DUPLICADO_MINIMO : p95;
+    }
+
+    public CircuitoProveedor obtenerCircuito() { return circuito; }
+
+    public HistogramaLatencia obtenerLatencias() { return latencias; }
+
+    public long obtenerLlamadas() { return llamadas.sum(); }
+
+    public long obtenerDuplicadosEnviados() { return duplicadosEnviados.sum(); }
+
+    public long obtenerDuplicadosGanadores() { return duplicadosGanadores.sum(); }
+
+    public long obtenerPlazosVencidos() { return plazosVencidos.sum(); }
+
+    public long obtenerRespaldosUsados() { return respaldosUsados.sum(); }
+
+    /**
+     * Muestra los contadores de la capa de resiliencia
+     */
+    public void mostrarEstadisticas() {
+        System.out.println("=== RESILIENCIA DEL PROVEEDOR DE TASAS ===");
+        System.out.println("📞 Llamadas: " + llamadas.sum());
+        System.out.println("⏱️ Latencia: " + latencias.resumen());
+        System.out.println("👯 Duplicados: " + duplicadosEnviados.sum() + " enviados, "
+                + duplicadosGanadores.sum() + " ganadores");
+        System.out.println("⏰ Plazos vencidos: " + plazosVencidos.sum());
+        System.out.println("🔌 Circuito: " + circuito.obtenerEstado() + " (aperturas: " + circuito.obtenerAperturas()
+                + ", rechazadas: " + circuito.obtenerRechazadas() + ")");
+        System.out.println("💾 Respaldos usados: " + respaldosUsados.sum());
+        System.out.println("==========================================");
+    }
+
+    private CompletableFuture<TasasAnalizadas> llamarConDuplicado(String monedaBase) {
+        CompletableFuture<TasasAnalizadas> resultado = new CompletableFuture<>();
+        List<CompletableFuture<CuerpoTasas>> intentos = new CopyOnWriteArrayList<>();
+        AtomicInteger enVuelo = new AtomicInteger(1);
+
+        lanzarIntento(monedaBase, false, resultado, intentos, enVuelo);
+        long retardo = obtenerRetardoDuplicado().toMillis();
+        if (retardo < plazoMillis) {
+            CompletableFuture.delayedExecutor(retardo, TimeUnit.MILLISECONDS).execute(() -> {
+                if (!resultado.isDone()) {
+                    enVuelo.incrementAndGet();
+                    duplicadosEnviados.increment();
+                    lanzarIntento(monedaBase, true, resultado, intentos, enVuelo);
+                }
+            });
+        }
+        // Al ganar uno (o vencer el plazo) se cancelan los intentos que sigan en vuelo
+        resultado.whenComplete((tasas, error) -> intentos.forEach(intento -> intento.cancel(true)));
+        return resultado;
+    }
+
+    private void lanzarIntento(String monedaBase, boolean duplicado, CompletableFuture<TasasAnalizadas> resultado,
+                               List<CompletableFuture<CuerpoTasas>> intentos, AtomicInteger enVuelo) {
+        long inicio = System.nanoTime();
+        CompletableFuture<CuerpoTasas> intento;
+        try {
+            intento = solicitud.obtenerTasasAnalizadasAsync(monedaBase);
+        } catch (RuntimeException e) {
+            intento = CompletableFuture.failedFuture(e);
+        }
+        intentos.add(intento);
+        if (resultado.isDone()) {
+            intento.cancel(true);
+        }
+        intento.whenComplete((cuerpo, error) -> {
+            if (error == null) {
+                latencias.registrar(System.nanoTime() - inicio);
+                if (resultado.complete(cuerpo.obtener()) && duplicado) {
+                    duplicadosGanadores.increment();
+                }
+            } else if (enVuelo.decrementAndGet() == 0) {
+                resultado.completeExceptionally(error);
+            }
+        });
+    }
+
+    private TasasAnalizadas respaldo(String monedaBase, ErrorProveedorTasas error) {
+        TasasAnalizadas anteriores = ultimasBuenas.get(monedaBase);
+        if (anteriores == null) {
+            throw error;
+        }
+        respaldosUsados.increment();
+        return anteriores.comoRespaldo();
+    }
+
+    private static ErrorProveedorTasas clasificar(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (causa instanceof ErrorProveedorTasas) {
+            return (ErrorProveedorTasas) causa;
+        }
+        return ErrorProveedorTasas.porEnvio(causa);
+    }
+}
@@ -0,0 +1,191 @@
+package com.rodrigo.conversor;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Instantánea inmutable de tasas con la matriz de tasas cruzadas precalculada
+ * Se construye una vez por actualización y se publica completa; nunca se modifica.
+ */
+public final class TablaTasas {
+
+    private final double[] tasas;
+    private final double[] matriz;
+    private final int dimension;
+    private final String[] monedasDisponibles;
+
+    private TablaTasas(double[] tasas, String[] monedasDisponibles) {
+        this.tasas = tasas;
+        this.dimension = tasas.length;
+        this.monedasDisponibles = monedasDisponibles;
+        this.matriz = new double[dimension * dimension];
+
+        // matriz[origen * n + destino] = tasaDestino / tasaOrigen (NaN si falta alguna)
+        for (int origen = 0; origen < dimension; origen++) {
+            int fila = origen * dimension;
+            double tasaOrigen = tasas[origen];
+            for (int destino = 0; destino < dimension; destino++) {
+                matriz[fila + destino] = tasas[destino] / tasaOrigen;
+            }
+        }
+    }
+
+    /**
+     * Construye la tabla a partir de un mapa código → tasa respecto a la moneda base
+     * @param tasasConversion Mapa con las tasas (ej: el de RespuestaAPI)
+     * @return TablaTasas instantánea lista para publicar
+     */
+    public static TablaTasas desdeMapa(Map<String, Double> tasasConversion) {
+        int[] ids = new int[tasasConversion.size()];
+        double[] valores = new double[ids.length];
+        int i = 0;
+        for (Map.Entry<String, Double> entrada : tasasConversion.entrySet()) {
+            ids[i] = IndiceMonedas.obtenerId(entrada.getKey());
+            valores[i] = entrada.getValue();
+            i++;
+        }
+        return desdeArreglos(ids, valores);
+    }
+
+    /**
+     * Construye la tabla a partir de arreglos paralelos de ids y tasas, sin valores en caja
+     * @param ids Ids de {@link IndiceMonedas}
+     * @param valores Tasa respecto a la moneda base de cada id
+     * @return TablaTasas instantánea lista para publicar
+     */
+    public static TablaTasas desdeArreglos(int[] ids, double[] valores) {
+        if (ids.length != valores.length) {
+            throw new IllegalArgumentException("Cantidad de ids y de tasas distinta: "
+                    + ids.length + " y " + valores.length);
+        }
+        String[] codigos = new String[ids.length];
+        int maximoId = -1;
+        for (int i = 0; i < ids.length; i++) {
+            codigos[i] = IndiceMonedas.obtenerCodigo(ids[i]);
+            maximoId = Math.max(maximoId, ids[i]);
+        }
+
+        // Tabla plana indexada por id de IndiceMonedas; NaN marca monedas no disponibles
+        double[] tasas = new double[maximoId + 1];
+        Arrays.fill(tasas, Double.NaN);
+        for (int i = 0; i < ids.length; i++) {
+            tasas[ids[i]] = valores[i];
+        }
+        return new TablaTasas(tasas, codigos);
+    }
+
+    /**
+     * Convierte una cantidad con la tasa cruzada precalculada
+     */
+    public double convertir(double cantidad, int idOrigen, int idDestino) {
+        return cantidad * tasaCruzada(idOrigen, idDestino);
+    }
+
+    /**
+     * Convierte un rango de cantidades de una misma moneda de origen a una misma moneda destino
+     * La tasa se resuelve una sola vez y el bucle queda libre de validaciones para que el JIT lo vectorice.
+     * @param cantidades Cantidades a convertir
+     * @param desde Primer índice (inclusive)
+     * @param hasta Último índice (exclusive)
+     * @param salida Arreglo donde se escriben los resultados, en los mismos índices
+     */
+    public void convertirLote(double[] cantidades, int desde, int hasta,
+                              int idOrigen, int idDestino, double[] salida) {
+        validarRango(cantidades.length, desde, hasta, salida.length);
+        double tasa = tasaCruzada(idOrigen, idDestino);
+        for (int i = desde; i < hasta; i++) {
+            salida[i] = cantidades[i] * tasa;
+        }
+    }
+
+    /**
+     * Convierte un rango de cantidades donde cada posición tiene su propio par de monedas
+     * Los rangos se validan una vez; por elemento solo queda leer la matriz y descartar NaN.
+     */
+    public void convertirLote(double[] cantidades, int[] origenes, int[] destinos,
+                              int desde, int hasta, double[] salida) {
+        validarRango(cantidades.length, desde, hasta, salida.length);
+        validarRango(origenes.length, desde, hasta, destinos.length);
+        for (int i = desde; i < hasta; i++) {
+            int origen = origenes[i];
+            int destino = destinos[i];
+            if (origen < 0 || origen >= dimension || destino < 0 || destino >= dimension) {
+                throw monedaNoDisponibleEnPosicion(origen, destino, i);
+            }
+            double tasa = matriz[origen * dimension + destino];
+            if (tasa != tasa) {
+                throw monedaNoDisponibleEnPosicion(origen, destino, i);
+            }
+            salida[i] = cantidades[i] * tasa;
+        }
+    }
+
+    private IllegalArgumentException monedaNoDisponibleEnPosicion(int origen, int destino, int posicion) {
+        return new IllegalArgumentException("Moneda no disponible: id "
+                + (disponible(origen) ? destino : origen) + " en la posición " + posicion);
+    }
+
+    private static void validarRango(int longitud, int desde, int hasta, int longitudSalida) {
+        if (desde < 0 || hasta < desde || hasta > longitud || hasta > longitudSalida) {
+            throw new IllegalArgumentException("Rango inválido [" + desde + ", " + hasta + ") para arreglos de "
+                    + longitud + " y " + longitudSalida + " elementos");
+        }
+    }
+
+    /**
+     * Obtiene la tasa cruzada entre dos monedas identificadas por id
+     */
+    public double tasaCruzada(int idOrigen, int idDestino) {
+        if (idOrigen < 0 || idOrigen >= dimension || idDestino < 0 || idDestino >= dimension) {
+            throw new IllegalArgumentException("Moneda no disponible: id "
+                    + (idOrigen < 0 || idOrigen >= dimension ? idOrigen : idDestino));
+        }
+        double tasa = matriz[idOrigen * dimension + idDestino];
+        if (Double.isNaN(tasa)) {
+            throw new IllegalArgumentException("Moneda no disponible: id "
+                    + (disponible(idOrigen) ? idDestino : idOrigen));
+        }
+        return tasa;
+    }
+
+    /**
+     * Resuelve el id de una moneda verificando que tenga tasa en esta instantánea
+     * @param codigoMoneda Código ISO de la moneda
+     * @return int id de la moneda en {@link IndiceMonedas}
+     */
+    public int resolverMoneda(String codigoMoneda) {
+        int id = IndiceMonedas.buscarId(codigoMoneda);
+        if (!disponible(id)) {
+            throw new IllegalArgumentException("Moneda no disponible: " + codigoMoneda);
+        }
+        return id;
+    }
+
+    /**
+     * Verifica si la moneda con ese id tiene tasa en esta instantánea
+     */
+    public boolean disponible(int id) {
+        return id >= 0 && id < dimension && !Double.isNaN(tasas[id]);
+    }
+
+    /**
+     * Tasa de la moneda respecto a la moneda base de la instantánea
+     */
+    public double tasaBase(int id) {
+        if (!disponible(id)) {
+            throw new IllegalArgumentException("Moneda no disponible: id " + id);
+        }
+        return tasas[id];
+    }
+
+    /**
+     * Cantidad de monedas con tasa en esta instantánea
+     */
+    public int cantidadMonedas() {
+        return monedasDisponibles.length;
+    }
+
+    public String[] obtenerMonedasDisponibles() {
+        return monedasDisponibles.clone();
+    }
+}
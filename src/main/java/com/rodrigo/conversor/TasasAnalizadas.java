@@ -0,0 +1,326 @@
+package com.rodrigo.conversor;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resultado de analizar la respuesta de la API en una sola pasada con JsonReader
+ * Las tasas quedan en arreglos primitivos (id de {@link IndiceMonedas} y valor), sin árbol
+ * JsonObject intermedio ni Doubles en caja. El mapa de RespuestaAPI se arma sólo si se pide.
+ */
+public final class TasasAnalizadas {
+
+    private static final int CAPACIDAD_INICIAL = 256;
+
+    private String resultado;
+    private String urlDocumentacion;
+    private String terminosUso;
+    private long ultimaActualizacionUnix;
+    private String ultimaActualizacionUTC;
+    private long proximaActualizacionUnix;
+    private String proximaActualizacionUTC;
+    private String monedaBase;
+    private String tipoError;
+
+    // Tasas en el orden del JSON; tasasPorId es la vista densa para búsquedas
+    private int cantidad;
+    private int[] ids = new int[0];
+    private double[] tasas = new double[0];
+    private double[] tasasPorId = new double[0];
+    private boolean tieneTasas;
+    private boolean deRespaldo;
+    private long vigenteHastaMillis;
+    private RespuestaAPI respuestaAPI;
+    private TasasAnalizadas respaldo;
+
+    private TasasAnalizadas() {
+    }
+
+    /**
+     * Analiza un JSON completo en memoria
+     */
+    public static TasasAnalizadas analizar(String json) {
+        return analizar(new StringReader(json));
+    }
+
+    /**
+     * Analiza el JSON a medida que se lee del Reader
+     * @throws JsonSyntaxException si el contenido no es un JSON válido con la forma esperada
+     * @throws JsonIOException si falla la lectura
+     */
+    public static TasasAnalizadas analizar(Reader origen) {
+        TasasAnalizadas analizadas = new TasasAnalizadas();
+        try (JsonReader lector = new JsonReader(origen)) {
+            lector.beginObject();
+            while (lector.hasNext()) {
+                switch (lector.nextName()) {
+                    case "result":
+                        analizadas.resultado = leerTexto(lector);
+                        break;
+                    case "documentation":
+                        analizadas.urlDocumentacion = leerTexto(lector);
+                        break;
+                    case "terms_of_use":
+                        analizadas.terminosUso = leerTexto(lector);
+                        break;
+                    case "time_last_update_unix":
+                        analizadas.ultimaActualizacionUnix = lector.nextLong();
+                        break;
+                    case "time_last_update_utc":
+                        analizadas.ultimaActualizacionUTC = leerTexto(lector);
+                        break;
+                    case "time_next_update_unix":
+                        analizadas.proximaActualizacionUnix = lector.nextLong();
+                        break;
+                    case "time_next_update_utc":
+                        analizadas.proximaActualizacionUTC = leerTexto(lector);
+                        break;
+                    case "base_code":
+                        analizadas.monedaBase = leerTexto(lector);
+                        break;
+                    case "error-type":
+                        analizadas.tipoError = leerTexto(lector);
+                        break;
+                    case "rates":
+                        analizadas.leerTasas(lector);
+                        break;
+                    default:
+                        lector.skipValue();
+                }
+            }
+            lector.endObject();
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        analizadas.indexar();
+        return analizadas;
+    }
+
+    /**
+     * Tasas armadas en memoria (ej: la mediana de varios proveedores) con la forma de una respuesta exitosa
+     * @param monedaBase Moneda base de las tasas
+     * @param ids Ids de {@link IndiceMonedas}; se copian las primeras cantidad posiciones
+     * @param valores Tasas en el mismo orden que ids
+     * @param cantidad Cantidad de posiciones válidas
+     * @param ultimaActualizacionUnix Momento de los datos más recientes combinados
+     * @param proximaActualizacionUnix Próxima actualización esperada
+     */
+    static TasasAnalizadas combinadas(String monedaBase, int[] ids, double[] valores, int cantidad,
+                                      long ultimaActualizacionUnix, long proximaActualizacionUnix) {
+        TasasAnalizadas combinadas = new TasasAnalizadas();
+        combinadas.resultado = "success";
+        combinadas.monedaBase = monedaBase;
+        combinadas.ultimaActualizacionUnix = ultimaActualizacionUnix;
+        combinadas.proximaActualizacionUnix = proximaActualizacionUnix;
+        combinadas.tieneTasas = true;
+        combinadas.cantidad = cantidad;
+        combinadas.ids = Arrays.copyOf(ids, cantidad);
+        combinadas.tasas = Arrays.copyOf(valores, cantidad);
+        combinadas.indexar();
+        return combinadas;
+    }
+
+    /**
+     * Las mismas tasas marcadas como respaldo: se devuelven porque el proveedor falló, no porque sean nuevas
+     * Comparte los arreglos, que no cambian después del análisis, y se arma una sola vez.
+     */
+    synchronized TasasAnalizadas comoRespaldo() {
+        if (deRespaldo) {
+            return this;
+        }
+        if (respaldo == null) {
+            TasasAnalizadas copia = new TasasAnalizadas();
+            copia.resultado = resultado;
+            copia.urlDocumentacion = urlDocumentacion;
+            copia.terminosUso = terminosUso;
+            copia.ultimaActualizacionUnix = ultimaActualizacionUnix;
+            copia.ultimaActualizacionUTC = ultimaActualizacionUTC;
+            copia.proximaActualizacionUnix = proximaActualizacionUnix;
+            copia.proximaActualizacionUTC = proximaActualizacionUTC;
+            copia.monedaBase = monedaBase;
+            copia.tipoError = tipoError;
+            copia.cantidad = cantidad;
+            copia.ids = ids;
+            copia.tasas = tasas;
+            copia.tasasPorId = tasasPorId;
+            copia.tieneTasas = tieneTasas;
+            copia.deRespaldo = true;
+            respaldo = copia;
+        }
+        return respaldo;
+    }
+
+    /**
+     * Extiende la vigencia tras un 304: siguen siendo las últimas tasas aunque time_next_update_unix ya pasó
+     */
+    synchronized void renovarVigencia(long vigenteHastaMillis) {
+        this.vigenteHastaMillis = vigenteHastaMillis;
+        if (respuestaAPI != null) {
+            respuestaAPI.setVigenteHastaMillis(vigenteHastaMillis);
+        }
+    }
+
+    private static String leerTexto(JsonReader lector) throws IOException {
+        if (lector.peek() == JsonToken.NULL) {
+            lector.nextNull();
+            return null;
+        }
+        return lector.nextString();
+    }
+
+    private void leerTasas(JsonReader lector) throws IOException {
+        tieneTasas = true;
+        ids = new int[CAPACIDAD_INICIAL];
+        tasas = new double[CAPACIDAD_INICIAL];
+        lector.beginObject();
+        while (lector.hasNext()) {
+            int empaquetado = IndiceMonedas.empaquetar(lector.nextName());
+            if (empaquetado < 0) {
+                // Código que no es ISO de tres letras: no se puede indexar
+                lector.skipValue();
+                continue;
+            }
+            if (cantidad == ids.length) {
+                ids = Arrays.copyOf(ids, cantidad * 2);
+                tasas = Arrays.copyOf(tasas, cantidad * 2);
+            }
+            int id = IndiceMonedas.buscarIdEmpaquetado(empaquetado);
+            ids[cantidad] = id >= 0 ? id : IndiceMonedas.obtenerId(IndiceMonedas.desempaquetar(empaquetado));
+            tasas[cantidad] = lector.nextDouble();
+            cantidad++;
+        }
+        lector.endObject();
+    }
+
+    private void indexar() {
+        int maximoId = -1;
+        for (int i = 0; i < cantidad; i++) {
+            maximoId = Math.max(maximoId, ids[i]);
+        }
+        tasasPorId = new double[maximoId + 1];
+        Arrays.fill(tasasPorId, Double.NaN);
+        for (int i = 0; i < cantidad; i++) {
+            tasasPorId[ids[i]] = tasas[i];
+        }
+    }
+
+    public String obtenerResultado() { return resultado; }
+
+    public String obtenerMonedaBase() { return monedaBase; }
+
+    public long obtenerUltimaActualizacionUnix() { return ultimaActualizacionUnix; }
+
+    public long obtenerProximaActualizacionUnix() { return proximaActualizacionUnix; }
+
+    public String obtenerUltimaActualizacionUTC() { return ultimaActualizacionUTC; }
+
+    /**
+     * Tipo de error informado por la API (ej: "unsupported-code"), o null
+     */
+    public String obtenerTipoError() { return tipoError; }
+
+    /**
+     * true si son las últimas tasas buenas devueltas en lugar de una respuesta del proveedor
+     */
+    public boolean esRespaldo() { return deRespaldo; }
+
+    /**
+     * Cantidad de tasas leídas
+     */
+    public int cantidadTasas() { return cantidad; }
+
+    /**
+     * Id de {@link IndiceMonedas} de la tasa en la posición indicada (orden del JSON)
+     */
+    public int idEn(int posicion) {
+        return ids[validarPosicion(posicion)];
+    }
+
+    /**
+     * Tasa en la posición indicada (orden del JSON)
+     */
+    public double tasaEn(int posicion) {
+        return tasas[validarPosicion(posicion)];
+    }
+
+    /**
+     * Verifica si la respuesta trae tasa para una moneda
+     */
+    public boolean contiene(String codigoMoneda) {
+        int id = IndiceMonedas.buscarId(codigoMoneda);
+        return id >= 0 && id < tasasPorId.length && !Double.isNaN(tasasPorId[id]);
+    }
+
+    /**
+     * Obtiene la tasa de una moneda específica
+     */
+    public double obtenerTasa(String codigoMoneda) {
+        if (contiene(codigoMoneda)) {
+            return tasasPorId[IndiceMonedas.buscarId(codigoMoneda)];
+        }
+        throw new IllegalArgumentException("Moneda no encontrada: " + codigoMoneda);
+    }
+
+    /**
+     * Crea la tabla de conversión directamente desde los arreglos, sin pasar por un Map
+     */
+    public TablaTasas crearTabla() {
+        return TablaTasas.desdeArreglos(Arrays.copyOf(ids, cantidad), Arrays.copyOf(tasas, cantidad));
+    }
+
+    /**
+     * Arma el mapa código → tasa (aquí sí se crean los Doubles)
+     */
+    public Map<String, Double> crearMapa() {
+        Map<String, Double> mapa = new HashMap<>(cantidad * 2);
+        for (int i = 0; i < cantidad; i++) {
+            mapa.put(IndiceMonedas.obtenerCodigo(ids[i]), tasas[i]);
+        }
+        return mapa;
+    }
+
+    /**
+     * Convierte el resultado al POJO RespuestaAPI, con los mismos valores que daría Gson.fromJson
+     * Se arma una sola vez: unas tasas reutilizadas tras un 304 devuelven la misma instancia.
+     */
+    public synchronized RespuestaAPI aRespuestaAPI() {
+        if (respuestaAPI == null) {
+            respuestaAPI = crearRespuestaAPI();
+        }
+        return respuestaAPI;
+    }
+
+    private RespuestaAPI crearRespuestaAPI() {
+        RespuestaAPI respuesta = new RespuestaAPI();
+        respuesta.setResult(resultado);
+        respuesta.setUrlDocumentacion(urlDocumentacion);
+        respuesta.setTerminosUso(terminosUso);
+        respuesta.setUltimaActualizacionUnix(ultimaActualizacionUnix);
+        respuesta.setUltimaActualizacionUTC(ultimaActualizacionUTC);
+        respuesta.setProximaActualizacionUnix(proximaActualizacionUnix);
+        respuesta.setProximaActualizacionUTC(proximaActualizacionUTC);
+        respuesta.setCodigoBase(monedaBase);
+        respuesta.setTasasConversion(tieneTasas ? crearMapa() : null);
+        respuesta.setDeRespaldo(deRespaldo);
+        respuesta.setVigenteHastaMillis(vigenteHastaMillis);
+        return respuesta;
+    }
+
+    private int validarPosicion(int posicion) {
+        if (posicion < 0 || posicion >= cantidad) {
+            throw new IndexOutOfBoundsException("Posición de tasa inválida: " + posicion);
+        }
+        return posicion;
+    }
+}
@@ -0,0 +1,172 @@
+package com.rodrigo.conversor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Pruebas de ActualizadorTasas con una API simulada: programación, reintentos y reemplazo en caliente
+ */
+public class TestActualizadorTasas {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO ACTUALIZADOR DE TASAS");
+        System.out.println("=================================");
+
+        Clock reloj = Clock.systemUTC();
+        AtomicInteger descargas = new AtomicInteger();
+        AtomicInteger fallosPendientes = new AtomicInteger();
+        AtomicInteger respaldosPendientes = new AtomicInteger();
+        List<Long> momentosDescarga = new CopyOnWriteArrayList<>();
+
+        // API simulada: cada respuesta dura un segundo y la tasa EUR sube en cada descarga
+        CacheTasas cache = new CacheTasas(monedaBase -> {
+            momentosDescarga.add(System.nanoTime());
+            if (fallosPendientes.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new RuntimeException("Error en la API: 503 simulado");
+            }
+            if (respaldosPendientes.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                // Como SolicitudResiliente durante una caída: tasas viejas, con la próxima actualización ya pasada
+                RespuestaAPI vieja = crearRespuesta(0.70, reloj.instant().getEpochSecond() - 60);
+                vieja.setDeRespaldo(true);
+                return vieja;
+            }
+            int numero = descargas.incrementAndGet();
+            return crearRespuesta(0.80 + numero / 100.0, reloj.instant().getEpochSecond() + 1);
+        }, reloj);
+
+        RespuestaAPI inicial = crearRespuesta(0.80, reloj.instant().getEpochSecond() + 1);
+        cache.precargar(inicial);
+        ConversorMonedas conversor = new ConversorMonedas(inicial.getTasasConversion());
+        List<RespuestaAPI> notificadas = new CopyOnWriteArrayList<>();
+
+        try (ActualizadorTasas actualizador = new ActualizadorTasas(cache, "USD", Duration.ofMillis(100),
+                Duration.ofMillis(50), Duration.ofMillis(400), reloj)) {
+            actualizador.registrar(conversor);
+            actualizador.agregarOyente(notificadas::add);
+
+            // Prueba 1: descarga al vencer la respuesta vigente
+            System.out.println("\n⏰ PRUEBA 1: Descarga tras time_next_update_unix");
+            actualizador.iniciar(inicial);
+            verificar(conversor.obtenerTasaConversion("USD", "EUR") == 0.80, "Arranca con las tasas iniciales");
+            esperarHasta(() -> descargas.get() >= 1, 3_000);
+            verificar(conversor.obtenerTasaConversion("USD", "EUR") == 0.81, "El conversor recibe las tasas nuevas");
+            verificar(notificadas.size() == 1, "El oyente se notifica una vez");
+
+            // Prueba 2: lectores concurrentes nunca ven un estado intermedio
+            System.out.println("\n🔁 PRUEBA 2: Lecturas durante el reemplazo");
+            long fin = System.nanoTime() + Duration.ofMillis(1_500).toNanos();
+            boolean consistente = true;
+            while (System.nanoTime() < fin) {
+                double tasa = conversor.obtenerTasaConversion("USD", "EUR");
+                double vuelta = conversor.obtenerTasaConversion("EUR", "USD");
+                consistente &= tasa > 0.8 && vuelta > 1.0;
+            }
+            verificar(consistente, "Todas las lecturas válidas mientras llegan tasas nuevas");
+
+            // Prueba 3: espera exponencial ante fallos
+            System.out.println("\n⚠️ PRUEBA 3: Reintentos con espera exponencial");
+            int antes = descargas.get();
+            momentosDescarga.clear();
+            fallosPendientes.set(4);
+            esperarHasta(() -> descargas.get() > antes, 10_000);
+            verificar(actualizador.obtenerFallos() == 4, "Se registran los cuatro fallos");
+            for (int i = 1; i < Math.min(momentosDescarga.size(), 5); i++) {
+                System.out.printf("   Intento %d tras %d ms%n", i + 1,
+                        (momentosDescarga.get(i) - momentosDescarga.get(i - 1)) / 1_000_000);
+            }
+            long ultimaEspera = (momentosDescarga.get(4) - momentosDescarga.get(3)) / 1_000_000;
+            verificar(ultimaEspera >= 400, "La espera crece hasta el tope configurado");
+            verificar(conversor.obtenerTasaConversion("USD", "EUR") > 0.81, "Se recupera después de los fallos");
+
+            // Prueba 4: el respaldo de la capa de resiliencia cuenta como fallo
+            System.out.println("\n💾 PRUEBA 4: Respuestas de respaldo durante una caída");
+            esperarHasta(() -> fallosPendientes.get() == 0, 3_000);
+            long fallosAntes = actualizador.obtenerFallos();
+            int notificadasAntes = notificadas.size();
+            int descargasAntes = descargas.get();
+            momentosDescarga.clear();
+            respaldosPendientes.set(4);
+            esperarHasta(() -> descargas.get() > descargasAntes, 10_000);
+            verificar(actualizador.obtenerFallos() - fallosAntes == 4, "Los cuatro respaldos cuentan como fallos");
+            verificar(notificadas.size() == notificadasAntes + 1 && notificadas.stream().noneMatch(RespuestaAPI::esRespaldo),
+                    "Sólo se publican las tasas nuevas, nunca las de respaldo");
+            long esperaRespaldo = (momentosDescarga.get(4) - momentosDescarga.get(3)) / 1_000_000;
+            verificar(esperaRespaldo >= 400, "Se aplica la espera exponencial (" + esperaRespaldo + " ms)");
+
+            System.out.println("\n📊 Actualizaciones: " + actualizador.obtenerActualizaciones()
+                    + " | Fallos: " + actualizador.obtenerFallos());
+        }
+
+        // Prueba 5: actualización forzada sin haber llamado a iniciar
+        System.out.println("\n⚡ PRUEBA 5: actualizarAhora antes de iniciar");
+        ConversorMonedas otroConversor = new ConversorMonedas(inicial.getTasasConversion());
+        try (ActualizadorTasas actualizador = new ActualizadorTasas(cache, "USD", Duration.ofMillis(100),
+                Duration.ofMillis(50), Duration.ofMillis(400), reloj)) {
+            actualizador.registrar(otroConversor);
+            int antes = descargas.get();
+            actualizador.actualizarAhora();
+            esperarHasta(() -> actualizador.obtenerActualizaciones() >= 1, 3_000);
+            verificar(descargas.get() > antes && otroConversor.obtenerTasaConversion("USD", "EUR") > 0.80,
+                    "Descarga y publica las tasas nuevas");
+            verificar(actualizador.obtenerProximaEjecucionMillis() > 0, "Y queda programada la próxima descarga");
+        }
+
+        // Prueba 6: la API se atrasa y sigue devolviendo los mismos datos
+        System.out.println("\n🐢 PRUEBA 6: Próxima actualización vencida y sin datos nuevos");
+        Clock adelantado = Clock.offset(reloj, Duration.ofDays(1));
+        List<Long> consultas = new CopyOnWriteArrayList<>();
+        CacheTasas atrasada = new CacheTasas(monedaBase -> {
+            consultas.add(System.nanoTime());
+            RespuestaAPI misma = crearRespuesta(0.80, reloj.instant().getEpochSecond() + 1);
+            misma.setUltimaActualizacionUnix(1_735_689_751L);
+            return misma;
+        }, adelantado);
+        try (ActualizadorTasas actualizador = new ActualizadorTasas(atrasada, "USD", Duration.ZERO,
+                Duration.ofMillis(50), Duration.ofMillis(400), adelantado)) {
+            actualizador.iniciar(null);
+            esperarHasta(() -> consultas.size() >= 7, 5_000);
+            // La primera consulta trae datos nuevos; desde la segunda son siempre los mismos
+            long[] esperas = new long[Math.max(0, Math.min(consultas.size(), 7) - 2)];
+            for (int i = 0; i < esperas.length; i++) {
+                esperas[i] = (consultas.get(i + 2) - consultas.get(i + 1)) / 1_000_000;
+            }
+            System.out.println("   Esperas entre consultas sin novedades (ms): " + Arrays.toString(esperas));
+            verificar(esperas.length == 5 && esperas[1] > esperas[0] && esperas[2] > esperas[1]
+                    && esperas[3] > esperas[2], "La espera crece mientras no hay novedades");
+            verificar(esperas.length == 5 && esperas[4] >= 400 && esperas[4] < 600, "Hasta el tope configurado");
+            verificar(actualizador.obtenerFallos() == 0, "No cuenta como fallo");
+        }
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static RespuestaAPI crearRespuesta(double tasaEuro, long proximaActualizacionUnix) {
+        Map<String, Double> tasas = new HashMap<>();
+        tasas.put("USD", 1.0);
+        tasas.put("EUR", tasaEuro);
+        RespuestaAPI respuesta = new RespuestaAPI();
+        respuesta.setResult("success");
+        respuesta.setCodigoBase("USD");
+        respuesta.setProximaActualizacionUnix(proximaActualizacionUnix);
+        respuesta.setTasasConversion(tasas);
+        return respuesta;
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion, long maximoMillis)
+            throws InterruptedException {
+        long limite = System.currentTimeMillis() + maximoMillis;
+        while (!condicion.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
@@ -0,0 +1,155 @@
+package com.rodrigo.conversor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pruebas del agrupador de conversiones: resultados, rechazos por solicitud, política de vaciado,
+ * concurrencia con el buffer lleno y cierre
+ */
+public class TestAgrupadorConversiones {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO AGRUPADOR DE CONVERSIONES");
+        System.out.println("=====================================");
+
+        ConversorMonedas conversor = new ConversorMonedas(Map.of("USD", 1.0, "EUR", 0.86, "ARS", 1292.33, "JPY", 147.12));
+        // Registrada en el índice pero sin tasa en la tabla
+        int idSinTasa = IndiceMonedas.obtenerId("CHF");
+
+        // Prueba 1: resultados y rechazos
+        System.out.println("\n💱 PRUEBA 1: Resultados y rechazos");
+        try (AgrupadorConversiones agrupador = new AgrupadorConversiones(conversor)) {
+            verificar(agrupador.convertir(100, "USD", "ARS").join() == conversor.convertir(100, "USD", "ARS"),
+                    "USD → ARS idéntico a ConversorMonedas");
+            CompletableFuture<Double> buena = agrupador.convertir(5, "EUR", "JPY");
+            CompletableFuture<Double> sinTasa = agrupador.convertir(5, IndiceMonedas.obtenerId("EUR"), idSinTasa);
+            CompletableFuture<Double> otraBuena = agrupador.convertir(7, "JPY", "USD");
+            verificar(falla(sinTasa, IllegalArgumentException.class), "Moneda sin tasa: falla sólo su futuro");
+            verificar(buena.join() == conversor.convertir(5, "EUR", "JPY")
+                    && otraBuena.join() == conversor.convertir(7, "JPY", "USD"), "Las vecinas se convierten igual");
+            verificar(falla(agrupador.convertir(1, "USD", "XYZ"), IllegalArgumentException.class),
+                    "Código desconocido: falla sin encolarse");
+            conversor.actualizarTasas(Map.of("USD", 1.0, "EUR", 0.9, "ARS", 1300.0, "JPY", 150.0));
+            verificar(agrupador.convertir(1, "USD", "ARS").join() == 1300.0, "Cada lote usa la tabla vigente");
+        }
+
+        // Prueba 2: vaciado por tamaño
+        System.out.println("\n📦 PRUEBA 2: Vaciado por tamaño");
+        try (AgrupadorConversiones agrupador = new AgrupadorConversiones(conversor, 64,
+                new AgrupadorConversiones.PoliticaVaciado(8, Duration.ofSeconds(30)))) {
+            List<CompletableFuture<Double>> pendientes = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                pendientes.add(agrupador.convertir(i, "USD", "EUR"));
+            }
+            Thread.sleep(50);
+            verificar(pendientes.stream().noneMatch(CompletableFuture::isDone), "3 de 8: el lote se retiene");
+            long inicio = System.nanoTime();
+            for (int i = 3; i < 8; i++) {
+                pendientes.add(agrupador.convertir(i, "USD", "EUR"));
+            }
+            CompletableFuture.allOf(pendientes.toArray(new CompletableFuture<?>[0])).join();
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            verificar(milisegundos < 1_000, "Con 8 se vacía enseguida (" + milisegundos + " ms)");
+            verificar(agrupador.obtenerLotes() == 1, "Un solo lote de 8");
+        }
+
+        // Prueba 3: vaciado por tiempo
+        System.out.println("\n⏱️ PRUEBA 3: Vaciado por tiempo");
+        try (AgrupadorConversiones agrupador = new AgrupadorConversiones(conversor, 1024,
+                new AgrupadorConversiones.PoliticaVaciado(1024, Duration.ofMillis(20)))) {
+            long inicio = System.nanoTime();
+            CompletableFuture<Double> sola = agrupador.convertir(1, "USD", "EUR");
+            sola.join();
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            verificar(milisegundos >= 15 && milisegundos < 1_000,
+                    "Una solicitud sola espera la ventana de 20 ms (" + milisegundos + " ms)");
+            verificar(agrupador.obtenerEsperaEnCola().percentil(0.5).toMillis() >= 15,
+                    "La espera en cola queda registrada");
+        }
+
+        // Prueba 4: muchos productores con el buffer chico
+        System.out.println("\n🧵 PRUEBA 4: Concurrencia");
+        int hilos = 4;
+        int porHilo = 250_000;
+        try (AgrupadorConversiones agrupador = new AgrupadorConversiones(conversor, 1024,
+                AgrupadorConversiones.PoliticaVaciado.inmediata(256))) {
+            long inicio = System.nanoTime();
+            List<Future<Boolean>> tareas = new ArrayList<>();
+            try (ExecutorService ejecutor = Executors.newFixedThreadPool(hilos)) {
+                for (int h = 0; h < hilos; h++) {
+                    int hilo = h;
+                    tareas.add(ejecutor.submit(() -> producir(agrupador, conversor, hilo, porHilo)));
+                }
+            }
+            boolean correctas = true;
+            for (Future<Boolean> tarea : tareas) {
+                correctas &= tarea.get();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            verificar(correctas, hilos * porHilo + " conversiones con resultado correcto");
+            verificar(agrupador.obtenerSolicitudes() == (long) hilos * porHilo, "No se pierde ninguna solicitud");
+            verificar(agrupador.obtenerTamanioPromedioLote() > 1, String.format(
+                    "Las solicitudes concurrentes se agrupan (%.1f por lote)", agrupador.obtenerTamanioPromedioLote()));
+            System.out.printf("   ⚡ %.2f millones de solicitudes/s%n", hilos * porHilo / segundos / 1e6);
+            System.out.println();
+            agrupador.mostrarEstadisticas();
+        }
+
+        // Prueba 5: cierre
+        System.out.println("\n🔒 PRUEBA 5: Cierre");
+        AgrupadorConversiones agrupador = new AgrupadorConversiones(conversor, 64,
+                new AgrupadorConversiones.PoliticaVaciado(32, Duration.ofSeconds(30)));
+        CompletableFuture<Double> retenida = agrupador.convertir(2, "USD", "ARS");
+        agrupador.close();
+        verificar(retenida.isDone() && retenida.join() == 2600.0, "Al cerrar se procesa lo encolado");
+        verificar(falla(agrupador.convertir(1, "USD", "EUR"), IllegalStateException.class),
+                "Después del cierre se rechaza");
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    /**
+     * Encola en tandas de 1000 y verifica cada resultado contra la conversión directa
+     */
+    private static boolean producir(AgrupadorConversiones agrupador, ConversorMonedas conversor, int hilo, int total) {
+        String[] codigos = {"USD", "EUR", "ARS", "JPY"};
+        String origen = codigos[hilo % 4];
+        String destino = codigos[(hilo + 1) % 4];
+        double tasa = conversor.obtenerTasaConversion(origen, destino);
+        int idOrigen = IndiceMonedas.buscarId(origen);
+        int idDestino = IndiceMonedas.buscarId(destino);
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Double>[] tanda = (CompletableFuture<Double>[]) new CompletableFuture<?>[1000];
+        boolean correctas = true;
+        for (int inicio = 0; inicio < total; inicio += tanda.length) {
+            for (int i = 0; i < tanda.length; i++) {
+                tanda[i] = agrupador.convertir(inicio + i, idOrigen, idDestino);
+            }
+            for (int i = 0; i < tanda.length; i++) {
+                correctas &= tanda[i].join() == (inicio + i) * tasa;
+            }
+        }
+        return correctas;
+    }
+
+    private static boolean falla(CompletableFuture<Double> futuro, Class<? extends Exception> tipo) {
+        try {
+            futuro.join();
+            return false;
+        } catch (CompletionException e) {
+            return tipo.isInstance(e.getCause());
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
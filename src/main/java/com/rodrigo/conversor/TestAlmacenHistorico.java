@@ -0,0 +1,282 @@
+package com.rodrigo.conversor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Pruebas del histórico de tasas con diez años de instantáneas diarias de 160 monedas
+ * Las tasas siguen un paseo aleatorio redondeado a 6 cifras, como las de la API; una de cada diez
+ * monedas tiene paridad fija y VES aparece recién a mitad de la serie.
+ */
+public class TestAlmacenHistorico {
+
+    private static final int MONEDAS = 160;
+    private static final int DIAS = 3653;
+    private static final long PRIMER_DIA = 1_420_070_401L; // 2015-01-01T00:00:01Z
+    private static final int DIA_VES = DIAS / 2;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 PROBANDO HISTÓRICO DE TASAS");
+        System.out.println("==============================");
+
+        Path directorio = Files.createTempDirectory("historico-tasas");
+        Path ruta = directorio.resolve("historico-USD.bin");
+        String[] codigos = generarCodigos();
+        double[][] tasas = generarTasas(codigos.length);
+        List<RespuestaAPI> serie = new ArrayList<>();
+        for (int dia = 0; dia < DIAS; dia++) {
+            serie.add(crearRespuesta(codigos, tasas, dia));
+        }
+
+        // Prueba 1: diez años agregados día por día
+        System.out.println("\n💾 PRUEBA 1: Agregar 10 años de instantáneas diarias");
+        long inicio = System.nanoTime();
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(ruta, "USD")) {
+            for (RespuestaAPI respuesta : serie) {
+                historico.agregar(respuesta);
+            }
+            verificar(!historico.agregar(serie.get(DIAS - 1)), "Un instante ya guardado no se repite");
+        }
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+        long bytes = Files.size(ruta);
+        long valores = (long) DIAS * (MONEDAS - 1) + (DIAS - DIA_VES);
+        System.out.printf("   📦 %,d bytes para %,d tasas (%.2f bytes/tasa, %d ms)%n",
+                bytes, valores, (double) bytes / valores, millis);
+        verificar(bytes < 5 * 1024 * 1024, "Cabe en pocos MB");
+        verificar(bytes < valores * 8, "Ocupa menos que los double sin comprimir");
+
+        // Prueba 2: al reabrir se recupera todo bit a bit
+        System.out.println("\n📂 PRUEBA 2: Reabrir y comparar");
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(ruta, "USD")) {
+            verificar(historico.cantidadInstantaneas() == DIAS, "Se leen las " + DIAS + " instantáneas");
+            verificar(historico.obtenerPrimerInstante().getEpochSecond() == PRIMER_DIA
+                    && historico.obtenerUltimoInstante().getEpochSecond() == instanteDe(DIAS - 1),
+                    "Primer y último instante conservados");
+            boolean exactas = true;
+            for (int dia = 0; dia < DIAS && exactas; dia += 7) {
+                TablaTasas tabla = historico.obtenerTabla(Instant.ofEpochSecond(instanteDe(dia)));
+                for (int moneda = 0; moneda < codigos.length; moneda++) {
+                    boolean presente = moneda != indiceVes(codigos) || dia >= DIA_VES;
+                    int id = IndiceMonedas.buscarId(codigos[moneda]);
+                    exactas &= presente ? tabla.tasaBase(id) == tasas[moneda][dia] : !tabla.disponible(id);
+                }
+            }
+            verificar(exactas, "Todas las tasas son idénticas a las agregadas");
+
+            // Prueba 3: consultas por instante
+            System.out.println("\n🕰️ PRUEBA 3: Convertir en fechas pasadas");
+            int dia = 1234;
+            int ars = 3;
+            int eur = 7;
+            double esperado = 100 * (tasas[ars][dia] / tasas[eur][dia]);
+            Instant mediodia = Instant.ofEpochSecond(instanteDe(dia) + 12 * 3600);
+            verificar(historico.convertir(100, codigos[eur], codigos[ars], mediodia) == esperado,
+                    "A mitad del día se usan las tasas de ese día");
+            verificar(historico.convertir(100, codigos[eur], codigos[ars], Instant.ofEpochSecond(instanteDe(dia)))
+                    == esperado, "En el instante exacto también");
+            ConversorMonedas conversor = new ConversorMonedas(historico.obtenerTabla(mediodia));
+            verificar(conversor.convertir(100, codigos[eur], codigos[ars]) == esperado,
+                    "La tabla histórica alimenta un ConversorMonedas");
+            verificarRechazo(() -> historico.convertir(1, "USD", codigos[eur], Instant.ofEpochSecond(PRIMER_DIA - 1)),
+                    "Antes de la primera instantánea no hay tasas");
+            verificarRechazo(() -> historico.convertir(1, "USD", "VES", Instant.ofEpochSecond(instanteDe(DIA_VES - 1))),
+                    "VES no existe antes de su aparición");
+            verificar(historico.convertir(1, "USD", "VES", Instant.ofEpochSecond(instanteDe(DIA_VES)))
+                    == tasas[indiceVes(codigos)][DIA_VES], "VES sí existe desde su aparición");
+            verificarRechazo(() -> historico.agregar(crearRespuestaBase("EUR")), "Se rechaza otra moneda base");
+
+            // Prueba 4: tiempo por conversión
+            System.out.println("\n⏱️ PRUEBA 4: Tiempo por conversión");
+            // Diez monedas presentes en toda la serie
+            int[] ids = new int[10];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = IndiceMonedas.buscarId(codigos[i + 2]);
+            }
+            Random azar = new Random(7);
+            double suma = 0;
+            for (int i = 0; i < 200_000; i++) {
+                suma += historico.convertir(1, ids[azar.nextInt(10)], ids[azar.nextInt(10)],
+                        instanteDe(azar.nextInt(DIAS)));
+            }
+            int consultas = 2_000_000;
+            inicio = System.nanoTime();
+            for (int i = 0; i < consultas; i++) {
+                suma += historico.convertir(1, ids[i % 10], ids[(i * 7) % 10], PRIMER_DIA + (i * 86_399L) % (DIAS * 86_400L));
+            }
+            double nanos = (System.nanoTime() - inicio) / (double) consultas;
+            System.out.printf("   ⚡ %.1f ns por conversión (control %.1f)%n", nanos, suma);
+            verificar(nanos < 1_000, "Menos de un microsegundo por conversión");
+        }
+
+        // Prueba 5: una escritura interrumpida no arruina el histórico
+        System.out.println("\n⚠️ PRUEBA 5: Bloque final a medio escribir");
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 42}));
+        }
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(ruta, "USD")) {
+            verificar(historico.obtenerBytesDescartados() == 5 && historico.cantidadInstantaneas() == DIAS,
+                    "Se descarta la cola incompleta y se conservan las instantáneas");
+            RespuestaAPI siguiente = crearRespuestaBase("USD");
+            siguiente.setUltimaActualizacionUnix(instanteDe(DIAS));
+            verificar(historico.agregar(siguiente), "Se puede seguir agregando");
+        }
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(ruta, "USD")) {
+            verificar(historico.cantidadInstantaneas() == DIAS + 1 && historico.obtenerBytesDescartados() == 0,
+                    "El bloque nuevo quedó bien escrito");
+        }
+        verificarRechazo(() -> AlmacenHistorico.abrir(ruta, "EUR"), "Abrir con otra base se rechaza");
+
+        // Un bloque dañado en el medio no es una escritura interrumpida: abrir falla y no se borra nada
+        Path rutaDaniada = directorio.resolve("historico-daniado.bin");
+        byte[] original = Files.readAllBytes(ruta);
+        byte[] daniado = original.clone();
+        daniado[original.length / 2] ^= 0x10;
+        Files.write(rutaDaniada, daniado);
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(rutaDaniada, "USD")) {
+            verificar(false, "Debería rechazar el CRC inválido (" + historico.cantidadInstantaneas() + " instantáneas)");
+        } catch (IOException e) {
+            verificar(true, "CRC inválido en un bloque intermedio: " + e.getMessage());
+        }
+        verificar(Files.size(rutaDaniada) == original.length, "El archivo dañado queda intacto");
+        daniado = original.clone();
+        daniado[original.length - 1] ^= 0x10;
+        Files.write(rutaDaniada, daniado);
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(rutaDaniada, "USD")) {
+            verificar(historico.cantidadInstantaneas() == DIAS && historico.obtenerBytesDescartados() > 0,
+                    "Un último bloque con CRC inválido sí se descarta");
+        }
+
+        // La longitud no lleva CRC: una que apunte más allá del final en un bloque intermedio tampoco borra nada
+        daniado = original.clone();
+        ByteBuffer.wrap(daniado).putInt(bloqueDelMedio(original), 0x7F000000);
+        Files.write(rutaDaniada, daniado);
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(rutaDaniada, "USD")) {
+            verificar(false, "Debería rechazar la longitud dañada (" + historico.cantidadInstantaneas() + " instantáneas)");
+        } catch (IOException e) {
+            verificar(true, "Longitud dañada en un bloque intermedio: " + e.getMessage());
+        }
+        verificar(Files.size(rutaDaniada) == original.length, "El archivo queda intacto");
+        ByteBuffer cola = ByteBuffer.allocate(8 + 20).putInt(100).putInt(0);
+        Files.write(rutaDaniada, original);
+        Files.write(rutaDaniada, cola.array(), StandardOpenOption.APPEND);
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(rutaDaniada, "USD")) {
+            verificar(historico.obtenerBytesDescartados() == 28 && Files.size(rutaDaniada) == original.length,
+                    "Una cabecera completa con el contenido a medias sí se descarta");
+        }
+
+        // Prueba 6: importación masiva en un único bloque columnar
+        System.out.println("\n📥 PRUEBA 6: Importación en un bloque");
+        Path rutaMasiva = directorio.resolve("historico-masivo.bin");
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(rutaMasiva, "USD")) {
+            verificar(historico.agregarTodas(serie) == DIAS, "Se importan todas las instantáneas");
+        }
+        try (AlmacenHistorico historico = AlmacenHistorico.abrir(rutaMasiva, "USD")) {
+            Instant instante = Instant.ofEpochSecond(instanteDe(2000));
+            verificar(historico.convertir(50, "USD", codigos[5], instante) == 50 * (tasas[5][2000] / 1.0),
+                    "Las conversiones coinciden con las del histórico diario");
+        }
+        System.out.printf("   📦 %,d bytes en un bloque contra %,d en bloques diarios%n", Files.size(rutaMasiva), bytes);
+        verificar(Files.size(rutaMasiva) <= bytes, "Sin cabeceras por bloque ocupa aún menos");
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    /**
+     * Posición de la cabecera del bloque que está en la mitad de la cadena de bloques
+     */
+    private static int bloqueDelMedio(byte[] archivo) {
+        ByteBuffer buffer = ByteBuffer.wrap(archivo);
+        List<Integer> posiciones = new ArrayList<>();
+        for (int posicion = 8; posicion < archivo.length; posicion += 8 + buffer.getInt(posicion)) {
+            posiciones.add(posicion);
+        }
+        return posiciones.get(posiciones.size() / 2);
+    }
+
+    private static long instanteDe(int dia) {
+        // La API publica una vez por día, con unos segundos de variación
+        return PRIMER_DIA + dia * 86_400L + (dia % 5);
+    }
+
+    private static String[] generarCodigos() {
+        String[] codigos = new String[MONEDAS];
+        codigos[0] = "USD";
+        codigos[1] = "VES";
+        for (int i = 2; i < MONEDAS; i++) {
+            codigos[i] = "" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26) + 'Q';
+        }
+        return codigos;
+    }
+
+    private static int indiceVes(String[] codigos) {
+        return 1;
+    }
+
+    private static double[][] generarTasas(int monedas) {
+        Random azar = new Random(42);
+        MathContext seisCifras = new MathContext(6);
+        double[][] tasas = new double[monedas][DIAS];
+        for (int moneda = 0; moneda < monedas; moneda++) {
+            double valor = moneda == 0 ? 1 : Math.pow(10, azar.nextDouble() * 5 - 1);
+            boolean paridadFija = moneda == 0 || moneda % 10 == 0;
+            for (int dia = 0; dia < DIAS; dia++) {
+                if (!paridadFija) {
+                    valor *= 1 + azar.nextGaussian() * 0.004;
+                }
+                tasas[moneda][dia] = new BigDecimal(valor).round(seisCifras).doubleValue();
+            }
+        }
+        return tasas;
+    }
+
+    private static RespuestaAPI crearRespuesta(String[] codigos, double[][] tasas, int dia) {
+        Map<String, Double> mapa = new HashMap<>();
+        for (int moneda = 0; moneda < codigos.length; moneda++) {
+            if (moneda != indiceVes(codigos) || dia >= DIA_VES) {
+                mapa.put(codigos[moneda], tasas[moneda][dia]);
+            }
+        }
+        RespuestaAPI respuesta = crearRespuestaBase("USD");
+        respuesta.setUltimaActualizacionUnix(instanteDe(dia));
+        respuesta.setTasasConversion(mapa);
+        return respuesta;
+    }
+
+    private static RespuestaAPI crearRespuestaBase(String base) {
+        RespuestaAPI respuesta = new RespuestaAPI();
+        respuesta.setResult("success");
+        respuesta.setCodigoBase(base);
+        respuesta.setUltimaActualizacionUnix(instanteDe(DIAS + 10));
+        respuesta.setTasasConversion(Map.of(base, 1.0));
+        return respuesta;
+    }
+
+    private interface Operacion {
+        void ejecutar() throws Exception;
+    }
+
+    private static void verificarRechazo(Operacion operacion, String descripcion) {
+        try {
+            operacion.ejecutar();
+            verificar(false, descripcion);
+        } catch (Exception e) {
+            verificar(e instanceof IllegalArgumentException, descripcion + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
@@ -0,0 +1,177 @@
+package com.rodrigo.conversor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pruebas de CacheTasas con un cargador simulado (sin red) y un reloj controlado
+ */
+public class TestCacheTasas {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO CACHE DE TASAS");
+        System.out.println("==========================");
+
+        RelojManual reloj = new RelojManual(Instant.parse("2025-01-01T00:00:00Z"));
+        AtomicInteger descargas = new AtomicInteger();
+        long proximaActualizacion = reloj.instant().plusSeconds(3600).getEpochSecond();
+
+        CacheTasas cache = new CacheTasas(monedaBase -> {
+            descargas.incrementAndGet();
+            dormir(200);
+            if ("XXX".equals(monedaBase)) {
+                throw new RuntimeException("Error en la API: moneda inválida");
+            }
+            return crearRespuesta(monedaBase, proximaActualizacion);
+        }, reloj);
+
+        // Prueba 1: la segunda consulta no descarga
+        System.out.println("\n📦 PRUEBA 1: Acierto dentro de la vigencia");
+        cache.obtener("USD");
+        RespuestaAPI segunda = cache.obtener("USD");
+        verificar(descargas.get() == 1, "Una sola descarga para dos consultas");
+        verificar(segunda.obtenerTasa("GBP") == 0.74, "La respuesta cacheada conserva las tasas");
+
+        // Prueba 2: vence en time_next_update_unix
+        System.out.println("\n⏰ PRUEBA 2: Vencimiento por próxima actualización");
+        reloj.avanzar(3599);
+        cache.obtener("USD");
+        verificar(descargas.get() == 1, "Sigue vigente un segundo antes");
+        reloj.avanzar(1);
+        cache.obtener("USD");
+        verificar(descargas.get() == 2, "Se vuelve a descargar al vencer");
+
+        // Prueba 3: consultas concurrentes comparten una sola descarga
+        System.out.println("\n🤝 PRUEBA 3: Consultas concurrentes (single-flight)");
+        int hilos = 8;
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch terminados = new CountDownLatch(hilos);
+        for (int i = 0; i < hilos; i++) {
+            Thread.ofPlatform().start(() -> {
+                try {
+                    largada.await();
+                    cache.obtener("EUR");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    terminados.countDown();
+                }
+            });
+        }
+        largada.countDown();
+        terminados.await();
+        verificar(descargas.get() == 3, "Ocho hilos, una descarga de EUR");
+
+        // Prueba 4: un error no queda cacheado
+        System.out.println("\n⚠️ PRUEBA 4: Los errores se reintentan");
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.obtener("XXX");
+                verificar(false, "Debería lanzar excepción");
+            } catch (RuntimeException e) {
+                System.out.println("   Error esperado: " + e.getMessage());
+            }
+        }
+        verificar(descargas.get() == 5, "Cada consulta fallida vuelve a intentar");
+
+        // Un Error del cargador también completa la carga: quien espera no queda colgado
+        AtomicInteger cargasConError = new AtomicInteger();
+        CacheTasas cacheConError = new CacheTasas(monedaBase -> {
+            cargasConError.incrementAndGet();
+            dormir(200);
+            throw new StackOverflowError("cargador roto");
+        }, reloj);
+        Throwable[] recibidos = new Throwable[2];
+        Thread primero = Thread.ofPlatform().start(() -> recibidos[0] = obtenerError(cacheConError));
+        dormir(50);
+        Thread segundo = Thread.ofPlatform().start(() -> recibidos[1] = obtenerError(cacheConError));
+        primero.join(2_000);
+        segundo.join(2_000);
+        verificar(recibidos[0] instanceof StackOverflowError, "Quien descarga recibe el Error");
+        verificar(!segundo.isAlive() && recibidos[1] != null && recibidos[1].getCause() instanceof StackOverflowError,
+                "Quien esperaba la misma carga no queda bloqueado");
+        obtenerError(cacheConError);
+        verificar(cargasConError.get() == 2, "La entrada se retira y la consulta siguiente reintenta");
+
+        // Prueba 5: precarga e invalidación
+        System.out.println("\n📥 PRUEBA 5: Precarga e invalidación");
+        cache.precargar(crearRespuesta("GBP", proximaActualizacion + 3600));
+        cache.obtener("GBP");
+        verificar(descargas.get() == 5, "Una respuesta precargada no descarga");
+        cache.invalidar("GBP");
+        cache.obtener("GBP");
+        verificar(descargas.get() == 6, "Tras invalidar se descarga de nuevo");
+
+        System.out.println();
+        cache.mostrarEstadisticas();
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static RespuestaAPI crearRespuesta(String monedaBase, long proximaActualizacionUnix) {
+        RespuestaAPI respuesta = new RespuestaAPI();
+        respuesta.setResult("success");
+        respuesta.setCodigoBase(monedaBase);
+        respuesta.setProximaActualizacionUnix(proximaActualizacionUnix);
+        Map<String, Double> tasas = new HashMap<>(Map.of("EUR", 0.86, "GBP", 0.74));
+        tasas.put(monedaBase, 1.0);
+        respuesta.setTasasConversion(tasas);
+        return respuesta;
+    }
+
+    private static Throwable obtenerError(CacheTasas cache) {
+        try {
+            cache.obtener("USD");
+            return null;
+        } catch (Throwable e) {
+            return e;
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reloj que sólo avanza cuando la prueba lo indica
+     */
+    private static final class RelojManual extends Clock {
+        private volatile Instant ahora;
+
+        RelojManual(Instant inicio) {
+            this.ahora = inicio;
+        }
+
+        void avanzar(long segundos) {
+            ahora = ahora.plusSeconds(segundos);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zona) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prueba de carga de la capa HTTP contra un servidor local que tarda 50 ms por respuesta
+ * Lanza muchas solicitudes bloqueantes a la vez y compara, para cada ModoEjecucion, el
+ * rendimiento y el pico de hilos de plataforma (el servidor usa hilos virtuales y no suma).
+ */
+public class TestCargaHTTP {
+
+    private static final int SOLICITUDES = 1_000;
+    private static final long DEMORA_SERVIDOR_MILLIS = 50;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PRUEBA DE CARGA HTTP: HILOS DE PLATAFORMA VS VIRTUALES");
+        System.out.println("=========================================================");
+
+        byte[] cuerpo = ("{\"result\":\"success\",\"base_code\":\"USD\","
+                + "\"rates\":{\"USD\":1,\"EUR\":0.86,\"ARS\":1292.33}}").getBytes(StandardCharsets.UTF_8);
+        ExecutorService hilosServidor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), SOLICITUDES);
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/v6/latest/", intercambio -> {
+            try {
+                Thread.sleep(DEMORA_SERVIDOR_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+        String urlBase = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v6/latest/";
+
+        try {
+            // VIRTUAL primero: los hilos ociosos del pool de plataforma inflarían su pico
+            for (ModoEjecucion modo : List.of(ModoEjecucion.VIRTUAL, ModoEjecucion.PLATAFORMA)) {
+                SolicitudHTTP solicitud = new SolicitudHTTP(urlBase, modo);
+                medir(solicitud, false);
+                medir(solicitud, true);
+            }
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        System.out.println("\n🎉 Prueba completada!");
+    }
+
+    private static void medir(SolicitudHTTP solicitud, boolean mostrar) {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        hilos.resetPeakThreadCount();
+
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Integer>> pendientes = new ArrayList<>(SOLICITUDES);
+        for (int i = 0; i < SOLICITUDES; i++) {
+            // Cada tarea bloquea en send y en la lectura del cuerpo, como un llamador típico
+            pendientes.add(solicitud.ejecutar(() -> solicitud.obtenerTasasAnalizadas("USD").obtener().cantidadTasas()));
+        }
+        int errores = 0;
+        for (CompletableFuture<Integer> pendiente : pendientes) {
+            try {
+                pendiente.join();
+            } catch (RuntimeException e) {
+                errores++;
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        if (mostrar) {
+            System.out.printf("%n⚙️ Modo %s%n", solicitud.obtenerModo());
+            System.out.printf("   ⏱️ %d solicitudes en %.2f s → %,.0f solicitudes/s%n",
+                    SOLICITUDES, segundos, SOLICITUDES / segundos);
+            System.out.println("   🧵 Hilos de plataforma (pico): " + hilos.getPeakThreadCount());
+            System.out.println("   " + (errores == 0 ? "✅ Sin errores" : "❌ Errores: " + errores));
+        }
+    }
+}
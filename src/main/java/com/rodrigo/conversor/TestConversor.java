@@ -49,6 +49,25 @@ public class TestConversor {
         System.out.println("\n✅ Prueba 6: Misma moneda (USD a USD)");
         conversor.mostrarConversion(100, "USD", "USD");
 
+        // Prueba 7: Conversión por ids de moneda (ruta sin boxing)
+        System.out.println("\n✅ Prueba 7: EUR a BRL usando ids");
+        int idEUR = IndiceMonedas.buscarId("EUR");
+        int idBRL = IndiceMonedas.buscarId("BRL");
+        double porCodigo = conversor.convertir(50, "EUR", "BRL");
+        double porId = conversor.convertir(50, idEUR, idBRL);
+        System.out.println("   Por código: " + porCodigo + " | Por id: " + porId +
+                (porCodigo == porId ? " ✅" : " ❌"));
+
+        // Prueba 8: Publicación de una nueva instantánea de tasas
+        System.out.println("\n✅ Prueba 8: Actualización atómica de tasas (EUR 0.86 → 0.90)");
+        TablaTasas anterior = conversor.obtenerTabla();
+        Map<String, Double> tasasNuevas = new HashMap<>(tasasEjemplo);
+        tasasNuevas.put("EUR", 0.90);
+        conversor.actualizarTasas(tasasNuevas);
+        conversor.mostrarConversion(100, "USD", "EUR");
+        System.out.println("   Instantánea anterior intacta: " +
+                (anterior.convertir(100, IndiceMonedas.buscarId("USD"), idEUR) == 86.0 ? "✅" : "❌"));
+
         System.out.println("\n🎉 Pruebas completadas!");
     }
 }
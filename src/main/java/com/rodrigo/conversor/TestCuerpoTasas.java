@@ -0,0 +1,123 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Pruebas del análisis en streaming con un servidor local que envía el cuerpo en fragmentos lentos
+ */
+public class TestCuerpoTasas {
+
+    private static final int FRAGMENTOS = 10;
+    private static final long PAUSA_MILLIS = 50;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO CUERPO DE TASAS EN STREAMING");
+        System.out.println("========================================");
+
+        byte[] cuerpo = crearCuerpo().getBytes(StandardCharsets.UTF_8);
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/v6/latest/", intercambio -> {
+            boolean existe = intercambio.getRequestURI().getPath().endsWith("/USD");
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            if (intercambio.getRequestURI().getPath().endsWith("/SIN-FIN")) {
+                // Un JSON válido seguido de relleno que no termina nunca, hasta que el cliente corta
+                intercambio.sendResponseHeaders(200, 0);
+                try (OutputStream salida = intercambio.getResponseBody()) {
+                    salida.write(cuerpo);
+                    byte[] relleno = " ".repeat(4096).getBytes(StandardCharsets.US_ASCII);
+                    while (true) {
+                        salida.write(relleno);
+                    }
+                } catch (IOException e) {
+                    // El cliente cerró la conexión
+                }
+                return;
+            }
+            if (!existe) {
+                byte[] error = "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}"
+                        .getBytes(StandardCharsets.UTF_8);
+                intercambio.sendResponseHeaders(404, error.length);
+                intercambio.getResponseBody().write(error);
+                intercambio.close();
+                return;
+            }
+            intercambio.sendResponseHeaders(200, 0);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                int tamanio = (cuerpo.length + FRAGMENTOS - 1) / FRAGMENTOS;
+                for (int inicio = 0; inicio < cuerpo.length; inicio += tamanio) {
+                    salida.write(cuerpo, inicio, Math.min(tamanio, cuerpo.length - inicio));
+                    salida.flush();
+                    Thread.sleep(PAUSA_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        servidor.start();
+        String urlBase = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v6/latest/";
+
+        try {
+            HttpClient cliente = HttpClient.newHttpClient();
+
+            // Prueba 1: la respuesta retorna con los headers y el análisis acompaña la llegada de bytes
+            System.out.println("\n📡 PRUEBA 1: Análisis mientras llegan los fragmentos");
+            long inicio = System.nanoTime();
+            HttpResponse<CuerpoTasas> respuesta = cliente.send(
+                    HttpRequest.newBuilder(URI.create(urlBase + "USD")).build(), CuerpoTasas.manejador());
+            long hastaHeaders = System.nanoTime() - inicio;
+            TasasAnalizadas tasas = respuesta.body().obtener();
+            long hastaListo = System.nanoTime() - inicio;
+
+            verificar(hastaHeaders < hastaListo / 2, "send retorna antes de recibir el cuerpo");
+            verificar(tasas.cantidadTasas() == 161 && tasas.obtenerTasa("EUR") == 0.86, "Tasas completas y correctas");
+            verificar(respuesta.body().obtenerBytesRecibidos() == cuerpo.length, "Se contaron todos los bytes");
+            System.out.printf("   Primer byte → listo: %d ms (cuerpo enviado en %d fragmentos cada %d ms)%n",
+                    respuesta.body().obtenerTiempoHastaListo().toMillis(), FRAGMENTOS, PAUSA_MILLIS);
+
+            // Prueba 2: respuestas de error
+            System.out.println("\n⚠️ PRUEBA 2: Código de error");
+            HttpResponse<CuerpoTasas> error = cliente.send(
+                    HttpRequest.newBuilder(URI.create(urlBase + "XXX")).build(), CuerpoTasas.manejador());
+            verificar(!error.body().esExitosa(), "Código " + error.statusCode() + " detectado sin leer el cuerpo");
+            verificar("unsupported-code".equals(error.body().obtener().obtenerTipoError()),
+                    "El cuerpo de error también se puede analizar");
+
+            // Prueba 3: un resto sin fin después del JSON no retiene al hilo que analiza
+            System.out.println("\n♾️ PRUEBA 3: Cuerpo que no termina");
+            HttpResponse<CuerpoTasas> sinFin = cliente.send(
+                    HttpRequest.newBuilder(URI.create(urlBase + "SIN-FIN")).build(), CuerpoTasas.manejador());
+            inicio = System.nanoTime();
+            TasasAnalizadas tasasSinFin = sinFin.body().obtener();
+            long millis = (System.nanoTime() - inicio) / 1_000_000;
+            verificar(tasasSinFin.cantidadTasas() == 161 && millis < 2_000,
+                    "Se analiza y se abandona el resto tras " + CuerpoTasas.MAXIMO_DESCARTE + " bytes (" + millis + " ms)");
+        } finally {
+            servidor.stop(0);
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static String crearCuerpo() {
+        StringBuilder json = new StringBuilder("{\"result\":\"success\",\"base_code\":\"USD\",")
+                .append("\"time_next_update_unix\":1735777561,\"rates\":{\"USD\":1,\"EUR\":0.86");
+        for (int i = 0; i < 159; i++) {
+            json.append(",\"").append((char) ('A' + i / 26 % 26)).append((char) ('A' + i % 26)).append("Z\":")
+                    .append(String.format(Locale.ROOT, "%.4f", 1 + i * 3.7));
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
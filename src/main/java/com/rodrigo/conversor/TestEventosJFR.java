@@ -0,0 +1,161 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Pruebas de los eventos de JFR: descargas, análisis de JSON y conversiones muestreadas,
+ * grabados con una Recording del mismo proceso y leídos del archivo resultante
+ */
+public class TestEventosJFR {
+
+    private static final String DESCARGA = "com.rodrigo.conversor.DescargaTasas";
+    private static final String ANALISIS = "com.rodrigo.conversor.AnalisisJSON";
+    private static final String CONVERSION = "com.rodrigo.conversor.Conversion";
+    private static final long DEMORA_CUERPO_MILLIS = 150;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO EVENTOS DE JFR");
+        System.out.println("==========================");
+
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/v6/latest/", TestEventosJFR::atender);
+        servidor.start();
+        SolicitudHTTP solicitud = new SolicitudHTTP(
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v6/latest/");
+        ConversorMonedas conversor = new ConversorMonedas(Map.of("USD", 1.0, "EUR", 0.86, "ARS", 1292.33));
+
+        Path archivo = Files.createTempFile("conversor-", ".jfr");
+        int conversiones = 1_024_000;
+        try (Recording grabacion = new Recording()) {
+            grabacion.enable(DESCARGA);
+            grabacion.enable(ANALISIS);
+            grabacion.enable(CONVERSION);
+            grabacion.start();
+
+            RespuestaHTTP respuesta = solicitud.obtenerRespuestaProcesada("EUR");
+            respuesta.obtenerComoRespuestaAPI();
+            solicitud.obtenerTasasAnalizadas("USD").obtener();
+            solicitud.obtenerRespuestaProcesada("XYZ");
+            for (int i = 0; i < conversiones; i++) {
+                conversor.convertir(i, "USD", "ARS");
+            }
+
+            grabacion.stop();
+            grabacion.dump(archivo);
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(archivo);
+        Files.delete(archivo);
+
+        // Prueba 1: descargas
+        System.out.println("\n📡 PRUEBA 1: Descargas de tasas");
+        List<RecordedEvent> descargas = filtrar(eventos, DESCARGA);
+        RecordedEvent euro = buscar(descargas, "EUR");
+        verificar(descargas.size() == 3, "Una por solicitud: " + descargas.size());
+        verificar(euro != null && euro.getInt("codigoEstado") == 200
+                        && euro.getLong("bytes") == cuerpo("EUR").length() && !euro.getDuration().isZero(),
+                "EUR: moneda base, 200, bytes del cuerpo y duración");
+        verificar(euro != null && euro.getLong("caracteres") == cuerpo("EUR").length(), "EUR: caracteres del String");
+        RecordedEvent streaming = buscar(descargas, "USD");
+        verificar(streaming != null && streaming.getLong("bytes") == cuerpo("USD").length(),
+                "USD en streaming y sin Content-Length: bytes recibidos");
+        verificar(streaming != null && streaming.getDuration().toMillis() >= DEMORA_CUERPO_MILLIS,
+                "USD: la duración incluye la descarga del cuerpo (" + (streaming == null ? 0
+                        : streaming.getDuration().toMillis()) + " ms)");
+        RecordedEvent inexistente = buscar(descargas, "XYZ");
+        verificar(inexistente != null && inexistente.getInt("codigoEstado") == 404, "XYZ queda registrada con su 404");
+
+        // Prueba 2: análisis de JSON
+        System.out.println("\n🧩 PRUEBA 2: Análisis de JSON");
+        List<RecordedEvent> analisis = filtrar(eventos, ANALISIS);
+        verificar(contarEtapa(analisis, EventoAnalisisJSON.ETAPA_TASAS, "EUR") == 1,
+                "JSON a tasas de la respuesta en String");
+        verificar(contarEtapa(analisis, EventoAnalisisJSON.ETAPA_RESPUESTA_API, "EUR") == 1,
+                "Tasas a RespuestaAPI, como etapa aparte");
+        verificar(contarEtapa(analisis, EventoAnalisisJSON.ETAPA_STREAMING, "USD") == 1,
+                "Análisis en streaming de la respuesta de USD");
+        verificar(analisis.stream().allMatch(e -> e.getInt("codigoEstado") == 200 && e.getLong("bytes") > 0),
+                "Todas con código de estado y bytes");
+
+        // Prueba 3: conversiones muestreadas
+        System.out.println("\n💱 PRUEBA 3: Conversiones muestreadas");
+        List<RecordedEvent> muestras = filtrar(eventos, CONVERSION);
+        int esperadas = conversiones / EventoConversion.MUESTREO;
+        System.out.println("   🎲 " + muestras.size() + " muestras de " + conversiones + " conversiones (1 de "
+                + EventoConversion.MUESTREO + ")");
+        verificar(muestras.size() > esperadas * 0.8 && muestras.size() < esperadas * 1.2,
+                "Cerca de " + esperadas + " muestras");
+        verificar(muestras.stream().allMatch(e -> "USD".equals(e.getString("monedaBase"))
+                        && "ARS".equals(e.getString("monedaDestino"))
+                        && e.getInt("muestreo") == EventoConversion.MUESTREO),
+                "Cada muestra lleva monedas y la tasa de muestreo");
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static List<RecordedEvent> filtrar(List<RecordedEvent> eventos, String nombre) {
+        return eventos.stream().filter(e -> e.getEventType().getName().equals(nombre)).toList();
+    }
+
+    private static RecordedEvent buscar(List<RecordedEvent> eventos, String monedaBase) {
+        return eventos.stream().filter(e -> monedaBase.equals(e.getString("monedaBase"))).findFirst().orElse(null);
+    }
+
+    private static long contarEtapa(List<RecordedEvent> eventos, String etapa, String monedaBase) {
+        return eventos.stream()
+                .filter(e -> etapa.equals(e.getString("etapa")) && monedaBase.equals(e.getString("monedaBase")))
+                .count();
+    }
+
+    private static void atender(HttpExchange intercambio) throws IOException {
+        String base = intercambio.getRequestURI().getPath().substring("/v6/latest/".length());
+        byte[] cuerpo = cuerpo(base).getBytes(StandardCharsets.UTF_8);
+        if ("USD".equals(base)) {
+            // Headers primero y el cuerpo más tarde, en chunks (sin Content-Length)
+            intercambio.sendResponseHeaders(200, 0);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.flush();
+                Thread.sleep(DEMORA_CUERPO_MILLIS);
+                salida.write(cuerpo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        intercambio.sendResponseHeaders("XYZ".equals(base) ? 404 : 200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    private static String cuerpo(String base) {
+        if ("XYZ".equals(base)) {
+            return "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}";
+        }
+        return "{\"result\":\"success\",\"base_code\":\"" + base + "\",\"time_last_update_unix\":1735689751,"
+                + "\"rates\":{\"USD\":1.0,\"EUR\":0.86,\"ARS\":1292.33}}";
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
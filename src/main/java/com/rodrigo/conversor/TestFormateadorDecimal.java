@@ -0,0 +1,106 @@
+package com.rodrigo.conversor;
+
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Verifica que FormateadorDecimal produzca exactamente lo mismo que DecimalFormat("#,##0.0000")
+ * en varios locales, con valores aleatorios, cercanos a empates de redondeo y especiales.
+ */
+public class TestFormateadorDecimal {
+
+    private static final int VALORES_POR_LOCALE = 1_000_000;
+
+    public static void main(String[] args) {
+        System.out.println("🧪 PROBANDO FORMATEADOR DECIMAL SIN BASURA");
+        System.out.println("==========================================");
+
+        Locale original = Locale.getDefault();
+        long diferenciasTotales = 0;
+        for (String etiqueta : new String[]{"en-US", "es-AR", "de-CH", "fr-FR", "ar-EG"}) {
+            Locale.setDefault(Locale.forLanguageTag(etiqueta));
+            diferenciasTotales += compararConDecimalFormat(etiqueta);
+        }
+        Locale.setDefault(original);
+
+        System.out.println("\n" + (diferenciasTotales == 0 ? "✅" : "❌")
+                + " Diferencias con DecimalFormat: " + diferenciasTotales);
+
+        // Rendimiento en un caso típico de montos
+        FormateadorDecimal formateador = new FormateadorDecimal();
+        DecimalFormat decimalFormat = new DecimalFormat("#,##0.0000");
+        StringBuilder destino = new StringBuilder(64);
+        long suma = 0;
+        for (int ronda = 0; ronda < 3; ronda++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < 1_000_000; i++) {
+                destino.setLength(0);
+                suma += formateador.formatear(i * 1.2345, destino).length();
+            }
+            long formateadorNanos = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < 1_000_000; i++) {
+                suma += decimalFormat.format(i * 1.2345).length();
+            }
+            long decimalFormatNanos = System.nanoTime() - inicio;
+            System.out.printf("⏱️ Ronda %d: FormateadorDecimal %.1f ns | DecimalFormat %.1f ns%n",
+                    ronda + 1, formateadorNanos / 1e6, decimalFormatNanos / 1e6);
+        }
+        System.out.println("   (control: " + suma + ")");
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static long compararConDecimalFormat(String etiqueta) {
+        DecimalFormat esperado = new DecimalFormat("#,##0.0000");
+        FormateadorDecimal formateador = new FormateadorDecimal();
+        Random aleatorio = new Random(42);
+        StringBuilder destino = new StringBuilder();
+        byte[] bytes = new byte[1024];
+        long diferencias = 0;
+
+        double[] especiales = {0.0, -0.0, -0.00001, 0.00005, -0.00005, 0.03125, 1234567.12345,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, 1e300, -1e20,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+        for (int i = 0; i < VALORES_POR_LOCALE + especiales.length; i++) {
+            double valor = i < especiales.length ? especiales[i] : generarValor(aleatorio, i);
+            String texto = esperado.format(valor);
+
+            destino.setLength(0);
+            String comoTexto = formateador.formatear(valor, destino).toString();
+            int longitud = formateador.formatear(valor, bytes, 0);
+            String comoBytes = new String(bytes, 0, longitud, StandardCharsets.UTF_8);
+
+            if (!texto.equals(comoTexto) || !texto.equals(comoBytes)) {
+                if (diferencias++ < 5) {
+                    System.out.println("   ❌ " + valor + ": esperado [" + texto + "] obtenido ["
+                            + comoTexto + "] bytes [" + comoBytes + "]");
+                }
+            }
+        }
+        System.out.println("🌍 " + etiqueta + ": " + (diferencias == 0 ? "✅ idéntico" : "❌ " + diferencias + " diferencias"));
+        return diferencias;
+    }
+
+    private static double generarValor(Random aleatorio, int i) {
+        switch (i % 5) {
+            case 0:
+                return Double.longBitsToDouble(aleatorio.nextLong());
+            case 1:
+                // Cerca de un empate en el quinto decimal
+                double empate = (aleatorio.nextInt(2_000_000) * 2 + 1) * 0.00005;
+                return aleatorio.nextBoolean() ? Math.nextUp(empate) : Math.nextDown(empate);
+            case 2:
+                return (aleatorio.nextLong() % 100_000_000_000L) / 100_000.0;
+            case 3:
+                return aleatorio.nextDouble() * Math.pow(10, aleatorio.nextInt(30) - 10)
+                        * (aleatorio.nextBoolean() ? 1 : -1);
+            default:
+                return aleatorio.nextGaussian() * 1_000_000;
+        }
+    }
+}
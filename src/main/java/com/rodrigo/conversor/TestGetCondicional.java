@@ -0,0 +1,178 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pruebas del GET condicional (ETag / Last-Modified) y de la descompresión gzip
+ * El servidor local publica una versión de tasas: responde 304 si el cliente ya la tiene y
+ * comprime con gzip cuando el cliente lo acepta. /v6/latest/USD usa ETag; /v6/latest/EUR sólo Last-Modified.
+ */
+public class TestGetCondicional {
+
+    private static final String ULTIMA_MODIFICACION = "Wed, 01 Jan 2025 00:02:31 GMT";
+
+    private static final AtomicInteger version = new AtomicInteger(1);
+    private static volatile String ultimoIfModifiedSince;
+    private static final Set<String> conexiones = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger solicitudes = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO GET CONDICIONAL Y COMPRESIÓN");
+        System.out.println("========================================");
+
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/v6/latest/", TestGetCondicional::atender);
+        servidor.start();
+        SolicitudHTTP solicitud = new SolicitudHTTP(
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v6/latest/");
+
+        try {
+            // Prueba 1: primera descarga completa, comprimida
+            System.out.println("\n📦 PRUEBA 1: Primera descarga con gzip");
+            CuerpoTasas primera = solicitud.obtenerTasasAnalizadas("USD");
+            int tamanioJSON = crearCuerpo("USD", 1).getBytes(StandardCharsets.UTF_8).length;
+            System.out.println("   📏 " + primera.obtenerBytesRecibidos() + " bytes recibidos para "
+                    + tamanioJSON + " bytes de JSON");
+            verificar("gzip".equals(primera.obtenerHeader("Content-Encoding")), "El servidor respondió con gzip");
+            verificar(primera.obtenerBytesRecibidos() < tamanioJSON / 2, "El cuerpo viajó comprimido");
+            verificar(primera.obtener().cantidadTasas() == 161 && primera.obtener().obtenerTasa("EUR") == 0.86,
+                    "Se descomprimió y analizó de forma transparente");
+
+            // Prueba 2: sin cambios en el servidor
+            System.out.println("\n♻️ PRUEBA 2: Segunda descarga sin cambios");
+            CuerpoTasas segunda = solicitud.obtenerTasasAnalizadas("USD");
+            verificar(segunda.esNoModificada(), "El servidor respondió 304");
+            verificar(segunda.obtener() == primera.obtener(), "Se reutilizan las mismas tasas, sin volver a analizar");
+            verificar(segunda.obtenerBytesRecibidos() == 0, "No se transfirió cuerpo");
+            verificar(segunda.obtener().aRespuestaAPI() == primera.obtener().aRespuestaAPI(),
+                    "La RespuestaAPI es la misma instancia (los motores no se reconstruyen)");
+            verificar(solicitud.obtenerRespuestasNoModificadas() == 1, "Contador de 304: "
+                    + solicitud.obtenerRespuestasNoModificadas());
+
+            // Prueba 3: el servidor publica tasas nuevas
+            System.out.println("\n🆕 PRUEBA 3: Cambian las tasas en el servidor");
+            version.incrementAndGet();
+            CuerpoTasas tercera = solicitud.obtenerTasasAnalizadas("USD");
+            verificar(!tercera.esNoModificada() && tercera.obtener() != primera.obtener(), "Se descargaron tasas nuevas");
+            verificar(tercera.obtener().obtenerTasa("EUR") == 0.87, "Con los valores de la versión 2");
+            verificar(solicitud.obtenerTasasAnalizadas("USD").esNoModificada(), "La versión 2 también se valida con 304");
+
+            // Prueba 4: validación sólo por fecha
+            System.out.println("\n📅 PRUEBA 4: Servidor que sólo envía Last-Modified");
+            CuerpoTasas euro = solicitud.obtenerTasasAnalizadas("EUR");
+            CuerpoTasas euroOtraVez = solicitud.obtenerTasasAnalizadas("EUR");
+            verificar(ULTIMA_MODIFICACION.equals(ultimoIfModifiedSince), "Se envió If-Modified-Since");
+            verificar(euroOtraVez.esNoModificada() && euroOtraVez.obtener() == euro.obtener(), "304 por fecha");
+
+            // Prueba 5: a través de la cache de la aplicación
+            System.out.println("\n🗄️ PRUEBA 5: Cache de tasas sobre la solicitud condicional");
+            CacheTasas cache = CacheTasas.paraSolicitud(solicitud);
+            RespuestaAPI antes = cache.obtener("USD");
+            cache.invalidar("USD");
+            verificar(cache.obtener("USD") == antes, "Una recarga sin cambios devuelve la misma RespuestaAPI");
+            int solicitudesAntes = solicitudes.get();
+            verificar(cache.obtener("USD") == antes && solicitudes.get() == solicitudesAntes,
+                    "Con time_next_update_unix vencido, el 304 renueva la entrada y la próxima consulta no sale a la red");
+            long vigencia = antes.obtenerVigenteHastaMillis() - System.currentTimeMillis();
+            verificar(vigencia > 590_000 && vigencia <= 600_000, "La vigencia sale del max-age del 304: " + vigencia + " ms");
+
+            // Prueba 6: un cuerpo descartado no cuesta la conexión
+            System.out.println("\n🔌 PRUEBA 6: Conexión reutilizada tras un error");
+            conexiones.clear();
+            try {
+                solicitud.obtenerTasasAnalizadas("XXX");
+                verificar(false, "XXX debería fallar");
+            } catch (ErrorProveedorTasas e) {
+                verificar(e.obtenerCodigoHttp() == 404, "El servidor respondió 404 con cuerpo");
+            }
+            solicitud.obtenerTasasAnalizadas("USD");
+            solicitud.obtenerTasasAnalizadas("EUR");
+            verificar(conexiones.size() == 1, "El 404 y los 304 siguientes usan la misma conexión: " + conexiones);
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static void atender(HttpExchange intercambio) throws IOException {
+        conexiones.add(intercambio.getRemoteAddress().toString());
+        solicitudes.incrementAndGet();
+        String base = intercambio.getRequestURI().getPath().substring("/v6/latest/".length());
+        if ("XXX".equals(base)) {
+            byte[] error = "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}".getBytes(StandardCharsets.UTF_8);
+            intercambio.sendResponseHeaders(404, error.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(error);
+            }
+            return;
+        }
+        int actual = version.get();
+        String etiqueta = "\"tasas-" + base + "-v" + actual + "\"";
+
+        if ("USD".equals(base)) {
+            intercambio.getResponseHeaders().add("ETag", etiqueta);
+            if (etiqueta.equals(intercambio.getRequestHeaders().getFirst("If-None-Match"))) {
+                intercambio.getResponseHeaders().add("Cache-Control", "max-age=600");
+                intercambio.sendResponseHeaders(304, -1);
+                intercambio.close();
+                return;
+            }
+        } else {
+            ultimoIfModifiedSince = intercambio.getRequestHeaders().getFirst("If-Modified-Since");
+            intercambio.getResponseHeaders().add("Last-Modified", ULTIMA_MODIFICACION);
+            if (ULTIMA_MODIFICACION.equals(ultimoIfModifiedSince)) {
+                intercambio.sendResponseHeaders(304, -1);
+                intercambio.close();
+                return;
+            }
+        }
+
+        byte[] bytes = crearCuerpo(base, actual).getBytes(StandardCharsets.UTF_8);
+        String aceptadas = intercambio.getRequestHeaders().getFirst("Accept-Encoding");
+        if (aceptadas != null && aceptadas.contains("gzip")) {
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                gzip.write(bytes);
+            }
+            bytes = comprimido.toByteArray();
+            intercambio.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(200, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private static String crearCuerpo(String base, int version) {
+        StringBuilder json = new StringBuilder("{\"result\":\"success\",\"base_code\":\"").append(base)
+                .append("\",\"time_next_update_unix\":1735777561,\"rates\":{\"USD\":1,\"EUR\":")
+                .append(version == 1 ? "0.86" : "0.87");
+        for (int i = 0; i < 159; i++) {
+            json.append(",\"").append((char) ('A' + i / 26 % 26)).append((char) ('A' + i % 26)).append("Z\":")
+                    .append(String.format(Locale.ROOT, "%.4f", 1 + i * 3.7));
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
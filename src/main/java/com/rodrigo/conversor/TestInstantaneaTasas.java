@@ -0,0 +1,95 @@
+package com.rodrigo.conversor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pruebas de la instantánea binaria de tasas: ida y vuelta, corrupción y tiempo de carga
+ */
+public class TestInstantaneaTasas {
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧪 PROBANDO INSTANTÁNEA DE TASAS");
+        System.out.println("================================");
+
+        Path directorio = Files.createTempDirectory("instantanea-tasas");
+        Path ruta = directorio.resolve("tasas-USD.bin");
+
+        Map<String, Double> tasas = new HashMap<>();
+        tasas.put("USD", 1.0);
+        tasas.put("EUR", 0.86);
+        tasas.put("ARS", 1292.33);
+        tasas.put("JPY", 147.123456789);
+        RespuestaAPI original = new RespuestaAPI();
+        original.setResult("success");
+        original.setCodigoBase("USD");
+        original.setUltimaActualizacionUnix(1_735_689_600L);
+        original.setProximaActualizacionUnix(1_735_776_000L);
+        original.setTasasConversion(tasas);
+
+        // Prueba 1: ida y vuelta
+        System.out.println("\n💾 PRUEBA 1: Guardar y cargar");
+        InstantaneaTasas.guardar(original, ruta);
+        RespuestaAPI leida = InstantaneaTasas.cargar(ruta);
+        verificar(leida.esExitosa() && "USD".equals(leida.getCodigoBase()), "Base y resultado conservados");
+        verificar(leida.getUltimaActualizacionUnix() == original.getUltimaActualizacionUnix()
+                && leida.getProximaActualizacionUnix() == original.getProximaActualizacionUnix(),
+                "Marcas de tiempo conservadas");
+        verificar(tasas.equals(leida.getTasasConversion()), "Tasas idénticas bit a bit");
+        System.out.println("   Tamaño del archivo: " + Files.size(ruta) + " bytes");
+
+        // Prueba 2: reemplazo atómico sin archivos temporales sobrantes
+        System.out.println("\n🔁 PRUEBA 2: Reemplazo de una instantánea existente");
+        tasas.put("EUR", 0.87);
+        InstantaneaTasas.guardar(original, ruta);
+        verificar(InstantaneaTasas.cargar(ruta).obtenerTasa("EUR") == 0.87, "Se leen las tasas nuevas");
+        try (var archivos = Files.list(directorio)) {
+            verificar(archivos.count() == 1, "No quedan archivos temporales");
+        }
+
+        // Prueba 3: archivos dañados
+        System.out.println("\n⚠️ PRUEBA 3: Archivos dañados");
+        byte[] contenido = Files.readAllBytes(ruta);
+        contenido[contenido.length / 2] ^= 0x40;
+        Path corrupta = directorio.resolve("corrupta.bin");
+        Files.write(corrupta, contenido);
+        verificarRechazo(corrupta, "Se detecta un byte alterado");
+        Path truncada = directorio.resolve("truncada.bin");
+        Files.write(truncada, Arrays.copyOf(contenido, contenido.length - 5));
+        verificarRechazo(truncada, "Se detecta un archivo truncado");
+        Files.delete(corrupta);
+        Files.delete(truncada);
+
+        // Prueba 4: tiempo de carga
+        System.out.println("\n⏱️ PRUEBA 4: Tiempo de carga");
+        for (int i = 0; i < 1_000; i++) {
+            InstantaneaTasas.cargar(ruta);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            InstantaneaTasas.cargar(ruta);
+        }
+        System.out.printf("   Carga promedio: %.1f µs%n", (System.nanoTime() - inicio) / 1_000 / 1e3);
+
+        Files.delete(ruta);
+        Files.delete(directorio);
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static void verificarRechazo(Path ruta, String descripcion) {
+        try {
+            InstantaneaTasas.cargar(ruta);
+            verificar(false, descripcion);
+        } catch (IOException e) {
+            verificar(true, descripcion + " (" + e.getMessage().split(":")[0] + ")");
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
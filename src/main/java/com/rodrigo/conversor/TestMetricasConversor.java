@@ -0,0 +1,228 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Pruebas de las métricas de proceso: contadores de conversión, JSON, HTTP y cache, JMX, texto
+ * y costo de las métricas por conversión
+ */
+public class TestMetricasConversor {
+
+    private static final int VUELTAS = 20_000_000;
+    private static volatile double sumidero;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && "--medir".equals(args[0])) {
+            medir();
+            return;
+        }
+        System.out.println("🧪 PROBANDO MÉTRICAS DEL CONVERSOR");
+        System.out.println("==================================");
+
+        ConversorMonedas conversor = new ConversorMonedas(Map.of("USD", 1.0, "EUR", 0.86, "ARS", 1292.33));
+        MetricasConversor.reiniciar();
+
+        // Prueba 1: conversiones
+        System.out.println("\n💱 PRUEBA 1: Conversiones");
+        for (int i = 0; i < 1_000; i++) {
+            conversor.convertir(i, "USD", "ARS");
+        }
+        try {
+            conversor.convertir(1, "USD", "XYZ");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        conversor.convertirLote(new double[500], "EUR", "USD", new double[500]);
+        verificar(MetricasConversor.obtenerConversiones() == 1_501, "1000 sueltas + 1 fallida + lote de 500");
+        String texto = MetricasConversor.escribirTexto(new StringBuilder()).toString();
+        verificar(texto.contains("conversor_conversiones_fallidas_total 1\n")
+                && texto.contains("conversor_lote_total 1\n"), "La fallida y el lote quedan en el texto");
+
+        // Hilos de plataforma que comparten rayas y miles de hilos virtuales que las heredan al terminar
+        MetricasConversor.reiniciar();
+        try (ExecutorService plataforma = Executors.newFixedThreadPool(8)) {
+            for (int h = 0; h < 8; h++) {
+                plataforma.submit(() -> convertirVarias(conversor, 100_000));
+            }
+        }
+        try (ExecutorService virtuales = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int h = 0; h < 5_000; h++) {
+                virtuales.submit(() -> convertirVarias(conversor, 100));
+            }
+        }
+        verificar(MetricasConversor.obtenerConversiones() == 1_300_000,
+                "Conteo exacto con 8 hilos de plataforma y 5000 virtuales: " + MetricasConversor.obtenerConversiones());
+
+        // Prueba 2: HTTP, JSON y cache contra un servidor local
+        System.out.println("\n📡 PRUEBA 2: HTTP, JSON y cache");
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/v6/latest/", TestMetricasConversor::atender);
+        servidor.createContext("/lento/", intercambio -> {
+            dormir(300);
+            atender(intercambio);
+        });
+        servidor.start();
+        try {
+            String url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+            SolicitudHTTP solicitud = new SolicitudHTTP(url + "/v6/latest/");
+            CacheTasas cache = CacheTasas.paraSolicitud(solicitud);
+            cache.obtener("USD");
+            cache.obtener("USD");
+            RespuestaHTTP respuesta = solicitud.obtenerRespuestaProcesada("EUR");
+            verificar(respuesta.obtenerComoRespuestaAPI().getTasasConversion().get("ARS") == 1292.33,
+                    "Descarga y análisis correctos");
+            verificar(MetricasConversor.obtenerLatenciasEnvioHTTP().obtenerCantidad() == 2,
+                    "Dos envíos HTTP medidos (cache y directo)");
+            verificar(MetricasConversor.obtenerLatenciasAnalisisJSON().obtenerCantidad() == 2,
+                    "Dos análisis de JSON medidos (streaming y String)");
+            texto = MetricasConversor.escribirTexto(new StringBuilder()).toString();
+            verificar(texto.contains("conversor_cache_aciertos_total 1\n")
+                    && texto.contains("conversor_cache_fallos_total 1\n"), "Un acierto y un fallo de cache");
+            verificar(texto.contains("conversor_analisis_json_bytes_total "
+                    + (cuerpo("USD").length() + cuerpo("EUR").length()) + "\n"), "Se acumulan los bytes analizados");
+
+            // Esperar una descarga en curso no es un acierto, y un envío interrumpido cuenta como fallido
+            SolicitudHTTP lenta = new SolicitudHTTP(url + "/lento/");
+            CacheTasas cacheLenta = CacheTasas.paraSolicitud(lenta);
+            Thread descarga = Thread.ofPlatform().start(() -> cacheLenta.obtener("USD"));
+            dormir(100);
+            cacheLenta.obtener("USD");
+            descarga.join();
+            Thread interrumpido = Thread.ofPlatform().start(() -> {
+                try {
+                    lenta.obtenerRespuestaProcesada("USD");
+                } catch (ErrorProveedorTasas e) {
+                    // Esperado
+                }
+            });
+            dormir(100);
+            interrumpido.interrupt();
+            interrumpido.join();
+            texto = MetricasConversor.escribirTexto(new StringBuilder()).toString();
+            verificar(texto.contains("conversor_cache_aciertos_total 1\n")
+                    && texto.contains("conversor_cache_fallos_total 2\n"), "La espera compartida no suma aciertos");
+            verificar(texto.contains("conversor_envio_http_fallidos_total 1\n")
+                    && MetricasConversor.obtenerLatenciasEnvioHTTP().obtenerCantidad() == 4,
+                    "El envío interrumpido queda como fallido");
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        // Prueba 3: JMX y /metricas
+        System.out.println("\n🔭 PRUEBA 3: JMX y texto");
+        MetricasConversor.registrarJMX();
+        MetricasConversor.registrarJMX();
+        MBeanServer jmx = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nombre = new ObjectName(MetricasConversor.NOMBRE_JMX);
+        verificar((Long) jmx.getAttribute(nombre, "Conversiones") == MetricasConversor.obtenerConversiones(),
+                "El MBean expone los mismos contadores");
+        verificar((Long) jmx.getAttribute(nombre, "EnviosHTTP") == 4, "Incluye los envíos HTTP");
+        try (ServidorConversion servidorConversion = new ServidorConversion(conversor,
+                new InetSocketAddress("127.0.0.1", 0), ModoEjecucion.VIRTUAL)) {
+            servidorConversion.iniciar();
+            String metricas = new String(java.net.URI.create("http://127.0.0.1:" + servidorConversion.obtenerPuerto()
+                    + "/metricas").toURL().openStream().readAllBytes(), StandardCharsets.UTF_8);
+            verificar(metricas.contains("conversor_conversiones_total ") && metricas.contains("conversor_envio_http_p99_us"),
+                    "GET /metricas incluye las métricas del proceso");
+        }
+        jmx.invoke(nombre, "reiniciar", null, null);
+        verificar(MetricasConversor.obtenerConversiones() == 0, "reiniciar por JMX");
+
+        // Prueba 4: costo por conversión, en JVMs separadas como haría JMH con sus forks
+        System.out.println("\n⏱️ PRUEBA 4: Costo de las métricas por conversión");
+        double sinMetricas = medirEnOtraJVM(false);
+        double conMetricas = medirEnOtraJVM(true);
+        double costo = conMetricas - sinMetricas;
+        System.out.printf("   📏 Sin métricas: %.1f ns, con métricas: %.1f ns (costo %.1f ns)%n",
+                sinMetricas, conMetricas, costo);
+        verificar(costo < 5, "Las métricas agregan menos de 5 ns por conversión");
+
+        System.out.println();
+        MetricasConversor.mostrarEstadisticas();
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    /**
+     * Lanza esta misma clase con --medir en una JVM nueva, con las métricas encendidas o apagadas
+     * La constante ACTIVAS se fija al cargar la clase, por eso cada variante necesita su propia JVM.
+     * @return nanosegundos por conversión (mejor de 5 rondas)
+     */
+    private static double medirEnOtraJVM(boolean metricas) throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process proceso = new ProcessBuilder(java, "-Dconversor.metricas=" + metricas,
+                "-cp", System.getProperty("java.class.path"), TestMetricasConversor.class.getName(), "--medir")
+                .redirectErrorStream(true).start();
+        String salida = new String(proceso.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        if (proceso.waitFor() != 0) {
+            throw new IllegalStateException("La medición falló: " + salida);
+        }
+        return Double.parseDouble(salida);
+    }
+
+    /**
+     * Imprime los nanosegundos por ConversorMonedas.convertir(double, String, String), mejor de 5 rondas
+     */
+    private static void medir() {
+        ConversorMonedas conversor = new ConversorMonedas(Map.of("USD", 1.0, "EUR", 0.86, "ARS", 1292.33));
+        double mejor = Double.MAX_VALUE;
+        for (int ronda = 0; ronda < 5; ronda++) {
+            double suma = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < VUELTAS; i++) {
+                suma += conversor.convertir(i, "USD", "ARS");
+            }
+            mejor = Math.min(mejor, (double) (System.nanoTime() - inicio) / VUELTAS);
+            sumidero = suma;
+        }
+        System.out.println(mejor);
+    }
+
+    private static void convertirVarias(ConversorMonedas conversor, int cantidad) {
+        double suma = 0;
+        for (int i = 0; i < cantidad; i++) {
+            suma += conversor.convertir(i, "EUR", "ARS");
+        }
+        sumidero = suma;
+    }
+
+    private static void atender(HttpExchange intercambio) throws IOException {
+        String ruta = intercambio.getRequestURI().getPath();
+        String base = ruta.substring(ruta.lastIndexOf('/') + 1);
+        byte[] cuerpo = cuerpo(base).getBytes(StandardCharsets.UTF_8);
+        intercambio.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    private static String cuerpo(String base) {
+        return "{\"result\":\"success\",\"base_code\":\"" + base + "\",\"time_last_update_unix\":1735689751,"
+                + "\"rates\":{\"USD\":1.0,\"EUR\":0.86,\"ARS\":1292.33}}";
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
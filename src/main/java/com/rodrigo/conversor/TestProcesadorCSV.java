@@ -0,0 +1,122 @@
+package com.rodrigo.conversor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pruebas de la revaluación de archivos CSV: análisis byte a byte, filas rechazadas,
+ * vaciado del buffer de salida y el modo --csv de Main
+ */
+public class TestProcesadorCSV {
+
+    private static final Map<String, Double> TASAS = Map.of("USD", 1.0, "EUR", 0.86, "ARS", 1292.33);
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO PROCESADOR CSV");
+        System.out.println("==========================");
+
+        Path directorio = Files.createTempDirectory("procesador-csv");
+        ConversorMonedas conversor = new ConversorMonedas(TASAS);
+        ProcesadorCSV procesador = new ProcesadorCSV(conversor);
+
+        // Prueba 1: formatos de fila
+        System.out.println("\n📄 PRUEBA 1: Encabezado, CRLF, negativos, comillas y sin salto final");
+        Path entrada = directorio.resolve("entrada.csv");
+        Path salida = directorio.resolve("salida.csv");
+        Files.writeString(entrada, "cantidad,origen,destino\r\n"
+                + "100,USD,EUR\r\n"
+                + "-50.5,EUR,USD\n"
+                + "\"200\",USD,ARS\n"
+                + "\"7.25\",\"EUR\",\"ARS\"\n"
+                + "abc,USD,EUR\n"
+                + "10,USD\n"
+                + "\n"
+                + "10,USD,XYZ\n"
+                + "10,USDX,EUR\n"
+                + "1e3,USD,EUR", StandardCharsets.US_ASCII);
+        ProcesadorCSV.EstadisticasProceso estadisticas = procesador.procesar(entrada, salida);
+        List<String> lineas = Files.readAllLines(salida, StandardCharsets.US_ASCII);
+        lineas.forEach(linea -> System.out.println("   " + linea));
+        verificar(lineas.size() == 6 && lineas.get(0).equals("cantidad,origen,destino,resultado"),
+                "El encabezado se copia con la columna resultado y sin el \\r");
+        verificar(filaCorrecta(lineas.get(1), "100,USD,EUR", conversor.convertir(100, "USD", "EUR")), "Fila con CRLF");
+        verificar(filaCorrecta(lineas.get(2), "-50.5,EUR,USD", conversor.convertir(-50.5, "EUR", "USD")),
+                "Cantidad negativa");
+        verificar(filaCorrecta(lineas.get(3), "\"200\",USD,ARS", conversor.convertir(200, "USD", "ARS")),
+                "Cantidad entre comillas");
+        verificar(filaCorrecta(lineas.get(4), "\"7.25\",\"EUR\",\"ARS\"", conversor.convertir(7.25, "EUR", "ARS")),
+                "Todos los campos entre comillas");
+        verificar(filaCorrecta(lineas.get(5), "1e3,USD,EUR", conversor.convertir(1000, "USD", "EUR")),
+                "Exponente y última línea sin salto final");
+        verificar(estadisticas.filasConvertidas == 5 && estadisticas.filasRechazadas == 4,
+                "5 convertidas y 4 rechazadas: " + estadisticas.filasConvertidas + " / " + estadisticas.filasRechazadas);
+        verificar(estadisticas.primeraFilaRechazada == 5, "La primera rechazada es la fila 5 de datos");
+        verificar(estadisticas.bytesEscritos == Files.size(salida), "bytesEscritos coincide con el archivo");
+
+        // Prueba 2: la salida supera varias veces el buffer directo
+        System.out.println("\n📦 PRUEBA 2: Varias vaciadas del buffer de salida");
+        int filas = 150_000;
+        String[] pares = {"USD,EUR", "EUR,ARS", "ARS,USD"};
+        StringBuilder grande = new StringBuilder(filas * 20);
+        for (int i = 0; i < filas; i++) {
+            grande.append(i).append('.').append(i % 100).append(',').append(pares[i % 3]).append('\n');
+        }
+        Files.writeString(entrada, grande, StandardCharsets.US_ASCII);
+        estadisticas = procesador.procesar(entrada, salida);
+        lineas = Files.readAllLines(salida, StandardCharsets.US_ASCII);
+        boolean todasCorrectas = lineas.size() == filas;
+        for (int i = 0; todasCorrectas && i < filas; i++) {
+            String[] monedas = pares[i % 3].split(",");
+            double cantidad = Double.parseDouble(i + "." + i % 100);
+            todasCorrectas = filaCorrecta(lineas.get(i), i + "." + i % 100 + "," + pares[i % 3],
+                    conversor.convertir(cantidad, monedas[0], monedas[1]));
+        }
+        System.out.printf("   📏 %,d bytes escritos (buffer de salida de 1 MB)%n", Files.size(salida));
+        verificar(Files.size(salida) > 3 << 20, "La salida ocupa más de tres buffers");
+        verificar(todasCorrectas && estadisticas.filasConvertidas == filas, "Ninguna fila se pierde ni se corta");
+
+        // Prueba 3: el modo por lotes de Main, con tasas de una instantánea y sin red
+        System.out.println("\n🚀 PRUEBA 3: Main --csv");
+        String inicioOriginal = System.getProperty("user.home");
+        System.setProperty("user.home", directorio.toString());
+        try {
+            RespuestaAPI instantanea = new RespuestaAPI();
+            instantanea.setResult("success");
+            instantanea.setCodigoBase("USD");
+            instantanea.setUltimaActualizacionUnix(Instant.now().getEpochSecond());
+            instantanea.setProximaActualizacionUnix(Instant.now().getEpochSecond() + 86_400);
+            instantanea.setTasasConversion(TASAS);
+            InstantaneaTasas.guardar(instantanea, InstantaneaTasas.rutaPredeterminada("USD"));
+            Files.writeString(entrada, "cantidad,origen,destino\n100,USD,ARS\n", StandardCharsets.US_ASCII);
+            Files.deleteIfExists(salida);
+            Main.main(new String[] {"--csv", entrada.toString(), salida.toString()});
+        } finally {
+            System.setProperty("user.home", inicioOriginal);
+        }
+        lineas = Files.exists(salida) ? Files.readAllLines(salida, StandardCharsets.US_ASCII) : List.of();
+        verificar(lineas.size() == 2 && filaCorrecta(lineas.get(1), "100,USD,ARS", conversor.convertir(100, "USD", "ARS")),
+                "Main escribe el archivo revaluado");
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    /**
+     * La fila de salida es la de entrada más el resultado, que se escribe con seis decimales
+     * (medio millonésimo de redondeo, más el error de representación en los valores grandes)
+     */
+    private static boolean filaCorrecta(String linea, String filaEntrada, double esperado) {
+        if (!linea.startsWith(filaEntrada + ",")) {
+            return false;
+        }
+        double resultado = Double.parseDouble(linea.substring(filaEntrada.length() + 1));
+        return Math.abs(resultado - esperado) <= 1e-6;
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
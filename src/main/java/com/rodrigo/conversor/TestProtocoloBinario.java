@@ -0,0 +1,142 @@
+package com.rodrigo.conversor;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pruebas del protocolo binario: resultados idénticos a ConversorMonedas, errores por posición,
+ * unidades menores y rendimiento con pipelining contra un servidor local
+ */
+public class TestProtocoloBinario {
+
+    private static final int OPERACIONES_POR_CLIENTE = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO PROTOCOLO BINARIO");
+        System.out.println("=============================");
+
+        ConversorMonedas conversor = new ConversorMonedas(Map.of(
+                "USD", 1.0, "EUR", 0.86, "ARS", 1292.33, "JPY", 147.12, "KWD", 0.3061));
+
+        try (ServidorBinario servidor = new ServidorBinario(conversor, new InetSocketAddress("127.0.0.1", 0))) {
+            servidor.iniciar();
+            InetSocketAddress direccion = new InetSocketAddress("127.0.0.1", servidor.obtenerPuerto());
+
+            try (ClienteBinario cliente = new ClienteBinario(direccion)) {
+                // Prueba 1: llamadas sueltas
+                System.out.println("\n💱 PRUEBA 1: Conversiones sueltas");
+                verificar(cliente.convertir(100, "USD", "ARS") == conversor.convertir(100, "USD", "ARS"),
+                        "USD → ARS idéntico a ConversorMonedas");
+                verificar(cliente.convertir(2.5, "EUR", "JPY") == conversor.convertir(2.5, "EUR", "JPY"),
+                        "EUR → JPY idéntico a ConversorMonedas");
+                try {
+                    cliente.convertir(1, "USD", "XYZ");
+                    verificar(false, "XYZ debería fallar");
+                } catch (IllegalArgumentException e) {
+                    verificar(true, "Moneda desconocida: " + e.getMessage());
+                }
+                verificar(cliente.convertir(1, "USD", "EUR") == 0.86, "La conexión sigue útil tras un error");
+
+                // Prueba 2: unidades menores según ISO 4217
+                System.out.println("\n🪙 PRUEBA 2: Unidades menores");
+                verificar(cliente.convertirMenores(10_000, "USD", "JPY") == 14_712,
+                        "100,00 USD = 14712 JPY (sin decimales)");
+                verificar(cliente.convertirMenores(10_000, "USD", "KWD") == 30_610,
+                        "100,00 USD = 30,610 KWD (tres decimales)");
+
+                // Prueba 3: lote con pipelining y un error en el medio
+                System.out.println("\n📦 PRUEBA 3: Lote");
+                int n = 10_000;
+                int[] origenes = new int[n];
+                int[] destinos = new int[n];
+                double[] cantidades = new double[n];
+                String[] codigos = {"USD", "EUR", "ARS", "JPY", "KWD"};
+                for (int i = 0; i < n; i++) {
+                    origenes[i] = ProtocoloBinario.empaquetar(codigos[i % 5]);
+                    destinos[i] = ProtocoloBinario.empaquetar(codigos[(i * 3 + 1) % 5]);
+                    cantidades[i] = i * 1.25;
+                }
+                double[] salida = new double[n];
+                cliente.convertirLote(origenes, destinos, cantidades, salida);
+                boolean iguales = true;
+                for (int i = 0; i < n; i++) {
+                    iguales &= salida[i] == conversor.convertir(cantidades[i], codigos[i % 5], codigos[(i * 3 + 1) % 5]);
+                }
+                verificar(iguales, n + " conversiones en tandas de " + ClienteBinario.TRAMAS_POR_TANDA);
+                destinos[5_000] = ProtocoloBinario.empaquetar("XYZ");
+                try {
+                    cliente.convertirLote(origenes, destinos, cantidades, salida);
+                    verificar(false, "El lote con XYZ debería fallar");
+                } catch (IllegalArgumentException e) {
+                    verificar(e.getMessage().endsWith("posición 5000") && salida[n - 1] != 0,
+                            "Se informa la posición y el resto se convierte: " + e.getMessage());
+                }
+            }
+
+            // Prueba 4: rendimiento
+            System.out.println("\n🚀 PRUEBA 4: Rendimiento por loopback");
+            try (ClienteBinario cliente = new ClienteBinario(direccion)) {
+                for (int i = 0; i < 2_000; i++) {
+                    cliente.convertir(i, "USD", "EUR");
+                }
+                long inicio = System.nanoTime();
+                int llamadas = 5_000;
+                for (int i = 0; i < llamadas; i++) {
+                    cliente.convertir(i, "USD", "EUR");
+                }
+                double micros = (System.nanoTime() - inicio) / 1e3 / llamadas;
+                System.out.printf("   🐢 Sin pipelining: %.1f µs por conversión%n", micros);
+            }
+            medirLotes(direccion, 1);
+            double millonesPorSegundo = medirLotes(direccion, 2);
+            verificar(millonesPorSegundo > 1, "Más de un millón de conversiones por segundo");
+
+            System.out.println();
+            servidor.mostrarEstadisticas();
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static double medirLotes(InetSocketAddress direccion, int clientes) throws Exception {
+        int[] origenes = new int[OPERACIONES_POR_CLIENTE / 10];
+        int[] destinos = new int[origenes.length];
+        double[] cantidades = new double[origenes.length];
+        for (int i = 0; i < origenes.length; i++) {
+            origenes[i] = ProtocoloBinario.empaquetar(i % 2 == 0 ? "USD" : "EUR");
+            destinos[i] = ProtocoloBinario.empaquetar(i % 3 == 0 ? "ARS" : "JPY");
+            cantidades[i] = i;
+        }
+        List<Future<?>> tareas = new ArrayList<>();
+        long inicio = System.nanoTime();
+        try (ExecutorService hilos = Executors.newFixedThreadPool(clientes)) {
+            for (int c = 0; c < clientes; c++) {
+                tareas.add(hilos.submit(() -> {
+                    try (ClienteBinario cliente = new ClienteBinario(direccion)) {
+                        double[] salida = new double[cantidades.length];
+                        for (int vuelta = 0; vuelta < 10; vuelta++) {
+                            cliente.convertirLote(origenes, destinos, cantidades, salida);
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        double millonesPorSegundo = (double) clientes * OPERACIONES_POR_CLIENTE / segundos / 1e6;
+        System.out.printf("   ⚡ %d cliente(s) con pipelining: %.2f millones de conversiones/s%n", clientes, millonesPorSegundo);
+        return millonesPorSegundo;
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
@@ -0,0 +1,95 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pruebas del cliente HTTP compartido contra un servidor local que registra cada conexión TCP
+ */
+public class TestProveedorClienteHTTP {
+
+    private static final int SOLICITUDES = 20;
+    private static final Set<String> conexiones = ConcurrentHashMap.newKeySet();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO PROVEEDOR DE CLIENTE HTTP COMPARTIDO");
+        System.out.println("================================================");
+
+        byte[] cuerpo = "{\"result\":\"success\",\"base_code\":\"USD\",\"rates\":{\"USD\":1,\"EUR\":0.86}}"
+                .getBytes(StandardCharsets.UTF_8);
+        // Sin TCP_NODELAY el servidor de prueba suma ~40 ms de ACK retardado por respuesta en conexiones reutilizadas
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/v6/latest/", intercambio -> {
+            // El puerto remoto identifica la conexión TCP del cliente
+            conexiones.add(intercambio.getRemoteAddress().toString());
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+        String urlBase = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v6/latest/";
+
+        try {
+            // Prueba 1: configuración
+            System.out.println("\n⚙️ PRUEBA 1: Configuración del cliente compartido");
+            ProveedorClienteHTTP proveedor = ProveedorClienteHTTP.predeterminado();
+            verificar(proveedor == ProveedorClienteHTTP.compartido(ModoEjecucion.PLATAFORMA),
+                    "predeterminado() y compartido(PLATAFORMA) son la misma instancia");
+            verificar(proveedor.obtenerCliente().version() == HttpClient.Version.HTTP_2, "Prefiere HTTP/2");
+            verificar(String.valueOf(ProveedorClienteHTTP.KEEP_ALIVE_SEGUNDOS)
+                    .equals(System.getProperty("jdk.httpclient.keepalive.timeout")), "Keep-alive configurado en "
+                    + System.getProperty("jdk.httpclient.keepalive.timeout") + " s");
+
+            // Prueba 2: varios componentes sobre el cliente compartido
+            System.out.println("\n🔁 PRUEBA 2: " + SOLICITUDES + " solicitudes desde dos componentes");
+            SolicitudHTTP actualizador = new SolicitudHTTP(urlBase);
+            SolicitudHTTP consola = new SolicitudHTTP(urlBase);
+            // La primera solicitud abre la conexión y carga las clases; no se mide
+            actualizador.obtenerTasasAnalizadas("USD");
+            long inicio = System.nanoTime();
+            for (int i = 0; i < SOLICITUDES; i++) {
+                (i % 2 == 0 ? actualizador : consola).obtenerTasasAnalizadas("USD");
+            }
+            long compartido = System.nanoTime() - inicio;
+            int conexionesCompartidas = conexiones.size();
+            System.out.printf("   ⏱️ %.2f ms por solicitud, %d conexión(es)%n",
+                    compartido / 1e6 / SOLICITUDES, conexionesCompartidas);
+            verificar(conexionesCompartidas == 1, "Todas las solicitudes reutilizan una conexión");
+
+            // Prueba 3: un cliente nuevo por solicitud, como antes
+            System.out.println("\n🆕 PRUEBA 3: Un HttpClient nuevo por solicitud (comportamiento anterior)");
+            conexiones.clear();
+            inicio = System.nanoTime();
+            for (int i = 0; i < SOLICITUDES; i++) {
+                HttpClient aislado = HttpClient.newHttpClient();
+                aislado.send(proveedor.nuevaSolicitud(urlBase + "USD").build(), HttpResponse.BodyHandlers.ofString());
+            }
+            long aislados = System.nanoTime() - inicio;
+            System.out.printf("   ⏱️ %.2f ms por solicitud, %d conexión(es)%n",
+                    aislados / 1e6 / SOLICITUDES, conexiones.size());
+            verificar(conexiones.size() == SOLICITUDES, "Cada cliente abre su propia conexión");
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
@@ -0,0 +1,164 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pruebas de la fuente de tasas con varios proveedores contra proveedores de prueba locales
+ * Cada proveedor es un contexto del mismo servidor con su propio retardo y su propia tasa de ARS:
+ * rápido (5 ms), medio (40 ms), lento (300 ms), atípico (tasa absurda) y caído (503).
+ */
+public class TestProveedoresTasas {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO FUENTE DE TASAS CON VARIOS PROVEEDORES");
+        System.out.println("==================================================");
+
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/rapido/", intercambio -> atender(intercambio, 5, 200, 1000.0));
+        servidor.createContext("/medio/", intercambio -> atender(intercambio, 40, 200, 1005.0));
+        servidor.createContext("/lento/", intercambio -> atender(intercambio, 300, 200, 1010.0));
+        servidor.createContext("/atipico/", intercambio -> atender(intercambio, 10, 200, 999_999.0));
+        servidor.createContext("/caido/", intercambio -> atender(intercambio, 0, 503, 0));
+        servidor.start();
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        ProveedorTasas rapido = new ProveedorTasasHTTP("rapido", url + "/rapido/");
+        ProveedorTasas medio = new ProveedorTasasHTTP("medio", url + "/medio/");
+        ProveedorTasas lento = new ProveedorTasasHTTP("lento", url + "/lento/");
+        ProveedorTasas atipico = new ProveedorTasasHTTP("atipico", url + "/atipico/");
+        ProveedorTasas caido = new ProveedorTasasHTTP("caido", url + "/caido/");
+        ProveedorTasas caidoBis = new ProveedorTasasHTTP("caido-bis", url + "/caido/");
+
+        try {
+            // Calentamiento: la carga de clases no entra en las mediciones
+            rapido.obtenerTasas("USD");
+
+            // Prueba 1: configuración por texto
+            System.out.println("\n⚙️ PRUEBA 1: Configuración");
+            List<ProveedorTasas> configurados = ProveedorTasasHTTP.desdeConfiguracion(
+                    "rapido=" + url + "/rapido/; medio=" + url + "/medio/");
+            verificar(configurados.size() == 2 && configurados.get(1).obtenerNombre().equals("medio"),
+                    "Se leen los proveedores en el orden configurado");
+            try {
+                ProveedorTasasHTTP.desdeConfiguracion("sin-url");
+                verificar(false, "Una entrada sin URL debería fallar");
+            } catch (IllegalArgumentException e) {
+                verificar(true, "Una entrada sin URL se rechaza");
+            }
+
+            // Prueba 2: gana la respuesta más rápida
+            System.out.println("\n🏁 PRUEBA 2: La más rápida gana");
+            FuenteTasasMultiple carrera = new FuenteTasasMultiple(List.of(lento, medio, rapido),
+                    FuenteTasasMultiple.ModoConsulta.MAS_RAPIDA, 3, Duration.ofSeconds(2));
+            long inicio = System.nanoTime();
+            TasasAnalizadas ganadora = carrera.obtenerTasas("USD");
+            long millis = (System.nanoTime() - inicio) / 1_000_000;
+            verificar(ganadora.obtenerTasa("ARS") == 1000.0, "Responde el proveedor rápido");
+            verificar(millis < 150, "Sin esperar al lento (" + millis + " ms)");
+
+            // Prueba 3: si el primero falla se consulta al siguiente
+            System.out.println("\n↪️ PRUEBA 3: Respaldo ante un proveedor caído");
+            FuenteTasasMultiple conCaido = new FuenteTasasMultiple(List.of(caido, rapido),
+                    FuenteTasasMultiple.ModoConsulta.MAS_RAPIDA, 1, Duration.ofSeconds(2));
+            verificar(conCaido.obtenerTasas("USD").obtenerTasa("ARS") == 1000.0, "Responde el segundo proveedor");
+            verificar(conCaido.obtenerOrden().get(0).equals("rapido"), "El caído pasa al final del orden");
+
+            // Prueba 4: los histogramas ordenan a los proveedores
+            System.out.println("\n📊 PRUEBA 4: Orden por latencia");
+            FuenteTasasMultiple ordenada = new FuenteTasasMultiple(List.of(lento, medio, rapido),
+                    FuenteTasasMultiple.ModoConsulta.MAS_RAPIDA, 1, Duration.ofSeconds(2));
+            for (int i = 0; i < 20; i++) {
+                ordenada.obtenerTasas("USD");
+            }
+            System.out.println("   📋 Orden: " + ordenada.obtenerOrden());
+            verificar(ordenada.obtenerOrden().equals(List.of("rapido", "medio", "lento")),
+                    "Cada proveedor se midió y el más rápido quedó primero");
+            verificar(ordenada.obtenerLatencias("rapido").obtenerCantidad() > 5, "Las consultas van al más rápido");
+
+            // Prueba 5: la mediana ignora a un proveedor con datos erróneos
+            System.out.println("\n⚖️ PRUEBA 5: Mediana con un valor atípico");
+            FuenteTasasMultiple consenso = new FuenteTasasMultiple(List.of(rapido, medio, atipico),
+                    FuenteTasasMultiple.ModoConsulta.MEDIANA, 3, Duration.ofSeconds(2));
+            TasasAnalizadas mediana = consenso.obtenerTasas("USD");
+            verificar(mediana.obtenerTasa("ARS") == 1005.0, "ARS es la mediana: " + mediana.obtenerTasa("ARS"));
+            verificar(mediana.obtenerTasa("USD") == 1.0 && mediana.obtenerMonedaBase().equals("USD"),
+                    "Se conservan la base y las demás tasas");
+            verificar(mediana.aRespuestaAPI().getTasasConversion().get("ARS") == 1005.0, "La vista RespuestaAPI coincide");
+
+            // Prueba 6: un proveedor vencido no impide el quórum
+            System.out.println("\n⏰ PRUEBA 6: Mediana con un proveedor que no responde a tiempo");
+            FuenteTasasMultiple conPlazo = new FuenteTasasMultiple(List.of(rapido, medio, lento),
+                    FuenteTasasMultiple.ModoConsulta.MEDIANA, 3, Duration.ofMillis(150));
+            inicio = System.nanoTime();
+            TasasAnalizadas sinLento = conPlazo.obtenerTasas("USD");
+            millis = (System.nanoTime() - inicio) / 1_000_000;
+            verificar(sinLento.obtenerTasa("ARS") == 1002.5, "Mediana de los dos que respondieron: "
+                    + sinLento.obtenerTasa("ARS"));
+            verificar(millis < 280, "El plazo acota la espera (" + millis + " ms)");
+
+            // Prueba 7: sin mayoría no hay resultado
+            System.out.println("\n🚫 PRUEBA 7: Sin quórum");
+            FuenteTasasMultiple sinQuorum = new FuenteTasasMultiple(List.of(caido, caidoBis, rapido),
+                    FuenteTasasMultiple.ModoConsulta.MEDIANA, 3, Duration.ofSeconds(2));
+            try {
+                sinQuorum.obtenerTasas("USD");
+                verificar(false, "Con dos de tres caídos debería fallar");
+            } catch (ErrorProveedorTasas e) {
+                verificar(e.getMessage().startsWith("Sin quórum"), "Error tipado: " + e.getMessage());
+            }
+
+            System.out.println();
+            ordenada.mostrarEstadisticas();
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static void atender(HttpExchange intercambio, long retardoMillis, int codigo, double tasaArs)
+            throws IOException {
+        String ruta = intercambio.getRequestURI().getPath();
+        String base = ruta.substring(ruta.lastIndexOf('/') + 1);
+        try {
+            Thread.sleep(retardoMillis);
+            if (codigo != 200) {
+                responder(intercambio, codigo, "{\"result\":\"error\"}");
+                return;
+            }
+            responder(intercambio, 200, "{\"result\":\"success\",\"time_last_update_unix\":1750000000,"
+                    + "\"time_next_update_unix\":1750086400,\"base_code\":\"" + base + "\",\"rates\":{\""
+                    + base + "\":1,\"ARS\":" + tasaArs + ",\"EUR\":0.92}}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // El cliente canceló el intercambio (carrera perdida o plazo vencido)
+        }
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
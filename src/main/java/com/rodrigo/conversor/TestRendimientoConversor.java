@@ -0,0 +1,159 @@
+package com.rodrigo.conversor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Comparación de rendimiento entre la conversión escalar y la conversión por lotes
+ * Cada medición repite varias rondas de calentamiento antes de tomar el tiempo.
+ */
+public class TestRendimientoConversor {
+
+    private static final int ELEMENTOS = 1_000_000;
+    private static final int RONDAS_CALENTAMIENTO = 10;
+    private static final int RONDAS_MEDICION = 20;
+
+    public static void main(String[] args) {
+        System.out.println("🧪 RENDIMIENTO DEL CONVERSOR: ESCALAR VS LOTES");
+        System.out.println("==============================================");
+
+        Map<String, Double> tasasEjemplo = new HashMap<>();
+        tasasEjemplo.put("USD", 1.0);
+        tasasEjemplo.put("EUR", 0.86);
+        tasasEjemplo.put("GBP", 0.74);
+        tasasEjemplo.put("ARS", 1292.33);
+        tasasEjemplo.put("BRL", 5.44);
+        tasasEjemplo.put("CLP", 964.02);
+        tasasEjemplo.put("COP", 4016.15);
+        tasasEjemplo.put("MXN", 18.81);
+        ConversorMonedas conversor = new ConversorMonedas(tasasEjemplo);
+
+        String[] codigos = tasasEjemplo.keySet().toArray(new String[0]);
+        Random aleatorio = new Random(42);
+        double[] cantidades = new double[ELEMENTOS];
+        int[] origenes = new int[ELEMENTOS];
+        int[] destinos = new int[ELEMENTOS];
+        for (int i = 0; i < ELEMENTOS; i++) {
+            cantidades[i] = aleatorio.nextDouble() * 10_000;
+            origenes[i] = IndiceMonedas.buscarId(codigos[aleatorio.nextInt(codigos.length)]);
+            destinos[i] = IndiceMonedas.buscarId(codigos[aleatorio.nextInt(codigos.length)]);
+        }
+        double[] salida = new double[ELEMENTOS];
+
+        medir("Escalar (String)", () -> {
+            for (int i = 0; i < ELEMENTOS; i++) {
+                salida[i] = conversor.convertir(cantidades[i], "EUR", "BRL");
+            }
+        });
+        medir("Escalar (ids)", () -> {
+            int eur = IndiceMonedas.buscarId("EUR");
+            int brl = IndiceMonedas.buscarId("BRL");
+            for (int i = 0; i < ELEMENTOS; i++) {
+                salida[i] = conversor.convertir(cantidades[i], eur, brl);
+            }
+        });
+        medir("Lote un par", () -> conversor.convertirLote(cantidades, "EUR", "BRL", salida));
+        medir("Escalar pares mixtos", () -> {
+            for (int i = 0; i < ELEMENTOS; i++) {
+                salida[i] = conversor.convertir(cantidades[i], origenes[i], destinos[i]);
+            }
+        });
+        medir("Lote pares mixtos", () -> conversor.convertirLote(cantidades, origenes, destinos, salida));
+
+        // Verificación: ambos caminos deben producir exactamente el mismo valor
+        conversor.convertirLote(cantidades, origenes, destinos, salida);
+        boolean iguales = true;
+        for (int i = 0; i < ELEMENTOS && iguales; i++) {
+            iguales = salida[i] == conversor.convertir(cantidades[i], origenes[i], destinos[i]);
+        }
+        System.out.println("\n" + (iguales ? "✅" : "❌") + " Lote y escalar producen resultados idénticos");
+
+        // Conversión masiva en paralelo: mismo resultado con cualquier umbral
+        ConversorMasivo masivo = new ConversorMasivo(conversor, 4096, Runtime.getRuntime().availableProcessors());
+        double[] salidaParalela = new double[ELEMENTOS];
+        medir("Masivo pares mixtos", () -> masivo.convertir(cantidades, origenes, destinos, salidaParalela));
+        System.out.println((Arrays.equals(salida, salidaParalela) ? "✅" : "❌")
+                + " Masivo en paralelo coincide con el lote secuencial");
+
+        List<ConversorMasivo.RegistroConversion> registros = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            registros.add(new ConversorMasivo.RegistroConversion(cantidades[i],
+                    IndiceMonedas.obtenerCodigo(origenes[i]), IndiceMonedas.obtenerCodigo(destinos[i])));
+        }
+        double[] desdeRegistros = masivo.convertir(registros.spliterator());
+        System.out.println((Arrays.equals(Arrays.copyOf(salida, registros.size()), desdeRegistros) ? "✅" : "❌")
+                + " Masivo desde Spliterator conserva el orden de los registros");
+        // Sin tamaños por división (ej: registros leídos de un archivo) se juntan los tramos al final
+        double[] sinTamanio = masivo.convertir(Spliterators.spliteratorUnknownSize(registros.iterator(),
+                Spliterator.ORDERED));
+        System.out.println((Arrays.equals(desdeRegistros, sinTamanio) ? "✅" : "❌")
+                + " Masivo desde un Spliterator sin tamaño conocido da el mismo resultado");
+        masivo.cerrar();
+
+        // Punto fijo: double vs longs escalados vs referencia BigDecimal
+        ConversorMonedasExacto exacto = new ConversorMonedasExacto(tasasEjemplo);
+        long[] menores = new long[ELEMENTOS];
+        for (int i = 0; i < ELEMENTOS; i++) {
+            menores[i] = Math.round(cantidades[i] * 100);
+        }
+        long[] salidaExacta = new long[ELEMENTOS];
+        medir("Double pares mixtos", () -> {
+            for (int i = 0; i < ELEMENTOS; i++) {
+                salida[i] = conversor.convertir(cantidades[i], origenes[i], destinos[i]);
+            }
+        });
+        medir("Exacto pares mixtos", () -> {
+            for (int i = 0; i < ELEMENTOS; i++) {
+                salidaExacta[i] = exacto.convertirMenores(menores[i], origenes[i], destinos[i]);
+            }
+        });
+        Map<String, BigDecimal> tasasEscaladas = new HashMap<>();
+        tasasEjemplo.forEach((codigo, tasa) -> tasasEscaladas.put(codigo,
+                BigDecimal.valueOf(tasa).setScale(ConversorMonedasExacto.ESCALA_TASA, RoundingMode.HALF_EVEN)));
+        long[] salidaReferencia = new long[ELEMENTOS];
+        medir("BigDecimal pares mixtos", () -> {
+            for (int i = 0; i < ELEMENTOS; i++) {
+                salidaReferencia[i] = convertirReferencia(menores[i], IndiceMonedas.obtenerCodigo(origenes[i]),
+                        IndiceMonedas.obtenerCodigo(destinos[i]), tasasEscaladas);
+            }
+        });
+        System.out.println((Arrays.equals(salidaExacta, salidaReferencia) ? "✅" : "❌")
+                + " Punto fijo coincide con la referencia BigDecimal");
+    }
+
+    /**
+     * Conversión de referencia con BigDecimal: mismo cálculo y redondeo que el motor de punto fijo
+     */
+    private static long convertirReferencia(long cantidadMenor, String monedaOrigen, String monedaDestino,
+                                            Map<String, BigDecimal> tasasEscaladas) {
+        if (monedaOrigen.equals(monedaDestino)) {
+            return cantidadMenor;
+        }
+        BigDecimal cantidad = BigDecimal.valueOf(cantidadMenor, ConversorMonedasExacto.exponenteMenor(monedaOrigen));
+        return cantidad.multiply(tasasEscaladas.get(monedaDestino))
+                .divide(tasasEscaladas.get(monedaOrigen), ConversorMonedasExacto.exponenteMenor(monedaDestino),
+                        RoundingMode.HALF_EVEN)
+                .unscaledValue().longValueExact();
+    }
+
+    private static void medir(String nombre, Runnable tarea) {
+        for (int i = 0; i < RONDAS_CALENTAMIENTO; i++) {
+            tarea.run();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < RONDAS_MEDICION; i++) {
+            tarea.run();
+        }
+        double nanosPorElemento = (System.nanoTime() - inicio) / (double) RONDAS_MEDICION / ELEMENTOS;
+        System.out.printf("⏱️ %-22s %8.3f ns/elemento (%,.0f conversiones/s)%n",
+                nombre, nanosPorElemento, 1e9 / nanosPorElemento);
+    }
+}
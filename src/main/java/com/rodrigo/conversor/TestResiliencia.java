@@ -0,0 +1,178 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pruebas de la capa de resiliencia contra un servidor local que inyecta fallas
+ * El modo del servidor cambia entre pruebas: respuestas rápidas, una de cada dos lenta,
+ * todas colgadas o todas con 503. /v6/latest/XXX siempre responde 404.
+ */
+public class TestResiliencia {
+
+    private enum Falla { NINGUNA, IMPARES_LENTAS, COLGADO, CAIDO }
+
+    private static volatile Falla falla = Falla.NINGUNA;
+    private static final AtomicInteger recibidas = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO RESILIENCIA DEL PROVEEDOR DE TASAS");
+        System.out.println("==============================================");
+
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/v6/latest/", TestResiliencia::atender);
+        servidor.start();
+        SolicitudHTTP solicitud = new SolicitudHTTP(
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v6/latest/");
+        CircuitoProveedor circuito = new CircuitoProveedor(10, 5, 0.5, Duration.ofMillis(500), Clock.systemUTC());
+        SolicitudResiliente resiliente = new SolicitudResiliente(solicitud, circuito, Duration.ofMillis(400));
+
+        try {
+            // Calentamiento fuera de la capa de resiliencia: la carga de clases no entra en el plazo de 400 ms
+            solicitud.obtenerTasasAnalizadas("USD");
+
+            // Prueba 1: proveedor sano, se aprende la latencia normal
+            System.out.println("\n📈 PRUEBA 1: Proveedor sano");
+            for (int i = 0; i < 30; i++) {
+                resiliente.obtenerTasas("USD");
+            }
+            System.out.println("   ⏱️ " + resiliente.obtenerLatencias().resumen());
+            System.out.println("   👯 Retardo del duplicado: " + resiliente.obtenerRetardoDuplicado().toMillis() + " ms");
+            verificar(resiliente.obtenerRetardoDuplicado().toMillis() < SolicitudResiliente.RETARDO_DUPLICADO_INICIAL
+                    .toMillis(), "El retardo del duplicado sale del p95 observado");
+            verificar(resiliente.obtenerDuplicadosEnviados() == 0, "Sin duplicados con el proveedor sano");
+
+            // Prueba 2: cola lenta, los duplicados la recortan
+            System.out.println("\n🐢 PRUEBA 2: Una de cada dos solicitudes tarda 1 s");
+            falla = Falla.IMPARES_LENTAS;
+            long peorMillis = 0;
+            for (int i = 0; i < 10; i++) {
+                long inicio = System.nanoTime();
+                resiliente.obtenerTasas("USD");
+                peorMillis = Math.max(peorMillis, (System.nanoTime() - inicio) / 1_000_000);
+            }
+            System.out.println("   ⏱️ Peor llamada: " + peorMillis + " ms");
+            verificar(resiliente.obtenerDuplicadosGanadores() > 0, "Los duplicados ganaron "
+                    + resiliente.obtenerDuplicadosGanadores() + " de " + resiliente.obtenerDuplicadosEnviados());
+            verificar(peorMillis < 300, "La latencia de cola queda acotada lejos de 1 s");
+            verificar(resiliente.obtenerPlazosVencidos() == 0, "Ninguna llamada agotó su plazo");
+
+            // Prueba 3: proveedor colgado, el plazo manda y se usa el respaldo
+            System.out.println("\n⏰ PRUEBA 3: Proveedor colgado");
+            falla = Falla.COLGADO;
+            TasasAnalizadas buenas = resiliente.obtenerTasas("USD");
+            long inicio = System.nanoTime();
+            TasasAnalizadas respaldo = resiliente.obtenerTasas("USD");
+            long millis = (System.nanoTime() - inicio) / 1_000_000;
+            verificar(millis < 600, "La llamada respeta el plazo de 400 ms (" + millis + " ms)");
+            verificar(respaldo.obtenerTasa("ARS") == buenas.obtenerTasa("ARS") && resiliente.obtenerRespaldosUsados() > 0,
+                    "Devuelve las últimas tasas buenas");
+            verificar(respaldo.esRespaldo() && respaldo.aRespuestaAPI().esRespaldo(),
+                    "Marcadas como respaldo, también en RespuestaAPI");
+
+            // Prueba 4: proveedor caído, el circuito se abre
+            System.out.println("\n🔌 PRUEBA 4: Proveedor caído (503)");
+            falla = Falla.CAIDO;
+            for (int i = 0; i < 5 && circuito.obtenerEstado() == CircuitoProveedor.Estado.CERRADO; i++) {
+                resiliente.obtenerTasas("USD");
+            }
+            verificar(circuito.obtenerEstado() == CircuitoProveedor.Estado.ABIERTO, "El circuito se abrió ("
+                    + String.format("%.0f%%", circuito.obtenerTasaFallos() * 100) + " de fallos)");
+            int antes = recibidas.get();
+            inicio = System.nanoTime();
+            TasasAnalizadas conCircuitoAbierto = resiliente.obtenerTasas("USD");
+            millis = (System.nanoTime() - inicio) / 1_000_000;
+            verificar(recibidas.get() == antes && millis < 50, "Con el circuito abierto no se llama al proveedor");
+            verificar(conCircuitoAbierto == respaldo, "Y se responde con el respaldo");
+            try {
+                resiliente.obtenerTasas("EUR");
+                verificar(false, "Una base sin respaldo debería fallar");
+            } catch (ErrorProveedorTasas e) {
+                verificar(e.obtenerMotivo() == ErrorProveedorTasas.Motivo.CIRCUITO_ABIERTO,
+                        "Una base sin respaldo falla con motivo " + e.obtenerMotivo());
+            }
+
+            // Prueba 5: recuperación tras la apertura
+            System.out.println("\n🔁 PRUEBA 5: El proveedor se recupera");
+            falla = Falla.NINGUNA;
+            Thread.sleep(600);
+            resiliente.obtenerTasas("USD");
+            verificar(circuito.obtenerEstado() == CircuitoProveedor.Estado.CERRADO, "La llamada de prueba cerró el circuito");
+
+            // Prueba 6: errores que no son del proveedor
+            System.out.println("\n🚫 PRUEBA 6: Moneda inexistente");
+            try {
+                resiliente.obtenerTasas("XXX");
+                verificar(false, "XXX debería fallar");
+            } catch (ErrorProveedorTasas e) {
+                verificar(e.obtenerCodigoHttp() == 404 && !e.esTransitorio(), "Error tipado: " + e.getMessage());
+            }
+            verificar(circuito.obtenerTasaFallos() == 0, "Un 404 no cuenta como caída del proveedor");
+
+            System.out.println();
+            resiliente.mostrarEstadisticas();
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static void atender(HttpExchange intercambio) throws IOException {
+        int numero = recibidas.incrementAndGet();
+        String base = intercambio.getRequestURI().getPath().substring("/v6/latest/".length());
+        try {
+            if ("XXX".equals(base)) {
+                responder(intercambio, 404, "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}");
+                return;
+            }
+            switch (falla) {
+                case IMPARES_LENTAS:
+                    if (numero % 2 == 1) {
+                        Thread.sleep(1_000);
+                    }
+                    break;
+                case COLGADO:
+                    Thread.sleep(3_000);
+                    break;
+                case CAIDO:
+                    responder(intercambio, 503, "{\"result\":\"error\"}");
+                    return;
+                default:
+                    break;
+            }
+            responder(intercambio, 200, "{\"result\":\"success\",\"base_code\":\"" + base
+                    + "\",\"rates\":{\"" + base + "\":1,\"ARS\":1292.33}}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // El cliente canceló el intercambio (duplicado perdedor o plazo vencido)
+        }
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
@@ -0,0 +1,138 @@
+package com.rodrigo.conversor;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pruebas del servidor de conversión: rutas, errores, tabla preserializada, métricas y carga
+ */
+public class TestServidorConversion {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO SERVIDOR DE CONVERSIÓN");
+        System.out.println("==================================");
+
+        ConversorMonedas conversor = new ConversorMonedas(Map.of("USD", 1.0, "EUR", 0.86, "ARS", 1292.33));
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        try (ServidorConversion servidor = new ServidorConversion(conversor,
+                new InetSocketAddress("127.0.0.1", 0), ModoEjecucion.VIRTUAL)) {
+            servidor.iniciar();
+            String url = "http://127.0.0.1:" + servidor.obtenerPuerto();
+
+            // Prueba 1: una conversión
+            System.out.println("\n💱 PRUEBA 1: GET /convertir");
+            HttpResponse<String> respuesta = get(cliente, url + "/convertir?de=USD&a=ARS&cantidad=100");
+            System.out.println("   " + respuesta.body());
+            RespuestaJson json = RespuestaJson.leer(respuesta.body());
+            verificar(respuesta.statusCode() == 200 && json.resultado == conversor.convertir(100, "USD", "ARS"),
+                    "El resultado coincide con ConversorMonedas");
+            verificar(json.tasa == conversor.obtenerTasaConversion("USD", "ARS"), "Incluye la tasa cruzada");
+
+            // Prueba 2: errores
+            System.out.println("\n⚠️ PRUEBA 2: Errores");
+            verificar(get(cliente, url + "/convertir?de=USD&a=XYZ&cantidad=1").statusCode() == 400,
+                    "Moneda inexistente: 400");
+            verificar(get(cliente, url + "/convertir?de=USD&a=EUR&cantidad=abc").statusCode() == 400,
+                    "Cantidad inválida: 400");
+            verificar(get(cliente, url + "/convertir?de=USD").statusCode() == 400, "Faltan parámetros: 400");
+            HttpResponse<String> desborde = get(cliente, url + "/convertir?de=USD&a=ARS&cantidad=1e308");
+            verificar(desborde.statusCode() == 400 && !desborde.body().contains("Infinity"),
+                    "Resultado que desborda: 400 (" + desborde.body() + ")");
+            verificar(get(cliente, url + "/convertir/lote").statusCode() == 405, "GET al lote: 405");
+            verificar(get(cliente, url + "/otra").statusCode() == 404, "Ruta inexistente: 404");
+
+            // Prueba 3: lote
+            System.out.println("\n📦 PRUEBA 3: POST /convertir/lote");
+            HttpResponse<String> lote = post(cliente, url + "/convertir/lote",
+                    "[{\"de\":\"USD\",\"a\":\"ARS\",\"cantidad\":100},{\"de\":\"EUR\",\"a\":\"USD\",\"cantidad\":8.6}]");
+            System.out.println("   " + lote.body());
+            verificar(lote.statusCode() == 200 && lote.body().equals("{\"resultados\":["
+                    + conversor.convertir(100, "USD", "ARS") + "," + conversor.convertir(8.6, "EUR", "USD") + "]}"),
+                    "Cada elemento con su par de monedas");
+            HttpResponse<String> loteMalo = post(cliente, url + "/convertir/lote",
+                    "[{\"de\":\"USD\",\"a\":\"ARS\",\"cantidad\":1},{\"de\":\"USD\",\"a\":\"ARS\"}]");
+            verificar(loteMalo.statusCode() == 400, "Un elemento incompleto rechaza el lote: " + loteMalo.body());
+            verificar(post(cliente, url + "/convertir/lote", "{no es json").statusCode() == 400, "JSON mal formado: 400");
+            verificar(post(cliente, url + "/convertir/lote", "[{\"de\":USD,\"a\":\"ARS\",\"cantidad\":1}]")
+                    .statusCode() == 400, "Código sin comillas: 400");
+            verificar(post(cliente, url + "/convertir/lote", "[{\"de\":\"USD\",\"a\":\"ARS\",\"cantidad\":1e400}]")
+                    .statusCode() == 400, "Cantidad infinita: 400");
+            verificar(post(cliente, url + "/convertir/lote", "[{\"de\":\"USD\",\"a\":").statusCode() == 400,
+                    "Cuerpo truncado: 400");
+            verificar(post(cliente, url + "/convertir/lote", "[{\"de\":\"USD\",\"a\":\"ARS\",\"cantidad\":1e308}]")
+                    .statusCode() == 400, "Resultado que desborda en el lote: 400");
+            HttpResponse<String> objeto = post(cliente, url + "/convertir/lote", "{}");
+            verificar(objeto.statusCode() == 400 && JsonParser.parseString(objeto.body()).getAsJsonObject()
+                    .get("error").getAsString().contains("\n"), "El mensaje de error es JSON válido");
+
+            // Prueba 4: tabla preserializada, se renueva al publicar tasas nuevas
+            System.out.println("\n📋 PRUEBA 4: GET /tasas");
+            TasasAnalizadas tasas = TasasAnalizadas.analizar(get(cliente, url + "/tasas").body());
+            verificar(tasas.cantidadTasas() == 3 && tasas.obtenerTasa("ARS") == 1292.33,
+                    "La tabla se lee con el mismo analizador que la API");
+            conversor.actualizarTasas(Map.of("USD", 1.0, "EUR", 0.9, "ARS", 1300.0));
+            tasas = TasasAnalizadas.analizar(get(cliente, url + "/tasas").body());
+            verificar(tasas.obtenerTasa("ARS") == 1300.0, "Tras publicar tasas nuevas se sirven las nuevas");
+
+            // Prueba 5: métricas
+            System.out.println("\n📊 PRUEBA 5: GET /metricas");
+            String metricas = get(cliente, url + "/metricas").body();
+            verificar(metricas.contains("conversor_solicitudes_total{ruta=\"/convertir\"} 5"),
+                    "Cuenta las solicitudes por ruta");
+            verificar(metricas.contains("conversor_errores_total{ruta=\"/convertir\"} 4"), "Y los errores");
+            verificar(metricas.contains("conversor_solicitudes_total{ruta=\"/convertir/lote\"} 9")
+                    && metricas.contains("conversor_errores_total{ruta=\"/convertir/lote\"} 8"),
+                    "Los lotes rechazados también se cuentan");
+            verificar(metricas.contains("conversor_latencia_p99_us{ruta=\"/tasas\"}"), "Expone p50 y p99");
+
+            // Prueba 6: carga
+            System.out.println("\n🚀 PRUEBA 6: Carga con conexiones persistentes");
+            InetSocketAddress destino = new InetSocketAddress("127.0.0.1", servidor.obtenerPuerto());
+            List<String> rutas = List.of("/convertir?de=USD&a=ARS&cantidad=100", "/convertir?de=EUR&a=USD&cantidad=3");
+            GeneradorCarga.ejecutar(destino, rutas, 32, Duration.ofSeconds(1));
+            GeneradorCarga.Resultado resultado = GeneradorCarga.ejecutar(destino, rutas, 32, Duration.ofSeconds(3));
+            resultado.mostrar();
+            verificar(resultado.errores() == 0, "Sin errores bajo carga");
+            verificar(resultado.solicitudesPorSegundo() > 2_000, "Más de 2.000 solicitudes/s en esta máquina");
+
+            System.out.println();
+            servidor.mostrarEstadisticas();
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    /**
+     * Campos numéricos de la respuesta de /convertir
+     */
+    private static final class RespuestaJson {
+        double resultado;
+        double tasa;
+
+        static RespuestaJson leer(String json) {
+            return new Gson().fromJson(json, RespuestaJson.class);
+        }
+    }
+
+    private static HttpResponse<String> get(HttpClient cliente, String url) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> post(HttpClient cliente, String url, String cuerpo) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}
@@ -0,0 +1,194 @@
+package com.rodrigo.conversor;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import javax.net.ssl.SSLSession;
+
+/**
+ * Compara el análisis en una pasada de TasasAnalizadas con el camino anterior
+ * (árbol JsonObject + Gson.fromJson) sobre un cuerpo con la forma de la API, sin red,
+ * y verifica que RespuestaHTTP analice ese cuerpo de forma perezosa y una sola vez.
+ */
+public class TestTasasAnalizadas {
+
+    private static final int REPETICIONES = 20_000;
+
+    public static void main(String[] args) {
+        System.out.println("🧪 PROBANDO ANÁLISIS DE TASAS EN UNA PASADA");
+        System.out.println("===========================================");
+
+        String json = crearCuerpo(166);
+
+        // Prueba 1: mismos valores que Gson
+        System.out.println("\n🔍 PRUEBA 1: Equivalencia con Gson");
+        TasasAnalizadas analizadas = TasasAnalizadas.analizar(json);
+        RespuestaAPI esperada = new Gson().fromJson(json, RespuestaAPI.class);
+        RespuestaAPI obtenida = analizadas.aRespuestaAPI();
+        verificar(esperada.getTasasConversion().equals(obtenida.getTasasConversion()), "Mismas tasas que Gson.fromJson");
+        verificar(esperada.getCodigoBase().equals(obtenida.getCodigoBase())
+                && esperada.getProximaActualizacionUnix() == obtenida.getProximaActualizacionUnix()
+                && esperada.getUltimaActualizacionUTC().equals(obtenida.getUltimaActualizacionUTC()),
+                "Mismos metadatos que Gson.fromJson");
+        ConversorMonedas desdeMapa = new ConversorMonedas(esperada.getTasasConversion());
+        ConversorMonedas desdeArreglos = new ConversorMonedas(analizadas.crearTabla());
+        verificar(desdeMapa.convertir(100, "EUR", "JPY") == desdeArreglos.convertir(100, "EUR", "JPY"),
+                "La tabla armada desde arreglos convierte igual");
+
+        // Prueba 2: respuesta de error de la API
+        System.out.println("\n⚠️ PRUEBA 2: Respuesta de error");
+        TasasAnalizadas error = TasasAnalizadas.analizar(
+                "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}");
+        verificar("unsupported-code".equals(error.obtenerTipoError()) && error.cantidadTasas() == 0,
+                "Se lee el tipo de error sin tasas");
+
+        // Prueba 3: tiempo y memoria por respuesta
+        System.out.println("\n⏱️ PRUEBA 3: Costo por respuesta");
+        double[] anterior = medir(() -> {
+            JsonObject arbol = JsonParser.parseString(json).getAsJsonObject();
+            RespuestaAPI pojo = new Gson().fromJson(json, RespuestaAPI.class);
+            return arbol.size() + pojo.getTasasConversion().size();
+        });
+        double[] nuevo = medir(() -> {
+            TasasAnalizadas resultado = TasasAnalizadas.analizar(json);
+            return resultado.cantidadTasas() + resultado.idEn(0);
+        });
+        System.out.printf("   Árbol + Gson:       %8.1f µs  %,10.0f bytes%n", anterior[0], anterior[1]);
+        System.out.printf("   Una pasada:         %8.1f µs  %,10.0f bytes%n", nuevo[0], nuevo[1]);
+        System.out.printf("   Mejora: %.1fx tiempo, %.1fx memoria%n", anterior[0] / nuevo[0], anterior[1] / nuevo[1]);
+
+        // Prueba 4: RespuestaHTTP analiza el cuerpo sólo cuando hace falta y una sola vez
+        System.out.println("\n💤 PRUEBA 4: Análisis perezoso en RespuestaHTTP");
+        RespuestaSimulada simulada = new RespuestaSimulada(200, json);
+        RespuestaHTTP respuesta = new RespuestaHTTP(simulada);
+        respuesta.esExitosa();
+        respuesta.obtenerMensajeEstado();
+        respuesta.obtenerHeader("content-type");
+        verificar(simulada.lecturasCuerpo.get() == 0, "Estado y headers no leen el cuerpo");
+
+        RespuestaAPI[] vistas = new RespuestaAPI[8];
+        Thread[] hilos = new Thread[vistas.length];
+        for (int i = 0; i < hilos.length; i++) {
+            int indice = i;
+            hilos[i] = Thread.ofPlatform().start(() -> vistas[indice] = respuesta.obtenerComoRespuestaAPI());
+        }
+        for (Thread hilo : hilos) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        boolean misma = true;
+        for (RespuestaAPI vista : vistas) {
+            misma &= vista == vistas[0];
+        }
+        respuesta.extraerInformacionMoneda();
+        verificar(misma, "Todos los hilos reciben la misma RespuestaAPI");
+        verificar(simulada.lecturasCuerpo.get() == 1, "El cuerpo se analiza una sola vez");
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static String crearCuerpo(int monedas) {
+        Random aleatorio = new Random(7);
+        StringBuilder json = new StringBuilder(8192);
+        json.append("{\"result\":\"success\",\"provider\":\"https://www.exchangerate-api.com\",")
+                .append("\"documentation\":\"https://www.exchangerate-api.com/docs/free\",")
+                .append("\"terms_of_use\":\"https://www.exchangerate-api.com/terms\",")
+                .append("\"time_last_update_unix\":1735689751,")
+                .append("\"time_last_update_utc\":\"Wed, 01 Jan 2025 00:02:31 +0000\",")
+                .append("\"time_next_update_unix\":1735777561,")
+                .append("\"time_next_update_utc\":\"Thu, 02 Jan 2025 00:26:01 +0000\",")
+                .append("\"time_eol_unix\":0,\"base_code\":\"USD\",\"rates\":{\"USD\":1");
+        String[] conocidas = {"EUR", "JPY", "GBP", "ARS", "BRL", "CLP", "KWD"};
+        for (int i = 0; i < monedas - 1; i++) {
+            String codigo = i < conocidas.length ? conocidas[i]
+                    : "" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26) + 'Q';
+            json.append(",\"").append(codigo).append("\":")
+                    .append(String.format(Locale.ROOT, "%.6f", aleatorio.nextDouble() * 5_000));
+        }
+        return json.append("}}").toString();
+    }
+
+    private static double[] medir(IntSupplier tarea) {
+        ThreadMXBean hilos = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long control = 0;
+        for (int i = 0; i < REPETICIONES; i++) {
+            control += tarea.getAsInt();
+        }
+        long hilo = Thread.currentThread().threadId();
+        long bytesAntes = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            control += tarea.getAsInt();
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesAntes;
+        if (control == 42) {
+            System.out.println();
+        }
+        return new double[]{nanos / 1e3 / REPETICIONES, (double) bytes / REPETICIONES};
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+
+    /**
+     * HttpResponse en memoria que cuenta cuántas veces se lee el cuerpo
+     */
+    private static final class RespuestaSimulada implements HttpResponse<String> {
+        final AtomicInteger lecturasCuerpo = new AtomicInteger();
+        private final int codigo;
+        private final String cuerpo;
+
+        RespuestaSimulada(int codigo, String cuerpo) {
+            this.codigo = codigo;
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public int statusCode() { return codigo; }
+
+        @Override
+        public HttpRequest request() { return HttpRequest.newBuilder(uri()).build(); }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() { return Optional.empty(); }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of("content-type", List.of("application/json")), (nombre, valor) -> true);
+        }
+
+        @Override
+        public String body() {
+            lecturasCuerpo.incrementAndGet();
+            return cuerpo;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() { return Optional.empty(); }
+
+        @Override
+        public URI uri() { return URI.create("https://open.er-api.com/v6/latest/USD"); }
+
+        @Override
+        public HttpClient.Version version() { return HttpClient.Version.HTTP_1_1; }
+    }
+}
@@ -0,0 +1,110 @@
+package com.rodrigo.conversor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pruebas de la descarga concurrente de varias monedas base contra un servidor local
+ * USD, EUR, BRL y GBP responden en 200 ms, ARS responde 404 y JPY tarda 3 segundos.
+ */
+public class TestVariasBases {
+
+    private static final AtomicInteger enCurso = new AtomicInteger();
+    private static final AtomicInteger maximoObservado = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧪 PROBANDO DESCARGA DE VARIAS MONEDAS BASE");
+        System.out.println("===========================================");
+
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/v6/latest/", intercambio -> {
+            String base = intercambio.getRequestURI().getPath().substring("/v6/latest/".length());
+            maximoObservado.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep("JPY".equals(base) ? 3_000 : 200);
+                if ("ARS".equals(base)) {
+                    responder(intercambio, 404, "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}");
+                } else {
+                    responder(intercambio, 200, "{\"result\":\"success\",\"base_code\":\"" + base
+                            + "\",\"rates\":{\"" + base + "\":1,\"XAU\":0.0004}}");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                enCurso.decrementAndGet();
+            }
+        });
+        servidor.start();
+        SolicitudHTTP solicitud = new SolicitudHTTP(
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/v6/latest/");
+
+        try {
+            // Una solicitud de calentamiento para no medir la carga de clases ni la primera conexión
+            solicitud.obtenerTasasAnalizadas("USD");
+
+            // Prueba 1: cuatro bases con límite de dos en vuelo
+            System.out.println("\n🚀 PRUEBA 1: Cuatro bases, máximo dos simultáneas");
+            long inicio = System.nanoTime();
+            ResultadoVariasBases resultado = solicitud.obtenerVariasBasesAsync(List.of("USD", "EUR", "BRL", "GBP"),
+                    2, Duration.ofSeconds(2), Duration.ofSeconds(5)).join();
+            long millis = (System.nanoTime() - inicio) / 1_000_000;
+            resultado.mostrarResumen();
+            verificar(resultado.estaCompleto(), "Llegaron las cuatro bases");
+            verificar(maximoObservado.get() <= 2, "Nunca hubo más de dos solicitudes en vuelo (máximo "
+                    + maximoObservado.get() + ")");
+            verificar(millis < 4 * 200, "Más rápido que cuatro viajes en serie (" + millis + " ms)");
+
+            // Prueba 2: fallos parciales y timeout por base
+            System.out.println("\n⚠️ PRUEBA 2: Error 404 y base lenta");
+            resultado = solicitud.obtenerVariasBasesAsync(List.of("USD", "ARS", "JPY"),
+                    4, Duration.ofMillis(800), Duration.ofSeconds(5)).join();
+            resultado.mostrarResumen();
+            verificar(resultado.obtenerExitosas().containsKey("USD"), "USD llega aunque fallen las demás");
+            verificar(resultado.obtenerFallidas().get("ARS") instanceof RuntimeException, "ARS falla con el código HTTP");
+            verificar(resultado.obtenerFallidas().get("JPY") instanceof TimeoutException, "JPY vence por timeout propio");
+
+            // Prueba 3: plazo total
+            System.out.println("\n⏰ PRUEBA 3: Plazo total más corto que la base lenta");
+            inicio = System.nanoTime();
+            resultado = solicitud.obtenerVariasBasesAsync(List.of("EUR", "JPY"),
+                    4, Duration.ofSeconds(10), Duration.ofMillis(600)).join();
+            millis = (System.nanoTime() - inicio) / 1_000_000;
+            resultado.mostrarResumen();
+            verificar(millis < 1_500, "El conjunto respeta el plazo total (" + millis + " ms)");
+            verificar(resultado.obtenerExitosas().containsKey("EUR")
+                    && resultado.obtenerFallidas().get("JPY") instanceof TimeoutException,
+                    "Resultado parcial: EUR presente, JPY vencida");
+        } finally {
+            servidor.stop(0);
+            hilosServidor.shutdownNow();
+        }
+
+        System.out.println("\n🎉 Pruebas completadas!");
+    }
+
+    private static void responder(HttpExchange intercambio, int codigo, String cuerpo)
+            throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().add("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private static void verificar(boolean condicion, String descripcion) {
+        System.out.println((condicion ? "✅ " : "❌ ") + descripcion);
+    }
+}